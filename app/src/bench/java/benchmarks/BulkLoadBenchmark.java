@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import structures.RedBlackTree;
+
+/**
+ * Builds a {@link RedBlackTree} of {@link #KEYS} sorted keys by repeated inserts, by {@code
+ * fromSorted} and by {@code fromSortedRuns} from {@link #RUNS} interleaved runs.
+ *
+ * <p>Run with {@code ./gradlew bench -PbenchClass=benchmarks.BulkLoadBenchmark}.
+ *
+ * @author André Gabriel
+ */
+public final class BulkLoadBenchmark {
+
+  private static final int KEYS = 1 << 22;
+  private static final int RUNS = 8;
+  private static final int WARMUP_ROUNDS = 2;
+  private static final int ROUNDS = 5;
+
+  /** Keeps the trees alive. */
+  private static Object sink;
+
+  private BulkLoadBenchmark() {}
+
+  public static void main(String[] args) {
+    Integer[] keys = new Integer[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = i;
+    }
+    // The run r holds the keys equal to r modulo RUNS, as the sorted output of RUNS workers.
+    List<Integer[]> runs = new ArrayList<>();
+    for (int r = 0; r < RUNS; r++) {
+      Integer[] run = new Integer[KEYS / RUNS];
+      for (int i = 0; i < run.length; i++) {
+        run[i] = keys[i * RUNS + r];
+      }
+      runs.add(run);
+    }
+    System.out.printf(
+        "%-22s %10s   (%d keys, %d threads)%n",
+        "build", "ms", KEYS, Runtime.getRuntime().availableProcessors());
+    run(
+        "insert",
+        () -> {
+          RedBlackTree<Integer, Integer> tree = new RedBlackTree<>();
+          for (Integer key : keys) {
+            tree.insert(key, key);
+          }
+          return tree;
+        });
+    run("fromSorted", () -> RedBlackTree.fromSorted(keys, keys));
+    run("fromSortedRuns(" + RUNS + ")", () -> RedBlackTree.fromSortedRuns(runs, runs));
+  }
+
+  private static void run(String name, Supplier<RedBlackTree<Integer, Integer>> build) {
+    long[] times = new long[ROUNDS];
+    for (int r = -WARMUP_ROUNDS; r < ROUNDS; r++) {
+      sink = null;
+      long start = System.nanoTime();
+      RedBlackTree<Integer, Integer> tree = build.get();
+      long time = System.nanoTime() - start;
+      if (tree.size() != KEYS) {
+        throw new IllegalStateException(name + " built " + tree.size() + " keys");
+      }
+      sink = tree;
+      if (r >= 0) {
+        times[r] = time;
+      }
+    }
+    Arrays.sort(times);
+    System.out.printf("%-22s %10.1f%n", name, times[ROUNDS / 2] / 1e6);
+  }
+}
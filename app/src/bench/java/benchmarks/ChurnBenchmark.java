@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import structures.Dictionary;
+import structures.HashStrategies;
+import structures.HashTableLinear;
+import structures.HashTableList;
+
+/**
+ * Measures the time and the heap allocated per operation of a churn, where each insertion of a new
+ * key follows the removal of the oldest one, so the tables keep {@link #LIVE} keys.
+ *
+ * <p>The tables are run with and without recycling their removed entries. The keys and values are
+ * boxed before the runs, so only the tables allocate. The allocated bytes are read from the thread
+ * counters of {@link com.sun.management.ThreadMXBean}, the figure JMH's GC profiler reports as
+ * {@code gc.alloc.rate.norm}.
+ *
+ * <p>Run with {@code ./gradlew bench -PbenchClass=benchmarks.ChurnBenchmark}.
+ *
+ * @author André Gabriel
+ */
+public final class ChurnBenchmark {
+
+  private static final int LIVE = 1 << 16;
+  private static final int KEYS = 1 << 22;
+  private static final int POOL = 1 << 18;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int ROUNDS = 7;
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  /** Keeps the results alive. */
+  private static long sink;
+
+  private ChurnBenchmark() {}
+
+  /** A bijection on the ints, so the keys are distinct and spread over all the bits. */
+  private static int mix(int x) {
+    x *= 0x9e3779b9;
+    x ^= x >>> 15;
+    x *= 0x85ebca6b;
+    return x ^ (x >>> 13);
+  }
+
+  public static void main(String[] args) {
+    Integer[] keys = new Integer[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = mix(i);
+    }
+    System.out.printf("%-24s %10s %12s   (%d live keys)%n", "table", "ns/op", "bytes/op", LIVE);
+    run("HashTableList", () -> new HashTableList<>(), keys);
+    run(
+        "HashTableList(pool)",
+        () -> new HashTableList<>(16, 0.75f, HashStrategies.XOR_SHIFT, POOL),
+        keys);
+    run("HashTableLinear", () -> new HashTableLinear<>(), keys);
+    run(
+        "HashTableLinear(pool)",
+        () -> new HashTableLinear<>(16, 0.75f, HashStrategies.XOR_SHIFT, POOL),
+        keys);
+  }
+
+  private static void run(
+      String name, Supplier<Dictionary<Integer, Integer>> kind, Integer[] keys) {
+    long[] times = new long[ROUNDS], bytes = new long[ROUNDS];
+    long thread = Thread.currentThread().getId();
+    for (int r = -WARMUP_ROUNDS; r < ROUNDS; r++) {
+      Dictionary<Integer, Integer> table = kind.get();
+      for (int i = 0; i < LIVE; i++) {
+        table.insert(keys[i], keys[i]);
+      }
+      long allocated = THREADS.getThreadAllocatedBytes(thread);
+      long start = System.nanoTime();
+      for (int i = LIVE; i < KEYS; i++) {
+        table.remove(keys[i - LIVE]);
+        table.insert(keys[i], keys[i]);
+      }
+      long time = System.nanoTime() - start;
+      allocated = THREADS.getThreadAllocatedBytes(thread) - allocated;
+      if (table.size() != LIVE) {
+        throw new IllegalStateException(name + " kept " + table.size() + " keys");
+      }
+      sink += table.size();
+      if (r >= 0) {
+        times[r] = time;
+        bytes[r] = allocated;
+      }
+    }
+    Arrays.sort(times);
+    Arrays.sort(bytes);
+    long ops = 2L * (KEYS - LIVE);
+    System.out.printf(
+        "%-24s %10.1f %12.2f%n",
+        name, (double) times[ROUNDS / 2] / ops, (double) bytes[ROUNDS / 2] / ops);
+  }
+}
@@ -0,0 +1,113 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import structures.CompactStringTable;
+import structures.Dictionary;
+import structures.HashTableLinear;
+import structures.HashTableList;
+
+/**
+ * Compares the heap taken per entry and the lookup time of {@link CompactStringTable} and of the
+ * tables of {@code String} objects, over {@link #KEYS} entries.
+ *
+ * <p>The keys look like {@code "user:1f3a9c27"} and the values like {@code "session-12345"}. They
+ * are created while a table is built, so a table keeping them pays for them. The heap taken is the
+ * heap used after a full collection, with the table minus without it. A lookup is a random key,
+ * present or not. The compact table is measured as built and after {@code trimToSize()}.
+ *
+ * <p>Run with {@code ./gradlew bench -PbenchClass=benchmarks.CompactTableBenchmark}.
+ *
+ * @author André Gabriel
+ */
+public final class CompactTableBenchmark {
+
+  private static final int KEYS = 1 << 20;
+  private static final int LOOKUPS = 1 << 21;
+  private static final int WARMUP_ROUNDS = 2;
+  private static final int ROUNDS = 5;
+
+  private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+  /** Keeps the results alive. */
+  private static long sink;
+
+  private CompactTableBenchmark() {}
+
+  /** A bijection on the ints, so the keys are distinct and spread over all the bits. */
+  private static int mix(int x) {
+    x *= 0x9e3779b9;
+    x ^= x >>> 15;
+    x *= 0x85ebca6b;
+    return x ^ (x >>> 13);
+  }
+
+  private static String key(int i) {
+    return "user:" + Integer.toHexString(mix(i));
+  }
+
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return MEMORY.getHeapMemoryUsage().getUsed();
+  }
+
+  public static void main(String[] args) {
+    // The keys below 2 * KEYS, half of the lookups miss.
+    String[] lookups = new String[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      lookups[i] = key(mix(i + KEYS) & (2 * KEYS - 1));
+    }
+    System.out.printf("%-26s %14s %12s   (%d keys)%n", "table", "bytes/entry", "lookup ns", KEYS);
+    run("HashTableList", HashTableList::new, table -> {}, lookups);
+    run("HashTableLinear", HashTableLinear::new, table -> {}, lookups);
+    run("CompactStringTable", CompactStringTable::new, table -> {}, lookups);
+    run(
+        "CompactStringTable(trim)",
+        CompactStringTable::new,
+        table -> ((CompactStringTable) table).trimToSize(),
+        lookups);
+  }
+
+  private static void run(
+      String name,
+      Supplier<Dictionary<String, String>> kind,
+      Consumer<Dictionary<String, String>> finish,
+      String[] lookups) {
+    long[] bytes = new long[ROUNDS], times = new long[ROUNDS];
+    for (int r = -WARMUP_ROUNDS; r < ROUNDS; r++) {
+      long before = usedHeap();
+      Dictionary<String, String> table = kind.get();
+      for (int i = 0; i < KEYS; i++) {
+        table.insert(key(i), "session-" + i);
+      }
+      finish.accept(table);
+      long taken = usedHeap() - before;
+      long start = System.nanoTime();
+      long hits = 0;
+      for (String key : lookups) {
+        if (table.get(key) != null) {
+          hits++;
+        }
+      }
+      long time = System.nanoTime() - start;
+      if (table.size() != KEYS) {
+        throw new IllegalStateException(name + " kept " + table.size() + " keys");
+      }
+      sink += hits;
+      if (r >= 0) {
+        bytes[r] = taken;
+        times[r] = time;
+      }
+    }
+    Arrays.sort(bytes);
+    Arrays.sort(times);
+    System.out.printf(
+        "%-26s %14.1f %12.1f%n",
+        name, (double) bytes[ROUNDS / 2] / KEYS, (double) times[ROUNDS / 2] / LOOKUPS);
+  }
+}
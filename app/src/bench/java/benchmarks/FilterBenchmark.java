@@ -0,0 +1,125 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import structures.BlockedBloomFilter;
+import structures.CountingBloomFilter;
+import structures.Dictionary;
+import structures.FilteredDictionary;
+import structures.HashTableLinear;
+import structures.HashTableList;
+
+/**
+ * Measures {@code containsKey} on a workload of 80% misses, with and without a filter in front.
+ *
+ * <p>Every table is created with a fixed capacity and filled up to the load, then it is probed with
+ * a mix of absent and present keys in a random order. The filter pays off when a miss costs more
+ * than the cache miss of the filter, on long probe sequences or long chains. The filtered tables
+ * report the measured false positive rate of the run.
+ *
+ * <p>Run with {@code ./gradlew bench -PbenchClass=benchmarks.FilterBenchmark}.
+ *
+ * @author André Gabriel
+ */
+public final class FilterBenchmark {
+
+  private static final int CAPACITY = 1 << 20;
+  private static final int PROBES = 1 << 20;
+  private static final double MISS_RATIO = 0.8;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int ROUNDS = 10;
+
+  /** Keeps the results alive, so the lookups are not removed by the compiler. */
+  private static int sink;
+
+  private FilterBenchmark() {}
+
+  /** A bijection on the ints, so the keys are distinct and spread over all the bits. */
+  private static int mix(int x) {
+    x *= 0x9e3779b9;
+    x ^= x >>> 15;
+    x *= 0x85ebca6b;
+    return x ^ (x >>> 13);
+  }
+
+  public static void main(String[] args) {
+    System.out.printf("%-24s %6s %12s %10s%n", "table", "load", "ns/op", "fp rate");
+    for (float load : new float[] {0.5f, 0.9f}) {
+      bench("linear", load, () -> new HashTableLinear<>(CAPACITY, 0.99f));
+    }
+    for (float load : new float[] {0.75f, 4f}) {
+      bench("list", load, () -> new HashTableList<>(CAPACITY, load));
+    }
+    if (sink == 42) {
+      System.out.println();
+    }
+  }
+
+  /** Runs a table kind at a load, alone and behind each filter. */
+  private static void bench(
+      String name, float load, Supplier<Dictionary<Integer, Integer>> factory) {
+    int n = (int) (CAPACITY * load);
+    Integer[] present = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      present[i] = mix(i);
+    }
+    Integer[] probes = new Integer[PROBES];
+    for (int i = 0; i < PROBES; i++) {
+      boolean miss = (mix(~i) & 0xffff) < MISS_RATIO * 0x10000;
+      probes[i] = miss ? mix(n + i) : present[Integer.remainderUnsigned(mix(i * 31 + 7), n)];
+    }
+    run(name, load, factory.get(), present, probes);
+    run(
+        name + " + bloom",
+        load,
+        new FilteredDictionary<>(factory.get(), new BlockedBloomFilter<>(n, 0.01)),
+        present,
+        probes);
+    run(
+        name + " + counting",
+        load,
+        new FilteredDictionary<>(factory.get(), new CountingBloomFilter<>(n, 0.01)),
+        present,
+        probes);
+  }
+
+  private static void run(
+      String name,
+      float load,
+      Dictionary<Integer, Integer> table,
+      Integer[] present,
+      Integer[] probes) {
+    for (Integer key : present) {
+      table.insert(key, key);
+    }
+    for (int r = 0; r < WARMUP_ROUNDS; r++) {
+      probe(table, probes);
+    }
+    if (table instanceof FilteredDictionary) {
+      ((FilteredDictionary<?, ?>) table).resetStatistics();
+    }
+    long[] times = new long[ROUNDS];
+    for (int r = 0; r < ROUNDS; r++) {
+      long start = System.nanoTime();
+      probe(table, probes);
+      times[r] = System.nanoTime() - start;
+    }
+    Arrays.sort(times);
+    double median = (double) times[ROUNDS / 2] / probes.length;
+    String rate =
+        table instanceof FilteredDictionary
+            ? String.format("%.4f", ((FilteredDictionary<?, ?>) table).falsePositiveRate())
+            : "-";
+    System.out.printf("%-24s %6.2f %12.2f %10s%n", name, load, median, rate);
+  }
+
+  private static void probe(Dictionary<Integer, Integer> table, Integer[] keys) {
+    int found = 0;
+    for (Integer key : keys) {
+      if (table.containsKey(key)) {
+        found++;
+      }
+    }
+    sink += found;
+  }
+}
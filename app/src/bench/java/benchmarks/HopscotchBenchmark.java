@@ -0,0 +1,102 @@
+package benchmarks;
+
+import java.util.Arrays;
+import structures.Dictionary;
+import structures.HashTableCuckoo;
+import structures.HashTableHopscotch;
+import structures.HashTableLinear;
+
+/**
+ * Measures the latency of lookups of absent keys at high load factors.
+ *
+ * <p>Every table is created with a fixed capacity and filled up to the load factor, then it is
+ * probed with keys that are not in the table. The reported load is the real one, a table which had
+ * to grow is reported with its lower load.
+ *
+ * <p>Run with {@code ./gradlew bench -PbenchClass=benchmarks.HopscotchBenchmark}.
+ *
+ * @author André Gabriel
+ */
+public final class HopscotchBenchmark {
+
+  private static final int CAPACITY = 1 << 20;
+  private static final float[] LOADS = {0.5f, 0.75f, 0.9f, 0.95f, 0.97f};
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int ROUNDS = 10;
+
+  /** Keeps the results alive, so the lookups are not removed by the compiler. */
+  private static int sink;
+
+  private HopscotchBenchmark() {}
+
+  /** A bijection on the ints, so the keys are distinct and spread over all the bits. */
+  private static int mix(int x) {
+    x *= 0x9e3779b9;
+    x ^= x >>> 15;
+    x *= 0x85ebca6b;
+    return x ^ (x >>> 13);
+  }
+
+  public static void main(String[] args) {
+    System.out.printf("%-12s %6s %8s %12s%n", "table", "target", "load", "miss ns/op");
+    for (float load : LOADS) {
+      int n = (int) (CAPACITY * load);
+      Integer[] present = new Integer[n];
+      Integer[] absent = new Integer[n];
+      for (int i = 0; i < n; i++) {
+        present[i] = mix(i);
+        absent[i] = mix(n + i);
+      }
+      run("linear", new HashTableLinear<>(CAPACITY, 0.99f), load, present, absent);
+      run("cuckoo", new HashTableCuckoo<>(CAPACITY, 0.99f), load, present, absent);
+      run("hopscotch", new HashTableHopscotch<>(CAPACITY, 0.99f), load, present, absent);
+    }
+    if (sink == 42) {
+      System.out.println();
+    }
+  }
+
+  private static void run(
+      String name,
+      Dictionary<Integer, Integer> table,
+      float load,
+      Integer[] present,
+      Integer[] absent) {
+    for (Integer key : present) {
+      table.insert(key, key);
+    }
+    double real_load = (double) table.size() / capacity(table);
+
+    for (int r = 0; r < WARMUP_ROUNDS; r++) {
+      probe(table, absent);
+    }
+    long[] times = new long[ROUNDS];
+    for (int r = 0; r < ROUNDS; r++) {
+      long start = System.nanoTime();
+      probe(table, absent);
+      times[r] = System.nanoTime() - start;
+    }
+    Arrays.sort(times);
+    double median = (double) times[ROUNDS / 2] / absent.length;
+    System.out.printf("%-12s %6.2f %8.3f %12.2f%n", name, load, real_load, median);
+  }
+
+  private static void probe(Dictionary<Integer, Integer> table, Integer[] keys) {
+    int found = 0;
+    for (Integer key : keys) {
+      if (table.containsKey(key)) {
+        found++;
+      }
+    }
+    sink += found;
+  }
+
+  private static int capacity(Dictionary<?, ?> table) {
+    if (table instanceof HashTableLinear) {
+      return ((HashTableLinear<?, ?>) table).capacity();
+    } else if (table instanceof HashTableCuckoo) {
+      return ((HashTableCuckoo<?, ?>) table).capacity();
+    }
+    return ((HashTableHopscotch<?, ?>) table).capacity();
+  }
+}
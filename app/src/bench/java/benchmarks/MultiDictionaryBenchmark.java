@@ -0,0 +1,102 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import structures.HashTableList;
+import structures.MultiHashTableList;
+
+/**
+ * Builds an inverted index with {@link MultiHashTableList} and with a {@code HashTableList} of
+ * lists, and reports the build time and the retained heap of each.
+ *
+ * <p>The documents have {@link #TERMS_PER_DOCUMENT} terms drawn from a skewed vocabulary, so most
+ * terms have a few postings and a few terms have many, as in text.
+ *
+ * <p>Run with {@code ./gradlew bench -PbenchClass=benchmarks.MultiDictionaryBenchmark}.
+ *
+ * @author André Gabriel
+ */
+public final class MultiDictionaryBenchmark {
+
+  private static final int DOCUMENTS = 200_000;
+  private static final int TERMS_PER_DOCUMENT = 8;
+  private static final int VOCABULARY = 1 << 20;
+  private static final int ROUNDS = 7;
+
+  /** Keeps the indexes alive while the heap is measured. */
+  private static Object sink;
+
+  private MultiDictionaryBenchmark() {}
+
+  /** A bijection on the ints, so the keys are distinct and spread over all the bits. */
+  private static int mix(int x) {
+    x *= 0x9e3779b9;
+    x ^= x >>> 15;
+    x *= 0x85ebca6b;
+    return x ^ (x >>> 13);
+  }
+
+  public static void main(String[] args) {
+    Integer[] terms = new Integer[DOCUMENTS * TERMS_PER_DOCUMENT];
+    Integer[] documents = new Integer[DOCUMENTS];
+    for (int d = 0; d < DOCUMENTS; d++) {
+      documents[d] = d;
+      for (int t = 0; t < TERMS_PER_DOCUMENT; t++) {
+        // Squaring a uniform number skews the terms to the small ones.
+        double u = (mix(d * TERMS_PER_DOCUMENT + t) >>> 1) / (double) Integer.MAX_VALUE;
+        terms[d * TERMS_PER_DOCUMENT + t] = (int) (u * u * u * VOCABULARY);
+      }
+    }
+    System.out.printf("%-28s %10s %12s %14s%n", "index", "ms", "MB", "bytes/posting");
+    run("HashTableList<ArrayList>", () -> listIndex(terms, documents));
+    run("MultiHashTableList", () -> multiIndex(terms, documents));
+  }
+
+  private static Object listIndex(Integer[] terms, Integer[] documents) {
+    HashTableList<Integer, List<Integer>> index = new HashTableList<>();
+    for (int i = 0; i < terms.length; i++) {
+      Integer document = documents[i / TERMS_PER_DOCUMENT];
+      index.computeIfAbsent(terms[i], t -> new ArrayList<>()).add(document);
+    }
+    return index;
+  }
+
+  private static Object multiIndex(Integer[] terms, Integer[] documents) {
+    MultiHashTableList<Integer, Integer> index = new MultiHashTableList<>();
+    for (int i = 0; i < terms.length; i++) {
+      index.put(terms[i], documents[i / TERMS_PER_DOCUMENT]);
+    }
+    return index;
+  }
+
+  private static void run(String name, Supplier<Object> build) {
+    long[] times = new long[ROUNDS];
+    for (int r = 0; r < ROUNDS; r++) {
+      long start = System.nanoTime();
+      sink = build.get();
+      times[r] = System.nanoTime() - start;
+      sink = null;
+    }
+    Arrays.sort(times);
+    long before = usedHeap();
+    sink = build.get();
+    long retained = usedHeap() - before;
+    System.out.printf(
+        "%-28s %10.1f %12.1f %14.1f%n",
+        name,
+        times[ROUNDS / 2] / 1e6,
+        retained / 1e6,
+        (double) retained / (DOCUMENTS * TERMS_PER_DOCUMENT));
+    sink = null;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,112 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import structures.BPlusTree;
+import structures.OrderedDictionary;
+import structures.RedBlackTree;
+
+/**
+ * Compares {@link RedBlackTree} and {@link BPlusTree} of a few orders on point lookups and range
+ * scans, over {@link #KEYS} keys inserted in a random order.
+ *
+ * <p>A lookup is a random key, present or not. A scan visits the {@link #SCAN_LENGTH} keys from a
+ * random key on with {@code forEachInRange}, its time is reported per key visited.
+ *
+ * <p>Run with {@code ./gradlew bench -PbenchClass=benchmarks.OrderedDictionaryBenchmark}.
+ *
+ * @author André Gabriel
+ */
+public final class OrderedDictionaryBenchmark {
+
+  private static final int KEYS = 1 << 21;
+  private static final int LOOKUPS = 1 << 21;
+  private static final int SCANS = 1 << 14;
+  private static final int SCAN_LENGTH = 1000;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int ROUNDS = 7;
+
+  /** Keeps the results alive. */
+  private static long sink;
+
+  private OrderedDictionaryBenchmark() {}
+
+  /** A bijection on the ints, so the keys are distinct and spread over all the bits. */
+  private static int mix(int x) {
+    x *= 0x9e3779b9;
+    x ^= x >>> 15;
+    x *= 0x85ebca6b;
+    return x ^ (x >>> 13);
+  }
+
+  public static void main(String[] args) {
+    // The keys are the even numbers below 2 * KEYS, so half of the lookups miss.
+    Integer[] inserts = new Integer[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      inserts[i] = 2 * (mix(i) & (KEYS - 1));
+    }
+    Integer[] lookups = new Integer[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      lookups[i] = mix(i + KEYS) & (2 * KEYS - 1);
+    }
+    Integer[][] scans = new Integer[SCANS][2];
+    for (int i = 0; i < SCANS; i++) {
+      int lo = mix(i + 2 * KEYS) & (2 * KEYS - 1);
+      scans[i][0] = lo;
+      scans[i][1] = lo + 2 * SCAN_LENGTH - 1;
+    }
+    System.out.printf(
+        "%-16s %10s %8s %14s %14s%n", "tree", "build ms", "height", "lookup ns", "scan ns/key");
+    run("RedBlackTree", RedBlackTree::new, inserts, lookups, scans);
+    run("BPlusTree(32)", () -> new BPlusTree<>(32), inserts, lookups, scans);
+    run("BPlusTree(64)", () -> new BPlusTree<>(64), inserts, lookups, scans);
+    run("BPlusTree(128)", () -> new BPlusTree<>(128), inserts, lookups, scans);
+  }
+
+  private static void run(
+      String name,
+      Supplier<OrderedDictionary<Integer, Integer>> kind,
+      Integer[] inserts,
+      Integer[] lookups,
+      Integer[][] scans) {
+    long[] builds = new long[ROUNDS], gets = new long[ROUNDS], ranges = new long[ROUNDS];
+    long[] visited = new long[1];
+    OrderedDictionary<Integer, Integer> tree = null;
+    for (int r = -WARMUP_ROUNDS; r < ROUNDS; r++) {
+      long start = System.nanoTime();
+      tree = kind.get();
+      for (Integer key : inserts) {
+        tree.insert(key, key);
+      }
+      long built = System.nanoTime();
+      long hits = 0;
+      for (Integer key : lookups) {
+        if (tree.get(key) != null) {
+          hits++;
+        }
+      }
+      long looked = System.nanoTime();
+      visited[0] = 0;
+      for (Integer[] scan : scans) {
+        tree.forEachInRange(scan[0], scan[1], (key, value) -> visited[0] += value);
+      }
+      long scanned = System.nanoTime();
+      sink += hits + visited[0];
+      if (r >= 0) {
+        builds[r] = built - start;
+        gets[r] = looked - built;
+        ranges[r] = scanned - looked;
+      }
+    }
+    Arrays.sort(builds);
+    Arrays.sort(gets);
+    Arrays.sort(ranges);
+    System.out.printf(
+        "%-16s %10.1f %8s %14.1f %14.2f%n",
+        name,
+        builds[ROUNDS / 2] / 1e6,
+        tree instanceof BPlusTree ? Integer.toString(((BPlusTree<?, ?>) tree).height()) : "-",
+        (double) gets[ROUNDS / 2] / LOOKUPS,
+        (double) ranges[ROUNDS / 2] / ((long) SCANS * SCAN_LENGTH));
+  }
+}
@@ -3,12 +3,32 @@
  */
 package core;
 
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Runs the cache server, or its load generator.
+ *
+ * <pre>
+ *   App [port]                      serves the cache, on port 6379 by default
+ *   App load [options]              runs the load generator, see {@link LoadGenerator}
+ * </pre>
+ */
 public class App {
+  /** The default port, the one of Redis. */
+  static final int DEFAULT_PORT = 6379;
+
   public String getGreeting() {
     return "Hello World!";
   }
 
-  public static void main(String[] args) {
-    System.out.println(new App().getGreeting());
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (args.length > 0 && args[0].equals("load")) {
+      LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    CacheServer server = new CacheServer(port);
+    System.out.println("Cache server listening on port " + server.port());
   }
 }
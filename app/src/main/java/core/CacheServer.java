@@ -0,0 +1,416 @@
+package core;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import structures.ByteKey;
+import structures.HashTableLinear;
+
+/**
+ * A TCP cache server keeping byte string keys and values in a {@link HashTableLinear}.
+ *
+ * <p>The server speaks a subset of RESP, the Redis protocol: a command is an array of bulk strings,
+ * and the supported commands are {@code GET}, {@code SET}, {@code DEL}, {@code MGET} and {@code
+ * PING}. So {@code redis-cli} and {@code redis-benchmark} work as clients.
+ *
+ * <p>Every connection is served by its own thread. The commands are parsed straight from the read
+ * buffer, and a {@code GET} looks the key up with {@link HashTableLinear#getBytes(ByteBuffer)},
+ * without creating a key. Pipelined commands are all answered before the next read, with a single
+ * gathering write. The headers and the small replies are copied into a direct buffer of the
+ * connection, the header of a value from a cache of headers, and the stored values larger than
+ * {@link #SMALL_VALUE} bytes are wrapped, not copied, into the reply. So a {@code GET} reply
+ * allocates nothing.
+ *
+ * @author André Gabriel
+ */
+public class CacheServer implements AutoCloseable {
+
+  /** The initial size of the read buffer of a connection. */
+  static final int BUFFER_SIZE = 16 * 1024;
+
+  /** The maximum size of a command. */
+  static final int MAXIMUM_COMMAND = 64 * 1024 * 1024;
+
+  /** The maximum number of buffers gathered in a write. */
+  static final int MAXIMUM_REPLIES = 1024;
+
+  /** The size of the largest value copied into the reply buffer instead of wrapped. */
+  static final int SMALL_VALUE = 512;
+
+  /** The number of value lengths whose bulk string header is cached. */
+  static final int CACHED_LENGTHS = 1024;
+
+  private static final byte[] OK = bytes("+OK\r\n");
+  private static final byte[] PONG = bytes("+PONG\r\n");
+  private static final byte[] NIL = bytes("$-1\r\n");
+  private static final byte[] CRLF = bytes("\r\n");
+  private static final byte[] PROTOCOL_ERROR = bytes("-ERR protocol error\r\n");
+  private static final byte[] UNKNOWN_COMMAND =
+      bytes("-ERR unknown command or wrong number of arguments\r\n");
+
+  /** The bulk string headers of the lengths below {@link #CACHED_LENGTHS}, as {@code $5\r\n}. */
+  private static final byte[][] LENGTH_HEADERS = new byte[CACHED_LENGTHS][];
+
+  static {
+    for (int i = 0; i < CACHED_LENGTHS; ++i) {
+      LENGTH_HEADERS[i] = bytes("$" + i + "\r\n");
+    }
+  }
+
+  private final HashTableLinear<ByteKey, byte[]> table = new HashTableLinear<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final ServerSocketChannel server;
+  private final Thread acceptor;
+
+  /**
+   * Opens the server socket and starts accepting connections.
+   *
+   * @param port the port, {@code 0} for any free port.
+   * @throws IOException if the socket cannot be opened.
+   */
+  public CacheServer(int port) throws IOException {
+    this.server = ServerSocketChannel.open();
+    this.server.bind(new InetSocketAddress(port));
+    this.acceptor = new Thread(this::accept, "cache-acceptor");
+    this.acceptor.start();
+  }
+
+  /** @return the port of the server. */
+  public int port() {
+    return server.socket().getLocalPort();
+  }
+
+  /** @return the number of keys of the cache. */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return table.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private void accept() {
+    try {
+      for (; ; ) {
+        SocketChannel channel = server.accept();
+        channel.socket().setTcpNoDelay(true);
+        Thread connection = new Thread(() -> serve(channel), "cache-connection");
+        connection.setDaemon(true);
+        connection.start();
+      }
+    } catch (ClosedChannelException e) {
+      // The server was closed.
+    } catch (IOException e) {
+      System.err.println("Cache server stopped: " + e.getMessage());
+    }
+  }
+
+  /** Serves a connection until the client closes it. */
+  private void serve(SocketChannel channel) {
+    try (channel) {
+      ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      Replies out = new Replies(channel);
+      int[] args = new int[16];
+      for (; ; ) {
+        if (channel.read(in) < 0) {
+          return;
+        }
+        in.flip();
+        for (; ; ) {
+          int start = in.position();
+          int argc = parse(in, args);
+          if (argc == 0) {
+            in.position(start);
+            break;
+          }
+          if (argc < 0) {
+            out.put(PROTOCOL_ERROR);
+            out.flush();
+            return;
+          }
+          if (argc > args.length / 2) {
+            args = new int[argc * 2];
+            in.position(start);
+            parse(in, args);
+          }
+          execute(in, args, argc, out);
+        }
+        out.flush();
+        in.compact();
+        if (!in.hasRemaining()) {
+          if (in.capacity() >= MAXIMUM_COMMAND) {
+            return;
+          }
+          ByteBuffer larger = ByteBuffer.allocateDirect(in.capacity() << 1);
+          in.flip();
+          larger.put(in);
+          in = larger;
+        }
+      }
+    } catch (IOException e) {
+      // The client went away.
+    }
+  }
+
+  /**
+   * Parses a command, an array of bulk strings.
+   *
+   * @param in the buffer, on success its position is moved after the command.
+   * @param args receives the offset and the length of each argument.
+   * @return the number of arguments, {@code 0} if the command is not complete, or {@code -1} if it
+   *     is malformed. If the command has more arguments than {@code args} holds, only the count is
+   *     valid.
+   */
+  static int parse(ByteBuffer in, int[] args) {
+    long header = readLine(in, (byte) '*');
+    if (header <= 0) {
+      return (int) header;
+    }
+    int argc = (int) (header - 1);
+    if (argc <= 0) {
+      return -1;
+    }
+    for (int i = 0; i < argc; ++i) {
+      long length = readLine(in, (byte) '$');
+      if (length <= 0) {
+        return (int) length;
+      }
+      int len = (int) (length - 1);
+      if (in.remaining() < len + 2) {
+        return 0;
+      }
+      if (2 * i + 1 < args.length) {
+        args[2 * i] = in.position();
+        args[2 * i + 1] = len;
+      }
+      in.position(in.position() + len + 2);
+    }
+    return argc;
+  }
+
+  /**
+   * Reads a line with a prefix and a number, as {@code *3\r\n}.
+   *
+   * @return the number plus one, {@code 0} if the line is not complete or {@code -1} if it is
+   *     malformed.
+   */
+  private static long readLine(ByteBuffer in, byte prefix) {
+    if (!in.hasRemaining()) {
+      return 0;
+    }
+    if (in.get(in.position()) != prefix) {
+      return -1;
+    }
+    long value = 0;
+    int digits = 0;
+    for (int i = in.position() + 1; i < in.limit(); ++i) {
+      byte b = in.get(i);
+      if (b == '\r') {
+        if (i + 1 >= in.limit()) {
+          return 0;
+        }
+        if (in.get(i + 1) != '\n' || digits == 0) {
+          return -1;
+        }
+        in.position(i + 2);
+        return value + 1;
+      }
+      if (b < '0' || b > '9' || ++digits > 9) {
+        return -1;
+      }
+      value = value * 10 + (b - '0');
+    }
+    return 0;
+  }
+
+  /** Returns {@code true} if an argument is a command name, ignoring case. */
+  private static boolean is(ByteBuffer in, int off, int len, String name) {
+    if (len != name.length()) {
+      return false;
+    }
+    for (int i = 0; i < len; ++i) {
+      if ((in.get(off + i) & ~0x20) != name.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Runs a parsed command and queues its reply. */
+  private void execute(ByteBuffer in, int[] args, int argc, Replies out) throws IOException {
+    int off = args[0];
+    int len = args[1];
+    if (is(in, off, len, "GET") && argc == 2) {
+      out.putValue(lookup(in, args[2], args[3]));
+    } else if (is(in, off, len, "SET") && argc == 3) {
+      ByteKey key = ByteKey.copyOf(slice(in, args[2], args[3]));
+      // The value is a fresh array never changed after, so replies may wrap it.
+      byte[] value = new byte[args[5]];
+      in.get(args[4], value);
+      lock.writeLock().lock();
+      try {
+        table.insert(key, value);
+      } finally {
+        lock.writeLock().unlock();
+      }
+      out.put(OK);
+    } else if (is(in, off, len, "DEL") && argc >= 2) {
+      int removed = 0;
+      lock.writeLock().lock();
+      try {
+        for (int i = 1; i < argc; ++i) {
+          if (table.remove(ByteKey.copyOf(slice(in, args[2 * i], args[2 * i + 1]))) != null) {
+            ++removed;
+          }
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+      out.putNumber((byte) ':', removed);
+    } else if (is(in, off, len, "MGET") && argc >= 2) {
+      out.putNumber((byte) '*', argc - 1);
+      for (int i = 1; i < argc; ++i) {
+        out.putValue(lookup(in, args[2 * i], args[2 * i + 1]));
+      }
+    } else if (is(in, off, len, "PING") && argc == 1) {
+      out.put(PONG);
+    } else {
+      out.put(UNKNOWN_COMMAND);
+    }
+  }
+
+  private static ByteBuffer slice(ByteBuffer in, int off, int len) {
+    return in.duplicate().position(off).limit(off + len);
+  }
+
+  /** Looks up a key from the read buffer, without creating it. */
+  private byte[] lookup(ByteBuffer in, int off, int len) {
+    int position = in.position();
+    int limit = in.limit();
+    in.limit(off + len).position(off);
+    lock.readLock().lock();
+    try {
+      return table.getBytes(in);
+    } finally {
+      lock.readLock().unlock();
+      in.limit(limit).position(position);
+    }
+  }
+
+  /**
+   * The replies of a connection, waiting for the next write. The small replies are copied into a
+   * direct buffer, a large value is wrapped between the parts of the buffer before and after it.
+   */
+  private static final class Replies {
+    private final SocketChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final List<ByteBuffer> out = new ArrayList<>();
+
+    /** The start of the part of the buffer not yet in {@code out}. */
+    private int start;
+
+    Replies(SocketChannel p_channel) {
+      this.channel = p_channel;
+    }
+
+    /** Copies a reply smaller than the buffer, writing the replies first if it is full. */
+    void put(byte[] b) throws IOException {
+      if (buffer.remaining() < b.length) {
+        flush();
+      }
+      buffer.put(b);
+    }
+
+    /** Copies a line with a prefix and a number, as {@code :3\r\n}. */
+    void putNumber(byte prefix, int n) throws IOException {
+      if (buffer.remaining() < 13) {
+        flush();
+      }
+      buffer.put(prefix);
+      int digits = 1;
+      for (int rest = n / 10; rest > 0; rest /= 10) {
+        ++digits;
+      }
+      int end = buffer.position() + digits;
+      for (int i = end - 1; i >= buffer.position(); --i, n /= 10) {
+        buffer.put(i, (byte) ('0' + n % 10));
+      }
+      buffer.position(end);
+      buffer.put(CRLF);
+    }
+
+    /** Queues a bulk string reply of a value, the nil reply if it is null. */
+    void putValue(byte[] value) throws IOException {
+      if (value == null) {
+        put(NIL);
+        return;
+      }
+      if (value.length < CACHED_LENGTHS) {
+        put(LENGTH_HEADERS[value.length]);
+      } else {
+        putNumber((byte) '$', value.length);
+      }
+      if (value.length <= SMALL_VALUE) {
+        put(value);
+      } else {
+        cut();
+        out.add(ByteBuffer.wrap(value));
+        if (out.size() >= MAXIMUM_REPLIES) {
+          flush();
+        }
+      }
+      put(CRLF);
+    }
+
+    /** Moves the part of the buffer not yet in {@code out} to it. */
+    private void cut() {
+      if (buffer.position() > start) {
+        out.add(buffer.duplicate().limit(buffer.position()).position(start));
+        start = buffer.position();
+      }
+    }
+
+    /** Writes every queued reply with a single gathering write. */
+    void flush() throws IOException {
+      cut();
+      if (out.isEmpty()) {
+        return;
+      }
+      ByteBuffer[] buffers = out.toArray(new ByteBuffer[0]);
+      long remaining = 0;
+      for (ByteBuffer b : buffers) {
+        remaining += b.remaining();
+      }
+      while (remaining > 0) {
+        remaining -= channel.write(buffers);
+      }
+      out.clear();
+      buffer.clear();
+      start = 0;
+    }
+  }
+
+  /** Stops accepting connections. */
+  @Override
+  public void close() throws IOException {
+    server.close();
+    try {
+      acceptor.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
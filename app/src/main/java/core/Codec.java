@@ -0,0 +1,140 @@
+package core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import structures.ByteKey;
+
+/**
+ * Writes and reads the keys or the values of a replicated table.
+ *
+ * @param <T> the class type.
+ * @see ReplicatedDictionary
+ * @author André Gabriel
+ */
+public interface Codec<T> {
+
+  void write(T value, DataOutput out) throws IOException;
+
+  T read(DataInput in) throws IOException;
+
+  /** Strings, as a varint length and UTF-8 bytes. */
+  Codec<String> STRING =
+      new Codec<>() {
+        @Override
+        public void write(String value, DataOutput out) throws IOException {
+          BYTES.write(value.getBytes(StandardCharsets.UTF_8), out);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+          return new String(BYTES.read(in), StandardCharsets.UTF_8);
+        }
+      };
+
+  /** Byte arrays, as a varint length and the bytes. */
+  Codec<byte[]> BYTES =
+      new Codec<>() {
+        @Override
+        public void write(byte[] value, DataOutput out) throws IOException {
+          writeVarInt(value.length, out);
+          out.write(value);
+        }
+
+        @Override
+        public byte[] read(DataInput in) throws IOException {
+          byte[] b = new byte[readVarInt(in)];
+          in.readFully(b);
+          return b;
+        }
+      };
+
+  /** Byte string keys, as a varint length and the bytes. */
+  Codec<ByteKey> BYTE_KEY =
+      new Codec<>() {
+        @Override
+        public void write(ByteKey value, DataOutput out) throws IOException {
+          BYTES.write(value.toByteArray(), out);
+        }
+
+        @Override
+        public ByteKey read(DataInput in) throws IOException {
+          return ByteKey.copyOf(BYTES.read(in));
+        }
+      };
+
+  /** Integers, as a zigzag varint. */
+  Codec<Integer> INTEGER =
+      new Codec<>() {
+        @Override
+        public void write(Integer value, DataOutput out) throws IOException {
+          writeVarInt((value << 1) ^ (value >> 31), out);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+          int v = readVarInt(in);
+          return (v >>> 1) ^ -(v & 1);
+        }
+      };
+
+  /** Longs, as a zigzag varint. */
+  Codec<Long> LONG =
+      new Codec<>() {
+        @Override
+        public void write(Long value, DataOutput out) throws IOException {
+          writeVarLong((value << 1) ^ (value >> 63), out);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+          long v = readVarLong(in);
+          return (v >>> 1) ^ -(v & 1);
+        }
+      };
+
+  /** Writes an unsigned varint, 7 bits per byte, low bits first. */
+  static void writeVarInt(int v, DataOutput out) throws IOException {
+    while ((v & ~0x7f) != 0) {
+      out.writeByte((v & 0x7f) | 0x80);
+      v >>>= 7;
+    }
+    out.writeByte(v);
+  }
+
+  /** Reads an unsigned varint written by {@link #writeVarInt}. */
+  static int readVarInt(DataInput in) throws IOException {
+    int v = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = in.readByte();
+      v |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        return v;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  /** Writes an unsigned 64 bit varint, 7 bits per byte, low bits first. */
+  static void writeVarLong(long v, DataOutput out) throws IOException {
+    while ((v & ~0x7fL) != 0) {
+      out.writeByte((int) (v & 0x7f) | 0x80);
+      v >>>= 7;
+    }
+    out.writeByte((int) v);
+  }
+
+  /** Reads an unsigned 64 bit varint written by {@link #writeVarLong}. */
+  static long readVarLong(DataInput in) throws IOException {
+    long v = 0;
+    for (int shift = 0; shift < 70; shift += 7) {
+      byte b = in.readByte();
+      v |= (long) (b & 0x7f) << shift;
+      if (b >= 0) {
+        return v;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+}
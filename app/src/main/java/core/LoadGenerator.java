@@ -0,0 +1,344 @@
+package core;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A load generator for {@link CacheServer}, or any server speaking RESP.
+ *
+ * <p>Every connection runs on its own thread and sends batches of pipelined {@code GET} and {@code
+ * SET} commands over random keys, waiting for all the replies of a batch before sending the next
+ * one. The report gives the throughput and the percentiles of the batch round trips.
+ *
+ * <pre>
+ *   LoadGenerator [host] [port] [connections] [requests] [pipeline] [keys] [value size] [get ratio]
+ * </pre>
+ *
+ * @author André Gabriel
+ */
+public class LoadGenerator {
+
+  private final InetSocketAddress address;
+  private final int connections;
+  private final int requests;
+  private final int pipeline;
+  private final int key_count;
+  private final int value_size;
+  private final double get_ratio;
+
+  /**
+   * @param p_address the server address.
+   * @param p_connections the number of connections.
+   * @param p_requests the number of requests per connection.
+   * @param p_pipeline the number of requests per batch.
+   * @param p_key_count the number of distinct keys.
+   * @param p_value_size the size of the values.
+   * @param p_get_ratio the ratio of {@code GET} requests.
+   */
+  public LoadGenerator(
+      InetSocketAddress p_address,
+      int p_connections,
+      int p_requests,
+      int p_pipeline,
+      int p_key_count,
+      int p_value_size,
+      double p_get_ratio) {
+    if (p_connections <= 0 || p_requests <= 0 || p_pipeline <= 0 || p_key_count <= 0) {
+      throw new IllegalArgumentException("Illegal load parameters");
+    }
+    this.address = p_address;
+    this.connections = p_connections;
+    this.requests = p_requests;
+    this.pipeline = p_pipeline;
+    this.key_count = p_key_count;
+    this.value_size = p_value_size;
+    this.get_ratio = p_get_ratio;
+  }
+
+  /** The outcome of a run. */
+  public static final class Report {
+    /** The number of requests answered. */
+    public final long requests;
+
+    /** The number of error replies. */
+    public final long errors;
+
+    /** The duration of the run, in nanoseconds. */
+    public final long elapsed;
+
+    /** The sorted round trips of the batches, in nanoseconds. */
+    private final long[] latencies;
+
+    Report(long p_requests, long p_errors, long p_elapsed, long[] p_latencies) {
+      this.requests = p_requests;
+      this.errors = p_errors;
+      this.elapsed = p_elapsed;
+      this.latencies = p_latencies;
+    }
+
+    /** @return the number of requests per second. */
+    public double throughput() {
+      return requests * 1e9 / elapsed;
+    }
+
+    /**
+     * @param p the percentile, between 0 and 1.
+     * @return the batch round trip at the percentile, in nanoseconds.
+     */
+    public long percentile(double p) {
+      if (latencies.length == 0) {
+        return 0;
+      }
+      return latencies[(int) Math.min(latencies.length - 1, p * latencies.length)];
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%d requests, %d errors, %.0f req/s, batch p50 %d us, p99 %d us, p99.9 %d us",
+          requests,
+          errors,
+          throughput(),
+          percentile(0.5) / 1000,
+          percentile(0.99) / 1000,
+          percentile(0.999) / 1000);
+    }
+  }
+
+  /** The counters of a connection. */
+  private static final class Worker {
+    long requests;
+    long errors;
+    long[] latencies;
+    IOException failure;
+  }
+
+  /**
+   * Runs the load, every connection sends its requests.
+   *
+   * @return the report.
+   * @throws IOException if a connection fails.
+   */
+  public Report run() throws IOException, InterruptedException {
+    Worker[] workers = new Worker[connections];
+    Thread[] threads = new Thread[connections];
+    for (int i = 0; i < connections; ++i) {
+      Worker worker = workers[i] = new Worker();
+      long seed = i;
+      threads[i] =
+          new Thread(
+              () -> {
+                try {
+                  load(worker, new SplittableRandom(seed));
+                } catch (IOException e) {
+                  worker.failure = e;
+                }
+              },
+              "load-" + i);
+    }
+    long start = System.nanoTime();
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    long total = 0;
+    long errors = 0;
+    int batches = 0;
+    for (Worker worker : workers) {
+      if (worker.failure != null) {
+        throw worker.failure;
+      }
+      total += worker.requests;
+      errors += worker.errors;
+      batches += worker.latencies.length;
+    }
+    long[] latencies = new long[batches];
+    int n = 0;
+    for (Worker worker : workers) {
+      System.arraycopy(worker.latencies, 0, latencies, n, worker.latencies.length);
+      n += worker.latencies.length;
+    }
+    Arrays.sort(latencies);
+    return new Report(total, errors, elapsed, latencies);
+  }
+
+  private void load(Worker worker, SplittableRandom random) throws IOException {
+    byte[] value = new byte[value_size];
+    Arrays.fill(value, (byte) 'x');
+    int batches = (requests + pipeline - 1) / pipeline;
+    worker.latencies = new long[batches];
+    ByteBuffer out = ByteBuffer.allocate(pipeline * (value_size + 64));
+    ByteBuffer in = ByteBuffer.allocate(Math.max(CacheServer.BUFFER_SIZE, value_size * 4));
+    try (SocketChannel channel = SocketChannel.open(address)) {
+      channel.socket().setTcpNoDelay(true);
+      int sent = 0;
+      for (int b = 0; b < batches; ++b) {
+        int count = Math.min(pipeline, requests - sent);
+        out.clear();
+        for (int i = 0; i < count; ++i) {
+          byte[] key = ("key:" + random.nextInt(key_count)).getBytes(StandardCharsets.US_ASCII);
+          if (random.nextDouble() < get_ratio) {
+            out.put(command("GET", key));
+          } else {
+            out.put(command("SET", key, value));
+          }
+        }
+        out.flip();
+
+        long start = System.nanoTime();
+        while (out.hasRemaining()) {
+          channel.write(out);
+        }
+        int replies = 0;
+        while (replies < count) {
+          if (channel.read(in) < 0) {
+            throw new IOException("Connection closed by the server");
+          }
+          in.flip();
+          int reply;
+          while (replies < count && (reply = skipReply(in)) != 0) {
+            if (reply < 0) {
+              ++worker.errors;
+            }
+            ++replies;
+          }
+          in.compact();
+          if (!in.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocate(in.capacity() << 1);
+            in.flip();
+            larger.put(in);
+            in = larger;
+          }
+        }
+        worker.latencies[b] = System.nanoTime() - start;
+        worker.requests += count;
+        sent += count;
+      }
+    }
+  }
+
+  /**
+   * Encodes a command as a RESP array of bulk strings.
+   *
+   * @param name the command name.
+   * @param args the arguments.
+   * @return the encoded command.
+   */
+  static byte[] command(String name, byte[]... args) {
+    byte[] n = name.getBytes(StandardCharsets.US_ASCII);
+    int length = 16 + n.length;
+    for (byte[] arg : args) {
+      length += 16 + arg.length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    buffer.put(("*" + (args.length + 1) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    bulk(buffer, n);
+    for (byte[] arg : args) {
+      bulk(buffer, arg);
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  private static void bulk(ByteBuffer buffer, byte[] b) {
+    buffer.put(("$" + b.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    buffer.put(b).put((byte) '\r').put((byte) '\n');
+  }
+
+  /**
+   * Skips a reply.
+   *
+   * @param in the buffer, on success its position is moved after the reply.
+   * @return {@code 1} for a reply, {@code -1} for an error reply or {@code 0} if the reply is not
+   *     complete.
+   */
+  static int skipReply(ByteBuffer in) {
+    int start = in.position();
+    int result = skip(in);
+    if (result == 0) {
+      in.position(start);
+    }
+    return result;
+  }
+
+  private static int skip(ByteBuffer in) {
+    int end = lineEnd(in);
+    if (end < 0) {
+      return 0;
+    }
+    byte type = in.get(in.position());
+    long number = 0;
+    if (type == '$' || type == '*') {
+      String digits =
+          StandardCharsets.US_ASCII
+              .decode(in.duplicate().position(in.position() + 1).limit(end))
+              .toString();
+      number = Long.parseLong(digits);
+    }
+    in.position(end + 2);
+    switch (type) {
+      case '-':
+        return -1;
+      case '$':
+        if (number < 0) {
+          return 1;
+        }
+        if (in.remaining() < number + 2) {
+          return 0;
+        }
+        in.position(in.position() + (int) number + 2);
+        return 1;
+      case '*':
+        int result = 1;
+        for (long i = 0; i < number; ++i) {
+          int element = skip(in);
+          if (element == 0) {
+            return 0;
+          }
+          result = Math.min(result, element);
+        }
+        return result;
+      default:
+        return 1;
+    }
+  }
+
+  /** @return the index of the {@code \r} ending the line at the position, or {@code -1}. */
+  private static int lineEnd(ByteBuffer in) {
+    for (int i = in.position(); i + 1 < in.limit(); ++i) {
+      if (in.get(i) == '\r' && in.get(i + 1) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    String host = args.length > 0 ? args[0] : "localhost";
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : App.DEFAULT_PORT;
+    int connections = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+    int requests = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+    int pipeline = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+    int keys = args.length > 5 ? Integer.parseInt(args[5]) : 100_000;
+    int value_size = args.length > 6 ? Integer.parseInt(args[6]) : 64;
+    double get_ratio = args.length > 7 ? Double.parseDouble(args[7]) : 0.9;
+    LoadGenerator generator =
+        new LoadGenerator(
+            new InetSocketAddress(host, port),
+            connections,
+            requests,
+            pipeline,
+            keys,
+            value_size,
+            get_ratio);
+    System.out.println(generator.run());
+  }
+}
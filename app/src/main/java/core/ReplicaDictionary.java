@@ -0,0 +1,356 @@
+package core;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import structures.Dictionary;
+
+/**
+ * A read only copy of a {@link ReplicatedDictionary}, kept up to date by its change stream.
+ *
+ * <p>The follower connects to the primary and loads the snapshot in a new table, which replaces the
+ * current one once complete, so the readers never see a partial snapshot. The changes are then
+ * applied as they arrive: the records already received are decoded, then applied at once under the
+ * write lock. The reads take the read lock.
+ *
+ * @see ReplicatedDictionary
+ * @author André Gabriel
+ */
+public class ReplicaDictionary<K, V> implements Dictionary<K, V>, AutoCloseable {
+
+  /** The size of the read buffer, in bytes. */
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  /** The maximum number of records applied under a single lock. */
+  static final int BATCH_RECORDS = 1024;
+
+  private final Supplier<? extends Dictionary<K, V>> factory;
+  private final Codec<K> key_codec;
+  private final Codec<V> value_codec;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Condition applied = lock.writeLock().newCondition();
+  private final SocketChannel channel;
+  private final Thread reader;
+
+  /** The table, guarded by the lock. */
+  private Dictionary<K, V> table;
+
+  /** The table receiving the snapshot, only used by the reader thread. */
+  private Dictionary<K, V> loading;
+
+  /** The sequence of the last record applied, guarded by the lock. */
+  private long sequence = -1;
+
+  /** Set when the stream ends, guarded by the lock. */
+  private boolean disconnected;
+
+  /**
+   * Connects to a primary.
+   *
+   * @param address the address of the primary.
+   * @param p_factory creates the tables, as {@code HashTableLinear::new}.
+   * @param p_key_codec the codec of the keys.
+   * @param p_value_codec the codec of the values.
+   * @throws IOException if the connection fails.
+   */
+  public ReplicaDictionary(
+      InetSocketAddress address,
+      Supplier<? extends Dictionary<K, V>> p_factory,
+      Codec<K> p_key_codec,
+      Codec<V> p_value_codec)
+      throws IOException {
+    this.factory = Objects.requireNonNull(p_factory);
+    this.key_codec = Objects.requireNonNull(p_key_codec);
+    this.value_codec = Objects.requireNonNull(p_value_codec);
+    this.table = factory.get();
+    this.channel = SocketChannel.open(address);
+    this.reader = new Thread(this::follow, "replication-follower");
+    this.reader.setDaemon(true);
+    this.reader.start();
+  }
+
+  private void follow() {
+    byte[] types = new byte[BATCH_RECORDS];
+    Object[] keys = new Object[BATCH_RECORDS];
+    Object[] values = new Object[BATCH_RECORDS];
+    try (DataInputStream in =
+        new DataInputStream(
+            new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE))) {
+      for (; ; ) {
+        byte type = in.readByte();
+        if (loading != null || type >= ReplicatedDictionary.SNAPSHOT_BEGIN) {
+          load(type, in);
+          continue;
+        }
+        // Decode the records already received, then apply them under a single lock.
+        int n = 0;
+        for (; ; ) {
+          types[n] = type;
+          keys[n] = key_codec.read(in);
+          values[n] = type == ReplicatedDictionary.INSERT ? value_codec.read(in) : null;
+          if (++n == BATCH_RECORDS || in.available() == 0) {
+            break;
+          }
+          type = in.readByte();
+          if (type >= ReplicatedDictionary.SNAPSHOT_BEGIN) {
+            throw new IOException("Unexpected snapshot record");
+          }
+        }
+        apply(types, keys, values, n);
+      }
+    } catch (IOException e) {
+      // The primary went away, or the follower was closed.
+    } finally {
+      lock.writeLock().lock();
+      try {
+        disconnected = true;
+        applied.signalAll();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void apply(byte[] types, Object[] keys, Object[] values, int n) {
+    lock.writeLock().lock();
+    try {
+      for (int i = 0; i < n; ++i) {
+        if (types[i] == ReplicatedDictionary.REMOVE) {
+          table.remove(keys[i]);
+        } else {
+          table.insert((K) keys[i], (V) values[i]);
+        }
+        keys[i] = null;
+        values[i] = null;
+      }
+      sequence += n;
+      applied.signalAll();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Applies a record of the snapshot to the table being loaded, the readers use the old one. */
+  private void load(byte type, DataInputStream in) throws IOException {
+    switch (type) {
+      case ReplicatedDictionary.INSERT:
+        loading.insert(key_codec.read(in), value_codec.read(in));
+        break;
+      case ReplicatedDictionary.INSERT_NULL:
+        loading.insert(key_codec.read(in), null);
+        break;
+      case ReplicatedDictionary.SNAPSHOT_BEGIN:
+        in.readLong();
+        loading = factory.get();
+        break;
+      case ReplicatedDictionary.SNAPSHOT_END:
+        long snapshot_sequence = in.readLong();
+        lock.writeLock().lock();
+        try {
+          table = loading;
+          sequence = snapshot_sequence;
+          applied.signalAll();
+        } finally {
+          lock.writeLock().unlock();
+        }
+        loading = null;
+        break;
+      default:
+        throw new IOException("Unexpected record type: " + type);
+    }
+  }
+
+  /** @return the sequence of the last change applied, {@code -1} before the snapshot. */
+  public long sequence() {
+    lock.readLock().lock();
+    try {
+      return sequence;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Waits until a change is applied.
+   *
+   * @param target the sequence of the change, as returned by {@link
+   *     ReplicatedDictionary#sequence()}.
+   * @param timeout the maximum time to wait.
+   * @param unit the unit of the timeout.
+   * @return {@code true} if the change is applied, {@code false} if the time elapsed or the stream
+   *     ended before.
+   */
+  public boolean awaitSequence(long target, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.writeLock().lock();
+    try {
+      while (sequence < target) {
+        if (disconnected || nanos <= 0) {
+          return false;
+        }
+        nanos = applied.awaitNanos(nanos);
+      }
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** @return {@code true} if the stream from the primary ended. */
+  public boolean isDisconnected() {
+    lock.readLock().lock();
+    try {
+      return disconnected;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return table.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    lock.readLock().lock();
+    try {
+      return table.containsKey(key);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    lock.readLock().lock();
+    try {
+      return table.get(key);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    lock.readLock().lock();
+    try {
+      table.forEach(action);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static UnsupportedOperationException readOnly() {
+    return new UnsupportedOperationException("ReplicaDictionary is read only");
+  }
+
+  /**
+   * Not supported, the changes come from the primary.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V insert(K key, V value) {
+    throw readOnly();
+  }
+
+  /**
+   * Not supported, the changes come from the primary.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V remove(Object key) {
+    throw readOnly();
+  }
+
+  /**
+   * Not supported, the changes come from the primary.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V putIfAbsent(K key, V value) {
+    throw readOnly();
+  }
+
+  /**
+   * Not supported, the changes come from the primary.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V replace(K key, V value) {
+    throw readOnly();
+  }
+
+  /**
+   * Not supported, the changes come from the primary.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+    throw readOnly();
+  }
+
+  /**
+   * Not supported, the changes come from the primary.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    throw readOnly();
+  }
+
+  /**
+   * Not supported, the changes come from the primary.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    throw readOnly();
+  }
+
+  /**
+   * Not supported, the changes come from the primary.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+    throw readOnly();
+  }
+
+  /** Disconnects from the primary, the table keeps the changes applied. */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+    try {
+      reader.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,458 @@
+package core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import structures.Dictionary;
+
+/**
+ * A {@code Dictionary} streaming its changes to {@link ReplicaDictionary} followers.
+ *
+ * <p>Every {@code insert} and {@code remove} of the wrapped table is encoded as a binary record, a
+ * type byte, then the key and the value written by their {@link Codec}, and numbered by {@link
+ * #sequence()}. The followers connect to the port of the primary. A new follower first receives a
+ * snapshot of the table, then every change made after the snapshot, in order.
+ *
+ * <p>Each follower has a shipping thread. The records appended while the thread writes are batched
+ * in a buffer and shipped by the next write, and the primary never waits for the followers: a slow
+ * follower only lets its buffer grow, up to {@link #MAXIMUM_PENDING} bytes, when it is dropped and
+ * must connect again.
+ *
+ * <p>The snapshot copies the references of the entries under the lock, the encoding and the
+ * shipping of the snapshot happen after, on the shipping thread. The methods of the primary are
+ * serialized by a lock, so the wrapped table needs no other synchronization.
+ *
+ * @see ReplicaDictionary
+ * @author André Gabriel
+ */
+public class ReplicatedDictionary<K, V> implements Dictionary<K, V>, AutoCloseable {
+
+  /** Record types. */
+  static final byte INSERT = 1;
+
+  static final byte INSERT_NULL = 2;
+  static final byte REMOVE = 3;
+  static final byte SNAPSHOT_BEGIN = 4;
+  static final byte SNAPSHOT_END = 5;
+
+  /** The size of the snapshot writes, in bytes. */
+  static final int SNAPSHOT_BATCH = 64 * 1024;
+
+  /** The maximum number of bytes waiting for a follower before it is dropped. */
+  static final int MAXIMUM_PENDING = 64 * 1024 * 1024;
+
+  private final Dictionary<K, V> table;
+  private final Codec<K> key_codec;
+  private final Codec<V> value_codec;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** The record being encoded, shared by the followers. */
+  private final Buffer record = new Buffer();
+
+  private final DataOutputStream record_out = new DataOutputStream(record);
+
+  /** The connected followers, guarded by the lock. */
+  private final List<Follower> followers = new ArrayList<>();
+
+  /** The number of changes made, guarded by the lock. */
+  private long sequence;
+
+  private final ServerSocketChannel server;
+  private final Thread acceptor;
+
+  /**
+   * Wraps a table and listens for followers.
+   *
+   * @param p_table the table, it must not be changed but through this object.
+   * @param p_key_codec the codec of the keys.
+   * @param p_value_codec the codec of the values.
+   * @param port the port of the followers, {@code 0} for any free port.
+   * @throws IOException if the socket cannot be opened.
+   */
+  public ReplicatedDictionary(
+      Dictionary<K, V> p_table, Codec<K> p_key_codec, Codec<V> p_value_codec, int port)
+      throws IOException {
+    this.table = Objects.requireNonNull(p_table);
+    this.key_codec = Objects.requireNonNull(p_key_codec);
+    this.value_codec = Objects.requireNonNull(p_value_codec);
+    this.server = ServerSocketChannel.open();
+    this.server.bind(new InetSocketAddress(port));
+    this.acceptor = new Thread(this::accept, "replication-acceptor");
+    this.acceptor.setDaemon(true);
+    this.acceptor.start();
+  }
+
+  /** A byte stream exposing its array. */
+  static final class Buffer extends ByteArrayOutputStream {
+    Buffer() {
+      super(256);
+    }
+
+    ByteBuffer wrap() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    void append(Buffer other) {
+      write(other.buf, 0, other.count);
+    }
+  }
+
+  /** A connected follower and its shipping thread. */
+  private final class Follower implements Runnable {
+    final SocketChannel channel;
+    final Condition ready = lock.newCondition();
+
+    /** The records not shipped yet, guarded by the lock. */
+    Buffer pending = new Buffer();
+
+    /** Guarded by the lock. */
+    boolean closed;
+
+    /** The snapshot, shipped then dropped by the thread. */
+    Object[] snapshot_keys;
+
+    Object[] snapshot_values;
+    final long snapshot_sequence;
+
+    Follower(SocketChannel p_channel) {
+      this.channel = p_channel;
+      int n = table.size();
+      Object[] k = new Object[n];
+      Object[] v = new Object[n];
+      int[] i = {0};
+      table.forEach(
+          (key, value) -> {
+            k[i[0]] = key;
+            v[i[0]++] = value;
+          });
+      this.snapshot_keys = k;
+      this.snapshot_values = v;
+      this.snapshot_sequence = sequence;
+    }
+
+    /** Appends a record, called with the lock held. */
+    void append(Buffer r) {
+      if (closed) {
+        return;
+      }
+      if (pending.size() + r.size() > MAXIMUM_PENDING) {
+        drop();
+        return;
+      }
+      pending.append(r);
+      ready.signal();
+    }
+
+    /** Disconnects the follower, called with the lock held. */
+    void drop() {
+      closed = true;
+      followers.remove(this);
+      ready.signal();
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // Already closed.
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() {
+      try {
+        Buffer out = new Buffer();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeByte(SNAPSHOT_BEGIN);
+        data.writeLong(snapshot_keys.length);
+        for (int i = 0; i < snapshot_keys.length; ++i) {
+          encode(data, (K) snapshot_keys[i], (V) snapshot_values[i], true);
+          if (out.size() >= SNAPSHOT_BATCH) {
+            ship(out);
+          }
+        }
+        data.writeByte(SNAPSHOT_END);
+        data.writeLong(snapshot_sequence);
+        ship(out);
+        snapshot_keys = null;
+        snapshot_values = null;
+
+        for (; ; ) {
+          lock.lock();
+          try {
+            while (pending.size() == 0 && !closed) {
+              ready.awaitUninterruptibly();
+            }
+            if (closed) {
+              return;
+            }
+            // Swap the buffers, the records appended while shipping go in the other one.
+            Buffer batch = pending;
+            pending = out;
+            out = batch;
+          } finally {
+            lock.unlock();
+          }
+          ship(out);
+        }
+      } catch (IOException e) {
+        lock.lock();
+        try {
+          drop();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+
+    private void ship(Buffer out) throws IOException {
+      ByteBuffer buffer = out.wrap();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      out.reset();
+    }
+  }
+
+  private void encode(DataOutputStream out, K key, V value, boolean insert) throws IOException {
+    if (!insert) {
+      out.writeByte(REMOVE);
+      key_codec.write(key, out);
+    } else if (value == null) {
+      out.writeByte(INSERT_NULL);
+      key_codec.write(key, out);
+    } else {
+      out.writeByte(INSERT);
+      key_codec.write(key, out);
+      value_codec.write(value, out);
+    }
+  }
+
+  /** Numbers a change and appends its record to every follower, called with the lock held. */
+  private void emit(K key, V value, boolean insert) {
+    ++sequence;
+    if (followers.isEmpty()) {
+      return;
+    }
+    record.reset();
+    try {
+      encode(record_out, key, value, insert);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    for (Follower follower : new ArrayList<>(followers)) {
+      follower.append(record);
+    }
+  }
+
+  private void accept() {
+    try {
+      for (; ; ) {
+        SocketChannel channel = server.accept();
+        channel.socket().setTcpNoDelay(true);
+        Follower follower;
+        lock.lock();
+        try {
+          follower = new Follower(channel);
+          followers.add(follower);
+        } finally {
+          lock.unlock();
+        }
+        Thread thread = new Thread(follower, "replication-shipper");
+        thread.setDaemon(true);
+        thread.start();
+      }
+    } catch (ClosedChannelException e) {
+      // The primary was closed.
+    } catch (IOException e) {
+      System.err.println("Replication stopped: " + e.getMessage());
+    }
+  }
+
+  /** @return the port of the followers. */
+  public int port() {
+    return server.socket().getLocalPort();
+  }
+
+  /** @return the number of changes made, the sequence of the last record. */
+  public long sequence() {
+    lock.lock();
+    try {
+      return sequence;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** @return the number of connected followers. */
+  public int followerCount() {
+    lock.lock();
+    try {
+      return followers.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return table.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    lock.lock();
+    try {
+      return table.containsKey(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    lock.lock();
+    try {
+      return table.get(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public V insert(K key, V value) {
+    lock.lock();
+    try {
+      V old_value = table.insert(key, value);
+      emit(key, value, true);
+      return old_value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    lock.lock();
+    try {
+      boolean present = table.containsKey(key);
+      V old_value = table.remove(key);
+      if (present) {
+        emit((K) key, null, false);
+      }
+      return old_value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // The compound operations run the defaults of the interface under the lock, so they are atomic
+  // and emit the records of the inserts and removes they make.
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    lock.lock();
+    try {
+      return Dictionary.super.putIfAbsent(key, value);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    lock.lock();
+    try {
+      return Dictionary.super.replace(key, value);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+    lock.lock();
+    try {
+      return Dictionary.super.computeIfAbsent(key, mapping);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    lock.lock();
+    try {
+      return Dictionary.super.computeIfPresent(key, remapping);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    lock.lock();
+    try {
+      return Dictionary.super.compute(key, remapping);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+    lock.lock();
+    try {
+      return Dictionary.super.merge(key, value, remapping);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    lock.lock();
+    try {
+      table.forEach(action);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Stops listening and disconnects the followers, the records not shipped yet are lost. */
+  @Override
+  public void close() throws IOException {
+    server.close();
+    try {
+      acceptor.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    lock.lock();
+    try {
+      for (Follower follower : new ArrayList<>(followers)) {
+        follower.drop();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,692 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * B+-tree implementation of the {@code OrderedDictionary} interface.
+ *
+ * <p>The nodes are wide, each holds up to {@code order} keys in arrays which a lookup searches by
+ * bisection, so a tree of {@code n} keys has {@code log(n) / log(order / 2)} levels at most, and a
+ * level costs a few cache lines instead of the node per key of {@link RedBlackTree}. The entries
+ * are in the leaves only, the inner nodes hold copies of the keys to route the searches. The leaves
+ * are linked in the order of the keys, a range scan reads them one after the other.
+ *
+ * <p>The inner nodes also keep the number of entries under each child, for the order statistics in
+ * {@code O(order * log(n))}.
+ *
+ * @param <K> the key class type.
+ * @param <V> the value class type.
+ * @see RedBlackTree
+ * @see OrderedDictionary
+ * @author André Gabriel
+ */
+public class BPlusTree<K extends Comparable<K>, V> implements OrderedDictionary<K, V> {
+
+  /** The default order, the maximum number of keys in a leaf and of children of an inner node. */
+  static final int DEFAULT_ORDER = 64;
+
+  /** The minimum order. */
+  static final int MINIMUM_ORDER = 4;
+
+  /** The maximum order. */
+  static final int MAXIMUM_ORDER = 1 << 10;
+
+  /** The result of a remove of a missing key, the values may be {@code null}. */
+  private static final Object MISSING = new Object();
+
+  /**
+   * A node of the tree, the arrays have one slot more than the order to hold the overflow before a
+   * split.
+   */
+  abstract static class Node {
+    /** The number of keys of a leaf, or of children of an inner node. */
+    int n;
+
+    /** The keys of a leaf, or the separators of an inner node, the first key of each child. */
+    final Object[] keys;
+
+    Node(int p_slots) {
+      this.keys = new Object[p_slots];
+    }
+  }
+
+  /** A leaf, holding the entries. */
+  static final class Leaf extends Node {
+    final Object[] values;
+    Leaf previous;
+    Leaf next;
+
+    Leaf(int p_order) {
+      super(p_order + 1);
+      this.values = new Object[p_order + 1];
+    }
+  }
+
+  /**
+   * An inner node, the child {@code i + 1} holds the keys from {@code keys[i]} on, the first child
+   * the keys below {@code keys[0]}.
+   */
+  static final class Inner extends Node {
+    final Node[] children;
+
+    /** The number of entries under each child. */
+    final int[] counts;
+
+    Inner(int p_order) {
+      super(p_order);
+      this.children = new Node[p_order + 1];
+      this.counts = new int[p_order + 1];
+    }
+  }
+
+  /** An entry of a leaf, valid until the tree is modified. */
+  private static final class LeafEntry<K, V> implements Dictionary.Entry<K, V> {
+    private final Leaf leaf;
+    private final int index;
+
+    LeafEntry(Leaf p_leaf, int p_index) {
+      this.leaf = p_leaf;
+      this.index = p_index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public K getKey() {
+      return (K) leaf.keys[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getValue() {
+      return (V) leaf.values[index];
+    }
+
+    @Override
+    public V setValue(V value) {
+      V old_value = getValue();
+      leaf.values[index] = value;
+      return old_value;
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+      if (o == this) {
+        return true;
+      }
+      if (o instanceof Dictionary.Entry<?, ?>) {
+        Dictionary.Entry<?, ?> entry = (Dictionary.Entry<?, ?>) o;
+        return Objects.equals(getKey(), entry.getKey())
+            && Objects.equals(getValue(), entry.getValue());
+      }
+      return false;
+    }
+
+    @Override
+    public final int hashCode() {
+      return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public final String toString() {
+      return "<" + getKey() + ":" + getValue() + ">";
+    }
+  }
+
+  /** The maximum number of keys in a leaf and of children of an inner node. */
+  private final int order;
+
+  /** The minimum number of keys in a leaf and of children of an inner node, but the root. */
+  private final int minimum;
+
+  /** The root, {@code null} if the tree is empty. */
+  private Node root;
+
+  /** The first leaf. */
+  private Leaf head;
+
+  /** The number of entries. */
+  private int size;
+
+  /** The first key of the node split by the last insert. */
+  private Object split_key;
+
+  public BPlusTree(int p_order) {
+    if (p_order < MINIMUM_ORDER || p_order > MAXIMUM_ORDER) {
+      throw new IllegalArgumentException("Illegal order: " + p_order);
+    }
+    this.order = p_order;
+    this.minimum = p_order / 2;
+  }
+
+  public BPlusTree() {
+    this(DEFAULT_ORDER);
+  }
+
+  /** @return the maximum number of keys in a leaf and of children of an inner node. */
+  public int order() {
+    return order;
+  }
+
+  /** @return the number of levels of the tree, {@code 0} if it is empty. */
+  public int height() {
+    int height = 0;
+    for (Node node = root; node != null; ++height) {
+      node = node instanceof Inner ? ((Inner) node).children[0] : null;
+    }
+    return height;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(Object a, Object b) {
+    return ((Comparable<Object>) a).compareTo(b);
+  }
+
+  /**
+   * Finds the child of an inner node whose keys may hold a given key, the number of separators not
+   * above the key.
+   */
+  private static int childIndex(Inner inner, Object key) {
+    Object[] keys = inner.keys;
+    int lo = 0, hi = inner.n - 1;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (compare(key, keys[mid]) < 0) {
+        hi = mid;
+      } else {
+        lo = mid + 1;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Finds a key in a leaf.
+   *
+   * @return the index of the key, or {@code -(index + 1)} where {@code index} is the index it
+   *     would be inserted at.
+   */
+  private static int leafIndex(Leaf leaf, Object key) {
+    Object[] keys = leaf.keys;
+    int lo = 0, hi = leaf.n - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      int cmp = compare(keys[mid], key);
+      if (cmp < 0) {
+        lo = mid + 1;
+      } else if (cmp > 0) {
+        hi = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(lo + 1);
+  }
+
+  /** @return the leaf whose keys may hold a given key. */
+  private Leaf findLeaf(Object key) {
+    Node node = root;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      node = inner.children[childIndex(inner, key)];
+    }
+    return (Leaf) node;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Leaf leaf = findLeaf(key);
+    return leaf != null && leafIndex(leaf, key) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Leaf leaf = findLeaf(key);
+    if (leaf == null) {
+      return null;
+    }
+    int index = leafIndex(leaf, key);
+    return index < 0 ? null : (V) leaf.values[index];
+  }
+
+  @Override
+  public V insert(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (root == null) {
+      root = head = new Leaf(order);
+    }
+    int old_size = size;
+    V old_value = insert(root, key, value);
+    if (root.n > order) {
+      // The root split, a new root takes both halves.
+      Node right = split(root);
+      Inner inner = new Inner(order);
+      inner.children[0] = root;
+      inner.children[1] = right;
+      inner.keys[0] = split_key;
+      inner.counts[0] = count(root);
+      inner.counts[1] = count(right);
+      inner.n = 2;
+      root = inner;
+    }
+    return size == old_size ? old_value : null;
+  }
+
+  /**
+   * Inserts an entry under a node, the node may overflow, its parent splits it.
+   *
+   * @return the old value of the key.
+   */
+  @SuppressWarnings("unchecked")
+  private V insert(Node node, K key, V value) {
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf) node;
+      int index = leafIndex(leaf, key);
+      if (index >= 0) {
+        V old_value = (V) leaf.values[index];
+        leaf.values[index] = value;
+        return old_value;
+      }
+      index = -(index + 1);
+      int moved = leaf.n - index;
+      System.arraycopy(leaf.keys, index, leaf.keys, index + 1, moved);
+      System.arraycopy(leaf.values, index, leaf.values, index + 1, moved);
+      leaf.keys[index] = key;
+      leaf.values[index] = value;
+      ++leaf.n;
+      ++size;
+      return null;
+    }
+    Inner inner = (Inner) node;
+    int i = childIndex(inner, key);
+    Node child = inner.children[i];
+    int old_size = size;
+    V old_value = insert(child, key, value);
+    if (size == old_size) {
+      return old_value;
+    }
+    ++inner.counts[i];
+    if (child.n > order) {
+      Node right = split(child);
+      int moved = inner.n - i - 1;
+      System.arraycopy(inner.children, i + 1, inner.children, i + 2, moved);
+      System.arraycopy(inner.counts, i + 1, inner.counts, i + 2, moved);
+      System.arraycopy(inner.keys, i, inner.keys, i + 1, moved);
+      inner.children[i + 1] = right;
+      inner.keys[i] = split_key;
+      int right_count = count(right);
+      inner.counts[i + 1] = right_count;
+      inner.counts[i] -= right_count;
+      ++inner.n;
+    }
+    return null;
+  }
+
+  /**
+   * Splits an overflowing node in two halves, the first key of the right half is left in {@link
+   * #split_key}.
+   *
+   * @return the right half.
+   */
+  private Node split(Node node) {
+    int mid = node.n / 2;
+    if (node instanceof Leaf) {
+      Leaf left = (Leaf) node;
+      Leaf right = new Leaf(order);
+      right.n = left.n - mid;
+      System.arraycopy(left.keys, mid, right.keys, 0, right.n);
+      System.arraycopy(left.values, mid, right.values, 0, right.n);
+      clear(left.keys, mid, left.n);
+      clear(left.values, mid, left.n);
+      left.n = mid;
+      right.next = left.next;
+      if (right.next != null) {
+        right.next.previous = right;
+      }
+      right.previous = left;
+      left.next = right;
+      split_key = right.keys[0];
+      return right;
+    }
+    Inner left = (Inner) node;
+    Inner right = new Inner(order);
+    right.n = left.n - mid;
+    System.arraycopy(left.children, mid, right.children, 0, right.n);
+    System.arraycopy(left.counts, mid, right.counts, 0, right.n);
+    System.arraycopy(left.keys, mid, right.keys, 0, right.n - 1);
+    // The separator before the right half moves up.
+    split_key = left.keys[mid - 1];
+    clear(left.children, mid, left.n);
+    clear(left.keys, mid - 1, left.n - 1);
+    left.n = mid;
+    return right;
+  }
+
+  private static void clear(Object[] array, int from, int to) {
+    for (int i = from; i < to; ++i) {
+      array[i] = null;
+    }
+  }
+
+  /** @return the number of entries under a node. */
+  private static int count(Node node) {
+    if (node instanceof Leaf) {
+      return node.n;
+    }
+    Inner inner = (Inner) node;
+    int count = 0;
+    for (int i = 0; i < inner.n; ++i) {
+      count += inner.counts[i];
+    }
+    return count;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (root == null) {
+      return null;
+    }
+    Object old_value = remove(root, key);
+    if (old_value == MISSING) {
+      return null;
+    }
+    if (root instanceof Inner && root.n == 1) {
+      root = ((Inner) root).children[0];
+    } else if (root.n == 0) {
+      root = head = null;
+    }
+    return (V) old_value;
+  }
+
+  /**
+   * Removes an entry under a node, the node may underflow, its parent fixes it.
+   *
+   * @return the old value of the key, or {@link #MISSING}.
+   */
+  private Object remove(Node node, Object key) {
+    if (node instanceof Leaf) {
+      Leaf leaf = (Leaf) node;
+      int index = leafIndex(leaf, key);
+      if (index < 0) {
+        return MISSING;
+      }
+      Object old_value = leaf.values[index];
+      int moved = leaf.n - index - 1;
+      System.arraycopy(leaf.keys, index + 1, leaf.keys, index, moved);
+      System.arraycopy(leaf.values, index + 1, leaf.values, index, moved);
+      --leaf.n;
+      leaf.keys[leaf.n] = null;
+      leaf.values[leaf.n] = null;
+      --size;
+      return old_value;
+    }
+    Inner inner = (Inner) node;
+    int i = childIndex(inner, key);
+    Object old_value = remove(inner.children[i], key);
+    if (old_value != MISSING) {
+      --inner.counts[i];
+      if (inner.children[i].n < minimum) {
+        rebalance(inner, i);
+      }
+    }
+    return old_value;
+  }
+
+  /**
+   * Fixes an underflowing child, it borrows an entry or a child from a sibling with more than the
+   * minimum, or else it is merged with a sibling.
+   */
+  private void rebalance(Inner parent, int i) {
+    Node child = parent.children[i];
+    Node left = i > 0 ? parent.children[i - 1] : null;
+    Node right = i + 1 < parent.n ? parent.children[i + 1] : null;
+    if (left != null && left.n > minimum) {
+      borrowFromLeft(parent, i, left, child);
+    } else if (right != null && right.n > minimum) {
+      borrowFromRight(parent, i, child, right);
+    } else if (left != null) {
+      merge(parent, i - 1, left, child);
+    } else {
+      merge(parent, i, child, right);
+    }
+  }
+
+  private void borrowFromLeft(Inner parent, int i, Node left, Node child) {
+    int last = left.n - 1;
+    int moved;
+    if (child instanceof Leaf) {
+      Leaf l = (Leaf) left, c = (Leaf) child;
+      System.arraycopy(c.keys, 0, c.keys, 1, c.n);
+      System.arraycopy(c.values, 0, c.values, 1, c.n);
+      c.keys[0] = l.keys[last];
+      c.values[0] = l.values[last];
+      l.keys[last] = null;
+      l.values[last] = null;
+      parent.keys[i - 1] = c.keys[0];
+      moved = 1;
+    } else {
+      Inner l = (Inner) left, c = (Inner) child;
+      System.arraycopy(c.children, 0, c.children, 1, c.n);
+      System.arraycopy(c.counts, 0, c.counts, 1, c.n);
+      System.arraycopy(c.keys, 0, c.keys, 1, c.n - 1);
+      c.children[0] = l.children[last];
+      c.counts[0] = moved = l.counts[last];
+      c.keys[0] = parent.keys[i - 1];
+      parent.keys[i - 1] = l.keys[last - 1];
+      l.children[last] = null;
+      l.keys[last - 1] = null;
+    }
+    --left.n;
+    ++child.n;
+    parent.counts[i - 1] -= moved;
+    parent.counts[i] += moved;
+  }
+
+  private void borrowFromRight(Inner parent, int i, Node child, Node right) {
+    int moved;
+    if (child instanceof Leaf) {
+      Leaf c = (Leaf) child, r = (Leaf) right;
+      c.keys[c.n] = r.keys[0];
+      c.values[c.n] = r.values[0];
+      System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+      System.arraycopy(r.values, 1, r.values, 0, r.n - 1);
+      r.keys[r.n - 1] = null;
+      r.values[r.n - 1] = null;
+      parent.keys[i] = r.keys[0];
+      moved = 1;
+    } else {
+      Inner c = (Inner) child, r = (Inner) right;
+      c.children[c.n] = r.children[0];
+      c.counts[c.n] = moved = r.counts[0];
+      c.keys[c.n - 1] = parent.keys[i];
+      parent.keys[i] = r.keys[0];
+      System.arraycopy(r.children, 1, r.children, 0, r.n - 1);
+      System.arraycopy(r.counts, 1, r.counts, 0, r.n - 1);
+      System.arraycopy(r.keys, 1, r.keys, 0, r.n - 2);
+      r.children[r.n - 1] = null;
+      r.keys[r.n - 2] = null;
+    }
+    --right.n;
+    ++child.n;
+    parent.counts[i] += moved;
+    parent.counts[i + 1] -= moved;
+  }
+
+  /** Merges the child {@code i + 1} of an inner node into the child {@code i}. */
+  private void merge(Inner parent, int i, Node left, Node right) {
+    if (left instanceof Leaf) {
+      Leaf l = (Leaf) left, r = (Leaf) right;
+      System.arraycopy(r.keys, 0, l.keys, l.n, r.n);
+      System.arraycopy(r.values, 0, l.values, l.n, r.n);
+      l.next = r.next;
+      if (l.next != null) {
+        l.next.previous = l;
+      }
+    } else {
+      Inner l = (Inner) left, r = (Inner) right;
+      // The separator of the right child moves down.
+      l.keys[l.n - 1] = parent.keys[i];
+      System.arraycopy(r.keys, 0, l.keys, l.n, r.n - 1);
+      System.arraycopy(r.children, 0, l.children, l.n, r.n);
+      System.arraycopy(r.counts, 0, l.counts, l.n, r.n);
+    }
+    left.n += right.n;
+    parent.counts[i] += parent.counts[i + 1];
+    int moved = parent.n - i - 2;
+    System.arraycopy(parent.children, i + 2, parent.children, i + 1, moved);
+    System.arraycopy(parent.counts, i + 2, parent.counts, i + 1, moved);
+    System.arraycopy(parent.keys, i + 1, parent.keys, i, moved);
+    --parent.n;
+    parent.children[parent.n] = null;
+    parent.keys[parent.n - 1] = null;
+  }
+
+  @Override
+  public int rank(K key) {
+    return countBelow(key, false);
+  }
+
+  @Override
+  public Dictionary.Entry<K, V> select(int i) {
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("Illegal rank: " + i);
+    }
+    Node node = root;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      int c = 0;
+      while (i >= inner.counts[c]) {
+        i -= inner.counts[c++];
+      }
+      node = inner.children[c];
+    }
+    return new LeafEntry<>((Leaf) node, i);
+  }
+
+  @Override
+  public int countInRange(K lo, K hi) {
+    if (lo == null || hi == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (lo.compareTo(hi) > 0) {
+      return 0;
+    }
+    return countBelow(hi, true) - countBelow(lo, false);
+  }
+
+  /**
+   * Counts the keys smaller than a given key in one descent, the counts of the children left behind
+   * are summed.
+   *
+   * @param key the key.
+   * @param inclusive {@code true} to count the key itself.
+   * @return the number of keys smaller than, or equal to if {@code inclusive}, {@code key}.
+   */
+  private int countBelow(K key, boolean inclusive) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    int count = 0;
+    Node node = root;
+    while (node instanceof Inner) {
+      Inner inner = (Inner) node;
+      int i = childIndex(inner, key);
+      for (int c = 0; c < i; ++c) {
+        count += inner.counts[c];
+      }
+      node = inner.children[i];
+    }
+    if (node != null) {
+      int index = leafIndex((Leaf) node, key);
+      count += index >= 0 ? (inclusive ? index + 1 : index) : -(index + 1);
+    }
+    return count;
+  }
+
+  /** Performs an action for each entry of the tree, in the order of the keys. */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    for (Leaf leaf = head; leaf != null; leaf = leaf.next) {
+      Object[] keys = leaf.keys, values = leaf.values;
+      for (int i = 0, n = leaf.n; i < n; ++i) {
+        action.accept((K) keys[i], (V) values[i]);
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEachInRange(K lo, K hi, BiConsumer<? super K, ? super V> action) {
+    if (lo == null || hi == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Objects.requireNonNull(action);
+    Leaf leaf = findLeaf(lo);
+    if (leaf == null) {
+      return;
+    }
+    int i = leafIndex(leaf, lo);
+    if (i < 0) {
+      i = -(i + 1);
+    }
+    for (; leaf != null; leaf = leaf.next, i = 0) {
+      Object[] keys = leaf.keys, values = leaf.values;
+      for (int n = leaf.n; i < n; ++i) {
+        if (hi.compareTo((K) keys[i]) < 0) {
+          return;
+        }
+        action.accept((K) keys[i], (V) values[i]);
+      }
+    }
+  }
+
+  /** Prints the tree, a line per level. */
+  public void print() {
+    if (root == null) {
+      System.out.print("Tree is empty!\n");
+      return;
+    }
+    List<Node> level = List.of(root);
+    while (!level.isEmpty()) {
+      List<Node> next = new ArrayList<>();
+      StringBuilder line = new StringBuilder();
+      for (Node node : level) {
+        line.append('[');
+        int keys = node instanceof Leaf ? node.n : node.n - 1;
+        for (int i = 0; i < keys; ++i) {
+          line.append(i == 0 ? "" : " ").append(node.keys[i]);
+        }
+        line.append("] ");
+        if (node instanceof Inner) {
+          for (int i = 0; i < node.n; ++i) {
+            next.add(((Inner) node).children[i]);
+          }
+        }
+      }
+      System.out.println(line);
+      level = next;
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package structures;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An immutable byte string to be used as a table key.
+ *
+ * <p>The bytes are copied once, when the key is created, and the hash code is computed and cached
+ * at the same time. Tables keyed by {@code ByteKey} can be probed with a slice of a {@code byte[]}
+ * or of a {@link ByteBuffer} without creating a key, see {@link HashTableList#getBytes(byte[], int,
+ * int)} and {@link HashTableLinear#getBytes(ByteBuffer)}.
+ *
+ * @see HashStrategy#hashBytes(byte[], int, int)
+ * @author André Gabriel
+ */
+public final class ByteKey {
+
+  final byte[] bytes;
+
+  /** The cached hash code. */
+  private final int hash;
+
+  private ByteKey(byte[] p_bytes) {
+    this.bytes = p_bytes;
+    this.hash = hashCode(p_bytes, 0, p_bytes.length);
+  }
+
+  /**
+   * Creates a key with a copy of the given bytes.
+   *
+   * @param b the bytes.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @return the key.
+   * @throws IndexOutOfBoundsException if the range is out of the array.
+   */
+  public static ByteKey copyOf(byte[] b, int off, int len) {
+    return new ByteKey(Arrays.copyOfRange(b, off, Math.addExact(off, len)));
+  }
+
+  /**
+   * Creates a key with a copy of the given bytes.
+   *
+   * @param b the bytes.
+   * @return the key.
+   */
+  public static ByteKey copyOf(byte[] b) {
+    return new ByteKey(b.clone());
+  }
+
+  /**
+   * Creates a key with a copy of the remaining bytes of a buffer, the buffer position is not
+   * changed.
+   *
+   * @param buffer the buffer.
+   * @return the key.
+   */
+  public static ByteKey copyOf(ByteBuffer buffer) {
+    byte[] b = new byte[buffer.remaining()];
+    buffer.get(buffer.position(), b);
+    return new ByteKey(b);
+  }
+
+  /**
+   * Creates a key with the UTF-8 bytes of a string.
+   *
+   * @param s the string.
+   * @return the key.
+   */
+  public static ByteKey of(String s) {
+    return new ByteKey(s.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** @return the number of bytes of the key. */
+  public int length() {
+    return bytes.length;
+  }
+
+  /**
+   * Returns a byte of the key.
+   *
+   * @param index the index of the byte.
+   * @return the byte at {@code index}.
+   */
+  public byte byteAt(int index) {
+    return bytes[index];
+  }
+
+  /** @return a copy of the bytes of the key. */
+  public byte[] toByteArray() {
+    return bytes.clone();
+  }
+
+  /**
+   * Returns {@code true} if the key has the same bytes of a range.
+   *
+   * @param b the bytes.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @return {@code true} if the contents are equal or {@code false} otherwise.
+   */
+  public boolean contentEquals(byte[] b, int off, int len) {
+    return len == bytes.length && Arrays.equals(bytes, 0, len, b, off, off + len);
+  }
+
+  /**
+   * Returns {@code true} if the key has the same bytes of the remaining bytes of a buffer.
+   *
+   * @param buffer the buffer, its position is not changed.
+   * @return {@code true} if the contents are equal or {@code false} otherwise.
+   */
+  public boolean contentEquals(ByteBuffer buffer) {
+    int len = buffer.remaining();
+    if (len != bytes.length) {
+      return false;
+    }
+    int off = buffer.position();
+    for (int i = 0; i < len; ++i) {
+      if (bytes[i] != buffer.get(off + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns {@code true} if a stored {@code ByteKey} or {@code byte[]} key has the same bytes of a
+   * range.
+   *
+   * @param stored the key stored in a table.
+   * @param b the bytes.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @return {@code true} if the contents are equal or {@code false} otherwise.
+   */
+  static boolean matches(Object stored, byte[] b, int off, int len) {
+    if (stored instanceof ByteKey) {
+      return ((ByteKey) stored).contentEquals(b, off, len);
+    } else if (stored instanceof byte[]) {
+      byte[] bytes = (byte[]) stored;
+      return len == bytes.length && Arrays.equals(bytes, 0, len, b, off, off + len);
+    }
+    return false;
+  }
+
+  /**
+   * Returns {@code true} if a stored {@code ByteKey} or {@code byte[]} key has the same bytes of
+   * the remaining bytes of a buffer.
+   *
+   * @param stored the key stored in a table.
+   * @param buffer the buffer, its position is not changed.
+   * @return {@code true} if the contents are equal or {@code false} otherwise.
+   */
+  static boolean matches(Object stored, ByteBuffer buffer) {
+    if (stored instanceof ByteKey) {
+      return ((ByteKey) stored).contentEquals(buffer);
+    } else if (stored instanceof byte[]) {
+      byte[] bytes = (byte[]) stored;
+      int off = buffer.position();
+      if (bytes.length != buffer.remaining()) {
+        return false;
+      }
+      for (int i = 0; i < bytes.length; ++i) {
+        if (bytes[i] != buffer.get(off + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the hash code of a range of bytes, the same as {@link Arrays#hashCode(byte[])}.
+   *
+   * @param b the bytes.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @return the hash code.
+   */
+  static int hashCode(byte[] b, int off, int len) {
+    int h = 1;
+    for (int i = off; i < off + len; ++i) {
+      h = 31 * h + b[i];
+    }
+    return h;
+  }
+
+  /**
+   * Returns the hash code of the remaining bytes of a buffer, the buffer position is not changed.
+   *
+   * @param buffer the buffer.
+   * @return the hash code.
+   */
+  static int hashCode(ByteBuffer buffer) {
+    int h = 1;
+    for (int i = buffer.position(); i < buffer.limit(); ++i) {
+      h = 31 * h + buffer.get(i);
+    }
+    return h;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof ByteKey) {
+      ByteKey other = (ByteKey) o;
+      return hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
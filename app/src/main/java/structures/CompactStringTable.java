@@ -0,0 +1,651 @@
+package structures;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash table mapping {@code String} keys to {@code String} values, both stored as bytes in a shared
+ * arena.
+ *
+ * <p>It follows the layout of {@link HashTableLinear}, power of two table, linear probing and
+ * removed slots kept as markers, but a slot is a single {@code long}: the key hash in the high
+ * bits and the offset of the entry in the arena in the low bits. There is no entry, key or value
+ * object. An entry of the arena is the UTF-8 bytes of the key, then of the value, each prefixed by
+ * its length as a varint. A lookup compares the chars of the searched key with the bytes of the
+ * arena, no key is created to search.
+ *
+ * <p>Replaced and removed entries stay in the arena as garbage, until the arena is full. The live
+ * entries are then copied to a new arena a quarter larger than them, so the arena holds at most
+ * about 25% of free room or garbage.
+ *
+ * <p>The bytes are a modified UTF-8, an unpaired surrogate is encoded as any other char, so every
+ * {@code String} is stored as is. A {@code null} value is allowed.
+ *
+ * @see HashTableLinear
+ * @see ObjectIntHashTable
+ * @author André Gabriel
+ */
+public class CompactStringTable implements Dictionary<String, String> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  /** The maximum capacity - MUST be a power of two. */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** The load factor. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
+
+  /**
+   * The probe length, per bit of capacity, at which a table using a built-in strategy switches to a
+   * seeded {@link SipHashStrategy}. Honest clusters grow with the log of the capacity.
+   */
+  static final int PROBE_LIMIT = 32;
+
+  /** The maximum size of the arena. */
+  static final int MAXIMUM_ARENA = Integer.MAX_VALUE - 8;
+
+  /** The least number of free bytes left at the end of the arena after a compaction. */
+  private static final int MINIMUM_ARENA_ROOM = 64;
+
+  /** The bytes of arena per slot of the initial arena. */
+  private static final int INITIAL_BYTES_PER_SLOT = 16;
+
+  /** The reference of a removed slot, the references of the entries are their offset plus 1. */
+  private static final int REMOVED = -1;
+
+  /** A removed slot. */
+  private static final long REMOVED_SLOT = REMOVED & 0xffffffffL;
+
+  /** The number of entries contained in this map. */
+  private int size;
+
+  /** The number of removed slots still in the table. */
+  private int tombstones;
+
+  /** The slots, {@code 0} for an empty slot. */
+  private long[] slots;
+
+  /** The entries. */
+  private byte[] arena;
+
+  /** The number of bytes of the arena in use, the live entries and the garbage. */
+  private int arena_size;
+
+  /** The number of bytes of the arena held by replaced or removed entries. */
+  private int garbage;
+
+  /** The next size value at which to resize (capacity * load factor). */
+  private int threshold;
+  /** The load factor for the hash table. */
+  private final float load_factor;
+  /** The strategy used to hash the keys. */
+  private HashStrategy strategy;
+
+  public CompactStringTable(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (initial_capacity > MAXIMUM_CAPACITY) {
+      initial_capacity = MAXIMUM_CAPACITY;
+    }
+    if (p_load_factor <= 0 || p_load_factor >= 1 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
+    allocate(Math.max(2, Integer.highestOneBit(Math.max(1, initial_capacity - 1)) << 1));
+    this.arena = new byte[(int) Math.min(MAXIMUM_ARENA, (long) threshold * INITIAL_BYTES_PER_SLOT)];
+  }
+
+  public CompactStringTable(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public CompactStringTable(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public CompactStringTable() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /** @return the strategy used to hash the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    return key instanceof String && findSlot(strategy.hashChars((String) key), (String) key) >= 0;
+  }
+
+  @Override
+  public String get(String key) {
+    return getChars(key);
+  }
+
+  /**
+   * Return the value mapped to the key with the same chars of a given sequence, or {@code null} if
+   * not in the map. No key is created to search.
+   *
+   * @param chars the chars of the key.
+   * @return the value associated with the key or {@code null}, otherwise.
+   * @throws NullPointerException if the specified chars are null.
+   */
+  public String getChars(CharSequence chars) {
+    if (chars == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    int slot = findSlot(strategy.hashChars(chars), chars);
+    return slot < 0 ? null : valueAt(offsetOf(slots[slot]));
+  }
+
+  @Override
+  public String insert(String key, String value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    int hash = strategy.hashChars(key);
+    int slot = findSlot(hash, key);
+    if (slot >= 0) {
+      int offset = offsetOf(slots[slot]);
+      String old_value = valueAt(offset);
+      if (!replaceInPlace(offset, value)) {
+        garbage += entryLength(offset);
+        // The old entry is garbage, a compaction of the arena must not copy it.
+        slots[slot] = REMOVED_SLOT;
+        offset = append(key, value);
+        slots[slot] = pack(hash, offset);
+      }
+      return old_value;
+    }
+    slot = -(slot + 1);
+    int offset = append(key, value);
+    if (slots[slot] == REMOVED_SLOT) {
+      --tombstones;
+    }
+    slots[slot] = pack(hash, offset);
+    int mask = slots.length - 1;
+    if (((slot - hash) & mask) > PROBE_LIMIT * Integer.numberOfTrailingZeros(slots.length)) {
+      harden();
+    }
+    if (++size + tombstones > threshold) {
+      rehash(size > threshold >> 1 ? slots.length << 1 : slots.length);
+    }
+    return null;
+  }
+
+  @Override
+  public String remove(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (!(key instanceof String)) {
+      return null;
+    }
+    int slot = findSlot(strategy.hashChars((String) key), (String) key);
+    if (slot < 0) {
+      return null;
+    }
+    int offset = offsetOf(slots[slot]);
+    String old_value = valueAt(offset);
+    garbage += entryLength(offset);
+    slots[slot] = REMOVED_SLOT;
+    --size;
+    ++tombstones;
+    return old_value;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super String> action) {
+    Objects.requireNonNull(action);
+    long[] ss = slots;
+    for (long slot : ss) {
+      if (slot != 0 && slot != REMOVED_SLOT) {
+        int offset = offsetOf(slot);
+        action.accept(keyAt(offset), valueAt(offset));
+      }
+    }
+  }
+
+  /** @return the actual capacity of table. */
+  public int capacity() {
+    return slots.length;
+  }
+
+  /** @return the number of bytes of the arena in use, including the garbage. */
+  public int arenaBytes() {
+    return arena_size;
+  }
+
+  /** @return the number of bytes of the arena held by replaced or removed entries. */
+  public int garbageBytes() {
+    return garbage;
+  }
+
+  /**
+   * Copies the live entries to an arena of their exact size, dropping the garbage and the room
+   * left for the next entries. The next insertion grows the arena again.
+   */
+  public void trimToSize() {
+    compact(arena_size - garbage);
+  }
+
+  /** Prints the map. */
+  public void print() {
+    for (int i = 0; i < slots.length; i++) {
+      long slot = slots[i];
+      if (slot == 0) {
+        System.out.printf("%d -> %s\n", i, "null");
+      } else if (slot == REMOVED_SLOT) {
+        System.out.printf("%d -> %s\n", i, "removed");
+      } else {
+        int offset = offsetOf(slot);
+        System.out.printf("%d -> <%s:%s>\n", i, keyAt(offset), valueAt(offset));
+      }
+    }
+  }
+
+  private static long pack(int hash, int offset) {
+    return ((long) hash << 32) | (offset + 1);
+  }
+
+  private static int offsetOf(long slot) {
+    return (int) slot - 1;
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * @param hash the key hash.
+   * @param key the chars of the key to be searched.
+   * @return the slot of the key, or {@code -(slot + 1)} where {@code slot} is the first removed
+   *     slot or the empty slot of the key probe sequence.
+   */
+  private int findSlot(int hash, CharSequence key) {
+    long[] ss = slots;
+    int mask = ss.length - 1;
+    int index = hash & mask;
+    int free = -1;
+    long slot;
+
+    // The load factor is below 1, so there is always an empty slot.
+    while ((slot = ss[index]) != 0) {
+      if (slot == REMOVED_SLOT) {
+        if (free < 0) {
+          free = index;
+        }
+      } else if ((int) (slot >>> 32) == hash && keyEquals(key, offsetOf(slot))) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -((free >= 0 ? free : index) + 1);
+  }
+
+  private void allocate(int cap) {
+    slots = new long[cap];
+    tombstones = 0;
+    threshold = cap >= MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY - 1 : (int) (cap * load_factor);
+  }
+
+  /**
+   * Moves every slot to a new table, dropping the removed slots. The arena is not changed.
+   *
+   * <p>The capacity is only doubled when the live keys need it, otherwise the table is rebuilt with
+   * the same capacity to clean the removed slots.
+   *
+   * @param new_cap the new capacity - MUST be a power of two.
+   */
+  private void rehash(int new_cap) {
+    long[] old_slots = slots;
+    if (new_cap > MAXIMUM_CAPACITY) {
+      if (tombstones == 0) {
+        throw new IllegalStateException("HashTable is full");
+      }
+      new_cap = MAXIMUM_CAPACITY;
+    }
+    allocate(new_cap);
+    for (long slot : old_slots) {
+      if (slot != 0 && slot != REMOVED_SLOT) {
+        place(slot);
+      }
+    }
+  }
+
+  /**
+   * Put a slot in the first empty slot of its probe sequence.
+   *
+   * @param slot the slot to be placed.
+   */
+  private void place(long slot) {
+    long[] ss = slots;
+    int mask = ss.length - 1;
+    int index = (int) (slot >>> 32) & mask;
+    while (ss[index] != 0) {
+      index = (index + 1) & mask;
+    }
+    ss[index] = slot;
+  }
+
+  /**
+   * Switches the table to a seeded hash when a probe sequence gets too long.
+   *
+   * <p>Only tables using a built-in strategy switch. The switch happens once, every key is read
+   * from the arena and rehashed to a new table of same capacity.
+   */
+  private void harden() {
+    if (!(strategy instanceof HashStrategies)) {
+      return;
+    }
+    strategy = SipHashStrategy.hardening();
+    long[] old_slots = slots;
+    allocate(old_slots.length);
+    for (long slot : old_slots) {
+      if (slot != 0 && slot != REMOVED_SLOT) {
+        int offset = offsetOf(slot);
+        place(pack(strategy.hashChars(keyAt(offset)), offset));
+      }
+    }
+  }
+
+  // The arena.
+
+  /**
+   * Append an entry to the arena, making room for it first.
+   *
+   * @param key the key.
+   * @param value the value, it may be {@code null}.
+   * @return the offset of the entry.
+   * @throws IllegalStateException if the live entries do not fit in the maximum arena.
+   */
+  private int append(String key, String value) {
+    int key_length = utf8Length(key);
+    int value_length = value == null ? 0 : utf8Length(value);
+    // A null value is the length 0, the length of any other value is shifted by 1.
+    int value_tag = value == null ? 0 : value_length + 1;
+    long need =
+        (long) varintLength(key_length) + key_length + varintLength(value_tag) + value_length;
+    reserve(need);
+    int offset = arena_size;
+    int p = writeVarint(arena, offset, key_length);
+    p = encode(key, arena, p);
+    p = writeVarint(arena, p, value_tag);
+    if (value != null) {
+      p = encode(value, arena, p);
+    }
+    arena_size = p;
+    return offset;
+  }
+
+  /**
+   * Overwrite the value of an entry if the new value has the same number of bytes.
+   *
+   * @param offset the offset of the entry.
+   * @param value the new value.
+   * @return {@code true} if the value was overwritten.
+   */
+  private boolean replaceInPlace(int offset, String value) {
+    byte[] a = arena;
+    int key_length = readVarint(a, offset);
+    int p = offset + varintLength(key_length) + key_length;
+    int value_tag = readVarint(a, p);
+    if (value == null) {
+      return value_tag == 0;
+    }
+    if (value_tag == 0 || utf8Length(value) != value_tag - 1) {
+      return false;
+    }
+    encode(value, a, p + varintLength(value_tag));
+    return true;
+  }
+
+  /**
+   * Makes room for a number of bytes at the end of the arena. A full arena is compacted in an arena
+   * a quarter larger than the live entries, so it grows by about 1.25x and shrinks back once the
+   * garbage is dropped. Each compaction is paid by the quarter of the live bytes appended since the
+   * previous one, so an appended byte is copied at most about 5 times.
+   *
+   * @param need the number of bytes.
+   */
+  private void reserve(long need) {
+    if (need <= arena.length - arena_size) {
+      return;
+    }
+    long live = (long) arena_size - garbage + need;
+    if (live > MAXIMUM_ARENA) {
+      throw new IllegalStateException("Arena is full");
+    }
+    long new_length = live + Math.max(live >> 2, MINIMUM_ARENA_ROOM);
+    compact((int) Math.min(MAXIMUM_ARENA, new_length));
+  }
+
+  /**
+   * Copies the live entries to a new arena, in the order of the slots.
+   *
+   * @param length the length of the new arena, it must have room for the live entries.
+   */
+  private void compact(int length) {
+    byte[] old_arena = arena;
+    byte[] new_arena = new byte[length];
+    long[] ss = slots;
+    int p = 0;
+    for (int i = 0; i < ss.length; ++i) {
+      long slot = ss[i];
+      if (slot != 0 && slot != REMOVED_SLOT) {
+        int offset = offsetOf(slot);
+        int entry_length = entryLength(offset);
+        System.arraycopy(old_arena, offset, new_arena, p, entry_length);
+        ss[i] = pack((int) (slot >>> 32), p);
+        p += entry_length;
+      }
+    }
+    arena = new_arena;
+    arena_size = p;
+    garbage = 0;
+  }
+
+  /** @return the number of bytes of the entry at a given offset. */
+  private int entryLength(int offset) {
+    byte[] a = arena;
+    int key_length = readVarint(a, offset);
+    int p = offset + varintLength(key_length) + key_length;
+    int value_tag = readVarint(a, p);
+    p += varintLength(value_tag) + (value_tag == 0 ? 0 : value_tag - 1);
+    return p - offset;
+  }
+
+  private String keyAt(int offset) {
+    int key_length = readVarint(arena, offset);
+    return decode(arena, offset + varintLength(key_length), key_length);
+  }
+
+  private String valueAt(int offset) {
+    byte[] a = arena;
+    int key_length = readVarint(a, offset);
+    int p = offset + varintLength(key_length) + key_length;
+    int value_tag = readVarint(a, p);
+    return value_tag == 0 ? null : decode(a, p + varintLength(value_tag), value_tag - 1);
+  }
+
+  /**
+   * Compares the chars of a key with the key of the entry at a given offset, as {@link
+   * #encode} would write them.
+   */
+  private boolean keyEquals(CharSequence chars, int offset) {
+    byte[] b = arena;
+    int length = readVarint(b, offset);
+    int p = offset + varintLength(length);
+    int end = p + length;
+    for (int i = 0, n = chars.length(); i < n; ++i) {
+      char c = chars.charAt(i);
+      if (c < 0x80) {
+        if (p >= end || b[p++] != c) {
+          return false;
+        }
+      } else if (c < 0x800) {
+        if (p + 2 > end || b[p++] != (byte) (0xc0 | c >> 6) || b[p++] != (byte) (0x80 | c & 0x3f)) {
+          return false;
+        }
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < n
+          && Character.isLowSurrogate(chars.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, chars.charAt(++i));
+        if (p + 4 > end
+            || b[p++] != (byte) (0xf0 | cp >> 18)
+            || b[p++] != (byte) (0x80 | cp >> 12 & 0x3f)
+            || b[p++] != (byte) (0x80 | cp >> 6 & 0x3f)
+            || b[p++] != (byte) (0x80 | cp & 0x3f)) {
+          return false;
+        }
+      } else if (p + 3 > end
+          || b[p++] != (byte) (0xe0 | c >> 12)
+          || b[p++] != (byte) (0x80 | c >> 6 & 0x3f)
+          || b[p++] != (byte) (0x80 | c & 0x3f)) {
+        return false;
+      }
+    }
+    return p == end;
+  }
+
+  /** @return the number of bytes {@link #encode} writes for the given chars. */
+  static int utf8Length(CharSequence chars) {
+    int n = chars.length();
+    long length = n;
+    for (int i = 0; i < n; ++i) {
+      char c = chars.charAt(i);
+      if (c >= 0x800) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < n
+            && Character.isLowSurrogate(chars.charAt(i + 1))) {
+          length += 2; // 4 bytes for 2 chars
+          ++i;
+        } else {
+          length += 2;
+        }
+      } else if (c >= 0x80) {
+        length += 1;
+      }
+    }
+    if (length > MAXIMUM_ARENA) {
+      throw new IllegalArgumentException("Illegal string length: " + n);
+    }
+    return (int) length;
+  }
+
+  /**
+   * Writes the UTF-8 bytes of the given chars. A surrogate pair is a 4 bytes code point, an
+   * unpaired surrogate is written with 3 bytes as any other char.
+   *
+   * @param chars the chars.
+   * @param b the bytes, with room for {@link #utf8Length} bytes.
+   * @param p the first byte.
+   * @return the byte after the last written byte.
+   */
+  static int encode(CharSequence chars, byte[] b, int p) {
+    for (int i = 0, n = chars.length(); i < n; ++i) {
+      char c = chars.charAt(i);
+      if (c < 0x80) {
+        b[p++] = (byte) c;
+      } else if (c < 0x800) {
+        b[p++] = (byte) (0xc0 | c >> 6);
+        b[p++] = (byte) (0x80 | c & 0x3f);
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < n
+          && Character.isLowSurrogate(chars.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, chars.charAt(++i));
+        b[p++] = (byte) (0xf0 | cp >> 18);
+        b[p++] = (byte) (0x80 | cp >> 12 & 0x3f);
+        b[p++] = (byte) (0x80 | cp >> 6 & 0x3f);
+        b[p++] = (byte) (0x80 | cp & 0x3f);
+      } else {
+        b[p++] = (byte) (0xe0 | c >> 12);
+        b[p++] = (byte) (0x80 | c >> 6 & 0x3f);
+        b[p++] = (byte) (0x80 | c & 0x3f);
+      }
+    }
+    return p;
+  }
+
+  /**
+   * Reads the chars of bytes written by {@link #encode}.
+   *
+   * @param b the bytes.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @return the string.
+   */
+  static String decode(byte[] b, int off, int len) {
+    int end = off + len;
+    int p = off;
+    while (p < end && b[p] >= 0) {
+      ++p;
+    }
+    if (p == end) { // ASCII, the string is made from the bytes
+      return new String(b, off, len, StandardCharsets.ISO_8859_1);
+    }
+    char[] chars = new char[len];
+    int n = 0;
+    for (p = off; p < end; ) {
+      int x = b[p++];
+      if (x >= 0) {
+        chars[n++] = (char) x;
+      } else if ((x & 0xe0) == 0xc0) {
+        chars[n++] = (char) ((x & 0x1f) << 6 | b[p++] & 0x3f);
+      } else if ((x & 0xf0) == 0xe0) {
+        chars[n++] = (char) ((x & 0x0f) << 12 | (b[p++] & 0x3f) << 6 | b[p++] & 0x3f);
+      } else {
+        int cp = (x & 0x07) << 18 | (b[p++] & 0x3f) << 12 | (b[p++] & 0x3f) << 6 | b[p++] & 0x3f;
+        chars[n++] = Character.highSurrogate(cp);
+        chars[n++] = Character.lowSurrogate(cp);
+      }
+    }
+    return new String(chars, 0, n);
+  }
+
+  /** @return the number of bytes of the varint of a non negative value. */
+  static int varintLength(int value) {
+    return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+  }
+
+  /**
+   * Writes a non negative value as a varint, 7 bits per byte, the low bits first, the high bit set
+   * on every byte but the last.
+   *
+   * @return the byte after the varint.
+   */
+  static int writeVarint(byte[] b, int p, int value) {
+    while ((value & ~0x7f) != 0) {
+      b[p++] = (byte) (value & 0x7f | 0x80);
+      value >>>= 7;
+    }
+    b[p++] = (byte) value;
+    return p;
+  }
+
+  /** @return the value of the varint at a given offset. */
+  static int readVarint(byte[] b, int p) {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      int x = b[p++];
+      value |= (x & 0x7f) << shift;
+      if (x >= 0) {
+        return value;
+      }
+    }
+  }
+}
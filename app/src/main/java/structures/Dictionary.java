@@ -1,5 +1,10 @@
 package structures;
 
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 /**
  * The Dictionary interface.
  *
@@ -20,6 +25,16 @@ public interface Dictionary<K, V> {
    */
   int size();
 
+  /**
+   * Returns the number of key-value mappings in this map, even if more than {@code
+   * Integer.MAX_VALUE}.
+   *
+   * @return the number of key-value mappings in this map
+   */
+  default long longSize() {
+    return size();
+  }
+
   /**
    * Returns {@code true} if the map contains a specified key.
    *
@@ -62,6 +77,168 @@ public interface Dictionary<K, V> {
    */
   V remove(Object key);
 
+  /**
+   * Performs an action for each entry of the map, in the order of the map.
+   *
+   * @param action the action to be performed.
+   * @throws NullPointerException if the action is null.
+   */
+  void forEach(BiConsumer<? super K, ? super V> action);
+
+  /**
+   * Returns an immutable copy of the map, see {@link FrozenDictionary}. Tables with a {@link
+   * HashStrategy} keep their strategy.
+   *
+   * @return the frozen copy of the map.
+   * @throws IllegalStateException if the keys cannot be perfectly hashed.
+   */
+  default FrozenDictionary<K, V> freeze() {
+    return FrozenDictionary.copyOf(this);
+  }
+
+  /**
+   * Returns the strategy used to hash and compare the keys, for the structures which must agree
+   * with the equality of the map, as a {@link MembershipFilter} over its keys.
+   *
+   * @return the strategy of the map, {@link HashStrategies#XOR_SHIFT} for a map which does not
+   *     hash its keys.
+   */
+  default HashStrategy hashStrategy() {
+    return HashStrategies.XOR_SHIFT;
+  }
+
+  /**
+   * Add a key-value entry on the map only if the key is not mapped to a value.
+   *
+   * @param key the key associated with the value.
+   * @param value the value to be associated with the key.
+   * @return {@code V} the current value associated with {@code key} or {@code null}, otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  default V putIfAbsent(K key, V value) {
+    V current = get(key);
+    if (current == null) {
+      current = insert(key, value);
+    }
+    return current;
+  }
+
+  /**
+   * Replace the value of a key only if the key is on the map.
+   *
+   * @param key the key associated with the value.
+   * @param value the value to be associated with the key.
+   * @return {@code V} the previous value associated with {@code key} or {@code null}, otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  default V replace(K key, V value) {
+    V current = get(key);
+    if (current != null || containsKey(key)) {
+      current = insert(key, value);
+    }
+    return current;
+  }
+
+  /**
+   * Map a key to the value computed by a function, only if the key is not mapped to a value. If the
+   * function returns {@code null} nothing is added.
+   *
+   * <p>The function must not modify this map.
+   *
+   * @param key the key associated with the value.
+   * @param mapping the function to compute a value.
+   * @return {@code V} the current (existing or computed) value associated with {@code key} or
+   *     {@code null}, otherwise.
+   * @throws NullPointerException if the specified key or function is null.
+   */
+  default V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+    Objects.requireNonNull(mapping);
+    V current = get(key);
+    if (current == null) {
+      V value = mapping.apply(key);
+      if (value != null) {
+        insert(key, value);
+        return value;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Map a key to the value computed by a function from its current value, only if the key is
+   * mapped to a value. If the function returns {@code null} the key is removed.
+   *
+   * <p>The function must not modify this map.
+   *
+   * @param key the key associated with the value.
+   * @param remapping the function to compute a value.
+   * @return {@code V} the new value associated with {@code key} or {@code null}, otherwise.
+   * @throws NullPointerException if the specified key or function is null.
+   */
+  default V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    Objects.requireNonNull(remapping);
+    V current = get(key);
+    if (current != null) {
+      V value = remapping.apply(key, current);
+      if (value != null) {
+        insert(key, value);
+      } else {
+        remove(key);
+      }
+      return value;
+    }
+    return null;
+  }
+
+  /**
+   * Map a key to the value computed by a function from its current value, or {@code null} if
+   * there is no current value. If the function returns {@code null} the key is removed.
+   *
+   * <p>The function must not modify this map.
+   *
+   * @param key the key associated with the value.
+   * @param remapping the function to compute a value.
+   * @return {@code V} the new value associated with {@code key} or {@code null}, otherwise.
+   * @throws NullPointerException if the specified key or function is null.
+   */
+  default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    Objects.requireNonNull(remapping);
+    V current = get(key);
+    V value = remapping.apply(key, current);
+    if (value != null) {
+      insert(key, value);
+    } else if (current != null || containsKey(key)) {
+      remove(key);
+    }
+    return value;
+  }
+
+  /**
+   * Map a key to the given value if it is not mapped to a value, otherwise to the value computed
+   * by a function from the current and the given values. If the function returns {@code null} the
+   * key is removed.
+   *
+   * <p>The function must not modify this map.
+   *
+   * @param key the key associated with the value.
+   * @param value the value to be merged with the current value.
+   * @param remapping the function to merge the values.
+   * @return {@code V} the new value associated with {@code key} or {@code null}, otherwise.
+   * @throws NullPointerException if the specified key, value or function is null.
+   */
+  default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+    Objects.requireNonNull(value);
+    Objects.requireNonNull(remapping);
+    V current = get(key);
+    V merged = current == null ? value : remapping.apply(current, value);
+    if (merged != null) {
+      insert(key, merged);
+    } else {
+      remove(key);
+    }
+    return merged;
+  }
+
   /**
    * Defines a dictionary entry (key-value pair) where the values may or may not be immutable.
    *
@@ -0,0 +1,144 @@
+package structures;
+
+import java.util.function.Consumer;
+
+/**
+ * The DictionarySet interface, a set of keys with the semantics of the keys of a {@code
+ * Dictionary}, without the values.
+ *
+ * <p>The set algebra iterates the smaller set and looks its keys up in the larger one. The sets
+ * must agree on the equality of the keys, a set using a custom {@link HashStrategy} should only be
+ * combined with sets using the same one.
+ *
+ * @param <K> the key class type.
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public interface DictionarySet<K> {
+
+  /**
+   * Returns the number of keys in this set.
+   *
+   * @return the number of keys in this set.
+   */
+  int size();
+
+  /** @return {@code true} if this set has no key. */
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns {@code true} if the set contains a specified key.
+   *
+   * @param key the key to check is on the set.
+   * @return {@code true} if this set contains the specified key or {@code false} otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  boolean contains(Object key);
+
+  /**
+   * Adds a key to the set.
+   *
+   * @param key the key.
+   * @return {@code true} if the key was not in the set.
+   * @throws NullPointerException if the specified key is null.
+   */
+  boolean add(K key);
+
+  /**
+   * Removes a key from the set.
+   *
+   * @param key the key.
+   * @return {@code true} if the key was in the set.
+   * @throws NullPointerException if the specified key is null.
+   */
+  boolean remove(Object key);
+
+  /**
+   * Performs an action for each key of the set.
+   *
+   * @param action the action to be performed.
+   */
+  void forEach(Consumer<? super K> action);
+
+  /** @return a copy of this set, of the same kind and strategy. */
+  DictionarySet<K> copy();
+
+  /**
+   * Returns an empty set of the same kind and strategy.
+   *
+   * @param expected the number of keys the set should hold without growing.
+   * @return the empty set.
+   */
+  DictionarySet<K> emptyCopy(int expected);
+
+  /**
+   * Returns the keys of this set or of another set. The larger set is copied, when it is of the
+   * same kind as this one, and the smaller one is added to the copy.
+   *
+   * @param other the other set.
+   * @return a new set, of the kind of this one.
+   */
+  @SuppressWarnings("unchecked")
+  default DictionarySet<K> union(DictionarySet<? extends K> other) {
+    DictionarySet<K> result;
+    if (size() >= other.size()) {
+      result = copy();
+      other.forEach(result::add);
+    } else if (other.getClass() == getClass()) {
+      result = (DictionarySet<K>) other.copy();
+      forEach(result::add);
+    } else {
+      result = emptyCopy(size() + other.size());
+      other.forEach(result::add);
+      forEach(result::add);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the keys of this set which are also in another set. The smaller set is iterated, the
+   * result holds its key objects.
+   *
+   * @param other the other set.
+   * @return a new set, of the kind of this one.
+   */
+  @SuppressWarnings("unchecked")
+  default DictionarySet<K> intersect(DictionarySet<?> other) {
+    DictionarySet<?> small = size() <= other.size() ? this : other;
+    DictionarySet<?> large = small == this ? other : this;
+    DictionarySet<K> result = emptyCopy(small.size());
+    small.forEach(
+        key -> {
+          if (large.contains(key)) {
+            result.add((K) key);
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Returns the keys of this set which are not in another set. When this set is the smaller one its
+   * keys are looked up in the other, else the keys of the other are removed from a copy.
+   *
+   * @param other the other set.
+   * @return a new set, of the kind of this one.
+   */
+  default DictionarySet<K> difference(DictionarySet<?> other) {
+    DictionarySet<K> result;
+    if (size() <= other.size()) {
+      result = emptyCopy(size());
+      forEach(
+          key -> {
+            if (!other.contains(key)) {
+              result.add(key);
+            }
+          });
+    } else {
+      result = copy();
+      other.forEach(result::remove);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,224 @@
+package structures;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A {@code Dictionary} answering definite misses from a {@link MembershipFilter} before the table.
+ *
+ * <p>A lookup first asks the filter, a few words of one cache line, and only a key which may be
+ * present reaches the table, so a miss usually skips the probe sequence or the chain. The filter
+ * holds every key of the table:
+ *
+ * <ul>
+ *   <li>An insert of a new key adds it to the filter.
+ *   <li>A remove removes it from a filter supporting removes, as {@link CountingBloomFilter}.
+ *       Otherwise the key stays in the filter, a stale key which only costs false positives.
+ *   <li>When the keys and the stale keys outgrow the capacity of the filter, the filter is rebuilt
+ *       from the table, twice as large if the table grew.
+ * </ul>
+ *
+ * <p>The lookups are counted, so {@link #falsePositiveRate()} reports the measured rate of the
+ * misses the filter let through.
+ *
+ * @see MembershipFilter
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public class FilteredDictionary<K, V> implements Dictionary<K, V> {
+
+  /** The default false positive rate. */
+  static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+  /** The default capacity of the filter. */
+  static final int DEFAULT_FILTER_CAPACITY = 1024;
+
+  private final Dictionary<K, V> table;
+  private MembershipFilter<K> filter;
+
+  /** The removed keys still in a filter not supporting removes. */
+  private long stale;
+
+  /** The number of lookups. */
+  private long lookups;
+
+  /** The number of lookups answered by the filter alone. */
+  private long filtered;
+
+  /** The number of lookups the filter let through for a missing key. */
+  private long false_positives;
+
+  /** The number of times the filter was rebuilt. */
+  private int rebuilds;
+
+  /**
+   * Wraps a table, the keys already in the table are added to the filter.
+   *
+   * @param p_table the table, it must not be changed but through this object.
+   * @param p_filter the filter, empty, using a hash which agrees with the equality of the table.
+   */
+  public FilteredDictionary(Dictionary<K, V> p_table, MembershipFilter<K> p_filter) {
+    if (p_table == null || p_filter == null) {
+      throw new NullPointerException("Illegal table or filter");
+    }
+    this.table = p_table;
+    this.filter = p_filter;
+    if (table.size() > 0) {
+      rebuild();
+    }
+  }
+
+  /**
+   * Wraps a table with a blocked Bloom filter of the default size and rate, hashing the keys with
+   * the strategy of the table.
+   */
+  public FilteredDictionary(Dictionary<K, V> p_table) {
+    this(
+        p_table,
+        new BlockedBloomFilter<>(
+            DEFAULT_FILTER_CAPACITY, DEFAULT_FALSE_POSITIVE_RATE, p_table.hashStrategy()));
+  }
+
+  @Override
+  public int size() {
+    return table.size();
+  }
+
+  @Override
+  public HashStrategy hashStrategy() {
+    return table.hashStrategy();
+  }
+
+  @Override
+  public long longSize() {
+    return table.longSize();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    ++lookups;
+    if (!filter.mightContain(key)) {
+      ++filtered;
+      return false;
+    }
+    if (table.containsKey(key)) {
+      return true;
+    }
+    ++false_positives;
+    return false;
+  }
+
+  @Override
+  public V get(K key) {
+    ++lookups;
+    if (!filter.mightContain(key)) {
+      ++filtered;
+      return null;
+    }
+    V value = table.get(key);
+    if (value == null && !table.containsKey(key)) {
+      ++false_positives;
+    }
+    return value;
+  }
+
+  @Override
+  public V insert(K key, V value) {
+    // A key the filter rejects is new, no need to look it up.
+    boolean present = filter.mightContain(key) && table.containsKey(key);
+    V old_value = table.insert(key, value);
+    if (!present) {
+      filter.add(key);
+      if (table.longSize() + stale > filter.capacity()) {
+        rebuild();
+      }
+    }
+    return old_value;
+  }
+
+  @Override
+  public V remove(Object key) {
+    if (!filter.mightContain(key) || !table.containsKey(key)) {
+      return null;
+    }
+    V old_value = table.remove(key);
+    if (filter.supportsRemove()) {
+      filter.remove(key);
+    } else {
+      ++stale;
+    }
+    return old_value;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    table.forEach(action);
+  }
+
+  /** Rebuilds the filter from the table, dropping the stale keys. */
+  private void rebuild() {
+    long capacity = filter.capacity();
+    while (capacity < table.longSize() && capacity < Long.MAX_VALUE / 2) {
+      capacity <<= 1;
+    }
+    MembershipFilter<K> rebuilt = filter.withCapacity(capacity);
+    table.forEach((key, value) -> rebuilt.add(key));
+    filter = rebuilt;
+    stale = 0;
+    ++rebuilds;
+  }
+
+  /** @return the filter. */
+  public MembershipFilter<K> filter() {
+    return filter;
+  }
+
+  /** @return the number of {@code get} and {@code containsKey} calls. */
+  public long lookups() {
+    return lookups;
+  }
+
+  /** @return the number of lookups answered by the filter, without touching the table. */
+  public long filteredLookups() {
+    return filtered;
+  }
+
+  /** @return the number of lookups of missing keys the filter let through. */
+  public long falsePositives() {
+    return false_positives;
+  }
+
+  /**
+   * Returns the measured false positive rate, the fraction of the lookups of missing keys which
+   * reached the table.
+   *
+   * @return the rate, or {@code 0} before the first miss.
+   */
+  public double falsePositiveRate() {
+    long misses = filtered + false_positives;
+    return misses == 0 ? 0 : (double) false_positives / misses;
+  }
+
+  /** @return the number of times the filter was rebuilt. */
+  public int rebuildCount() {
+    return rebuilds;
+  }
+
+  /** Resets the lookup counters. */
+  public void resetStatistics() {
+    lookups = 0;
+    filtered = 0;
+    false_positives = 0;
+  }
+
+  /** Prints the statistics. */
+  public void print() {
+    System.out.printf(
+        "%d lookups, %d filtered, %d false positives, rate %.4f (estimated %.4f, target %.4f)\n",
+        lookups,
+        filtered,
+        false_positives,
+        falsePositiveRate(),
+        filter.estimatedFalsePositiveRate(),
+        filter.targetFalsePositiveRate());
+  }
+}
@@ -0,0 +1,523 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Immutable implementation of the {@code Dictionary} interface with a minimal perfect hash.
+ *
+ * <p>The keys are hashed with the CHD algorithm (hash and displace): the keys are grouped in
+ * buckets of about {@link #BUCKET_LOAD} keys, and each bucket gets a pilot, the first number which
+ * sends all of its keys to free slots. The {@code n} keys fill exactly {@code n} slots, so the keys
+ * and values are kept in dense arrays, with no empty slot and no removed marker. A lookup computes
+ * one hash, reads the pilot of its bucket and compares the single candidate key.
+ *
+ * <p>No pilot can separate keys with equal hashes. Only the first key of a hash gets a slot, the
+ * other keys are kept after the slots, chained to it. A built-in strategy is first replaced by a
+ * seeded {@link SipHashStrategy}, which separates the {@code String} keys crafted to collide.
+ *
+ * <p>The table is built once, with {@link Dictionary#freeze()}, {@link #copyOf(Dictionary)} or a
+ * {@link Builder}, and then only read. Every method changing the map throws {@code
+ * UnsupportedOperationException}.
+ *
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public final class FrozenDictionary<K, V> implements Dictionary<K, V> {
+
+  /** The average number of keys of a bucket. */
+  static final int BUCKET_LOAD = 5;
+
+  /** The number of seeds tried before giving up. */
+  static final int MAX_SEEDS = 8;
+
+  /** The keys, each key in the slot given by its pilot. */
+  private final Object[] keys;
+
+  /** The values, in the slots of their keys. */
+  private final Object[] values;
+
+  /** The pilot of each bucket. */
+  private final int[] pilots;
+
+  /** The seed mixed in the slot of every key. */
+  private final long seed;
+
+  /** The number of slots, the keys after the slots have the hash of a key in a slot. */
+  private final int slot_count;
+
+  /**
+   * The next key with the same hash of each key, {@code -1} for the last one, or {@code null} if
+   * the keys have distinct hashes.
+   */
+  private final int[] chain;
+
+  /** The strategy used to hash and compare the keys. */
+  private final HashStrategy strategy;
+
+  private FrozenDictionary(
+      Object[] p_keys,
+      Object[] p_values,
+      int[] p_pilots,
+      long p_seed,
+      int p_slot_count,
+      int[] p_chain,
+      HashStrategy p_strategy) {
+    this.keys = p_keys;
+    this.values = p_values;
+    this.pilots = p_pilots;
+    this.seed = p_seed;
+    this.slot_count = p_slot_count;
+    this.chain = p_chain;
+    this.strategy = p_strategy;
+  }
+
+  /**
+   * Returns an immutable copy of a map, using the default hash strategy.
+   *
+   * @param map the map to be copied.
+   * @return the frozen copy of the map.
+   * @throws IllegalStateException if the keys cannot be perfectly hashed.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> FrozenDictionary<K, V> copyOf(Dictionary<? extends K, ? extends V> map) {
+    if (map instanceof FrozenDictionary) {
+      return (FrozenDictionary<K, V>) map;
+    }
+    return copyOf(map, HashStrategies.XOR_SHIFT);
+  }
+
+  /**
+   * Returns an immutable copy of a map.
+   *
+   * <p>A built-in strategy which cannot separate the keys, because some keys have equal hashes, is
+   * replaced by a seeded {@link SipHashStrategy}.
+   *
+   * @param map the map to be copied.
+   * @param strategy the strategy used to hash and compare the keys.
+   * @return the frozen copy of the map.
+   * @throws IllegalStateException if the keys cannot be perfectly hashed.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> FrozenDictionary<K, V> copyOf(
+      Dictionary<? extends K, ? extends V> map, HashStrategy strategy) {
+    if (map instanceof FrozenDictionary && ((FrozenDictionary<?, ?>) map).strategy == strategy) {
+      return (FrozenDictionary<K, V>) map;
+    }
+    if (strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    int n = map.size();
+    Object[] ks = new Object[n];
+    Object[] vs = new Object[n];
+    int[] count = {0};
+    map.forEach(
+        (key, value) -> {
+          ks[count[0]] = key;
+          vs[count[0]++] = value;
+        });
+    return build(ks, vs, strategy);
+  }
+
+  /** @return a builder using the default hash strategy. */
+  public static <K, V> Builder<K, V> builder() {
+    return new Builder<>(HashStrategies.XOR_SHIFT);
+  }
+
+  /**
+   * Returns a builder.
+   *
+   * @param strategy the strategy used to hash and compare the keys.
+   * @return the builder.
+   */
+  public static <K, V> Builder<K, V> builder(HashStrategy strategy) {
+    return new Builder<>(strategy);
+  }
+
+  /**
+   * A builder of {@code FrozenDictionary}, the keys are collected in a {@link HashTableList} so a
+   * key put twice keeps the last value.
+   */
+  public static final class Builder<K, V> {
+
+    private final HashTableList<K, V> entries;
+
+    private Builder(HashStrategy p_strategy) {
+      this.entries =
+          new HashTableList<>(
+              HashTableList.DEFAULT_INITIAL_CAPACITY,
+              HashTableList.DEFAULT_LOAD_FACTOR,
+              p_strategy);
+    }
+
+    /**
+     * Adds a key-value entry.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @return this builder.
+     * @throws NullPointerException if the specified key is null.
+     */
+    public Builder<K, V> put(K key, V value) {
+      entries.insert(key, value);
+      return this;
+    }
+
+    /**
+     * Adds every entry of a map.
+     *
+     * @param map the map.
+     * @return this builder.
+     */
+    public Builder<K, V> putAll(Dictionary<? extends K, ? extends V> map) {
+      map.forEach(entries::insert);
+      return this;
+    }
+
+    /**
+     * Builds the frozen map.
+     *
+     * @return the frozen map.
+     * @throws IllegalStateException if the keys cannot be perfectly hashed.
+     */
+    public FrozenDictionary<K, V> build() {
+      return copyOf(entries, entries.hashStrategy());
+    }
+  }
+
+  /**
+   * Hashes the keys, then finds a slot for the first key of each hash and chains the others to it.
+   *
+   * @param ks the distinct keys.
+   * @param vs the values.
+   * @param strategy the strategy used to hash and compare the keys.
+   * @return the frozen map.
+   */
+  private static <K, V> FrozenDictionary<K, V> build(
+      Object[] ks, Object[] vs, HashStrategy strategy) {
+    int n = ks.length;
+    long[] hashes = hashAll(ks, strategy);
+    Integer[] by_hash = new Integer[n];
+    for (int i = 0; i < n; ++i) {
+      by_hash[i] = i;
+    }
+    Comparator<Integer> order = (a, b) -> Long.compare(hashes[a], hashes[b]);
+    Arrays.sort(by_hash, order);
+    if (strategy instanceof HashStrategies && hasEqualHashes(by_hash, hashes)) {
+      strategy = SipHashStrategy.hardening();
+      System.arraycopy(hashAll(ks, strategy), 0, hashes, 0, n);
+      Arrays.sort(by_hash, order);
+    }
+
+    // The first key of each hash, then the others, in the order of the hashes.
+    int[] firsts = new int[n];
+    int[] others = new int[n];
+    int slot_count = 0;
+    int other_count = 0;
+    for (int i = 0; i < n; ++i) {
+      int k = by_hash[i];
+      if (i > 0 && hashes[k] == hashes[by_hash[i - 1]]) {
+        others[other_count++] = k;
+      } else {
+        firsts[slot_count++] = k;
+      }
+    }
+    long[] first_hashes = new long[slot_count];
+    for (int i = 0; i < slot_count; ++i) {
+      first_hashes[i] = hashes[firsts[i]];
+    }
+
+    for (int attempt = 0; attempt < MAX_SEEDS; ++attempt) {
+      long seed = HashStrategies.wymix(attempt, 0x2d358dccaa6c78a5L);
+      int buckets = Math.max(1, (slot_count + BUCKET_LOAD - 1) / BUCKET_LOAD);
+      int[] pilots = new int[buckets];
+      int[] slot_of = place(first_hashes, seed, pilots);
+      if (slot_of == null) {
+        continue;
+      }
+      Object[] dense_keys = new Object[n];
+      Object[] dense_values = new Object[n];
+      int[] chain = other_count == 0 ? null : new int[n];
+      if (chain != null) {
+        Arrays.fill(chain, -1);
+      }
+      for (int i = 0; i < slot_count; ++i) {
+        dense_keys[slot_of[i]] = ks[firsts[i]];
+        dense_values[slot_of[i]] = vs[firsts[i]];
+      }
+      // The others follow the hashes order, so the key before each one has the same hash or is
+      // the first key of its hash, whose slot is found by a binary search.
+      for (int i = 0; i < other_count; ++i) {
+        int k = others[i];
+        int position = slot_count + i;
+        dense_keys[position] = ks[k];
+        dense_values[position] = vs[k];
+        int previous =
+            i > 0 && hashes[others[i - 1]] == hashes[k]
+                ? position - 1
+                : slot_of[Arrays.binarySearch(first_hashes, hashes[k])];
+        chain[previous] = position;
+      }
+      return new FrozenDictionary<>(
+          dense_keys, dense_values, pilots, seed, slot_count, chain, strategy);
+    }
+    throw new IllegalStateException("HashTable keys cannot be perfectly hashed");
+  }
+
+  private static long[] hashAll(Object[] ks, HashStrategy strategy) {
+    long[] hashes = new long[ks.length];
+    for (int i = 0; i < ks.length; ++i) {
+      hashes[i] = strategy.hash64(ks[i]);
+    }
+    return hashes;
+  }
+
+  private static boolean hasEqualHashes(Integer[] by_hash, long[] hashes) {
+    for (int i = 1; i < by_hash.length; ++i) {
+      if (hashes[by_hash[i]] == hashes[by_hash[i - 1]]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds a pilot for every bucket, starting with the largest buckets.
+   *
+   * @param hashes the distinct hashes, sorted.
+   * @param seed the seed mixed in every slot.
+   * @param pilots the pilot of each bucket, filled.
+   * @return the slot of each hash, or {@code null} if a bucket has no pilot.
+   */
+  private static int[] place(long[] hashes, long seed, int[] pilots) {
+    int n = hashes.length;
+    int buckets = pilots.length;
+
+    // Sort the keys by bucket, then the buckets by size, largest first.
+    int[] starts = new int[buckets + 1];
+    for (int i = 0; i < n; ++i) {
+      ++starts[bucketOf(hashes[i], buckets) + 1];
+    }
+    for (int b = 0; b < buckets; ++b) {
+      starts[b + 1] += starts[b];
+    }
+    int[] members = new int[n];
+    int[] fill = Arrays.copyOf(starts, buckets);
+    for (int i = 0; i < n; ++i) {
+      members[fill[bucketOf(hashes[i], buckets)]++] = i;
+    }
+    Integer[] order = new Integer[buckets];
+    for (int b = 0; b < buckets; ++b) {
+      order[b] = b;
+    }
+    Arrays.sort(order, (a, b) -> (starts[b + 1] - starts[b]) - (starts[a + 1] - starts[a]));
+
+    int[] slot_of = new int[n];
+    boolean[] taken = new boolean[n];
+    int max_tries = (int) Math.min(Integer.MAX_VALUE, Math.max(1L << 16, (long) n << 4));
+
+    for (int o = 0; o < buckets; ++o) {
+      int b = order[o];
+      int from = starts[b];
+      int to = starts[b + 1];
+      if (from == to) {
+        break;
+      }
+      for (int pilot = 0; ; ++pilot) {
+        if (pilot >= max_tries) {
+          return null;
+        }
+        int i = from;
+        for (; i < to; ++i) {
+          int slot = slotOf(hashes[members[i]], seed, pilot, n);
+          if (taken[slot]) {
+            break;
+          }
+          taken[slot] = true;
+          slot_of[members[i]] = slot;
+        }
+        if (i == to) {
+          pilots[b] = pilot;
+          break;
+        }
+        for (int j = from; j < i; ++j) {
+          taken[slot_of[members[j]]] = false;
+        }
+      }
+    }
+    return slot_of;
+  }
+
+  private static int bucketOf(long hash, int buckets) {
+    return (int) (((hash >>> 32) * buckets) >>> 32);
+  }
+
+  private static int slotOf(long hash, long seed, int pilot, int n) {
+    long h = (hash ^ seed) + pilot * 0x9e3779b97f4a7c15L;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return (int) (((h >>> 32) * n) >>> 32);
+  }
+
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  @Override
+  public int size() {
+    return keys.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return findSlot(key) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    int slot = findSlot(key);
+    return slot < 0 ? null : (V) values[slot];
+  }
+
+  /**
+   * Return the slot of a key.
+   *
+   * @param key the key to be searched.
+   * @return the slot of the key or {@code -1} if the key is not in the map.
+   * @throws NullPointerException if the key is null.
+   */
+  private int findSlot(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (slot_count == 0) {
+      return -1;
+    }
+    long hash = strategy.hash64(key);
+    int slot = slotOf(hash, seed, pilots[bucketOf(hash, pilots.length)], slot_count);
+    if (strategy.equivalent(key, keys[slot])) {
+      return slot;
+    }
+    if (chain != null) {
+      for (int i = chain[slot]; i >= 0; i = chain[i]) {
+        if (strategy.equivalent(key, keys[i])) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    for (int i = 0; i < keys.length; ++i) {
+      action.accept((K) keys[i], (V) values[i]);
+    }
+  }
+
+  @Override
+  public FrozenDictionary<K, V> freeze() {
+    return this;
+  }
+
+  private static UnsupportedOperationException immutable() {
+    return new UnsupportedOperationException("FrozenDictionary is immutable");
+  }
+
+  /**
+   * Not supported, the map is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V insert(K key, V value) {
+    throw immutable();
+  }
+
+  /**
+   * Not supported, the map is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V remove(Object key) {
+    throw immutable();
+  }
+
+  /**
+   * Not supported, the map is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V putIfAbsent(K key, V value) {
+    throw immutable();
+  }
+
+  /**
+   * Not supported, the map is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V replace(K key, V value) {
+    throw immutable();
+  }
+
+  /**
+   * Not supported, the map is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+    throw immutable();
+  }
+
+  /**
+   * Not supported, the map is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    throw immutable();
+  }
+
+  /**
+   * Not supported, the map is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    throw immutable();
+  }
+
+  /**
+   * Not supported, the map is immutable.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+    throw immutable();
+  }
+
+  /** Prints the map. */
+  public void print() {
+    for (int i = 0; i < keys.length; i++) {
+      System.out.printf("%d -> { %s, %s }\n", i, keys[i], values[i]);
+    }
+  }
+}
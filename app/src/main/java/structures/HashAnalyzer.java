@@ -0,0 +1,264 @@
+package structures;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hash quality analyzer.
+ *
+ * <p>Runs a sample key set through a {@link HashStrategy} and reports how the keys would be
+ * distributed in a power of two table: the bucket distribution (the chained table view), the
+ * chi-squared score of that distribution and the expected probe length (the linear probing view).
+ *
+ * <p>It can be used from the command line, reading one key per line from a file or from the
+ * standard input, and printing a report for every built-in strategy:
+ *
+ * <pre>{@code java structures.HashAnalyzer keys.txt}</pre>
+ *
+ * @see HashStrategy
+ * @see HashStrategies
+ * @author André Gabriel
+ */
+public final class HashAnalyzer {
+
+  /** The load factor used when the capacity is not given. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+  private HashAnalyzer() {}
+
+  /**
+   * The analysis report.
+   *
+   * <p>{@code histogram[i]} is the number of buckets holding exactly {@code i} keys.
+   */
+  public static final class Report {
+    private final String strategy;
+    private final int keys;
+    private final int capacity;
+    private final int[] histogram;
+    private final double chi_squared;
+    private final double expected_probe_length;
+    private final int max_probe_length;
+
+    Report(
+        String p_strategy,
+        int p_keys,
+        int p_capacity,
+        int[] p_histogram,
+        double p_chi_squared,
+        double p_expected_probe_length,
+        int p_max_probe_length) {
+      this.strategy = p_strategy;
+      this.keys = p_keys;
+      this.capacity = p_capacity;
+      this.histogram = p_histogram;
+      this.chi_squared = p_chi_squared;
+      this.expected_probe_length = p_expected_probe_length;
+      this.max_probe_length = p_max_probe_length;
+    }
+
+    /** @return the name of the analyzed strategy. */
+    public String strategy() {
+      return strategy;
+    }
+
+    /** @return the number of analyzed keys. */
+    public int keys() {
+      return keys;
+    }
+
+    /** @return the simulated table capacity. */
+    public int capacity() {
+      return capacity;
+    }
+
+    /** @return the bucket distribution, indexed by the number of keys in a bucket. */
+    public int[] histogram() {
+      return histogram.clone();
+    }
+
+    /** @return the size of the longest chain. */
+    public int maxChainLength() {
+      return histogram.length - 1;
+    }
+
+    /** @return the chi-squared statistic of the bucket distribution. */
+    public double chiSquared() {
+      return chi_squared;
+    }
+
+    /**
+     * Returns the chi-squared statistic divided by its degrees of freedom.
+     *
+     * <p>A uniform hash scores close to {@code 1.0}, higher values mean clustering.
+     *
+     * @return the normalized chi-squared score.
+     */
+    public double chiSquaredScore() {
+      return capacity > 1 ? chi_squared / (capacity - 1) : 0;
+    }
+
+    /** @return the mean number of slots probed to find a key under linear probing. */
+    public double expectedProbeLength() {
+      return expected_probe_length;
+    }
+
+    /** @return the largest number of slots probed to find a key under linear probing. */
+    public int maxProbeLength() {
+      return max_probe_length;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(String.format("%s: %d keys, capacity %d%n", strategy, keys, capacity));
+      sb.append(
+          String.format(
+              "  chi-squared %.2f (score %.4f), max chain %d%n",
+              chi_squared, chiSquaredScore(), maxChainLength()));
+      sb.append(
+          String.format(
+              "  linear probing: expected probe length %.4f, max %d%n",
+              expected_probe_length, max_probe_length));
+      sb.append("  buckets:");
+      for (int i = 0; i < histogram.length; i++) {
+        sb.append(String.format(" [%d]=%d", i, histogram[i]));
+      }
+      return sb.toString();
+    }
+  }
+
+  /**
+   * Analyzes a key set with the capacity a table would have after inserting all the keys with the
+   * default load factor.
+   *
+   * @param keys the sample keys.
+   * @param strategy the strategy to analyze.
+   * @return the analysis report.
+   */
+  public static Report analyze(Iterable<?> keys, HashStrategy strategy) {
+    int n = 0;
+    for (Object ignored : keys) {
+      ++n;
+    }
+    return analyze(keys, strategy, capacityFor(n));
+  }
+
+  /**
+   * Analyzes a key set for a given table capacity.
+   *
+   * @param keys the sample keys, must not contain {@code null}.
+   * @param strategy the strategy to analyze.
+   * @param capacity the simulated capacity - MUST be a power of two greater than the key count.
+   * @return the analysis report.
+   * @throws IllegalArgumentException if the capacity is not a power of two or is too small.
+   */
+  public static Report analyze(Iterable<?> keys, HashStrategy strategy, int capacity) {
+    if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+      throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    }
+    int[] buckets = new int[capacity];
+    int[] slots = new int[capacity];
+    long total_probes = 0;
+    int max_probes = 0;
+    int n = 0;
+    int mask = capacity - 1;
+
+    for (Object key : keys) {
+      if (++n >= capacity) {
+        throw new IllegalArgumentException("Capacity " + capacity + " too small for the keys");
+      }
+      int index = strategy.hash(key) & mask;
+      ++buckets[index];
+
+      // Linear probing, slots keep the probe count + 1 so 0 means empty.
+      int probes = 1;
+      while (slots[index] != 0) {
+        index = (index + 1) & mask;
+        ++probes;
+      }
+      slots[index] = probes;
+      total_probes += probes;
+      max_probes = Math.max(max_probes, probes);
+    }
+
+    int max_chain = 0;
+    for (int load : buckets) {
+      max_chain = Math.max(max_chain, load);
+    }
+    int[] histogram = new int[max_chain + 1];
+    double expected = (double) n / capacity;
+    double chi_squared = 0;
+    for (int load : buckets) {
+      ++histogram[load];
+      double d = load - expected;
+      chi_squared += d * d / expected;
+    }
+
+    return new Report(
+        String.valueOf(strategy),
+        n,
+        capacity,
+        histogram,
+        n == 0 ? 0 : chi_squared,
+        n == 0 ? 0 : (double) total_probes / n,
+        max_probes);
+  }
+
+  /**
+   * Analyzes a key set with every given strategy.
+   *
+   * @param keys the sample keys.
+   * @param strategies the strategies to compare.
+   * @return the reports, in the same order of the strategies.
+   */
+  public static List<Report> compare(Iterable<?> keys, HashStrategy... strategies) {
+    List<Report> reports = new ArrayList<>(strategies.length);
+    for (HashStrategy strategy : strategies) {
+      reports.add(analyze(keys, strategy));
+    }
+    return reports;
+  }
+
+  /**
+   * Returns the power of two capacity of a table holding {@code n} keys.
+   *
+   * @param n the number of keys.
+   * @return the table capacity.
+   */
+  static int capacityFor(int n) {
+    int cap = Integer.highestOneBit(Math.max(1, (int) Math.ceil(n / DEFAULT_LOAD_FACTOR)));
+    while (cap <= n || cap * DEFAULT_LOAD_FACTOR < n) {
+      cap <<= 1;
+    }
+    return cap;
+  }
+
+  /**
+   * Prints the reports of all built-in strategies for the keys of a file, one per line.
+   *
+   * @param args the file name, if empty reads the standard input.
+   * @throws IOException if the keys cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    List<String> keys = new ArrayList<>();
+    try (BufferedReader reader =
+        args.length > 0
+            ? Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)
+            : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        keys.add(line);
+      }
+    }
+    for (Report report : compare(keys, HashStrategies.values())) {
+      System.out.println(report);
+    }
+  }
+}
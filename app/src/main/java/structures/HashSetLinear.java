@@ -0,0 +1,137 @@
+package structures;
+
+/**
+ * Open addressing implementation of the {@code DictionarySet} interface.
+ *
+ * <p>It follows {@link HashTableLinear}, power of two table, linear probing, removed slots kept as
+ * markers and a switch to a seeded hash on long probe sequences, but stores only the keys and their
+ * hashes in the parallel arrays of {@link ObjectHashSet}. There is no entry object and no value.
+ *
+ * @see HashTableLinear
+ * @see DictionarySet
+ * @author André Gabriel
+ */
+public class HashSetLinear<K> extends ObjectHashSet<K> {
+
+  /** The probe length, per bit of capacity, which switches a built-in strategy to a seeded hash. */
+  static final int PROBE_LIMIT = 32;
+
+  public HashSetLinear(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    super(p_load_factor, p_strategy);
+    if (p_load_factor >= 1) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    allocate(tableSizeFor(initial_capacity));
+  }
+
+  public HashSetLinear(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public HashSetLinear(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public HashSetLinear() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  private HashSetLinear(HashSetLinear<K> other) {
+    super(other);
+  }
+
+  @Override
+  public int capacity() {
+    return keys.length;
+  }
+
+  @Override
+  public HashSetLinear<K> copy() {
+    return new HashSetLinear<>(this);
+  }
+
+  @Override
+  public HashSetLinear<K> emptyCopy(int expected) {
+    int cap = (int) Math.min(MAXIMUM_CAPACITY, expected / load_factor + 1);
+    return new HashSetLinear<>(cap, load_factor, strategy);
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * @param hash the key hash.
+   * @param key the key to be searched.
+   * @return the slot of the key, or {@code -(slot + 1)} where {@code slot} is the first removed
+   *     slot or the empty slot of the key probe sequence.
+   */
+  @Override
+  int findSlot(int hash, Object key) {
+    Object[] ks = keys;
+    int[] hs = hashes;
+    int mask = ks.length - 1;
+    int index = hash & mask;
+    int free = -1;
+    Object current;
+
+    // The load factor is below 1, so there is always an empty slot.
+    while ((current = ks[index]) != null) {
+      if (current == REMOVED) {
+        if (free < 0) {
+          free = index;
+        }
+      } else if (hs[index] == hash && strategy.equivalent(key, current)) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -((free >= 0 ? free : index) + 1);
+  }
+
+  @Override
+  boolean insert(int hash, Object key, int miss) {
+    int slot = -(miss + 1);
+    if (keys[slot] == REMOVED) {
+      --tombstones;
+    }
+    keys[slot] = key;
+    hashes[slot] = hash;
+    int n = keys.length;
+    return ((slot - hash) & (n - 1)) > PROBE_LIMIT * Integer.numberOfTrailingZeros(n);
+  }
+
+  @Override
+  void delete(int slot) {
+    keys[slot] = REMOVED;
+    ++tombstones;
+  }
+
+  @Override
+  void allocateSlots(int cap) {
+    keys = new Object[cap];
+    hashes = new int[cap];
+  }
+
+  @Override
+  void place(int hash, Object key) {
+    int mask = keys.length - 1;
+    int index = hash & mask;
+    while (keys[index] != null) {
+      index = (index + 1) & mask;
+    }
+    keys[index] = key;
+    hashes[index] = hash;
+  }
+
+  @Override
+  void atMaximumCapacity() {
+    throw new IllegalStateException("HashTable is full");
+  }
+
+  /** Prints the set. */
+  public void print() {
+    for (int i = 0; i < keys.length; i++) {
+      Object key = keys[i];
+      System.out.printf("%d -> %s\n", i, key == REMOVED ? "removed" : key);
+    }
+  }
+}
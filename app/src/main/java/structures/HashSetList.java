@@ -0,0 +1,176 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * Chained implementation of the {@code DictionarySet} interface.
+ *
+ * <p>It follows {@link HashTableList}, power of two table, keys chained in the bins and a switch to
+ * a seeded hash on long chains, but the chains are links between the slots of the parallel arrays
+ * of {@link ObjectHashSet} instead of nodes. The keys are kept packed at the start of the arrays,
+ * a remove moves the last key to the freed slot. So a key costs its reference, its hash and a link,
+ * with no node and no value.
+ *
+ * @see HashTableList
+ * @see DictionarySet
+ * @author André Gabriel
+ */
+public class HashSetList<K> extends ObjectHashSet<K> {
+
+  /**
+   * The chain length, plus one per bit of capacity, at which a table using a built-in strategy
+   * switches to a seeded {@link SipHashStrategy}, as {@link HashTableList#CHAIN_LIMIT}.
+   */
+  static final int CHAIN_LIMIT = 8;
+
+  /** The first slot of each bin, plus one, {@code 0} for an empty bin. */
+  private int[] bins;
+
+  /** The next slot of the chain of each slot, plus one, {@code 0} at the end of a chain. */
+  private int[] next;
+
+  /** The number of slots holding a key, the size once the arrays are rebuilt. */
+  private int used;
+
+  public HashSetList(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    super(p_load_factor, p_strategy);
+    allocate(tableSizeFor(initial_capacity));
+  }
+
+  public HashSetList(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public HashSetList(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public HashSetList() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  private HashSetList(HashSetList<K> other) {
+    super(other);
+    this.bins = other.bins.clone();
+    this.next = other.next.clone();
+    this.used = other.used;
+  }
+
+  @Override
+  public int capacity() {
+    return bins.length;
+  }
+
+  @Override
+  public HashSetList<K> copy() {
+    return new HashSetList<>(this);
+  }
+
+  @Override
+  public HashSetList<K> emptyCopy(int expected) {
+    int cap = (int) Math.min(MAXIMUM_CAPACITY, expected / load_factor + 1);
+    return new HashSetList<>(cap, load_factor, strategy);
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * @param hash the key hash.
+   * @param key the key to be searched.
+   * @return the slot of the key, or {@code -(length + 1)} where {@code length} is the length of
+   *     the chain of the key.
+   */
+  @Override
+  int findSlot(int hash, Object key) {
+    Object[] ks = keys;
+    int[] hs = hashes;
+    int length = 0;
+    for (int i = bins[hash & (bins.length - 1)] - 1; i >= 0; i = next[i] - 1, ++length) {
+      if (hs[i] == hash && strategy.equivalent(key, ks[i])) {
+        return i;
+      }
+    }
+    return -(length + 1);
+  }
+
+  @Override
+  boolean insert(int hash, Object key, int miss) {
+    place(hash, key);
+    return -(miss + 1) >= CHAIN_LIMIT + Integer.numberOfTrailingZeros(bins.length);
+  }
+
+  @Override
+  void delete(int slot) {
+    unlink(slot);
+    // The keys stay packed: the last one moves to the freed slot.
+    int last = --used;
+    if (slot != last) {
+      unlink(last);
+      keys[slot] = keys[last];
+      hashes[slot] = hashes[last];
+      link(slot);
+    }
+    keys[last] = null;
+  }
+
+  /** Puts a slot at the head of the chain of its bin. */
+  private void link(int slot) {
+    int bin = hashes[slot] & (bins.length - 1);
+    next[slot] = bins[bin];
+    bins[bin] = slot + 1;
+  }
+
+  /** Removes a slot from the chain of its bin. */
+  private void unlink(int slot) {
+    int bin = hashes[slot] & (bins.length - 1);
+    if (bins[bin] == slot + 1) {
+      bins[bin] = next[slot];
+      return;
+    }
+    int previous = bins[bin] - 1;
+    while (next[previous] != slot + 1) {
+      previous = next[previous] - 1;
+    }
+    next[previous] = next[slot];
+  }
+
+  @Override
+  void allocateSlots(int cap) {
+    // The keys are packed, so the arrays only need room for the keys before the next growth.
+    int length = Math.max(size, Math.min(cap, threshold) + 1);
+    bins = new int[cap];
+    keys = new Object[length];
+    hashes = new int[length];
+    next = new int[length];
+    used = 0;
+  }
+
+  @Override
+  void place(int hash, Object key) {
+    if (used == keys.length) {
+      int length = used + (used >> 1) + 1;
+      keys = Arrays.copyOf(keys, length);
+      hashes = Arrays.copyOf(hashes, length);
+      next = Arrays.copyOf(next, length);
+    }
+    keys[used] = key;
+    hashes[used] = hash;
+    link(used++);
+  }
+
+  @Override
+  void atMaximumCapacity() {
+    threshold = Integer.MAX_VALUE;
+  }
+
+  /** Prints the set. */
+  public void print() {
+    for (int bin = 0; bin < bins.length; bin++) {
+      System.out.printf("%d -> ", bin);
+      for (int i = bins[bin] - 1; i >= 0; i = next[i] - 1) {
+        System.out.printf("%s -> ", keys[i]);
+      }
+      System.out.print("null\n");
+    }
+  }
+}
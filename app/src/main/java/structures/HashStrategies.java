@@ -0,0 +1,167 @@
+package structures;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The built-in hash strategies.
+ *
+ * <p>All of them use {@code key.hashCode()} and {@code equals()}, they only differ in the way the
+ * bits of the hash code are spread to the lower bits used in the index calculation. The 64 bit hash
+ * is shared: {@code Long} and {@code Integer} keys mix their whole value, {@code String} and {@link
+ * ByteKey} keys are hashed from their content, any other key widens its 32 bit hash.
+ *
+ * @see HashStrategy
+ * @see HashAnalyzer
+ * @author André Gabriel
+ */
+public enum HashStrategies implements HashStrategy {
+
+  /**
+   * Spreads the higher bits of hash to lower using a XOR.
+   *
+   * <p>This is the historical strategy of the tables. Cheap, but sequential keys stay sequential,
+   * which builds long clusters under linear probing.
+   */
+  XOR_SHIFT {
+    @Override
+    public int spread(int h) {
+      return h ^ (h >>> 16);
+    }
+  },
+
+  /** The Murmur3 {@code fmix32} finalizer, every input bit affects every output bit. */
+  MURMUR3 {
+    @Override
+    public int spread(int h) {
+      h ^= h >>> 16;
+      h *= 0x85ebca6b;
+      h ^= h >>> 13;
+      h *= 0xc2b2ae35;
+      h ^= h >>> 16;
+      return h;
+    }
+  },
+
+  /**
+   * The wyhash mixing step.
+   *
+   * <p>Multiplies the hash code with the wyhash primes as a 128 bit product and folds the high and
+   * low halves together.
+   */
+  WYHASH {
+    @Override
+    public int spread(int h) {
+      long a = h & 0xffffffffL;
+      long r = wymix(a ^ WYP0, a ^ WYP1);
+      return (int) (r ^ (r >>> 32));
+    }
+  },
+
+  /**
+   * The Fibonacci multiplicative hash.
+   *
+   * <p>Multiplies by {@code 2^32 / phi}, then folds the well mixed higher bits down because the
+   * tables index with the lower bits.
+   */
+  FIBONACCI {
+    @Override
+    public int spread(int h) {
+      int x = h * 0x9e3779b9;
+      return x ^ (x >>> 16);
+    }
+  };
+
+  @Override
+  public long hash64(Object key) {
+    if (key instanceof Long) {
+      return fmix64((Long) key);
+    } else if (key instanceof Integer) {
+      return fmix64((Integer) key);
+    } else if (key instanceof String) {
+      String s = (String) key;
+      long h = s.length();
+      for (int i = 0, len = s.length(); i < len; ++i) {
+        h = (h + s.charAt(i)) * GOLDEN_64;
+      }
+      return fmix64(h);
+    } else if (key instanceof ByteKey) {
+      byte[] bytes = ((ByteKey) key).bytes;
+      long h = bytes.length;
+      for (byte b : bytes) {
+        h = (h + b) * GOLDEN_64;
+      }
+      return fmix64(h);
+    }
+    return HashStrategy.super.hash64(key);
+  }
+
+  @Override
+  public int hashChars(CharSequence chars) {
+    int h = 0;
+    for (int i = 0, len = chars.length(); i < len; ++i) {
+      h = 31 * h + chars.charAt(i);
+    }
+    return spread(h);
+  }
+
+  @Override
+  public int hashBytes(byte[] b, int off, int len) {
+    return spread(ByteKey.hashCode(b, off, len));
+  }
+
+  @Override
+  public int hashBytes(ByteBuffer buffer) {
+    return spread(ByteKey.hashCode(buffer));
+  }
+
+  @Override
+  public boolean equivalentChars(CharSequence chars, Object stored) {
+    return stored instanceof String && ((String) stored).contentEquals(chars);
+  }
+
+  /** A {@code byte[]} key is compared by identity, so only a {@link ByteKey} matches the bytes. */
+  @Override
+  public boolean equivalentBytes(byte[] b, int off, int len, Object stored) {
+    return stored instanceof ByteKey && ((ByteKey) stored).contentEquals(b, off, len);
+  }
+
+  @Override
+  public boolean equivalentBytes(ByteBuffer buffer, Object stored) {
+    return stored instanceof ByteKey && ((ByteKey) stored).contentEquals(buffer);
+  }
+
+  /** {@code 2^64 / phi}, the odd multiplier of the 64 bit content hashes. */
+  private static final long GOLDEN_64 = 0x9e3779b97f4a7c15L;
+
+  /** The wyhash primes. */
+  private static final long WYP0 = 0xa0761d6478bd642fL;
+
+  private static final long WYP1 = 0xe7037ed1a0b428dbL;
+
+  /**
+   * Multiplies two unsigned longs and xor the high and low 64 bits of the 128 bit product.
+   *
+   * @param a the first factor.
+   * @param b the second factor.
+   * @return the folded product.
+   */
+  static long wymix(long a, long b) {
+    long lo = a * b;
+    long hi = Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    return hi ^ lo;
+  }
+
+  /**
+   * The MurmurHash3 64 bit finalizer, a bijection where every input bit affects every output bit.
+   *
+   * @param h the value to be mixed.
+   * @return the mixed value.
+   */
+  static long fmix64(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    return h ^ (h >>> 33);
+  }
+}
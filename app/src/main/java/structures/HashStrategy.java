@@ -0,0 +1,147 @@
+package structures;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The HashStrategy interface.
+ *
+ * <p>A strategy decides how the tables turn a key into a hash and how two keys are compared. The
+ * tables only use the low bits of the hash to index a power of two table, so a strategy must
+ * spread the entropy of {@code key.hashCode()} into those bits.
+ *
+ * @see HashStrategies
+ * @see HashTableList
+ * @see HashTableLinear
+ * @author André Gabriel
+ */
+public interface HashStrategy {
+
+  /**
+   * Spreads a raw hash code so the lower bits can be used as a table index.
+   *
+   * @param h the raw hash code, usually {@code key.hashCode()}.
+   * @return the spread hash.
+   */
+  int spread(int h);
+
+  /**
+   * Return a hash for a giving key.
+   *
+   * @param key the key to be hashed, never {@code null}.
+   * @return the hash value for the {@code key}.
+   */
+  default int hash(Object key) {
+    return spread(key.hashCode());
+  }
+
+  /**
+   * Return a 64 bit hash for a giving key, for tables with more slots than an {@code int} hash can
+   * address.
+   *
+   * <p>The default widens {@link #hash(Object)} with the MurmurHash3 64 bit finalizer, so keys with
+   * distinct 32 bit hashes keep distinct 64 bit hashes, but it has only {@code 2^32} values. A
+   * strategy used by a table of more than {@code 2^32} slots must override it, as the built-in
+   * strategies and {@link SipHashStrategy} do, or the keys share at most {@code 2^32} home slots.
+   *
+   * @param key the key to be hashed, never {@code null}.
+   * @return the 64 bit hash value for the {@code key}.
+   */
+  default long hash64(Object key) {
+    return HashStrategies.fmix64(hash(key) & 0xffffffffL);
+  }
+
+  /**
+   * Return the hash a {@code String} with the same chars would have.
+   *
+   * <p>The default creates the {@code String} and calls {@link #hash(Object)}. The built-in
+   * strategies hash the chars without creating it.
+   *
+   * @param chars the chars to be hashed.
+   * @return the hash value for the chars.
+   */
+  default int hashChars(CharSequence chars) {
+    return hash(chars.toString());
+  }
+
+  /**
+   * Return the hash a {@link ByteKey} with the same bytes would have.
+   *
+   * <p>The default creates the {@code ByteKey} and calls {@link #hash(Object)}. The built-in
+   * strategies hash the bytes without creating it.
+   *
+   * @param b the bytes to be hashed.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @return the hash value for the bytes.
+   */
+  default int hashBytes(byte[] b, int off, int len) {
+    return hash(ByteKey.copyOf(b, off, len));
+  }
+
+  /**
+   * Return the hash a {@link ByteKey} with the remaining bytes of a buffer would have.
+   *
+   * <p>The default creates the {@code ByteKey} and calls {@link #hash(Object)}.
+   *
+   * @param buffer the bytes to be hashed, its position is not changed.
+   * @return the hash value for the bytes.
+   */
+  default int hashBytes(ByteBuffer buffer) {
+    return hash(ByteKey.copyOf(buffer));
+  }
+
+  /**
+   * Returns {@code true} if the searched key and the stored key are the same key.
+   *
+   * @param key the key being searched, never {@code null}.
+   * @param stored the key stored in the table.
+   * @return {@code true} if both keys are equivalent or {@code false} otherwise.
+   */
+  default boolean equivalent(Object key, Object stored) {
+    return key == stored || key.equals(stored);
+  }
+
+  /**
+   * Returns {@code true} if a {@code String} with the searched chars and the stored key are the
+   * same key. It must agree with {@link #hashChars(CharSequence)}.
+   *
+   * <p>The default creates the {@code String} and calls {@link #equivalent(Object, Object)}.
+   *
+   * @param chars the chars being searched.
+   * @param stored the key stored in the table.
+   * @return {@code true} if both keys are equivalent or {@code false} otherwise.
+   */
+  default boolean equivalentChars(CharSequence chars, Object stored) {
+    return equivalent(chars.toString(), stored);
+  }
+
+  /**
+   * Returns {@code true} if a {@link ByteKey} with the searched bytes and the stored key are the
+   * same key. It must agree with {@link #hashBytes(byte[], int, int)}.
+   *
+   * <p>The default creates the {@code ByteKey} and calls {@link #equivalent(Object, Object)}.
+   *
+   * @param b the bytes being searched.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @param stored the key stored in the table.
+   * @return {@code true} if both keys are equivalent or {@code false} otherwise.
+   */
+  default boolean equivalentBytes(byte[] b, int off, int len, Object stored) {
+    return equivalent(ByteKey.copyOf(b, off, len), stored);
+  }
+
+  /**
+   * Returns {@code true} if a {@link ByteKey} with the remaining bytes of a buffer and the stored
+   * key are the same key. It must agree with {@link #hashBytes(ByteBuffer)}.
+   *
+   * <p>The default creates the {@code ByteKey} and calls {@link #equivalent(Object, Object)}.
+   *
+   * @param buffer the bytes being searched, its position is not changed.
+   * @param stored the key stored in the table.
+   * @return {@code true} if both keys are equivalent or {@code false} otherwise.
+   */
+  default boolean equivalentBytes(ByteBuffer buffer, Object stored) {
+    return equivalent(ByteKey.copyOf(buffer), stored);
+  }
+}
@@ -0,0 +1,409 @@
+package structures;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Open addressing implementation of the {@code Dictionary} interface for billions of keys.
+ *
+ * <p>The table works as {@link HashTableLinear}, linear probing over a power of two table, with
+ * three changes to grow past the {@code int} limits:
+ *
+ * <ul>
+ *   <li>The slots are {@code long} indexed and kept in segments of {@link #SEGMENT_SIZE} slots, an
+ *       array of arrays, so the capacity is not bounded by the maximum length of an array.
+ *   <li>The keys are hashed with {@link HashStrategy#hash64(Object)}, so the home slots and the
+ *       stored hashes use 64 bits.
+ *   <li>The size is a {@code long}, see {@link #longSize()}.
+ * </ul>
+ *
+ * <p>A remove shifts the following keys of the cluster back instead of leaving a removed marker. A
+ * resize moves the keys one old segment at a time and drops each old segment once it is moved, the
+ * new segments are created when a key is first placed in them. When the table doubles, the keys of
+ * old segment {@code s} only reach new segments {@code s} and {@code s + n}, {@code n} old
+ * segments, or the segment after one of them. So doubling a table of {@code n} segments holds at
+ * most {@code 2n + 2} segments instead of {@code 3n}. A table of a single segment saves nothing,
+ * nor does the switch to a seeded hash, which scatters every old segment over the new table.
+ *
+ * @see HashTableLinear
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public class HashTableBig<K, V> implements Dictionary<K, V> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  /** The maximum capacity - MUST be a power of two. */
+  static final long MAXIMUM_CAPACITY = 1L << 40;
+
+  /** The load factor. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
+
+  /** The probe length, per bit of capacity, which switches a built-in strategy to a seeded hash. */
+  static final int PROBE_LIMIT = 32;
+
+  /** The log2 of the number of slots of a segment. */
+  static final int SEGMENT_SHIFT = 20;
+
+  /** The number of slots of a segment. */
+  static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+  static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  /** The number of entries contained in this map. */
+  private long size;
+
+  /** The number of slots, a power of two. */
+  private long capacity;
+
+  /** The hashes of the slots, by segment. */
+  private long[][] hashes;
+
+  /** The keys of the slots, by segment, {@code null} for an empty slot. */
+  private Object[][] keys;
+
+  /** The values of the slots, by segment. */
+  private Object[][] values;
+
+  /**
+   * The next size value at which to resize (capacity * load factor). Before the first insert it
+   * holds the initial capacity.
+   */
+  private long threshold;
+
+  /** The load factor for the hash table. */
+  private final float load_factor;
+
+  /** The strategy used to hash and compare the keys. */
+  private HashStrategy strategy;
+
+  public HashTableBig(long initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (initial_capacity > MAXIMUM_CAPACITY) {
+      initial_capacity = MAXIMUM_CAPACITY;
+    }
+    if (p_load_factor <= 0 || p_load_factor >= 1 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
+    // initial capacity is placed in threshold until the first insert
+    this.threshold = Math.max(2, Long.highestOneBit(Math.max(1, initial_capacity - 1)) << 1);
+  }
+
+  public HashTableBig(long initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public HashTableBig(long initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public HashTableBig() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  @Override
+  public int size() {
+    return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+  }
+
+  @Override
+  public long longSize() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    return keys != null && findSlot(strategy.hash64(key), key) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (keys == null) {
+      return null;
+    }
+    long slot = findSlot(strategy.hash64(key), key);
+    return slot < 0 ? null : (V) values[segment(slot)][offset(slot)];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V insert(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (keys == null) {
+      allocate(threshold);
+      createMissingSegments();
+    }
+    long hash = strategy.hash64(key);
+    long slot = findSlot(hash, key);
+    if (slot >= 0) {
+      Object[] segment = values[segment(slot)];
+      Object old_value = segment[offset(slot)];
+      segment[offset(slot)] = value;
+      return (V) old_value;
+    }
+
+    slot = -(slot + 1);
+    hashes[segment(slot)][offset(slot)] = hash;
+    keys[segment(slot)][offset(slot)] = key;
+    values[segment(slot)][offset(slot)] = value;
+    if (((slot - hash) & (capacity - 1)) > PROBE_LIMIT * Long.numberOfTrailingZeros(capacity)) {
+      harden();
+    }
+    if (++size > threshold) {
+      resize();
+    }
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (keys == null) {
+      return null;
+    }
+    long slot = findSlot(strategy.hash64(key), key);
+    if (slot < 0) {
+      return null;
+    }
+    V old_value = (V) values[segment(slot)][offset(slot)];
+
+    // Shift back the keys of the cluster which may move closer to home.
+    long mask = capacity - 1;
+    long hole = slot;
+    for (long next = (slot + 1) & mask; ; next = (next + 1) & mask) {
+      Object next_key = keys[segment(next)][offset(next)];
+      if (next_key == null) {
+        break;
+      }
+      long next_hash = hashes[segment(next)][offset(next)];
+      if (((next - next_hash) & mask) >= ((next - hole) & mask)) {
+        hashes[segment(hole)][offset(hole)] = next_hash;
+        keys[segment(hole)][offset(hole)] = next_key;
+        values[segment(hole)][offset(hole)] = values[segment(next)][offset(next)];
+        hole = next;
+      }
+    }
+    keys[segment(hole)][offset(hole)] = null;
+    values[segment(hole)][offset(hole)] = null;
+    --size;
+    return old_value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    if (keys == null) {
+      return;
+    }
+    for (int s = 0; s < keys.length; ++s) {
+      Object[] segment = keys[s];
+      for (int i = 0; i < segment.length; ++i) {
+        if (segment[i] != null) {
+          action.accept((K) segment[i], (V) values[s][i]);
+        }
+      }
+    }
+  }
+
+  @Override
+  public FrozenDictionary<K, V> freeze() {
+    return FrozenDictionary.copyOf(this, strategy);
+  }
+
+  /** @return the actual capacity of table. */
+  public long capacity() {
+    return capacity;
+  }
+
+  private static int segment(long slot) {
+    return (int) (slot >>> SEGMENT_SHIFT);
+  }
+
+  private static int offset(long slot) {
+    return (int) slot & SEGMENT_MASK;
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * @param hash the key 64 bit hash.
+   * @param key the key to be searched.
+   * @return the slot of the key, or {@code -(slot + 1)} where {@code slot} is the empty slot ending
+   *     the key probe sequence.
+   */
+  private long findSlot(long hash, Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    long mask = capacity - 1;
+    long slot = hash & mask;
+    // The load factor is below 1, so there is always an empty slot.
+    for (; ; slot = (slot + 1) & mask) {
+      Object current = keys[segment(slot)][offset(slot)];
+      if (current == null) {
+        return -(slot + 1);
+      }
+      if (hashes[segment(slot)][offset(slot)] == hash && strategy.equivalent(key, current)) {
+        return slot;
+      }
+    }
+  }
+
+  /**
+   * Allocates an empty table, the segments are created by {@link #place} when first used, or by
+   * {@link #createMissingSegments()}.
+   *
+   * @param cap the capacity - MUST be a power of two.
+   */
+  private void allocate(long cap) {
+    int segments = (int) Math.max(1, cap >>> SEGMENT_SHIFT);
+    capacity = cap;
+    hashes = new long[segments][];
+    keys = new Object[segments][];
+    values = new Object[segments][];
+    threshold = (long) (cap * (double) load_factor);
+    if (cap >= MAXIMUM_CAPACITY) {
+      threshold = cap - 1;
+    }
+  }
+
+  /**
+   * Put a key in the first empty slot of its probe sequence, creating the segment if needed.
+   *
+   * @param hash the key 64 bit hash.
+   * @param key the key, it must not be in the table.
+   * @param value the value.
+   */
+  private void place(long hash, Object key, Object value) {
+    long mask = capacity - 1;
+    long slot = hash & mask;
+    for (; ; slot = (slot + 1) & mask) {
+      int s = segment(slot);
+      if (keys[s] == null) {
+        createSegment(s);
+      }
+      if (keys[s][offset(slot)] == null) {
+        hashes[s][offset(slot)] = hash;
+        keys[s][offset(slot)] = key;
+        values[s][offset(slot)] = value;
+        return;
+      }
+    }
+  }
+
+  private void createSegment(int s) {
+    int length = (int) Math.min(capacity, SEGMENT_SIZE);
+    hashes[s] = new long[length];
+    keys[s] = new Object[length];
+    values[s] = new Object[length];
+  }
+
+  /** Creates the segments no key was placed in. */
+  private void createMissingSegments() {
+    for (int s = 0; s < keys.length; ++s) {
+      if (keys[s] == null) {
+        createSegment(s);
+      }
+    }
+  }
+
+  /**
+   * Moves every key to a new table, one old segment at a time.
+   *
+   * @param new_cap the capacity of the new table.
+   * @param rehash {@code true} if the hashes must be computed again.
+   */
+  private void rebuild(long new_cap, boolean rehash) {
+    long[][] old_hashes = hashes;
+    Object[][] old_keys = keys;
+    Object[][] old_values = values;
+    allocate(new_cap);
+
+    for (int s = 0; s < old_keys.length; ++s) {
+      Object[] segment_keys = old_keys[s];
+      if (segment_keys == null) {
+        continue;
+      }
+      for (int i = 0; i < segment_keys.length; ++i) {
+        Object key = segment_keys[i];
+        if (key != null) {
+          place(rehash ? strategy.hash64(key) : old_hashes[s][i], key, old_values[s][i]);
+        }
+      }
+      // Drop the old segment, only its keys are alive in the new table.
+      old_hashes[s] = null;
+      old_keys[s] = null;
+      old_values[s] = null;
+    }
+    createMissingSegments();
+  }
+
+  private void resize() {
+    if (capacity >= MAXIMUM_CAPACITY) {
+      threshold = capacity - 1;
+      if (size > threshold) {
+        throw new IllegalStateException("HashTable is full");
+      }
+      return;
+    }
+    rebuild(capacity << 1, false);
+  }
+
+  /**
+   * Switches the table to a seeded hash when a probe sequence gets too long.
+   *
+   * <p>Only tables using a built-in strategy switch, custom strategies may define an equality the
+   * seeded hash does not know. The switch happens once, every key is rehashed.
+   */
+  private void harden() {
+    if (!(strategy instanceof HashStrategies)) {
+      return;
+    }
+    strategy = SipHashStrategy.hardening();
+    rebuild(capacity, true);
+  }
+
+  /** Prints the map. */
+  public void print() {
+    if (keys == null) {
+      System.out.print("Table is null!");
+    } else {
+      for (long i = 0; i < capacity; i++) {
+        Object[] segment = keys[segment(i)];
+        Object key = segment == null ? null : segment[offset(i)];
+        if (key == null) {
+          System.out.printf("%d -> %s\n", i, "null");
+        } else {
+          System.out.printf("%d -> { %s, %s }\n", i, key, values[segment(i)][offset(i)]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,675 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Bucketized cuckoo hash table implementation of the {@code Dictionary} interface.
+ *
+ * <p>Every key has two candidate buckets of {@link #BUCKET_SIZE} slots, the first is indexed by the
+ * lower bits of the hash, the second by the first one xor a mix of the whole hash. A key is always
+ * in one of its buckets or in a small stash, so a lookup scans at most two buckets. The hashes of a
+ * bucket are stored in 16 contiguous bytes, and a key is only compared when its full 32 bit hash
+ * matches. The key and the value of a slot are stored side by side in a single array, so a hit in
+ * the first bucket reads two cache lines, the hashes of the bucket and the key with its value. A
+ * key in its alternate bucket, or a miss, also reads the hashes of the second bucket.
+ *
+ * <p>An insert with both buckets full moves a random key of the bucket to its alternate bucket,
+ * repeating until a free slot is found or {@link #MAX_KICKS} moves are made. Then the key left
+ * without slot goes to the stash of {@link #STASH_SIZE} keys, scanned by a miss only when it is
+ * not empty. When the stash is full the table grows.
+ *
+ * <p>No table fits more than {@code 2 * BUCKET_SIZE} keys with equal hashes, they all share the
+ * same two buckets. A key whose buckets are full of keys of its hash goes to an overflow list
+ * instead, once the table uses a seeded {@link SipHashStrategy} or a custom strategy, and a bit of
+ * its first bucket is set. A miss only scans the list when the bit of its bucket is set, so the
+ * other lookups never read it.
+ *
+ * <p>This implementation uses size tables of powers of two, following the other tables.
+ *
+ * @see HashTableLinear
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public class HashTableCuckoo<K, V> implements Dictionary<K, V> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  /** The maximum capacity - MUST be a power of two. */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** The load factor, buckets of four slots hold up to ~95% of keys before failing. */
+  static final float DEFAULT_LOAD_FACTOR = 0.9f; // 90%
+
+  /** The number of slots of a bucket - MUST be a power of two. */
+  static final int BUCKET_SIZE = 4;
+
+  /** The log2 of {@link #BUCKET_SIZE}. */
+  private static final int BUCKET_SHIFT = 2;
+
+  /** The maximum number of keys moved by one insert. */
+  static final int MAX_KICKS = 500;
+
+  /** The number of keys kept aside when an insert fails. */
+  static final int STASH_SIZE = 4;
+
+  /** The number of entries contained in this map. */
+  private int size;
+
+  /** The hashes of the slots, {@code BUCKET_SIZE} consecutive slots by bucket. */
+  private int[] hashes;
+
+  /**
+   * The keys and values of the slots, the key of slot {@code i} at {@code 2 * i} and its value at
+   * {@code 2 * i + 1}, a {@code null} key for an empty slot.
+   */
+  private Object[] entries;
+
+  /** The number of buckets minus one. */
+  private int bucket_mask;
+
+  /** The stash, keys left without slot by an insert. */
+  private final int[] stash_hashes = new int[STASH_SIZE];
+
+  private final Object[] stash_keys = new Object[STASH_SIZE];
+  private final Object[] stash_values = new Object[STASH_SIZE];
+  private int stash_size;
+
+  /** The keys with equal hashes which do not fit in their buckets, {@code null} until needed. */
+  private int[] overflow_hashes;
+
+  private Object[] overflow_keys;
+  private Object[] overflow_values;
+  private int overflow_size;
+
+  /** One bit by bucket, set when a key of the overflow list has its first bucket there. */
+  private long[] overflow_buckets;
+
+  /** The slots of the last keys moved by {@link #place}, to undo a failed insert. */
+  private final int[] path = new int[MAX_KICKS];
+
+  /** The key left without slot by a failed {@link #place}. */
+  private int homeless_hash;
+
+  private Object homeless_key;
+  private Object homeless_value;
+
+  /** The state of the generator choosing the keys to be moved. */
+  private int random = 0x9e3779b9;
+
+  /** The next size value at which to resize (capacity * load factor). */
+  private int threshold;
+  /** The load factor for the hash table. */
+  private final float load_factor;
+  /** The strategy used to hash and compare the keys. */
+  private HashStrategy strategy;
+
+  public HashTableCuckoo(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (initial_capacity > MAXIMUM_CAPACITY) {
+      initial_capacity = MAXIMUM_CAPACITY;
+    }
+    if (p_load_factor <= 0 || p_load_factor > 1 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
+    // initial capacity is placed in threshold until the first insert
+    this.threshold = Math.max(BUCKET_SIZE, initial_capacity);
+  }
+
+  public HashTableCuckoo(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public HashTableCuckoo(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public HashTableCuckoo() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Returns the alternate bucket of a key.
+   *
+   * <p>It only depends on the bucket and on the hash, so a key can be moved without rehashing it.
+   * Applied twice it returns the original bucket.
+   *
+   * @param bucket one of the key buckets.
+   * @param hash the key hash.
+   * @return the other key bucket.
+   */
+  private int alternate(int bucket, int hash) {
+    return (bucket ^ (HashStrategies.MURMUR3.spread(hash) | 1)) & bucket_mask;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return findSlot(key) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    int n = hashes.length;
+    if (slot < n) {
+      return (V) entries[(slot << 1) + 1];
+    }
+    if (slot < n + STASH_SIZE) {
+      return (V) stash_values[slot - n];
+    }
+    return (V) overflow_values[slot - n - STASH_SIZE];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V insert(K key, V value) {
+    int slot = findSlot(key);
+    if (slot >= 0) {
+      Object[] vs;
+      int n = hashes.length;
+      if (slot < n) {
+        vs = entries;
+        slot = (slot << 1) + 1;
+      } else if (slot < n + STASH_SIZE) {
+        vs = stash_values;
+        slot -= n;
+      } else {
+        vs = overflow_values;
+        slot -= n + STASH_SIZE;
+      }
+      Object old_value = vs[slot];
+      vs[slot] = value;
+      return (V) old_value;
+    }
+
+    if (hashes == null) {
+      allocate(bucketsFor(threshold));
+    } else if (size >= threshold) {
+      rebuild((bucket_mask + 1) << 1);
+    }
+    int hash = hash(key);
+    if (!placeOrOverflow(hash, key, value)) {
+      // Grows, or only switches the strategy of a crowded key, keeping the key left without slot.
+      rebuild(crowded(hash) ? bucket_mask + 1 : (bucket_mask + 1) << 1);
+    }
+    ++size;
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    Object old_value;
+    int n = hashes.length;
+    if (slot < n) {
+      old_value = entries[(slot << 1) + 1];
+      entries[slot << 1] = null;
+      entries[(slot << 1) + 1] = null;
+      hashes[slot] = 0;
+      --size;
+      if (stash_size > 0) {
+        unstash();
+      }
+    } else if (slot < n + STASH_SIZE) {
+      int i = slot - n;
+      old_value = stash_values[i];
+      --stash_size;
+      stash_hashes[i] = stash_hashes[stash_size];
+      stash_keys[i] = stash_keys[stash_size];
+      stash_values[i] = stash_values[stash_size];
+      stash_keys[stash_size] = null;
+      stash_values[stash_size] = null;
+      --size;
+    } else {
+      int i = slot - n - STASH_SIZE;
+      old_value = overflow_values[i];
+      int bucket = overflow_hashes[i] & bucket_mask;
+      --overflow_size;
+      overflow_hashes[i] = overflow_hashes[overflow_size];
+      overflow_keys[i] = overflow_keys[overflow_size];
+      overflow_values[i] = overflow_values[overflow_size];
+      overflow_keys[overflow_size] = null;
+      overflow_values[overflow_size] = null;
+      --size;
+      clearOverflowBit(bucket);
+    }
+    return (V) old_value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    if (hashes == null) {
+      return;
+    }
+    Object[] es = entries;
+    for (int i = 0; i < es.length; i += 2) {
+      if (es[i] != null) {
+        action.accept((K) es[i], (V) es[i + 1]);
+      }
+    }
+    for (int i = 0; i < stash_size; ++i) {
+      action.accept((K) stash_keys[i], (V) stash_values[i]);
+    }
+    for (int i = 0; i < overflow_size; ++i) {
+      action.accept((K) overflow_keys[i], (V) overflow_values[i]);
+    }
+  }
+
+  @Override
+  public FrozenDictionary<K, V> freeze() {
+    return FrozenDictionary.copyOf(this, strategy);
+  }
+
+  /** @return the actual capacity of table. */
+  public int capacity() {
+    return hashes == null ? 0 : hashes.length;
+  }
+
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  private int hash(Object key) {
+    return strategy.hash(key);
+  }
+
+  /**
+   * Return the slot of a key.
+   *
+   * @param key the key to be searched.
+   * @return the slot of the key, a slot {@code >= capacity()} is in the stash and a slot {@code >=
+   *     capacity() + STASH_SIZE} in the overflow list, or {@code -1} if the key is not in the
+   *     table.
+   * @throws NullPointerException if the key is null.
+   */
+  private int findSlot(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    int[] hs = hashes;
+    if (hs == null) {
+      return -1;
+    }
+    Object[] es = entries;
+    int hash = hash(key);
+    Object current;
+
+    int bucket = hash & bucket_mask;
+    for (int i = bucket << BUCKET_SHIFT, end = i + BUCKET_SIZE; i < end; ++i) {
+      if (hs[i] == hash && (current = es[i << 1]) != null && strategy.equivalent(key, current)) {
+        return i;
+      }
+    }
+    for (int i = alternate(bucket, hash) << BUCKET_SHIFT, end = i + BUCKET_SIZE; i < end; ++i) {
+      if (hs[i] == hash && (current = es[i << 1]) != null && strategy.equivalent(key, current)) {
+        return i;
+      }
+    }
+    for (int i = 0; i < stash_size; ++i) {
+      if (stash_hashes[i] == hash && strategy.equivalent(key, stash_keys[i])) {
+        return hs.length + i;
+      }
+    }
+    if (overflow_size > 0 && (overflow_buckets[bucket >>> 6] & (1L << bucket)) != 0) {
+      for (int i = 0; i < overflow_size; ++i) {
+        if (overflow_hashes[i] == hash && strategy.equivalent(key, overflow_keys[i])) {
+          return hs.length + STASH_SIZE + i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Put a key in a free slot of a bucket.
+   *
+   * @return {@code true} if the bucket had a free slot or {@code false} otherwise.
+   */
+  private boolean putInBucket(int bucket, int hash, Object key, Object value) {
+    Object[] es = entries;
+    for (int i = bucket << BUCKET_SHIFT, end = i + BUCKET_SIZE; i < end; ++i) {
+      if (es[i << 1] == null) {
+        hashes[i] = hash;
+        es[i << 1] = key;
+        es[(i << 1) + 1] = value;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tells whether both buckets of a hash are full of keys of that hash, growing the table does not
+   * separate them.
+   *
+   * @param hash the key hash.
+   * @return {@code true} if the buckets have no room for another key of that hash.
+   */
+  private boolean crowded(int hash) {
+    int bucket = hash & bucket_mask;
+    return crowded(bucket, hash) && crowded(alternate(bucket, hash), hash);
+  }
+
+  private boolean crowded(int bucket, int hash) {
+    for (int i = bucket << BUCKET_SHIFT, end = i + BUCKET_SIZE; i < end; ++i) {
+      if (hashes[i] != hash || entries[i << 1] == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Adds a key to the overflow list and sets the bit of its first bucket. */
+  private void overflow(int hash, Object key, Object value) {
+    if (overflow_keys == null) {
+      overflow_hashes = new int[4];
+      overflow_keys = new Object[4];
+      overflow_values = new Object[4];
+      overflow_buckets = new long[((bucket_mask + 1) + 63) >>> 6];
+    } else if (overflow_size == overflow_keys.length) {
+      overflow_hashes = Arrays.copyOf(overflow_hashes, overflow_size << 1);
+      overflow_keys = Arrays.copyOf(overflow_keys, overflow_size << 1);
+      overflow_values = Arrays.copyOf(overflow_values, overflow_size << 1);
+    }
+    overflow_hashes[overflow_size] = hash;
+    overflow_keys[overflow_size] = key;
+    overflow_values[overflow_size] = value;
+    ++overflow_size;
+    int bucket = hash & bucket_mask;
+    overflow_buckets[bucket >>> 6] |= 1L << bucket;
+  }
+
+  /** Clears the bit of a bucket when no key of the overflow list has its first bucket there. */
+  private void clearOverflowBit(int bucket) {
+    for (int i = 0; i < overflow_size; ++i) {
+      if ((overflow_hashes[i] & bucket_mask) == bucket) {
+        return;
+      }
+    }
+    overflow_buckets[bucket >>> 6] &= ~(1L << bucket);
+  }
+
+  /**
+   * Puts a key in the table, in the stash, or in the overflow list if its buckets are crowded and
+   * the strategy will not be replaced.
+   *
+   * @return {@code true} if the key was added or {@code false} if the table must be rebuilt, then
+   *     the key is kept in the homeless fields.
+   */
+  private boolean placeOrOverflow(int hash, Object key, Object value) {
+    if (!crowded(hash)) {
+      return place(hash, key, value) || stash();
+    }
+    if (strategy instanceof HashStrategies) {
+      homeless_hash = hash;
+      homeless_key = key;
+      homeless_value = value;
+      return false;
+    }
+    overflow(hash, key, value);
+    return true;
+  }
+
+  /**
+   * Put a new key in one of its buckets, moving other keys to their alternate buckets if needed.
+   *
+   * @param hash the key hash.
+   * @param key the key, it must not be in the table.
+   * @param value the value.
+   * @return {@code true} if every key has a slot, or {@code false} otherwise. Then the moves are
+   *     undone and the new key is kept in the homeless fields.
+   */
+  private boolean place(int hash, Object key, Object value) {
+    int bucket = hash & bucket_mask;
+    if (putInBucket(bucket, hash, key, value)) {
+      return true;
+    }
+    bucket = alternate(bucket, hash);
+    if (putInBucket(bucket, hash, key, value)) {
+      return true;
+    }
+
+    Object[] es = entries;
+    for (int kicks = 0; kicks < MAX_KICKS; ++kicks) {
+      // xorshift, the higher bits choose the victim slot
+      random ^= random << 13;
+      random ^= random >>> 17;
+      random ^= random << 5;
+      int slot = (bucket << BUCKET_SHIFT) + (random >>> (32 - BUCKET_SHIFT));
+      path[kicks] = slot;
+
+      int victim_hash = hashes[slot];
+      Object victim_key = es[slot << 1];
+      Object victim_value = es[(slot << 1) + 1];
+      hashes[slot] = hash;
+      es[slot << 1] = key;
+      es[(slot << 1) + 1] = value;
+      hash = victim_hash;
+      key = victim_key;
+      value = victim_value;
+
+      bucket = alternate(bucket, hash);
+      if (putInBucket(bucket, hash, key, value)) {
+        return true;
+      }
+    }
+
+    for (int kicks = MAX_KICKS - 1; kicks >= 0; --kicks) {
+      int slot = path[kicks];
+      int victim_hash = hashes[slot];
+      Object victim_key = es[slot << 1];
+      Object victim_value = es[(slot << 1) + 1];
+      hashes[slot] = hash;
+      es[slot << 1] = key;
+      es[(slot << 1) + 1] = value;
+      hash = victim_hash;
+      key = victim_key;
+      value = victim_value;
+    }
+    homeless_hash = hash;
+    homeless_key = key;
+    homeless_value = value;
+    return false;
+  }
+
+  /**
+   * Moves the homeless key to the stash.
+   *
+   * @return {@code true} if the stash had room or {@code false} otherwise.
+   */
+  private boolean stash() {
+    if (stash_size == STASH_SIZE) {
+      return false;
+    }
+    stash_hashes[stash_size] = homeless_hash;
+    stash_keys[stash_size] = homeless_key;
+    stash_values[stash_size] = homeless_value;
+    ++stash_size;
+    homeless_key = null;
+    homeless_value = null;
+    return true;
+  }
+
+  /** Moves the stash keys with a free slot in their buckets back to the table. */
+  private void unstash() {
+    for (int i = stash_size - 1; i >= 0; --i) {
+      int hash = stash_hashes[i];
+      int bucket = hash & bucket_mask;
+      if (putInBucket(bucket, hash, stash_keys[i], stash_values[i])
+          || putInBucket(alternate(bucket, hash), hash, stash_keys[i], stash_values[i])) {
+        --stash_size;
+        stash_hashes[i] = stash_hashes[stash_size];
+        stash_keys[i] = stash_keys[stash_size];
+        stash_values[i] = stash_values[stash_size];
+        stash_keys[stash_size] = null;
+        stash_values[stash_size] = null;
+      }
+    }
+  }
+
+  /**
+   * Returns a power of two number of buckets for the given target capacity.
+   *
+   * @param cap the target capacity.
+   * @return the number of buckets.
+   */
+  private static int bucketsFor(int cap) {
+    int buckets = (cap + BUCKET_SIZE - 1) >>> BUCKET_SHIFT;
+    int n = Integer.highestOneBit(buckets);
+    return n == buckets ? n : n << 1;
+  }
+
+  private void allocate(int buckets) {
+    int cap = buckets << BUCKET_SHIFT;
+    hashes = new int[cap];
+    entries = new Object[cap << 1];
+    bucket_mask = buckets - 1;
+    Arrays.fill(stash_keys, null);
+    Arrays.fill(stash_values, null);
+    stash_size = 0;
+    overflow_hashes = null;
+    overflow_keys = null;
+    overflow_values = null;
+    overflow_buckets = null;
+    overflow_size = 0;
+    threshold = cap >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (cap * load_factor);
+  }
+
+  /**
+   * Moves every key, the stash, the overflow list and the homeless key to a new table.
+   *
+   * <p>If the keys still do not fit, keeps doubling the table. A table using a built-in strategy
+   * first switches to a seeded {@link SipHashStrategy}, because keys with equal hashes never fit,
+   * then the keys of crowded buckets go to the overflow list. Growing stops when the table is
+   * mostly empty, then the table is left as it was and the homeless key goes to the overflow list.
+   *
+   * @param new_buckets the number of buckets of the new table.
+   */
+  private void rebuild(int new_buckets) {
+    int[] old_hashes = hashes;
+    Object[] old_entries = entries;
+    int old_stash_size = stash_size;
+    int[] old_stash_hashes = stash_hashes.clone();
+    Object[] old_stash_keys = stash_keys.clone();
+    Object[] old_stash_values = stash_values.clone();
+    int[] old_overflow_hashes = overflow_hashes;
+    Object[] old_overflow_keys = overflow_keys;
+    Object[] old_overflow_values = overflow_values;
+    long[] old_overflow_buckets = overflow_buckets;
+    int old_overflow_size = overflow_size;
+    int extra_hash = homeless_hash;
+    Object extra_key = homeless_key;
+    Object extra_value = homeless_value;
+    homeless_key = null;
+    homeless_value = null;
+    int old_threshold = threshold;
+    int old_bucket_mask = bucket_mask;
+    HashStrategy old_strategy = strategy;
+
+    for (boolean rehash = false; ; ) {
+      if (new_buckets << BUCKET_SHIFT > MAXIMUM_CAPACITY
+          || (long) (size + 1) << 3 < (long) new_buckets << BUCKET_SHIFT) {
+        hashes = old_hashes;
+        entries = old_entries;
+        threshold = old_threshold;
+        bucket_mask = old_bucket_mask;
+        strategy = old_strategy;
+        System.arraycopy(old_stash_hashes, 0, stash_hashes, 0, STASH_SIZE);
+        System.arraycopy(old_stash_keys, 0, stash_keys, 0, STASH_SIZE);
+        System.arraycopy(old_stash_values, 0, stash_values, 0, STASH_SIZE);
+        stash_size = old_stash_size;
+        overflow_hashes = old_overflow_hashes;
+        overflow_keys = old_overflow_keys;
+        overflow_values = old_overflow_values;
+        overflow_buckets = old_overflow_buckets;
+        overflow_size = old_overflow_size;
+        if (extra_key != null) {
+          overflow(extra_hash, extra_key, extra_value);
+        }
+        return;
+      }
+      allocate(new_buckets);
+
+      boolean fits = true;
+      for (int i = 0; fits && i < old_hashes.length; ++i) {
+        Object key = old_entries[i << 1];
+        if (key != null) {
+          int h = rehash ? hash(key) : old_hashes[i];
+          fits = placeOrOverflow(h, key, old_entries[(i << 1) + 1]);
+        }
+      }
+      for (int i = 0; fits && i < old_stash_size; ++i) {
+        int h = rehash ? hash(old_stash_keys[i]) : old_stash_hashes[i];
+        fits = placeOrOverflow(h, old_stash_keys[i], old_stash_values[i]);
+      }
+      for (int i = 0; fits && i < old_overflow_size; ++i) {
+        int h = rehash ? hash(old_overflow_keys[i]) : old_overflow_hashes[i];
+        fits = placeOrOverflow(h, old_overflow_keys[i], old_overflow_values[i]);
+      }
+      if (fits && extra_key != null) {
+        int h = rehash ? hash(extra_key) : extra_hash;
+        fits = placeOrOverflow(h, extra_key, extra_value);
+      }
+      if (fits) {
+        return;
+      }
+
+      homeless_key = null;
+      homeless_value = null;
+      if (!rehash && strategy instanceof HashStrategies) {
+        strategy = SipHashStrategy.hardening();
+        rehash = true;
+      } else {
+        new_buckets <<= 1;
+      }
+    }
+  }
+
+  /** Prints the map. */
+  public void print() {
+    if (hashes == null) {
+      System.out.print("Table is null!");
+    } else {
+      for (int i = 0; i < hashes.length; i++) {
+        if ((i & (BUCKET_SIZE - 1)) == 0) {
+          System.out.printf("bucket %d\n", i >>> BUCKET_SHIFT);
+        }
+        Object key = entries[i << 1];
+        Object value = entries[(i << 1) + 1];
+        System.out.printf("  %d -> %s\n", i, key == null ? "null" : key + ":" + value);
+      }
+      for (int i = 0; i < stash_size; i++) {
+        System.out.printf("stash %d -> %s:%s\n", i, stash_keys[i], stash_values[i]);
+      }
+      for (int i = 0; i < overflow_size; i++) {
+        System.out.printf("overflow %d -> %s:%s\n", i, overflow_keys[i], overflow_values[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,483 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Hopscotch hash table implementation of the {@code Dictionary} interface.
+ *
+ * <p>Every key lives at most {@link #HOP_RANGE} - 1 slots after its home slot. The home slot keeps
+ * a bitmap of its neighbourhood, bit {@code i} is set when the slot {@code home + i} holds a key of
+ * that home. A lookup only visits the slots of the bitmap, so a miss on an empty neighbourhood
+ * reads a single long, and a hit reads slots in the same few cache lines.
+ *
+ * <p>An insert probes linearly for an empty slot and, while it is too far from home, swaps it with
+ * a closer key which can move forward without leaving its own neighbourhood. There are no removed
+ * markers, a remove only clears a slot and a bit. The neighbourhoods also bound the slots touched
+ * by an operation, which allows a concurrent variant to lock segments of the table.
+ *
+ * <p>No table fits more than {@link #HOP_RANGE} keys with equal hashes, and a neighbourhood full
+ * of them blocks the keys of the next homes. A key whose neighbourhood already holds {@link
+ * #EQUAL_HASH_LIMIT} keys of its hash goes to an overflow list instead, once the table uses a
+ * seeded {@link SipHashStrategy} or a custom strategy. A miss scans the list when it is not empty.
+ *
+ * <p>This implementation uses size tables of powers of two, following the other tables.
+ *
+ * @see HashTableLinear
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public class HashTableHopscotch<K, V> implements Dictionary<K, V> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+  /** The maximum capacity - MUST be a power of two. */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** The load factor, neighbourhoods of 64 slots hold more than 90% of keys. */
+  static final float DEFAULT_LOAD_FACTOR = 0.9f; // 90%
+
+  /** The size of a neighbourhood, the number of bits of the bitmaps. */
+  static final int HOP_RANGE = 64;
+
+  /** The maximum distance probed to find an empty slot before growing the table. */
+  static final int ADD_RANGE = 2048;
+
+  /** The maximum number of keys with equal hashes in a neighbourhood. */
+  static final int EQUAL_HASH_LIMIT = HOP_RANGE / 2;
+
+  /** The number of entries contained in this map. */
+  private int size;
+
+  /** The neighbourhood bitmap of each home slot. */
+  private long[] hops;
+
+  /** The hashes of the slots. */
+  private int[] hashes;
+
+  /** The keys of the slots, {@code null} for an empty slot. */
+  private Object[] keys;
+
+  /** The values of the slots. */
+  private Object[] values;
+
+  /** The keys of the full neighbourhoods, {@code null} until the first one. */
+  private int[] overflow_hashes;
+
+  private Object[] overflow_keys;
+  private Object[] overflow_values;
+  private int overflow_size;
+
+  /** The next size value at which to resize (capacity * load factor). */
+  private int threshold;
+  /** The load factor for the hash table. */
+  private final float load_factor;
+  /** The strategy used to hash and compare the keys. */
+  private HashStrategy strategy;
+
+  public HashTableHopscotch(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (initial_capacity > MAXIMUM_CAPACITY) {
+      initial_capacity = MAXIMUM_CAPACITY;
+    }
+    if (p_load_factor <= 0 || p_load_factor > 1 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
+    // initial capacity is placed in threshold until the first insert
+    this.threshold = Math.max(HOP_RANGE, tableSizeFor(initial_capacity));
+  }
+
+  public HashTableHopscotch(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public HashTableHopscotch(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public HashTableHopscotch() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Returns a power of two size for the given target capacity.
+   *
+   * @param cap the value of table capacity.
+   * @return the power of two nearest to the given value
+   */
+  private static int tableSizeFor(int cap) {
+    int n = -1 >>> Integer.numberOfLeadingZeros(cap - 1);
+    return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+  }
+
+  private int hash(Object key) {
+    return strategy.hash(key);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return findSlot(key) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    return (V) (slot < keys.length ? values[slot] : overflow_values[slot - keys.length]);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V insert(K key, V value) {
+    int slot = findSlot(key);
+    if (slot >= 0) {
+      Object[] vs = slot < keys.length ? values : overflow_values;
+      int i = slot < keys.length ? slot : slot - keys.length;
+      Object old_value = vs[i];
+      vs[i] = value;
+      return (V) old_value;
+    }
+
+    if (keys == null) {
+      allocate(threshold);
+    } else if (size >= threshold) {
+      rebuild(keys.length << 1, 0, null, null);
+    }
+    int hash = hash(key);
+    if (crowded(hash)) {
+      if (strategy instanceof HashStrategies) {
+        rebuild(keys.length, hash, key, value);
+      } else {
+        overflow(hash, key, value);
+      }
+    } else if (!place(hash, key, value)) {
+      rebuild(keys.length << 1, hash, key, value);
+    }
+    ++size;
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    if (slot >= keys.length) {
+      int i = slot - keys.length;
+      Object old_value = overflow_values[i];
+      --overflow_size;
+      overflow_hashes[i] = overflow_hashes[overflow_size];
+      overflow_keys[i] = overflow_keys[overflow_size];
+      overflow_values[i] = overflow_values[overflow_size];
+      overflow_keys[overflow_size] = null;
+      overflow_values[overflow_size] = null;
+      --size;
+      return (V) old_value;
+    }
+    int mask = keys.length - 1;
+    int home = hashes[slot] & mask;
+    Object old_value = values[slot];
+    keys[slot] = null;
+    values[slot] = null;
+    hops[home] &= ~(1L << ((slot - home) & mask));
+    --size;
+    return (V) old_value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    if (keys == null) {
+      return;
+    }
+    for (int i = 0; i < keys.length; ++i) {
+      if (keys[i] != null) {
+        action.accept((K) keys[i], (V) values[i]);
+      }
+    }
+    for (int i = 0; i < overflow_size; ++i) {
+      action.accept((K) overflow_keys[i], (V) overflow_values[i]);
+    }
+  }
+
+  @Override
+  public FrozenDictionary<K, V> freeze() {
+    return FrozenDictionary.copyOf(this, strategy);
+  }
+
+  /** @return the actual capacity of table. */
+  public int capacity() {
+    return keys == null ? 0 : keys.length;
+  }
+
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Return the slot of a key.
+   *
+   * @param key the key to be searched.
+   * @return the slot of the key, a slot {@code >= capacity()} is in the overflow list, or {@code
+   *     -1} if the key is not in the table.
+   * @throws NullPointerException if the key is null.
+   */
+  private int findSlot(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Object[] ks = keys;
+    if (ks == null) {
+      return -1;
+    }
+    int hash = hash(key);
+    int mask = ks.length - 1;
+    int home = hash & mask;
+    for (long bits = hops[home]; bits != 0; bits &= bits - 1) {
+      int slot = (home + Long.numberOfTrailingZeros(bits)) & mask;
+      if (hashes[slot] == hash && strategy.equivalent(key, ks[slot])) {
+        return slot;
+      }
+    }
+    for (int i = 0; i < overflow_size; ++i) {
+      if (overflow_hashes[i] == hash && strategy.equivalent(key, overflow_keys[i])) {
+        return ks.length + i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Tells whether the neighbourhood of a hash holds {@link #EQUAL_HASH_LIMIT} keys of that hash,
+   * growing the table does not separate them.
+   *
+   * @param hash the key hash.
+   * @return {@code true} if the neighbourhood has no room for another key of that hash.
+   */
+  private boolean crowded(int hash) {
+    int mask = keys.length - 1;
+    int home = hash & mask;
+    long bits = hops[home];
+    if (Long.bitCount(bits) < EQUAL_HASH_LIMIT) {
+      return false;
+    }
+    int equal = 0;
+    for (; bits != 0; bits &= bits - 1) {
+      if (hashes[(home + Long.numberOfTrailingZeros(bits)) & mask] == hash) {
+        ++equal;
+      }
+    }
+    return equal >= EQUAL_HASH_LIMIT;
+  }
+
+  /** Adds a key to the overflow list. */
+  private void overflow(int hash, Object key, Object value) {
+    if (overflow_keys == null) {
+      overflow_hashes = new int[4];
+      overflow_keys = new Object[4];
+      overflow_values = new Object[4];
+    } else if (overflow_size == overflow_keys.length) {
+      overflow_hashes = Arrays.copyOf(overflow_hashes, overflow_size << 1);
+      overflow_keys = Arrays.copyOf(overflow_keys, overflow_size << 1);
+      overflow_values = Arrays.copyOf(overflow_values, overflow_size << 1);
+    }
+    overflow_hashes[overflow_size] = hash;
+    overflow_keys[overflow_size] = key;
+    overflow_values[overflow_size] = value;
+    ++overflow_size;
+  }
+
+  /**
+   * Puts a key in the table, or in the overflow list if its neighbourhood is crowded and the
+   * strategy will not be replaced.
+   *
+   * @return {@code true} if the key was added or {@code false} if the table must grow.
+   */
+  private boolean placeOrOverflow(int hash, Object key, Object value) {
+    if (!crowded(hash)) {
+      return place(hash, key, value);
+    }
+    if (strategy instanceof HashStrategies) {
+      return false;
+    }
+    overflow(hash, key, value);
+    return true;
+  }
+
+  /**
+   * Put a new key in the neighbourhood of its home slot.
+   *
+   * @param hash the key hash.
+   * @param key the key, it must not be in the table.
+   * @param value the value.
+   * @return {@code true} if the key was added or {@code false} if the table must grow.
+   */
+  private boolean place(int hash, Object key, Object value) {
+    Object[] ks = keys;
+    int mask = ks.length - 1;
+    int home = hash & mask;
+    int free = home;
+    int distance = 0;
+
+    while (ks[free] != null) {
+      if (++distance >= ADD_RANGE || distance > mask) {
+        return false;
+      }
+      free = (free + 1) & mask;
+    }
+
+    // Hop the empty slot back until it is in the neighbourhood.
+    while (distance >= HOP_RANGE) {
+      boolean moved = false;
+      for (int d = HOP_RANGE - 1; d > 0 && !moved; --d) {
+        int bucket = (free - d) & mask;
+        long candidates = hops[bucket] & ((1L << d) - 1);
+        if (candidates != 0) {
+          int i = Long.numberOfTrailingZeros(candidates);
+          int slot = (bucket + i) & mask;
+          hashes[free] = hashes[slot];
+          ks[free] = ks[slot];
+          values[free] = values[slot];
+          ks[slot] = null;
+          values[slot] = null;
+          hops[bucket] = (hops[bucket] & ~(1L << i)) | (1L << d);
+          distance -= d - i;
+          free = slot;
+          moved = true;
+        }
+      }
+      if (!moved) {
+        return false;
+      }
+    }
+
+    hashes[free] = hash;
+    ks[free] = key;
+    values[free] = value;
+    hops[home] |= 1L << distance;
+    return true;
+  }
+
+  private void allocate(int cap) {
+    hops = new long[cap];
+    hashes = new int[cap];
+    keys = new Object[cap];
+    values = new Object[cap];
+    overflow_hashes = null;
+    overflow_keys = null;
+    overflow_values = null;
+    overflow_size = 0;
+    threshold = cap >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (cap * load_factor);
+  }
+
+  /**
+   * Moves every key, the overflow list and an extra key to a new table.
+   *
+   * <p>If the keys still do not fit, keeps doubling the table. A table using a built-in strategy
+   * first switches to a seeded {@link SipHashStrategy}, because keys with equal hashes never fit,
+   * then the keys of crowded neighbourhoods go to the overflow list. Growing stops when the table
+   * is mostly empty, then the table is left as it was and the extra key goes to the overflow list.
+   *
+   * @param new_cap the capacity of the new table.
+   * @param extra_hash the hash of the extra key.
+   * @param extra_key the extra key or {@code null}.
+   * @param extra_value the value of the extra key.
+   */
+  private void rebuild(int new_cap, int extra_hash, Object extra_key, Object extra_value) {
+    long[] old_hops = hops;
+    int[] old_hashes = hashes;
+    Object[] old_keys = keys;
+    Object[] old_values = values;
+    int[] old_overflow_hashes = overflow_hashes;
+    Object[] old_overflow_keys = overflow_keys;
+    Object[] old_overflow_values = overflow_values;
+    int old_overflow_size = overflow_size;
+    int old_threshold = threshold;
+    HashStrategy old_strategy = strategy;
+
+    for (boolean rehash = false; ; ) {
+      if (new_cap > MAXIMUM_CAPACITY || (long) (size + 1) << 3 < new_cap) {
+        hops = old_hops;
+        hashes = old_hashes;
+        keys = old_keys;
+        values = old_values;
+        overflow_hashes = old_overflow_hashes;
+        overflow_keys = old_overflow_keys;
+        overflow_values = old_overflow_values;
+        overflow_size = old_overflow_size;
+        threshold = old_threshold;
+        strategy = old_strategy;
+        if (extra_key != null) {
+          overflow(extra_hash, extra_key, extra_value);
+        }
+        return;
+      }
+      allocate(new_cap);
+
+      boolean fits = true;
+      for (int i = 0; fits && i < old_keys.length; ++i) {
+        if (old_keys[i] != null) {
+          int h = rehash ? hash(old_keys[i]) : old_hashes[i];
+          fits = placeOrOverflow(h, old_keys[i], old_values[i]);
+        }
+      }
+      for (int i = 0; fits && i < old_overflow_size; ++i) {
+        int h = rehash ? hash(old_overflow_keys[i]) : old_overflow_hashes[i];
+        fits = placeOrOverflow(h, old_overflow_keys[i], old_overflow_values[i]);
+      }
+      if (fits && extra_key != null) {
+        fits = placeOrOverflow(rehash ? hash(extra_key) : extra_hash, extra_key, extra_value);
+      }
+      if (fits) {
+        return;
+      }
+
+      if (!rehash && strategy instanceof HashStrategies) {
+        strategy = SipHashStrategy.hardening();
+        rehash = true;
+      } else {
+        new_cap <<= 1;
+      }
+    }
+  }
+
+  /** Prints the map. */
+  public void print() {
+    if (keys == null) {
+      System.out.print("Table is null!");
+    } else {
+      for (int i = 0; i < keys.length; i++) {
+        System.out.printf(
+            "%d -> [%s] %s\n",
+            i,
+            Long.toBinaryString(hops[i]),
+            keys[i] == null ? "null" : keys[i] + ":" + values[i]);
+      }
+      for (int i = 0; i < overflow_size; i++) {
+        System.out.printf("overflow %d -> %s:%s\n", i, overflow_keys[i], overflow_values[i]);
+      }
+    }
+  }
+}
@@ -1,6 +1,10 @@
 package structures;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Hash table based implementation of the {@code Dictionary} interface.
@@ -23,9 +27,18 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
   /** The load factor. */
   static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
 
+  /**
+   * The probe length, per bit of capacity, at which a table using a built-in strategy switches to a
+   * seeded {@link SipHashStrategy}. Honest clusters grow with the log of the capacity.
+   */
+  static final int PROBE_LIMIT = 32;
+
   /** The number of entries contained in this map. */
   private int size;
 
+  /** The number of removed entries still in the table. */
+  private int tombstones;
+
   /**
    * The Map Entry.
    *
@@ -36,8 +49,8 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
    * @see Dictionary
    */
   static class Entry<K, V> implements Dictionary.Entry<K, V> {
-    final int hash;
-    final K key;
+    int hash;
+    K key;
     V value;
     boolean removed;
 
@@ -101,16 +114,16 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
   /**
    * Return a hash for a giving key.
    *
-   * <p>This method uses a key.hashCode() function to get a hash. Then spreads the higher bits of
-   * hash to lower using a XOR. Avoiding bad hash functions. Because in most times these bit are not
-   * used in index calculations.
+   * <p>This method delegates to the table {@link HashStrategy}. The default strategy uses a
+   * key.hashCode() function to get a hash. Then spreads the higher bits of hash to lower using a
+   * XOR. Avoiding bad hash functions. Because in most times these bit are not used in index
+   * calculations.
    *
    * @param key the key to be hashed;
    * @return the hash value for the {@code key}.
    */
-  private static int hash(Object key) {
-    int h = key.hashCode();
-    return ((h) ^ (h >>> 16));
+  private int hash(Object key) {
+    return strategy.hash(key);
   }
 
   /**
@@ -146,8 +159,35 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
   private int threshold;
   /** The load factor for the hash table. */
   private float load_factor;
+  /** The strategy used to hash and compare the keys. */
+  private HashStrategy strategy;
+
+  /** The removed entries dropped from the table and kept to be reused. */
+  private Entry<K, V>[] pool;
+  /** The number of entries in the pool. */
+  private int pool_size;
+  /** The table emptied by the last purge, reused by the next one when recycling. */
+  private Entry<K, V>[] spare;
+  /** The maximum number of entries in the pool, {@code 0} if the entries are not recycled. */
+  private final int pool_capacity;
+  /** The number of entries added to the table. */
+  private long additions;
+  /** The number of removed entries reused. */
+  private long reuses;
 
-  public HashTableLinear(int initial_capacity, float p_load_factor) {
+  /**
+   * Creates a table recycling its entries. A removed entry stays in the table to not break the
+   * probe sequences, the next insertion on its slot reuses it. The removed entries dropped when the
+   * table is rebuilt are kept in a pool of at most {@code p_pool_capacity} entries and reused by
+   * the insertions on empty slots, so a table whose size is stable allocates no entry.
+   *
+   * @param initial_capacity the initial capacity.
+   * @param p_load_factor the load factor.
+   * @param p_strategy the strategy used to hash and compare the keys.
+   * @param p_pool_capacity the maximum number of removed entries kept, {@code 0} to not recycle.
+   */
+  public HashTableLinear(
+      int initial_capacity, float p_load_factor, HashStrategy p_strategy, int p_pool_capacity) {
     if (initial_capacity < 0) {
       throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
     }
@@ -158,8 +198,24 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
     if (p_load_factor <= 0 || Float.isNaN(p_load_factor)) {
       throw new IllegalArgumentException("Illegal load factor: " + load_factor);
     }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    if (p_pool_capacity < 0) {
+      throw new IllegalArgumentException("Illegal pool capacity: " + p_pool_capacity);
+    }
     this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
     this.threshold = tableSizeFor(initial_capacity);
+    this.pool_capacity = p_pool_capacity;
+  }
+
+  public HashTableLinear(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    this(initial_capacity, p_load_factor, p_strategy, 0);
+  }
+
+  public HashTableLinear(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
   }
 
   public HashTableLinear(int initial_capacity) {
@@ -170,6 +226,12 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
     this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
   }
 
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
   @Override
   public int size() {
     return size;
@@ -186,6 +248,93 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
     return e == null ? null : e.getValue();
   }
 
+  /**
+   * Return the value mapped to the {@code String} key with the same chars of a given sequence, or
+   * {@code null} if not in the map. The keys are hashed and compared by the strategy, the built-in
+   * strategies create no key to search.
+   *
+   * @param chars the chars of the key.
+   * @return {@code V} the value associated with the key or {@code null}, otherwise.
+   * @throws NullPointerException if the specified chars are null.
+   */
+  public V getChars(CharSequence chars) {
+    Entry<K, V>[] tab;
+    int n;
+    if ((tab = table) != null && (n = tab.length) > 0) {
+      int hash = strategy.hashChars(chars);
+      int index = (n - 1) & hash;
+      Entry<K, V> current;
+      for (int probes = 0; probes < n && (current = tab[index]) != null; ++probes) {
+        if (!current.isRemoved()
+            && current.hash == hash
+            && strategy.equivalentChars(chars, current.key)) {
+          return current.value;
+        }
+        index = (index + 1) & (n - 1);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the value mapped to the {@link ByteKey} with the same bytes of a given range, or {@code
+   * null} if not in the map. The keys are hashed and compared by the strategy, the built-in
+   * strategies create no key to search. A {@code byte[]} key is found when the strategy compares
+   * it by content, as {@link SipHashStrategy}.
+   *
+   * @param bytes the bytes of the key.
+   * @param off the first byte of the key.
+   * @param len the number of bytes of the key.
+   * @return {@code V} the value associated with the key or {@code null}, otherwise.
+   * @throws NullPointerException if the specified bytes are null.
+   */
+  public V getBytes(byte[] bytes, int off, int len) {
+    Entry<K, V>[] tab;
+    int n;
+    if ((tab = table) != null && (n = tab.length) > 0) {
+      int hash = strategy.hashBytes(bytes, off, len);
+      int index = (n - 1) & hash;
+      Entry<K, V> current;
+      for (int probes = 0; probes < n && (current = tab[index]) != null; ++probes) {
+        if (!current.isRemoved()
+            && current.hash == hash
+            && strategy.equivalentBytes(bytes, off, len, current.key)) {
+          return current.value;
+        }
+        index = (index + 1) & (n - 1);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the value mapped to the {@link ByteKey} with the same bytes of the remaining bytes of a
+   * buffer, or {@code null} if not in the map. The keys are hashed and compared by the strategy,
+   * the built-in strategies create no key to search. The buffer position is not changed.
+   *
+   * @param buffer the bytes of the key.
+   * @return {@code V} the value associated with the key or {@code null}, otherwise.
+   * @throws NullPointerException if the specified buffer is null.
+   */
+  public V getBytes(ByteBuffer buffer) {
+    Entry<K, V>[] tab;
+    int n;
+    if ((tab = table) != null && (n = tab.length) > 0) {
+      int hash = strategy.hashBytes(buffer);
+      int index = (n - 1) & hash;
+      Entry<K, V> current;
+      for (int probes = 0; probes < n && (current = tab[index]) != null; ++probes) {
+        if (!current.isRemoved()
+            && current.hash == hash
+            && strategy.equivalentBytes(buffer, current.key)) {
+          return current.value;
+        }
+        index = (index + 1) & (n - 1);
+      }
+    }
+    return null;
+  }
+
   @Override
   public V insert(K key, V value) {
     if (key == null) {
@@ -199,8 +348,132 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
     if (key == null) {
       throw new NullPointerException("Illegal key value");
     }
-    Entry<K, V> e = removeEntry(hash(key), key);
-    return e == null ? null : e.value;
+    return removeEntry(hash(key), key);
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Entry<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int slot = findSlot(tab, hash, key);
+    if (slot >= 0) {
+      Entry<K, V> current = tab[slot];
+      V old_value = current.value;
+      if (old_value == null) {
+        current.value = value;
+      }
+      return old_value;
+    }
+    addEntry(tab, -(slot + 1), hash, key, value);
+    return null;
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    final Entry<K, V> e = getEntry(key);
+    return e == null ? null : e.setValue(value);
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+    if (key == null || mapping == null) {
+      throw new NullPointerException("Illegal key or function value");
+    }
+    Entry<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int slot = findSlot(tab, hash, key);
+    if (slot >= 0) {
+      Entry<K, V> current = tab[slot];
+      if (current.value == null) {
+        current.value = mapping.apply(key);
+      }
+      return current.value;
+    }
+    V value = mapping.apply(key);
+    if (value != null) {
+      addEntry(tab, -(slot + 1), hash, key, value);
+    }
+    return value;
+  }
+
+  @Override
+  public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    if (remapping == null) {
+      throw new NullPointerException("Illegal function value");
+    }
+    final Entry<K, V> current = getEntry(key);
+    if (current == null || current.value == null) {
+      return null;
+    }
+    V value = remapping.apply(key, current.value);
+    if (value == null) {
+      removeAt(current);
+    } else {
+      current.value = value;
+    }
+    return value;
+  }
+
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    if (key == null || remapping == null) {
+      throw new NullPointerException("Illegal key or function value");
+    }
+    Entry<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int slot = findSlot(tab, hash, key);
+    if (slot >= 0) {
+      Entry<K, V> current = tab[slot];
+      V value = remapping.apply(key, current.value);
+      if (value == null) {
+        removeAt(current);
+      } else {
+        current.value = value;
+      }
+      return value;
+    }
+    V value = remapping.apply(key, null);
+    if (value != null) {
+      addEntry(tab, -(slot + 1), hash, key, value);
+    }
+    return value;
+  }
+
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+    if (key == null || value == null || remapping == null) {
+      throw new NullPointerException("Illegal key, value or function value");
+    }
+    Entry<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int slot = findSlot(tab, hash, key);
+    if (slot >= 0) {
+      Entry<K, V> current = tab[slot];
+      V merged = current.value == null ? value : remapping.apply(current.value, value);
+      if (merged == null) {
+        removeAt(current);
+      } else {
+        current.value = merged;
+      }
+      return merged;
+    }
+    addEntry(tab, -(slot + 1), hash, key, value);
+    return value;
   }
 
   /**
@@ -222,23 +495,16 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
       int n = tab.length;
       int hash = hash(key);
       int index = (n - 1) & (hash);
-      Entry<K, V> current = tab[index];
-
-      if (current == null) {
-        return null;
-      }
-      if (current.hash == hash && (current.key == key || key.equals(current.key))) {
-        return current.isRemoved() ? null : current;
-      }
-
-      // May be same hash, but not same key.
-      while (current != null) {
-        if (!current.isRemoved()) {
-          if (current.hash == hash && (current.key == key || key.equals(current.key))) {
-            return current;
-          }
+      Entry<K, V> current;
+
+      // May be same hash, but not same key. Stops on the first empty slot.
+      for (int probes = 0; probes < n && (current = tab[index]) != null; ++probes) {
+        if (!current.isRemoved()
+            && current.hash == hash
+            && strategy.equivalent(key, current.key)) {
+          return current;
         }
-        current = tab[++index];
+        index = (index + 1) & (n - 1);
       }
     }
     return null;
@@ -260,26 +526,214 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
       tab = resize();
     }
 
+    int slot = findSlot(tab, hash, key);
+    if (slot >= 0) {
+      Entry<K, V> current = tab[slot];
+      V old_value = current.getValue();
+      current.setValue(value);
+      return old_value;
+    }
+    addEntry(tab, -(slot + 1), hash, key, value);
+    return null;
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * <p>The whole cluster is walked, because the key may be after a removed entry.
+   *
+   * @param tab the table.
+   * @param hash the key hash.
+   * @param key the key to be searched.
+   * @return the slot of the key, or {@code -(slot + 1)} where {@code slot} is the first removed
+   *     entry or the empty slot of the key probe sequence.
+   * @throws IllegalStateException if the key is not in the table and the table is full.
+   */
+  private int findSlot(Entry<K, V>[] tab, int hash, Object key) {
     int n = tab.length;
     int index = (n - 1) & hash;
-    if (tab[index] != null) {
-      Entry<K, V> current = tab[index];
-      if (current.hash == hash && (current.key == key || key.equals(current.key))) {
-        V old_value = current.getValue();
-        current.setValue(value);
-        return old_value;
+    int free = -1;
+    Entry<K, V> current;
+
+    for (int probes = 0; probes < n && (current = tab[index]) != null; ++probes) {
+      if (current.isRemoved()) {
+        if (free < 0) {
+          free = index;
+        }
+      } else if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        return index;
       }
-      while (current != null && !current.isRemoved()) {
-        current = tab[++index];
+      index = (index + 1) & (n - 1);
+    }
+
+    if (free >= 0) {
+      return -(free + 1);
+    } else if (tab[index] != null) {
+      throw new IllegalStateException("HashTable is full");
+    }
+    return -(index + 1);
+  }
+
+  /**
+   * Add a new entry in a slot found by {@link #findSlot}, then grows the table if needed.
+   *
+   * @param tab the table.
+   * @param slot the empty or removed slot.
+   * @param hash the key hash.
+   * @param key the key.
+   * @param value the value.
+   */
+  private void addEntry(Entry<K, V>[] tab, int slot, int hash, K key, V value) {
+    int n = tab.length;
+    Entry<K, V> entry = tab[slot];
+    if (entry != null) { // reuse a removed entry slot
+      --tombstones;
+    }
+    if (pool_capacity == 0) {
+      entry = new Entry<>(hash, key, value);
+    } else {
+      if (entry == null && pool_size > 0) {
+        entry = pool[--pool_size];
+        pool[pool_size] = null;
+      }
+      if (entry == null) {
+        entry = new Entry<>(hash, key, value);
+      } else {
+        // The entry is not reachable by a lookup until it is no longer removed.
+        entry.hash = hash;
+        entry.key = key;
+        entry.value = value;
+        entry.removed = false;
+        ++reuses;
       }
     }
-    tab[index] = new Entry<>(hash, key, value);
+    tab[slot] = entry;
+    ++size;
+    ++additions;
 
-    if (++size > threshold) {
-      resize();
+    if (((slot - hash) & (n - 1)) > PROBE_LIMIT * Integer.numberOfTrailingZeros(n)) {
+      harden();
     }
+    if (size + tombstones > threshold) {
+      // Only the live entries need a larger table, the removed ones are dropped by a rebuild.
+      if (size > threshold >> 1) {
+        resize();
+      } else {
+        purge();
+      }
+    }
+  }
 
-    return null;
+  /**
+   * Mark the entry of a slot as removed. The entry drops its key and value, so the table keeps
+   * nothing alive for it.
+   *
+   * @param current the entry to be removed.
+   */
+  private void removeAt(Entry<K, V> current) {
+    current.setRemoved(true);
+    current.key = null;
+    --size;
+    ++tombstones;
+  }
+
+  /**
+   * Keep a removed entry dropped from the table in the pool if it is not full.
+   *
+   * @param entry the removed entry.
+   */
+  private void recycle(Entry<K, V> entry) {
+    if (pool_size < pool_capacity) {
+      if (pool == null) {
+        @SuppressWarnings({"unchecked"})
+        Entry<K, V>[] new_pool = (Entry<K, V>[]) new Entry[pool_capacity];
+        pool = new_pool;
+      }
+      pool[pool_size++] = entry;
+    }
+  }
+
+  /**
+   * Rebuilds the table with the same capacity, dropping the removed entries. A recycling table
+   * keeps the emptied table for the next purge.
+   */
+  private void purge() {
+    Entry<K, V>[] old_table = table;
+    Entry<K, V>[] new_table = spare;
+    if (new_table == null || new_table.length != old_table.length) {
+      @SuppressWarnings({"unchecked"})
+      Entry<K, V>[] empty_table = (Entry<K, V>[]) new Entry[old_table.length];
+      new_table = empty_table;
+    }
+    table = new_table;
+    tombstones = 0;
+    transfer(old_table, new_table);
+    spare = pool_capacity > 0 ? old_table : null;
+  }
+
+  /**
+   * Moves the entries of a table to a new one, the removed entries go to the pool.
+   *
+   * @param old_table the table to be emptied.
+   * @param new_table the new table, it must have room for every entry.
+   */
+  private void transfer(Entry<K, V>[] old_table, Entry<K, V>[] new_table) {
+    for (int i = 0; i < old_table.length; ++i) {
+      Entry<K, V> current = old_table[i];
+      old_table[i] = null;
+      if (current == null) {
+        continue;
+      }
+      if (current.isRemoved()) {
+        recycle(current);
+      } else {
+        place(new_table, current);
+      }
+    }
+  }
+
+  /**
+   * Switches the table to a seeded hash when a probe sequence gets too long.
+   *
+   * <p>Only tables using a built-in strategy switch, custom strategies may define an equality the
+   * seeded hash does not know. The switch happens once, every entry is rehashed to a new table of
+   * same capacity.
+   */
+  private void harden() {
+    if (!(strategy instanceof HashStrategies)) {
+      return;
+    }
+    strategy = SipHashStrategy.hardening();
+
+    Entry<K, V>[] old_table = table;
+    int n = old_table.length;
+    @SuppressWarnings({"unchecked"})
+    Entry<K, V>[] new_table = (Entry<K, V>[]) new Entry[n];
+    for (int i = 0; i < n; ++i) {
+      Entry<K, V> current = old_table[i];
+      if (current != null && !current.isRemoved()) {
+        current.hash = hash(current.key);
+      }
+    }
+    transfer(old_table, new_table);
+    table = new_table;
+    tombstones = 0;
+  }
+
+  /**
+   * Put an entry in the first empty slot of its probe sequence.
+   *
+   * @param tab the table, it must have an empty slot.
+   * @param entry the entry to be placed.
+   */
+  private static <K, V> void place(Entry<K, V>[] tab, Entry<K, V> entry) {
+    int mask = tab.length - 1;
+    int index = entry.hash & mask;
+    // Avoid collisions replace
+    while (tab[index] != null) {
+      index = (index + 1) & mask;
+    }
+    tab[index] = entry;
   }
 
   private Entry<K, V>[] resize() {
@@ -294,8 +748,8 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
       if (old_cap >= MAXIMUM_CAPACITY) {
         threshold = Integer.MAX_VALUE;
         return old_table;
-      } else if ((old_cap << 1) < MAXIMUM_CAPACITY && old_cap >= DEFAULT_INITIAL_CAPACITY) {
-        new_cap = old_cap << 1;
+      } else if ((new_cap = old_cap << 1) < MAXIMUM_CAPACITY
+          && old_cap >= DEFAULT_INITIAL_CAPACITY) {
         new_thr = old_trh << 1;
       }
     } else if (old_trh == 0) { // if the initial capacity is 0
@@ -310,26 +764,22 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
               : Integer.MAX_VALUE);
     }
 
+    if (new_thr == 0) { // small tables compute the threshold from the capacity
+      float ft = (float) new_cap * load_factor;
+      new_thr =
+          (new_cap < MAXIMUM_CAPACITY && ft < (float) MAXIMUM_CAPACITY
+              ? (int) ft
+              : Integer.MAX_VALUE);
+    }
     threshold = new_thr;
     @SuppressWarnings({"unchecked"})
     Entry<K, V>[] new_table = (Entry<K, V>[]) new Entry[new_cap];
     table = new_table;
+    tombstones = 0;
+    spare = null;
 
     if (old_table != null) {
-      for (int i = 0; i < old_cap; ++i) {
-        Entry<K, V> current = old_table[i];
-        old_table[i] = null;
-        if (current != null && !current.isRemoved()) {
-          int index = current.hash & (new_cap - 1);
-          if (new_table[index] != null) {
-            // Avoid collisions replace
-            while (new_table[index] != null) {
-              ++index;
-            }
-          }
-          new_table[index] = current;
-        }
-      }
+      transfer(old_table, new_table);
     }
     return new_table;
   }
@@ -337,45 +787,138 @@ public class HashTableLinear<K, V> implements Dictionary<K, V> {
   /**
    * Remove a key-value entry on the map.
    *
+   * <p>The entry is kept in the table as removed, so the probe sequences passing through it are
+   * not broken.
+   *
    * @param hash the hash value for the key.
    * @param key the key to be removed.
    * @return old value of key if is in the map or {@code null} otherwise.
    */
-  private Entry<K, V> removeEntry(int hash, Object key) {
+  private V removeEntry(int hash, Object key) {
     Entry<K, V>[] tab;
     if ((tab = table) != null && tab.length > 0) {
       final int n = tab.length;
       int index = (n - 1) & hash;
-      Entry<K, V> current = tab[index];
-
-      if (current == null || current.isRemoved()) {
-        return null;
-      }
-
-      if (current.hash == hash && (current.key == key || key.equals(current.key))) {
-        current.setRemoved(true);
-        --size;
-        return current;
+      Entry<K, V> current;
+
+      for (int probes = 0; probes < n && (current = tab[index]) != null; ++probes) {
+        if (!current.isRemoved()
+            && current.hash == hash
+            && strategy.equivalent(key, current.key)) {
+          V old_value = current.getValue();
+          removeAt(current);
+          return old_value;
+        }
+        index = (index + 1) & (n - 1);
       }
+    }
+    return null;
+  }
 
-      while (current != null) {
-        if (!current.isRemoved()) {
-          if (current.hash == hash && (current.key == key || key.equals(current.key))) {
-            current.setRemoved(true);
-            --size;
-            return current;
-          }
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    Entry<K, V>[] tab = table;
+    if (tab != null) {
+      for (Entry<K, V> entry : tab) {
+        if (entry != null && !entry.removed) {
+          action.accept(entry.key, entry.value);
         }
-        current = tab[++index];
       }
     }
-    return null;
+  }
+
+  @Override
+  public FrozenDictionary<K, V> freeze() {
+    return FrozenDictionary.copyOf(this, strategy);
   }
 
   public int capacity() {
     return table == null ? 0 : table.length;
   }
 
+  /** @return the number of entries allocated by the insertions, the others were reused. */
+  public long allocations() {
+    return additions - reuses;
+  }
+
+  /** @return the number of removed entries reused by the insertions. */
+  public long reuses() {
+    return reuses;
+  }
+
+  /** @return the number of removed entries dropped from the table and kept to be reused. */
+  public int poolSize() {
+    return pool_size;
+  }
+
+  /**
+   * Returns the heap taken by the map: the table, the entries, the removed entries still in the
+   * table or recycled and the keys. The entries and keys are walked, so it takes a time linear in
+   * the capacity.
+   *
+   * @return the memory report.
+   * @see MemoryReport
+   */
+  public MemoryReport memoryUsage() {
+    Entry<K, V>[] tab = table;
+    long entry_size = MemoryReport.shallowSize(Entry.class);
+    long table_bytes = MemoryReport.shallowSize(getClass());
+    long entry_bytes = 0;
+    long key_bytes = 0;
+    long waste_bytes = pool_size * entry_size;
+    if (tab != null) {
+      table_bytes += MemoryReport.referenceArrayBytes(tab.length);
+      for (Entry<K, V> entry : tab) {
+        if (entry == null) {
+          continue;
+        }
+        if (entry.isRemoved()) {
+          waste_bytes += entry_size;
+        } else {
+          entry_bytes += entry_size;
+          key_bytes += MemoryReport.shallowSize(entry.key.getClass());
+        }
+      }
+    }
+    if (pool != null) {
+      waste_bytes += MemoryReport.referenceArrayBytes(pool.length);
+    }
+    if (spare != null) {
+      waste_bytes += MemoryReport.referenceArrayBytes(spare.length);
+    }
+    return new MemoryReport(size, capacity(), table_bytes, entry_bytes, waste_bytes, key_bytes);
+  }
+
+  /**
+   * Returns the heap a map created with the default initial capacity would take, once a number of
+   * keys were inserted and none removed.
+   *
+   * @param expected_size the number of keys.
+   * @param load_factor the load factor of the map.
+   * @param key_type the class of the keys, its shallow size is the size of a key.
+   * @return the memory report.
+   * @throws IllegalArgumentException if the size is negative, the load factor not positive or the
+   *     key type an interface, an array or a primitive class.
+   * @see MemoryReport
+   */
+  public static MemoryReport estimate(int expected_size, float load_factor, Class<?> key_type) {
+    MemoryReport.checkEstimate(expected_size, load_factor);
+    long key_size = MemoryReport.keySize(key_type);
+    int capacity = MemoryReport.grownCapacity(expected_size, load_factor);
+    long table_bytes = MemoryReport.shallowSize(HashTableLinear.class);
+    if (capacity > 0) {
+      table_bytes += MemoryReport.referenceArrayBytes(capacity);
+    }
+    return new MemoryReport(
+        expected_size,
+        capacity,
+        table_bytes,
+        expected_size * MemoryReport.shallowSize(Entry.class),
+        0,
+        expected_size * key_size);
+  }
+
   /** Prints the map. */
   public void print() {
     if (table == null || table.length == 0) System.out.print("Table is null!");
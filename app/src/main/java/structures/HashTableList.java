@@ -1,6 +1,11 @@
 package structures;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Hash table based implementation of the {@code Dictionary} interface.
@@ -23,6 +28,14 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
   /** The load factor. */
   static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
 
+  /**
+   * The chain length, plus one per bit of capacity, at which a table using a built-in strategy
+   * switches to a seeded {@link SipHashStrategy}. The longest honest chain grows with the number of
+   * bins, so a fixed limit would switch every large table; honest chains longer than that are very
+   * unlikely under the load factor.
+   */
+  static final int CHAIN_LIMIT = 8;
+
   /** The number of entries contained in this map. */
   private int size;
 
@@ -36,8 +49,8 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
    * @see Dictionary
    */
   static class Node<K, V> implements Dictionary.Entry<K, V> {
-    final int hash;
-    final K key;
+    int hash;
+    K key;
     V value;
     Node<K, V> next;
 
@@ -92,16 +105,16 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
   /**
    * Return a hash for a giving key.
    *
-   * <p>This method uses a key.hashCode() function to get a hash. Then spreads the higher bits of
-   * hash to lower using a XOR. Avoiding bad hash functions. Because in most times these bit are not
-   * used in index calculations.
+   * <p>This method delegates to the table {@link HashStrategy}. The default strategy uses a
+   * key.hashCode() function to get a hash. Then spreads the higher bits of hash to lower using a
+   * XOR. Avoiding bad hash functions. Because in most times these bit are not used in index
+   * calculations.
    *
    * @param key the key to be hashed;
    * @return the hash value for the {@code key}.
    */
-  private static int hash(Object key) {
-    int h = key.hashCode();
-    return ((h) ^ (h >>> 16));
+  int hash(Object key) {
+    return strategy.hash(key);
   }
 
   /**
@@ -137,8 +150,32 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
   private int threshold;
   /** The load factor for the hash table. */
   private float load_factor;
+  /** The strategy used to hash and compare the keys. */
+  private HashStrategy strategy;
+
+  /** The removed nodes kept to be reused, linked by their {@code next}. */
+  private Node<K, V> pool;
+  /** The number of nodes in the pool. */
+  private int pool_size;
+  /** The maximum number of nodes in the pool, {@code 0} if the nodes are not recycled. */
+  private final int pool_capacity;
+  /** The number of nodes linked in the table. */
+  private long links;
+  /** The number of nodes taken from the pool. */
+  private long reuses;
 
-  public HashTableList(int initial_capacity, float p_load_factor) {
+  /**
+   * Creates a table recycling its nodes. The removed nodes are kept in a pool of at most {@code
+   * p_pool_capacity} nodes and reused by the next insertions, so a table whose size is stable
+   * allocates no node.
+   *
+   * @param initial_capacity the initial capacity.
+   * @param p_load_factor the load factor.
+   * @param p_strategy the strategy used to hash and compare the keys.
+   * @param p_pool_capacity the maximum number of removed nodes kept, {@code 0} to not recycle.
+   */
+  public HashTableList(
+      int initial_capacity, float p_load_factor, HashStrategy p_strategy, int p_pool_capacity) {
     if (initial_capacity < 0) {
       throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
     }
@@ -149,8 +186,24 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
     if (p_load_factor <= 0 || Float.isNaN(p_load_factor)) {
       throw new IllegalArgumentException("Illegal load factor: " + load_factor);
     }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    if (p_pool_capacity < 0) {
+      throw new IllegalArgumentException("Illegal pool capacity: " + p_pool_capacity);
+    }
     this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
     this.threshold = tableSizeFor(initial_capacity);
+    this.pool_capacity = p_pool_capacity;
+  }
+
+  public HashTableList(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    this(initial_capacity, p_load_factor, p_strategy, 0);
+  }
+
+  public HashTableList(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
   }
 
   public HashTableList(int initial_capacity) {
@@ -161,6 +214,12 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
     this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
   }
 
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
   @Override
   public int size() {
     return size;
@@ -174,7 +233,86 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
   @Override
   public V get(K key) {
     final Node<K, V> e = getNode(key);
-    return e == null ? null : e.getValue();
+    if (e == null) {
+      return null;
+    }
+    afterNodeAccess(e);
+    return e.getValue();
+  }
+
+  /**
+   * Return the value mapped to the {@code String} key with the same chars of a given sequence, or
+   * {@code null} if not in the map. The keys are hashed and compared by the strategy, the built-in
+   * strategies create no key to search.
+   *
+   * @param chars the chars of the key.
+   * @return {@code V} the value associated with the key or {@code null}, otherwise.
+   * @throws NullPointerException if the specified chars are null.
+   */
+  public V getChars(CharSequence chars) {
+    Node<K, V>[] tab;
+    int n;
+    if ((tab = table) != null && (n = tab.length) > 0) {
+      int hash = strategy.hashChars(chars);
+      for (Node<K, V> current = tab[(n - 1) & hash]; current != null; current = current.next) {
+        if (current.hash == hash && strategy.equivalentChars(chars, current.key)) {
+          afterNodeAccess(current);
+          return current.value;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the value mapped to the {@link ByteKey} with the same bytes of a given range, or {@code
+   * null} if not in the map. The keys are hashed and compared by the strategy, the built-in
+   * strategies create no key to search. A {@code byte[]} key is found when the strategy compares
+   * it by content, as {@link SipHashStrategy}.
+   *
+   * @param bytes the bytes of the key.
+   * @param off the first byte of the key.
+   * @param len the number of bytes of the key.
+   * @return {@code V} the value associated with the key or {@code null}, otherwise.
+   * @throws NullPointerException if the specified bytes are null.
+   */
+  public V getBytes(byte[] bytes, int off, int len) {
+    Node<K, V>[] tab;
+    int n;
+    if ((tab = table) != null && (n = tab.length) > 0) {
+      int hash = strategy.hashBytes(bytes, off, len);
+      for (Node<K, V> current = tab[(n - 1) & hash]; current != null; current = current.next) {
+        if (current.hash == hash && strategy.equivalentBytes(bytes, off, len, current.key)) {
+          afterNodeAccess(current);
+          return current.value;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the value mapped to the {@link ByteKey} with the same bytes of the remaining bytes of a
+   * buffer, or {@code null} if not in the map. The keys are hashed and compared by the strategy,
+   * the built-in strategies create no key to search. The buffer position is not changed.
+   *
+   * @param buffer the bytes of the key.
+   * @return {@code V} the value associated with the key or {@code null}, otherwise.
+   * @throws NullPointerException if the specified buffer is null.
+   */
+  public V getBytes(ByteBuffer buffer) {
+    Node<K, V>[] tab;
+    int n;
+    if ((tab = table) != null && (n = tab.length) > 0) {
+      int hash = strategy.hashBytes(buffer);
+      for (Node<K, V> current = tab[(n - 1) & hash]; current != null; current = current.next) {
+        if (current.hash == hash && strategy.equivalentBytes(buffer, current.key)) {
+          afterNodeAccess(current);
+          return current.value;
+        }
+      }
+    }
+    return null;
   }
 
   @Override
@@ -191,7 +329,194 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
       throw new NullPointerException("Illegal key value");
     }
     Node<K, V> e = removeNode(hash(key), key);
-    return e == null ? null : e.value;
+    if (e == null) {
+      return null;
+    }
+    V old_value = e.value;
+    recycle(e);
+    return old_value;
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Node<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int index = (tab.length - 1) & hash;
+    Node<K, V> previous = null;
+    Node<K, V> current = tab[index];
+    int bin_count = 0;
+    while (current != null) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        V old_value = current.value;
+        if (old_value == null) {
+          current.value = value;
+        }
+        afterNodeAccess(current);
+        return old_value;
+      }
+      previous = current;
+      current = current.next;
+      ++bin_count;
+    }
+    linkNode(tab, index, previous, bin_count, newNode(hash, key, value));
+    return null;
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Node<K, V>[] tab;
+    int n;
+    if ((tab = table) != null && (n = tab.length) > 0) {
+      int hash = hash(key);
+      for (Node<K, V> current = tab[(n - 1) & hash]; current != null; current = current.next) {
+        if (current.hash == hash && strategy.equivalent(key, current.key)) {
+          afterNodeAccess(current);
+          return current.setValue(value);
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+    if (key == null || mapping == null) {
+      throw new NullPointerException("Illegal key or function value");
+    }
+    Node<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int index = (tab.length - 1) & hash;
+    Node<K, V> previous = null;
+    Node<K, V> current = tab[index];
+    int bin_count = 0;
+    while (current != null) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        if (current.value == null) {
+          current.value = mapping.apply(key);
+        }
+        afterNodeAccess(current);
+        return current.value;
+      }
+      previous = current;
+      current = current.next;
+      ++bin_count;
+    }
+    V value = mapping.apply(key);
+    if (value != null) {
+      linkNode(tab, index, previous, bin_count, newNode(hash, key, value));
+    }
+    return value;
+  }
+
+  @Override
+  public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    if (key == null || remapping == null) {
+      throw new NullPointerException("Illegal key or function value");
+    }
+    Node<K, V>[] tab;
+    if ((tab = table) != null && tab.length > 0) {
+      int hash = hash(key);
+      int index = (tab.length - 1) & hash;
+      Node<K, V> previous = null;
+      for (Node<K, V> current = tab[index]; current != null; current = current.next) {
+        if (current.hash == hash && strategy.equivalent(key, current.key)) {
+          if (current.value == null) {
+            return null;
+          }
+          V value = remapping.apply(key, current.value);
+          if (value == null) {
+            unlinkNode(tab, index, previous, current);
+          } else {
+            current.value = value;
+            afterNodeAccess(current);
+          }
+          return value;
+        }
+        previous = current;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    if (key == null || remapping == null) {
+      throw new NullPointerException("Illegal key or function value");
+    }
+    Node<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int index = (tab.length - 1) & hash;
+    Node<K, V> previous = null;
+    Node<K, V> current = tab[index];
+    int bin_count = 0;
+    while (current != null) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        V value = remapping.apply(key, current.value);
+        if (value == null) {
+          unlinkNode(tab, index, previous, current);
+        } else {
+          current.value = value;
+          afterNodeAccess(current);
+        }
+        return value;
+      }
+      previous = current;
+      current = current.next;
+      ++bin_count;
+    }
+    V value = remapping.apply(key, null);
+    if (value != null) {
+      linkNode(tab, index, previous, bin_count, newNode(hash, key, value));
+    }
+    return value;
+  }
+
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+    if (key == null || value == null || remapping == null) {
+      throw new NullPointerException("Illegal key, value or function value");
+    }
+    Node<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int index = (tab.length - 1) & hash;
+    Node<K, V> previous = null;
+    Node<K, V> current = tab[index];
+    int bin_count = 0;
+    while (current != null) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        V merged = current.value == null ? value : remapping.apply(current.value, value);
+        if (merged == null) {
+          unlinkNode(tab, index, previous, current);
+        } else {
+          current.value = merged;
+          afterNodeAccess(current);
+        }
+        return merged;
+      }
+      previous = current;
+      current = current.next;
+      ++bin_count;
+    }
+    linkNode(tab, index, previous, bin_count, newNode(hash, key, value));
+    return value;
   }
 
   /**
@@ -201,7 +526,7 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
    * @return the value mapped to the key or {@code null}
    * @throws NullPointerException if the key is null.
    */
-  private Node<K, V> getNode(Object key) {
+  Node<K, V> getNode(Object key) {
 
     if (key == null) {
       throw new NullPointerException("Illegal key value");
@@ -218,13 +543,13 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
         return null;
       }
 
-      if (current.hash == hash && (current.key == key || key.equals(current.key))) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
         return current;
       }
 
       // May be same hash, but not same key.
       do {
-        if (current.hash == hash && (current.key == key || key.equals(current.key))) {
+        if (current.hash == hash && strategy.equivalent(key, current.key)) {
           return current;
         }
       } while ((current = current.next) != null);
@@ -232,11 +557,96 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
     return null;
   }
 
-  // Create a regular node
-  private Node<K, V> newNode(int hash, K key, V value) {
-    return new Node<>(hash, key, value, null);
+  /**
+   * Returns the node of a key, linking a new node with a {@code null} value if the key is not in
+   * the table. For the subclasses keeping their values in the nodes, see {@link #newNode}.
+   *
+   * @param key the key.
+   * @return the node of the key.
+   * @throws NullPointerException if the key is null.
+   */
+  final Node<K, V> nodeOf(K key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Node<K, V>[] tab;
+    if ((tab = table) == null || tab.length == 0) {
+      tab = resize();
+    }
+    int hash = hash(key);
+    int index = (tab.length - 1) & hash;
+    Node<K, V> previous = null;
+    Node<K, V> current = tab[index];
+    int bin_count = 0;
+    while (current != null) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        afterNodeAccess(current);
+        return current;
+      }
+      previous = current;
+      current = current.next;
+      ++bin_count;
+    }
+    Node<K, V> node = newNode(hash, key, null);
+    linkNode(tab, index, previous, bin_count, node);
+    return node;
+  }
+
+  /** Performs an action for each node of the table, in the order of the bins. */
+  final void forEachNode(Consumer<? super Node<K, V>> action) {
+    Node<K, V>[] tab = table;
+    if (tab != null) {
+      for (Node<K, V> bin : tab) {
+        for (Node<K, V> current = bin; current != null; current = current.next) {
+          action.accept(current);
+        }
+      }
+    }
+  }
+
+  // Create a regular node, subclasses may create a node with more links.
+  Node<K, V> newNode(int hash, K key, V value) {
+    Node<K, V> node = pool;
+    if (node == null) {
+      return new Node<>(hash, key, value, null);
+    }
+    pool = node.next;
+    --pool_size;
+    ++reuses;
+    node.hash = hash;
+    node.key = key;
+    node.value = value;
+    node.next = null;
+    return node;
+  }
+
+  /**
+   * Keep an unlinked node in the pool if it is not full. The node drops its key and value, so the
+   * pool keeps nothing else alive.
+   *
+   * @param node the unlinked node, it must not be used after.
+   */
+  private void recycle(Node<K, V> node) {
+    if (pool_size < pool_capacity) {
+      node.key = null;
+      node.value = null;
+      node.next = pool;
+      pool = node;
+      ++pool_size;
+    }
   }
 
+  // Callbacks for the subclasses keeping an order of the nodes.
+
+  /** Called after the value of a node was read or written. */
+  void afterNodeAccess(Node<K, V> node) {}
+
+  /** Called after a new node was linked and the table grown. */
+  void afterNodeInsertion() {}
+
+  /** Called after a node was unlinked. */
+  void afterNodeRemoval(Node<K, V> node) {}
+
   /**
    * Add a new entry in the map if the current key is on the map replace the value.
    *
@@ -256,35 +666,104 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
     int n = tab.length;
     int index = (n - 1) & hash;
 
-    if (tab[index] == null) {
-      tab[index] = newNode(hash, key, value);
-    } else {
-      Node<K, V> current;
+    Node<K, V> previous = null;
+    Node<K, V> current = tab[index];
+    int bin_count = 0;
 
-      // Always check the first
-      if ((current = tab[index]).hash == hash && (current.key == key || key.equals(current.key))) {
+    // Find in the list a node with same key
+    while (current != null) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
         V old_value = current.getValue();
         current.setValue(value);
+        afterNodeAccess(current);
         return old_value;
       }
-
-      // Find in the list a node with same key
-      while (current.next != null) {
-        if (current.hash == hash && (current.key == key || key.equals(current.key))) {
-          V old_value = current.getValue();
-          current.setValue(value);
-          return old_value;
-        }
-        current = current.next;
-      }
-      current.next = newNode(hash, key, value);
+      previous = current;
+      current = current.next;
+      ++bin_count;
     }
+    linkNode(tab, index, previous, bin_count, newNode(hash, key, value));
+    return null;
+  }
 
+  /**
+   * Link a new node at the end of a bin, then grows the table if needed.
+   *
+   * @param tab the table.
+   * @param index the index of the bin.
+   * @param last the last node of the bin or {@code null} if the bin is empty.
+   * @param bin_count the number of nodes in the bin.
+   * @param node the new node.
+   */
+  private void linkNode(
+      Node<K, V>[] tab, int index, Node<K, V> last, int bin_count, Node<K, V> node) {
+    if (last == null) {
+      tab[index] = node;
+    } else {
+      last.next = node;
+    }
+    if (bin_count >= CHAIN_LIMIT + Integer.numberOfTrailingZeros(tab.length)) {
+      harden();
+    }
+    ++links;
     if (++size > threshold) {
       resize();
     }
+    afterNodeInsertion();
+  }
 
-    return null;
+  /**
+   * Unlink a node from a bin.
+   *
+   * @param tab the table.
+   * @param index the index of the bin.
+   * @param previous the node before {@code node} or {@code null} if it is the first.
+   * @param node the node to be removed.
+   */
+  private void unlinkNode(Node<K, V>[] tab, int index, Node<K, V> previous, Node<K, V> node) {
+    if (previous == null) {
+      tab[index] = node.next;
+    } else {
+      previous.next = node.next;
+    }
+    --size;
+    afterNodeRemoval(node);
+    recycle(node);
+  }
+
+  /**
+   * Switches the table to a seeded hash when a chain gets too long.
+   *
+   * <p>Only tables using a built-in strategy switch, custom strategies may define an equality the
+   * seeded hash does not know. The switch happens once, every node is rehashed in place.
+   */
+  private void harden() {
+    if (!(strategy instanceof HashStrategies)) {
+      return;
+    }
+    strategy = SipHashStrategy.hardening();
+
+    Node<K, V>[] tab = table;
+    int n = tab.length;
+    Node<K, V> all = null;
+    for (int i = 0; i < n; ++i) {
+      Node<K, V> current = tab[i];
+      tab[i] = null;
+      while (current != null) {
+        Node<K, V> next = current.next;
+        current.next = all;
+        all = current;
+        current = next;
+      }
+    }
+    while (all != null) {
+      Node<K, V> next = all.next;
+      all.hash = hash(all.key);
+      int index = (n - 1) & all.hash;
+      all.next = tab[index];
+      tab[index] = all;
+      all = next;
+    }
   }
 
   private Node<K, V>[] resize() {
@@ -301,8 +780,8 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
       if (old_cap >= MAXIMUM_CAPACITY) {
         threshold = Integer.MAX_VALUE;
         return old_table;
-      } else if ((old_cap << 1) < MAXIMUM_CAPACITY && old_cap >= DEFAULT_INITIAL_CAPACITY) {
-        new_cap = old_cap << 1;
+      } else if ((new_cap = old_cap << 1) < MAXIMUM_CAPACITY
+          && old_cap >= DEFAULT_INITIAL_CAPACITY) {
         new_thr = old_trh << 1;
       }
     } else if (old_trh == 0) { // if the initial capacity is 0
@@ -317,6 +796,13 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
               : Integer.MAX_VALUE);
     }
 
+    if (new_thr == 0) { // small tables compute the threshold from the capacity
+      float ft = (float) new_cap * load_factor;
+      new_thr =
+          (new_cap < MAXIMUM_CAPACITY && ft < (float) MAXIMUM_CAPACITY
+              ? (int) ft
+              : Integer.MAX_VALUE);
+    }
     threshold = new_thr;
     @SuppressWarnings({"unchecked"})
     Node<K, V>[] new_table = (Node<K, V>[]) new Node[new_cap];
@@ -377,7 +863,7 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
    * @param key the key to be removed.
    * @return old value of key if is in the map or {@code null} otherwise.
    */
-  private Node<K, V> removeNode(int hash, Object key) {
+  Node<K, V> removeNode(int hash, Object key) {
     Node<K, V>[] tab;
     if ((tab = table) != null && tab.length > 0) {
       final int n = tab.length;
@@ -390,16 +876,18 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
         return null;
       }
 
-      if (current.hash == hash && (current.key == key || key.equals(current.key))) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
         tab[index] = current.next;
         --size;
+        afterNodeRemoval(current);
         return current;
       } else if (current.next != null) {
         previous = current;
         do {
-          if (current.hash == hash && (current.key == key || key.equals(current.key))) {
+          if (current.hash == hash && strategy.equivalent(key, current.key)) {
             previous.next = current.next;
             --size;
+            afterNodeRemoval(current);
             return current;
           }
           previous = current;
@@ -409,11 +897,101 @@ public class HashTableList<K, V> implements Dictionary<K, V> {
     return null;
   }
 
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    Node<K, V>[] tab = table;
+    if (tab != null) {
+      for (Node<K, V> bin : tab) {
+        for (Node<K, V> current = bin; current != null; current = current.next) {
+          action.accept(current.key, current.value);
+        }
+      }
+    }
+  }
+
+  @Override
+  public FrozenDictionary<K, V> freeze() {
+    return FrozenDictionary.copyOf(this, strategy);
+  }
+
   /** @return the actual capacity of table. */
   public int capacity() {
     return table == null ? 0 : table.length;
   }
 
+  /** @return the number of nodes allocated by the insertions, the others were reused. */
+  public long allocations() {
+    return links - reuses;
+  }
+
+  /** @return the number of removed nodes reused by the insertions. */
+  public long reuses() {
+    return reuses;
+  }
+
+  /** @return the number of removed nodes kept to be reused. */
+  public int poolSize() {
+    return pool_size;
+  }
+
+  /**
+   * Returns the heap taken by the map: the table, the nodes, the recycled nodes and the keys. The
+   * nodes and keys are walked, so it takes a time linear in the capacity.
+   *
+   * @return the memory report.
+   * @see MemoryReport
+   */
+  public MemoryReport memoryUsage() {
+    Node<K, V>[] tab = table;
+    long table_bytes = MemoryReport.shallowSize(getClass());
+    long entry_bytes = 0;
+    long key_bytes = 0;
+    if (tab != null) {
+      table_bytes += MemoryReport.referenceArrayBytes(tab.length);
+      for (Node<K, V> bin : tab) {
+        for (Node<K, V> current = bin; current != null; current = current.next) {
+          entry_bytes += MemoryReport.shallowSize(current.getClass());
+          key_bytes += MemoryReport.shallowSize(current.key.getClass());
+        }
+      }
+    }
+    long waste_bytes = 0;
+    for (Node<K, V> current = pool; current != null; current = current.next) {
+      waste_bytes += MemoryReport.shallowSize(current.getClass());
+    }
+    return new MemoryReport(size, capacity(), table_bytes, entry_bytes, waste_bytes, key_bytes);
+  }
+
+  /**
+   * Returns the heap a map created with the default initial capacity would take, once a number of
+   * keys were inserted.
+   *
+   * @param expected_size the number of keys.
+   * @param load_factor the load factor of the map.
+   * @param key_type the class of the keys, its shallow size is the size of a key.
+   * @return the memory report.
+   * @throws IllegalArgumentException if the size is negative, the load factor not positive or the
+   *     key type an interface, an array or a primitive class.
+   * @see MemoryReport
+   */
+  public static MemoryReport estimate(int expected_size, float load_factor, Class<?> key_type) {
+    MemoryReport.checkEstimate(expected_size, load_factor);
+    long key_size = MemoryReport.keySize(key_type);
+    int capacity = MemoryReport.grownCapacity(expected_size, load_factor);
+    long table_bytes = MemoryReport.shallowSize(HashTableList.class);
+    if (capacity > 0) {
+      table_bytes += MemoryReport.referenceArrayBytes(capacity);
+    }
+    return new MemoryReport(
+        expected_size,
+        capacity,
+        table_bytes,
+        expected_size * MemoryReport.shallowSize(Node.class),
+        0,
+        expected_size * key_size);
+  }
+
   /** Prints the map. */
   public void print() {
     if (table == null || table.length == 0) System.out.print("Table is null!");
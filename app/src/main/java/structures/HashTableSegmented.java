@@ -0,0 +1,452 @@
+package structures;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Linear hashing implementation of the {@code Dictionary} interface.
+ *
+ * <p>The table never doubles at once. It grows one bucket at a time: when the size passes the
+ * threshold, the bucket under the split pointer is split in two, and the pointer advances. When the
+ * pointer has split every bucket of a round, the number of buckets has doubled and a new round
+ * begins. The buckets are chains of {@link HashTableList.Node}, as in {@link HashTableList}.
+ *
+ * <p>The buckets are kept in segments of {@link #SEGMENT_SIZE} buckets, found through a directory.
+ * Growing allocates at most a new segment, or a copy of the directory, which only holds references
+ * to the segments. The peak memory stays close to the live memory, while a {@code HashTableList}
+ * keeps the old and the new table alive during a resize. A segment is created by the first key of
+ * its buckets, so a large initial capacity only allocates the directory.
+ *
+ * <p>The buckets are addressed with the 32 bits of the hash and a {@code long} index, so the table
+ * grows up to {@link #MAXIMUM_CAPACITY} buckets of 1 << 32, past the limit of a single array. The
+ * size is a {@code long}, {@link #size()} saturates at {@code Integer.MAX_VALUE}.
+ *
+ * @see HashTableList
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public class HashTableSegmented<K, V> implements Dictionary<K, V> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  /** The maximum number of buckets, one for each value of a 32 bits hash. */
+  static final long MAXIMUM_CAPACITY = 1L << 32;
+
+  /** The load factor. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
+
+  /**
+   * The chain length, plus one per level and one for the buckets not yet split, at which a table
+   * using a built-in strategy switches to a seeded {@link SipHashStrategy}. The buckets not yet
+   * split of a round hold twice the keys of the others, and the longest honest chain grows with the
+   * number of buckets, so a fixed limit would switch every large table.
+   */
+  static final int CHAIN_LIMIT = 8;
+
+  /** The log2 of the number of buckets of a segment. */
+  static final int SEGMENT_SHIFT = 12;
+
+  /** The number of buckets of a segment. */
+  static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+  static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  /** The number of entries contained in this map. */
+  private long size;
+
+  /** The segments of buckets, only the first one may be smaller than a segment. */
+  private HashTableList.Node<K, V>[][] directory;
+
+  /** The number of bits of the hash addressing the buckets of the current round. */
+  private int level;
+
+  /** The next bucket to be split, the buckets before it use one more bit of the hash. */
+  private long split;
+
+  /**
+   * The next size value at which to split a bucket (buckets * load factor). Before the first insert
+   * it holds the initial number of buckets.
+   */
+  private long threshold;
+
+  /** The load factor for the hash table. */
+  private final float load_factor;
+
+  /** The strategy used to hash and compare the keys. */
+  private HashStrategy strategy;
+
+  public HashTableSegmented(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (p_load_factor <= 0 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
+    this.threshold = Math.max(1, Long.highestOneBit(Math.max(1, initial_capacity - 1L)) << 1);
+  }
+
+  public HashTableSegmented(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public HashTableSegmented(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public HashTableSegmented() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  private int hash(Object key) {
+    return strategy.hash(key);
+  }
+
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  @Override
+  public int size() {
+    return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+  }
+
+  @Override
+  public long longSize() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return getNode(key) != null;
+  }
+
+  @Override
+  public V get(K key) {
+    HashTableList.Node<K, V> e = getNode(key);
+    return e == null ? null : e.value;
+  }
+
+  @Override
+  public V insert(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (directory == null) {
+      allocate(threshold);
+    }
+    int hash = hash(key);
+    long bucket = bucketFor(hash);
+    HashTableList.Node<K, V>[] segment = segmentOf(bucket);
+    if (segment == null) {
+      segment = newSegment(bucket);
+    }
+    int index = (int) bucket & SEGMENT_MASK;
+
+    HashTableList.Node<K, V> last = null;
+    int bin_count = 0;
+    for (HashTableList.Node<K, V> current = segment[index];
+        current != null;
+        current = current.next) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        V old_value = current.value;
+        current.value = value;
+        return old_value;
+      }
+      last = current;
+      ++bin_count;
+    }
+
+    HashTableList.Node<K, V> node = new HashTableList.Node<>(hash, key, value, null);
+    if (last == null) {
+      segment[index] = node;
+    } else {
+      last.next = node;
+    }
+    if (bin_count >= CHAIN_LIMIT + 1 + level) {
+      harden();
+    }
+    ++size;
+    while (size > threshold && capacity() < MAXIMUM_CAPACITY) {
+      splitBucket();
+    }
+    return null;
+  }
+
+  @Override
+  public V remove(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (directory == null) {
+      return null;
+    }
+    int hash = hash(key);
+    long bucket = bucketFor(hash);
+    HashTableList.Node<K, V>[] segment = segmentOf(bucket);
+    if (segment == null) {
+      return null;
+    }
+    int index = (int) bucket & SEGMENT_MASK;
+
+    HashTableList.Node<K, V> previous = null;
+    for (HashTableList.Node<K, V> current = segment[index];
+        current != null;
+        current = current.next) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        if (previous == null) {
+          segment[index] = current.next;
+        } else {
+          previous.next = current.next;
+        }
+        --size;
+        return current.value;
+      }
+      previous = current;
+    }
+    return null;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    long buckets = capacity();
+    for (long b = 0; b < buckets; ++b) {
+      HashTableList.Node<K, V>[] segment = segmentOf(b);
+      if (segment == null) {
+        b |= SEGMENT_MASK;
+        continue;
+      }
+      for (HashTableList.Node<K, V> current = segment[(int) b & SEGMENT_MASK];
+          current != null;
+          current = current.next) {
+        action.accept(current.key, current.value);
+      }
+    }
+  }
+
+  @Override
+  public FrozenDictionary<K, V> freeze() {
+    return FrozenDictionary.copyOf(this, strategy);
+  }
+
+  /** @return the actual number of buckets of the table. */
+  public long capacity() {
+    return directory == null ? 0 : (1L << level) + split;
+  }
+
+  /**
+   * Return a node for a giving key.
+   *
+   * @param key the key to be search a value.
+   * @return the node of the key or {@code null}
+   * @throws NullPointerException if the key is null.
+   */
+  private HashTableList.Node<K, V> getNode(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (directory == null) {
+      return null;
+    }
+    int hash = hash(key);
+    long bucket = bucketFor(hash);
+    HashTableList.Node<K, V>[] segment = segmentOf(bucket);
+    if (segment == null) {
+      return null;
+    }
+    HashTableList.Node<K, V> current = segment[(int) bucket & SEGMENT_MASK];
+    while (current != null) {
+      if (current.hash == hash && strategy.equivalent(key, current.key)) {
+        return current;
+      }
+      current = current.next;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the bucket of a hash. The buckets before the split pointer were already split, so they
+   * are addressed with one more bit.
+   *
+   * @param hash the key hash.
+   * @return the index of the bucket.
+   */
+  private long bucketFor(int hash) {
+    long h = hash & 0xffffffffL;
+    long bucket = h & ((1L << level) - 1);
+    if (bucket < split) {
+      bucket = h & ((1L << (level + 1)) - 1);
+    }
+    return bucket;
+  }
+
+  private HashTableList.Node<K, V>[] segmentOf(long bucket) {
+    return directory[(int) (bucket >>> SEGMENT_SHIFT)];
+  }
+
+  /**
+   * Allocates the directory and the first segment, the other segments are created on demand.
+   *
+   * @param buckets the number of buckets, a power of two up to {@link #MAXIMUM_CAPACITY}.
+   */
+  @SuppressWarnings("unchecked")
+  private void allocate(long buckets) {
+    level = Long.numberOfTrailingZeros(buckets);
+    split = 0;
+    // At most 1 << 20 segments, the directory always fits an array.
+    int segments = (int) Math.max(1, buckets >>> SEGMENT_SHIFT);
+    directory = (HashTableList.Node<K, V>[][]) new HashTableList.Node[segments][];
+    directory[0] =
+        (HashTableList.Node<K, V>[]) new HashTableList.Node[(int) Math.min(buckets, SEGMENT_SIZE)];
+    threshold = (long) (buckets * (double) load_factor);
+  }
+
+  /** @return the new segment of a bucket, past the first segment. */
+  @SuppressWarnings("unchecked")
+  private HashTableList.Node<K, V>[] newSegment(long bucket) {
+    HashTableList.Node<K, V>[] segment =
+        (HashTableList.Node<K, V>[]) new HashTableList.Node[SEGMENT_SIZE];
+    directory[(int) (bucket >>> SEGMENT_SHIFT)] = segment;
+    return segment;
+  }
+
+  /**
+   * Splits the bucket under the split pointer, the nodes having the next bit of the hash set move
+   * to a new bucket at the end of the table.
+   */
+  private void splitBucket() {
+    long round = 1L << level;
+    long target = round + split;
+    int target_segment = (int) (target >>> SEGMENT_SHIFT);
+    int target_index = (int) target & SEGMENT_MASK;
+
+    // Make room for the new bucket.
+    if (target_segment == 0) {
+      if (target_index >= directory[0].length) {
+        directory[0] = Arrays.copyOf(directory[0], directory[0].length << 1);
+      }
+    } else {
+      if (target_segment >= directory.length) {
+        directory = Arrays.copyOf(directory, directory.length << 1);
+      }
+    }
+
+    HashTableList.Node<K, V>[] segment = segmentOf(split);
+    int index = (int) split & SEGMENT_MASK;
+    HashTableList.Node<K, V> current = segment == null ? null : segment[index];
+    HashTableList.Node<K, V> low_head = null, low_tail = null;
+    HashTableList.Node<K, V> hi_head = null, hi_tail = null;
+    while (current != null) {
+      HashTableList.Node<K, V> next = current.next;
+      if (((current.hash & 0xffffffffL) & round) == 0) {
+        if (low_tail == null) {
+          low_head = current;
+        } else {
+          low_tail.next = current;
+        }
+        low_tail = current;
+      } else {
+        if (hi_tail == null) {
+          hi_head = current;
+        } else {
+          hi_tail.next = current;
+        }
+        hi_tail = current;
+      }
+      current = next;
+    }
+    if (low_tail != null) {
+      low_tail.next = null;
+    }
+    if (hi_tail != null) {
+      hi_tail.next = null;
+      HashTableList.Node<K, V>[] target_nodes = directory[target_segment];
+      if (target_nodes == null) {
+        target_nodes = newSegment(target);
+      }
+      target_nodes[target_index] = hi_head;
+    }
+    if (segment != null) {
+      segment[index] = low_head;
+    }
+
+    if (++split == round) {
+      ++level;
+      split = 0;
+    }
+    threshold = (long) (capacity() * (double) load_factor);
+  }
+
+  /**
+   * Switches the table to a seeded hash when a chain gets too long.
+   *
+   * <p>Only tables using a built-in strategy switch, custom strategies may define an equality the
+   * seeded hash does not know. The switch happens once, every node is rehashed in place.
+   */
+  private void harden() {
+    if (!(strategy instanceof HashStrategies)) {
+      return;
+    }
+    strategy = SipHashStrategy.hardening();
+
+    long buckets = capacity();
+    HashTableList.Node<K, V> all = null;
+    for (long b = 0; b < buckets; ++b) {
+      HashTableList.Node<K, V>[] segment = segmentOf(b);
+      if (segment == null) {
+        b |= SEGMENT_MASK;
+        continue;
+      }
+      int index = (int) b & SEGMENT_MASK;
+      HashTableList.Node<K, V> current = segment[index];
+      segment[index] = null;
+      while (current != null) {
+        HashTableList.Node<K, V> next = current.next;
+        current.next = all;
+        all = current;
+        current = next;
+      }
+    }
+    while (all != null) {
+      HashTableList.Node<K, V> next = all.next;
+      all.hash = hash(all.key);
+      long bucket = bucketFor(all.hash);
+      HashTableList.Node<K, V>[] segment = segmentOf(bucket);
+      if (segment == null) {
+        segment = newSegment(bucket);
+      }
+      int index = (int) bucket & SEGMENT_MASK;
+      all.next = segment[index];
+      segment[index] = all;
+      all = next;
+    }
+  }
+
+  /** Prints the map. */
+  public void print() {
+    if (directory == null) {
+      System.out.print("Table is null!");
+    } else {
+      long buckets = capacity();
+      for (long b = 0; b < buckets; ++b) {
+        HashTableList.Node<K, V>[] segment = segmentOf(b);
+        HashTableList.Node<K, V> cursor = segment == null ? null : segment[(int) b & SEGMENT_MASK];
+        System.out.printf("%d -> ", b);
+        while (cursor != null) {
+          System.out.printf("{ %s, %s } -> ", cursor.getKey(), cursor.getValue());
+          cursor = cursor.next;
+        }
+        System.out.print("null\n");
+      }
+    }
+  }
+}
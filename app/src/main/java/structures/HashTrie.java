@@ -0,0 +1,644 @@
+package structures;
+
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Persistent Hash Array Mapped Trie implementation of the {@code Dictionary} interface.
+ *
+ * <p>The trie consumes the 32 bit hash of a key 5 bits per level. Every node has a bitmap of the
+ * keys stored inline and a bitmap of the child nodes, and keeps both in a dense array, keys and
+ * values first, then the children in reverse order. Keys with the same 32 bit hash share a
+ * collision node at the bottom of the trie.
+ *
+ * <p>The nodes are never changed once published. An insert or a remove copies the nodes of the
+ * path to the key, shares every other node with the previous version, and publishes the new root
+ * with a compare and set. So:
+ *
+ * <ul>
+ *   <li>Reads never lock, they see the last published version.
+ *   <li>{@link #snapshot()} is O(1), it returns a trie sharing the current root, and later changes
+ *       of either trie are not seen by the other.
+ *   <li>Each insert and remove is atomic. The compound defaults, like {@code merge}, are not.
+ * </ul>
+ *
+ * <p>Copying the path on every change is slow for bulk builds. A {@link Batch} marks the nodes it
+ * creates with its own edit token and changes them in place, only the nodes of the published
+ * version are copied. The batch is published at once by {@link Batch#commit()}.
+ *
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public class HashTrie<K, V> implements Dictionary<K, V> {
+
+  /** The number of hash bits consumed by a level. */
+  static final int BITS = 5;
+
+  static final int MASK = (1 << BITS) - 1;
+
+  /** The marker of an absent key, as the values may be {@code null}. */
+  private static final Object NOT_FOUND = new Object();
+
+  /** The empty root, shared by every empty trie. */
+  private static final BitmapNode EMPTY = new BitmapNode(null, 0, 0, new Object[0]);
+
+  /** The published version. */
+  private final AtomicReference<Version> version;
+
+  /** The strategy used to hash and compare the keys. */
+  private final HashStrategy strategy;
+
+  public HashTrie(HashStrategy p_strategy) {
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.strategy = p_strategy;
+    this.version = new AtomicReference<>(new Version(EMPTY, 0));
+  }
+
+  public HashTrie() {
+    this(HashStrategies.XOR_SHIFT);
+  }
+
+  private HashTrie(Version p_version, HashStrategy p_strategy) {
+    this.strategy = p_strategy;
+    this.version = new AtomicReference<>(p_version);
+  }
+
+  /** A root and its size, published together. */
+  private static final class Version {
+    final Node root;
+    final int size;
+
+    Version(Node p_root, int p_size) {
+      this.root = p_root;
+      this.size = p_size;
+    }
+  }
+
+  /** The result of a change: the old value and if the size changed. */
+  private static final class Change {
+    Object old_value = NOT_FOUND;
+    boolean size_changed;
+  }
+
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Returns a trie with the entries of this trie. The tries share their nodes, the changes of one
+   * trie are not seen by the other.
+   *
+   * @return the snapshot.
+   */
+  public HashTrie<K, V> snapshot() {
+    return new HashTrie<>(version.get(), strategy);
+  }
+
+  /**
+   * Starts a batch of changes over the current version, see {@link Batch}.
+   *
+   * @return the batch.
+   */
+  public Batch beginBatch() {
+    return new Batch(version.get());
+  }
+
+  @Override
+  public int size() {
+    return version.get().size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(version.get().root, key) != NOT_FOUND;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    Object value = find(version.get().root, key);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V insert(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    int hash = strategy.hash(key);
+    for (; ; ) {
+      Version current = version.get();
+      Change change = new Change();
+      Node root = current.root.put(null, key, value, hash, 0, change, strategy);
+      if (root == current.root
+          || version.compareAndSet(
+              current, new Version(root, current.size + (change.size_changed ? 1 : 0)))) {
+        return change.old_value == NOT_FOUND ? null : (V) change.old_value;
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    int hash = strategy.hash(key);
+    for (; ; ) {
+      Version current = version.get();
+      Change change = new Change();
+      Node root = current.root.remove(null, key, hash, 0, change, strategy);
+      if (!change.size_changed
+          || version.compareAndSet(current, new Version(root, current.size - 1))) {
+        return change.old_value == NOT_FOUND ? null : (V) change.old_value;
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    version.get().root.forEach((BiConsumer<Object, Object>) action);
+  }
+
+  @Override
+  public FrozenDictionary<K, V> freeze() {
+    return FrozenDictionary.copyOf(this, strategy);
+  }
+
+  /**
+   * Return the value of a key in a trie.
+   *
+   * @param root the root of the trie.
+   * @param key the key to be searched.
+   * @return the value of the key or {@link #NOT_FOUND}.
+   * @throws NullPointerException if the key is null.
+   */
+  private Object find(Node root, Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    return root.find(key, strategy.hash(key), 0, strategy);
+  }
+
+  /**
+   * A batch of changes over a version of the trie, for bulk builds.
+   *
+   * <p>The batch is a private copy of the trie, it is not seen by the readers of the trie until
+   * {@link #commit()}. The nodes created by the batch are changed in place. A batch must be used by
+   * a single thread, and cannot be used after its commit.
+   */
+  public final class Batch implements Dictionary<K, V> {
+
+    /** The version the batch started from. */
+    private final Version base;
+
+    private Node root;
+    private int size;
+
+    /** The token of the nodes owned by the batch, {@code null} after the commit. */
+    private Object edit = new Object();
+
+    private Batch(Version p_base) {
+      this.base = p_base;
+      this.root = p_base.root;
+      this.size = p_base.size;
+    }
+
+    private void checkOpen() {
+      if (edit == null) {
+        throw new IllegalStateException("Batch is closed");
+      }
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      checkOpen();
+      return find(root, key) != NOT_FOUND;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+      checkOpen();
+      Object value = find(root, key);
+      return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V insert(K key, V value) {
+      checkOpen();
+      if (key == null) {
+        throw new NullPointerException("Illegal key value");
+      }
+      Change change = new Change();
+      root = root.put(edit, key, value, strategy.hash(key), 0, change, strategy);
+      if (change.size_changed) {
+        ++size;
+      }
+      return change.old_value == NOT_FOUND ? null : (V) change.old_value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+      checkOpen();
+      if (key == null) {
+        throw new NullPointerException("Illegal key value");
+      }
+      Change change = new Change();
+      root = root.remove(edit, key, strategy.hash(key), 0, change, strategy);
+      if (change.size_changed) {
+        --size;
+      }
+      return change.old_value == NOT_FOUND ? null : (V) change.old_value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+      checkOpen();
+      Objects.requireNonNull(action);
+      root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    /**
+     * Publishes the batch as the new version of the trie and closes the batch.
+     *
+     * @throws ConcurrentModificationException if the trie was changed after the batch started, the
+     *     changes of the batch are lost.
+     * @throws IllegalStateException if the batch is closed.
+     */
+    public void commit() {
+      checkOpen();
+      edit = null;
+      if (!version.compareAndSet(base, new Version(root, size))) {
+        throw new ConcurrentModificationException("HashTrie changed during the batch");
+      }
+    }
+  }
+
+  /** A node of the trie, its array holds the inline keys and values, then the children. */
+  abstract static class Node {
+
+    /** The edit token of the batch owning the node, or {@code null}. */
+    final Object edit;
+
+    Object[] content;
+
+    Node(Object p_edit, Object[] p_content) {
+      this.edit = p_edit;
+      this.content = p_content;
+    }
+
+    /** @return {@code true} if the node has a single key and no children. */
+    abstract boolean hasSingleEntry();
+
+    abstract Object find(Object key, int hash, int shift, HashStrategy strategy);
+
+    /**
+     * Returns the node with a key mapped to a value.
+     *
+     * @param edit the edit token of the caller, nodes owning it are changed in place.
+     * @return this node if changed in place or unchanged, otherwise a copy.
+     */
+    abstract Node put(
+        Object edit,
+        Object key,
+        Object value,
+        int hash,
+        int shift,
+        Change change,
+        HashStrategy strategy);
+
+    /**
+     * Returns the node without a key.
+     *
+     * @param edit the edit token of the caller, nodes owning it are changed in place.
+     * @return this node if changed in place or unchanged, otherwise a copy.
+     */
+    abstract Node remove(
+        Object edit, Object key, int hash, int shift, Change change, HashStrategy strategy);
+
+    abstract void forEach(BiConsumer<Object, Object> action);
+
+    /** @return {@code true} if the node can be changed in place by the owner of the token. */
+    final boolean ownedBy(Object p_edit) {
+      return p_edit != null && edit == p_edit;
+    }
+  }
+
+  /** A node indexed by 5 bits of the hash. */
+  static final class BitmapNode extends Node {
+
+    /** The bits of the keys stored inline. */
+    int data_map;
+
+    /** The bits of the children. */
+    int node_map;
+
+    BitmapNode(Object p_edit, int p_data_map, int p_node_map, Object[] p_content) {
+      super(p_edit, p_content);
+      this.data_map = p_data_map;
+      this.node_map = p_node_map;
+    }
+
+    private static int bitFor(int hash, int shift) {
+      return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private int dataIndex(int bit) {
+      return Integer.bitCount(data_map & (bit - 1));
+    }
+
+    private int nodeIndex(int bit) {
+      return Integer.bitCount(node_map & (bit - 1));
+    }
+
+    @Override
+    boolean hasSingleEntry() {
+      return node_map == 0 && Integer.bitCount(data_map) == 1;
+    }
+
+    @Override
+    Object find(Object key, int hash, int shift, HashStrategy strategy) {
+      int bit = bitFor(hash, shift);
+      if ((data_map & bit) != 0) {
+        int i = dataIndex(bit) << 1;
+        return strategy.equivalent(key, content[i]) ? content[i + 1] : NOT_FOUND;
+      }
+      if ((node_map & bit) != 0) {
+        Node child = (Node) content[content.length - 1 - nodeIndex(bit)];
+        return child.find(key, hash, shift + BITS, strategy);
+      }
+      return NOT_FOUND;
+    }
+
+    @Override
+    Node put(
+        Object edit,
+        Object key,
+        Object value,
+        int hash,
+        int shift,
+        Change change,
+        HashStrategy strategy) {
+      int bit = bitFor(hash, shift);
+      if ((data_map & bit) != 0) {
+        int i = dataIndex(bit) << 1;
+        Object current = content[i];
+        if (strategy.equivalent(key, current)) {
+          change.old_value = content[i + 1];
+          if (content[i + 1] == value) {
+            return this;
+          }
+          return withSlot(edit, i + 1, value);
+        }
+        // Push both keys down to a new child.
+        change.size_changed = true;
+        Node child =
+            merge(
+                edit,
+                current,
+                content[i + 1],
+                strategy.hash(current),
+                key,
+                value,
+                hash,
+                shift + BITS);
+        return migrateToNode(edit, bit, child);
+      }
+      if ((node_map & bit) != 0) {
+        int j = content.length - 1 - nodeIndex(bit);
+        Node child = (Node) content[j];
+        Node new_child = child.put(edit, key, value, hash, shift + BITS, change, strategy);
+        return new_child == child ? this : withSlot(edit, j, new_child);
+      }
+      change.size_changed = true;
+      int i = dataIndex(bit) << 1;
+      Object[] dst = new Object[content.length + 2];
+      System.arraycopy(content, 0, dst, 0, i);
+      dst[i] = key;
+      dst[i + 1] = value;
+      System.arraycopy(content, i, dst, i + 2, content.length - i);
+      return with(edit, data_map | bit, node_map, dst);
+    }
+
+    @Override
+    Node remove(
+        Object edit, Object key, int hash, int shift, Change change, HashStrategy strategy) {
+      int bit = bitFor(hash, shift);
+      if ((data_map & bit) != 0) {
+        int i = dataIndex(bit) << 1;
+        if (!strategy.equivalent(key, content[i])) {
+          return this;
+        }
+        change.old_value = content[i + 1];
+        change.size_changed = true;
+        Object[] dst = new Object[content.length - 2];
+        System.arraycopy(content, 0, dst, 0, i);
+        System.arraycopy(content, i + 2, dst, i, content.length - i - 2);
+        return with(edit, data_map ^ bit, node_map, dst);
+      }
+      if ((node_map & bit) != 0) {
+        int j = content.length - 1 - nodeIndex(bit);
+        Node child = (Node) content[j];
+        Node new_child = child.remove(edit, key, hash, shift + BITS, change, strategy);
+        if (!change.size_changed) {
+          return this;
+        }
+        if (new_child.hasSingleEntry()) {
+          return migrateToInline(edit, bit, new_child.content[0], new_child.content[1]);
+        }
+        return new_child == child ? this : withSlot(edit, j, new_child);
+      }
+      return this;
+    }
+
+    @Override
+    void forEach(BiConsumer<Object, Object> action) {
+      int data = Integer.bitCount(data_map) << 1;
+      for (int i = 0; i < data; i += 2) {
+        action.accept(content[i], content[i + 1]);
+      }
+      for (int i = data; i < content.length; ++i) {
+        ((Node) content[i]).forEach(action);
+      }
+    }
+
+    /** Returns the node with a slot of its array changed. */
+    private BitmapNode withSlot(Object p_edit, int slot, Object item) {
+      if (ownedBy(p_edit)) {
+        content[slot] = item;
+        return this;
+      }
+      Object[] dst = content.clone();
+      dst[slot] = item;
+      return new BitmapNode(p_edit, data_map, node_map, dst);
+    }
+
+    /** Returns the node with new bitmaps and a new array. */
+    private BitmapNode with(Object p_edit, int p_data_map, int p_node_map, Object[] p_content) {
+      if (ownedBy(p_edit)) {
+        data_map = p_data_map;
+        node_map = p_node_map;
+        content = p_content;
+        return this;
+      }
+      return new BitmapNode(p_edit, p_data_map, p_node_map, p_content);
+    }
+
+    /** Replaces the inline key of a bit by a child. */
+    private BitmapNode migrateToNode(Object p_edit, int bit, Node child) {
+      int old_index = dataIndex(bit) << 1;
+      Object[] dst = new Object[content.length - 1];
+      int new_index = dst.length - 1 - nodeIndex(bit);
+      System.arraycopy(content, 0, dst, 0, old_index);
+      System.arraycopy(content, old_index + 2, dst, old_index, new_index - old_index);
+      dst[new_index] = child;
+      System.arraycopy(content, new_index + 2, dst, new_index + 1, content.length - new_index - 2);
+      return with(p_edit, data_map ^ bit, node_map | bit, dst);
+    }
+
+    /** Replaces the child of a bit by its single key. */
+    private BitmapNode migrateToInline(Object p_edit, int bit, Object key, Object value) {
+      int old_index = content.length - 1 - nodeIndex(bit);
+      int new_index = dataIndex(bit) << 1;
+      Object[] dst = new Object[content.length + 1];
+      System.arraycopy(content, 0, dst, 0, new_index);
+      dst[new_index] = key;
+      dst[new_index + 1] = value;
+      System.arraycopy(content, new_index, dst, new_index + 2, old_index - new_index);
+      System.arraycopy(content, old_index + 1, dst, old_index + 2, content.length - old_index - 1);
+      return with(p_edit, data_map | bit, node_map ^ bit, dst);
+    }
+
+    /** Returns a node holding two keys, from the given level down. */
+    private static Node merge(
+        Object edit, Object k1, Object v1, int h1, Object k2, Object v2, int h2, int shift) {
+      if (shift >= Integer.SIZE) {
+        return new CollisionNode(edit, new Object[] {k1, v1, k2, v2});
+      }
+      int b1 = bitFor(h1, shift);
+      int b2 = bitFor(h2, shift);
+      if (b1 == b2) {
+        Node child = merge(edit, k1, v1, h1, k2, v2, h2, shift + BITS);
+        return new BitmapNode(edit, 0, b1, new Object[] {child});
+      }
+      Object[] dst =
+          Integer.compareUnsigned(b1, b2) < 0
+              ? new Object[] {k1, v1, k2, v2}
+              : new Object[] {k2, v2, k1, v1};
+      return new BitmapNode(edit, b1 | b2, 0, dst);
+    }
+  }
+
+  /** A node holding keys with the same 32 bit hash. */
+  static final class CollisionNode extends Node {
+
+    CollisionNode(Object p_edit, Object[] p_content) {
+      super(p_edit, p_content);
+    }
+
+    @Override
+    boolean hasSingleEntry() {
+      return content.length == 2;
+    }
+
+    private int indexOf(Object key, HashStrategy strategy) {
+      for (int i = 0; i < content.length; i += 2) {
+        if (strategy.equivalent(key, content[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(Object key, int hash, int shift, HashStrategy strategy) {
+      int i = indexOf(key, strategy);
+      return i < 0 ? NOT_FOUND : content[i + 1];
+    }
+
+    @Override
+    Node put(
+        Object edit,
+        Object key,
+        Object value,
+        int hash,
+        int shift,
+        Change change,
+        HashStrategy strategy) {
+      int i = indexOf(key, strategy);
+      if (i >= 0) {
+        change.old_value = content[i + 1];
+        if (content[i + 1] == value) {
+          return this;
+        }
+        if (ownedBy(edit)) {
+          content[i + 1] = value;
+          return this;
+        }
+        Object[] dst = content.clone();
+        dst[i + 1] = value;
+        return new CollisionNode(edit, dst);
+      }
+      change.size_changed = true;
+      Object[] dst = new Object[content.length + 2];
+      System.arraycopy(content, 0, dst, 0, content.length);
+      dst[content.length] = key;
+      dst[content.length + 1] = value;
+      return with(edit, dst);
+    }
+
+    @Override
+    Node remove(
+        Object edit, Object key, int hash, int shift, Change change, HashStrategy strategy) {
+      int i = indexOf(key, strategy);
+      if (i < 0) {
+        return this;
+      }
+      change.old_value = content[i + 1];
+      change.size_changed = true;
+      Object[] dst = new Object[content.length - 2];
+      System.arraycopy(content, 0, dst, 0, i);
+      System.arraycopy(content, i + 2, dst, i, content.length - i - 2);
+      return with(edit, dst);
+    }
+
+    @Override
+    void forEach(BiConsumer<Object, Object> action) {
+      for (int i = 0; i < content.length; i += 2) {
+        action.accept(content[i], content[i + 1]);
+      }
+    }
+
+    private CollisionNode with(Object p_edit, Object[] p_content) {
+      if (ownedBy(p_edit)) {
+        content = p_content;
+        return this;
+      }
+      return new CollisionNode(p_edit, p_content);
+    }
+  }
+
+  /** Prints the map. */
+  public void print() {
+    forEach((key, value) -> System.out.printf("{ %s, %s }\n", key, value));
+  }
+}
@@ -0,0 +1,143 @@
+package structures;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Set of primitive {@code int} keys.
+ *
+ * <p>The keys are stored in a single {@code int} array, power of two table and linear probing as
+ * {@link HashSetLinear}, without boxing. The probing, the removal and the set algebra are shared
+ * with {@link LongHashSet} in {@link PrimitiveHashSet}.
+ *
+ * <p>The keys are spread with the Murmur3 {@code fmix32} finalizer, so sequential keys do not build
+ * clusters.
+ *
+ * @see HashSetLinear
+ * @see LongHashSet
+ * @author André Gabriel
+ */
+public class IntHashSet extends PrimitiveHashSet<IntHashSet> {
+
+  /** The keys, {@code 0} for an empty slot, replaced on each rehash. */
+  private int[] keys;
+
+  public IntHashSet(int initial_capacity, float p_load_factor) {
+    super(initial_capacity, p_load_factor);
+    this.keys = new int[capacity()];
+  }
+
+  public IntHashSet(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public IntHashSet() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /** Copy constructor, the array is cloned without hashing the keys again. */
+  private IntHashSet(IntHashSet other) {
+    super(other);
+    this.keys = other.keys.clone();
+  }
+
+  @Override
+  Object newKeys(int cap) {
+    int[] old_keys = keys;
+    keys = new int[cap];
+    return old_keys;
+  }
+
+  @Override
+  long keyAt(Object old_keys, int slot) {
+    return ((int[]) old_keys)[slot];
+  }
+
+  @Override
+  long keyAt(int slot) {
+    return keys[slot];
+  }
+
+  @Override
+  void setKey(int slot, long key) {
+    keys[slot] = (int) key;
+  }
+
+  /** The Murmur3 {@code fmix32} finalizer. */
+  @Override
+  int hash(long wide) {
+    int key = (int) wide;
+    key ^= key >>> 16;
+    key *= 0x85ebca6b;
+    key ^= key >>> 13;
+    key *= 0xc2b2ae35;
+    return key ^ (key >>> 16);
+  }
+
+  @Override
+  IntHashSet newSet(int initial_capacity, float p_load_factor) {
+    return new IntHashSet(initial_capacity, p_load_factor);
+  }
+
+  /**
+   * Returns {@code true} if the set contains a specified key.
+   *
+   * @param key the key to check is on the set.
+   * @return {@code true} if this set contains the specified key or {@code false} otherwise.
+   */
+  public boolean contains(int key) {
+    return containsKey(key);
+  }
+
+  /**
+   * Adds a key to the set.
+   *
+   * @param key the key.
+   * @return {@code true} if the key was not in the set.
+   */
+  public boolean add(int key) {
+    return addKey(key);
+  }
+
+  /**
+   * Removes a key from the set.
+   *
+   * @param key the key.
+   * @return {@code true} if the key was in the set.
+   */
+  public boolean remove(int key) {
+    return removeKey(key);
+  }
+
+  /**
+   * Performs an action for each key of the set.
+   *
+   * @param action the action to be performed.
+   */
+  public void forEach(IntConsumer action) {
+    if (containsKey(0)) {
+      action.accept(0);
+    }
+    for (int key : keys) {
+      if (key != 0) {
+        action.accept(key);
+      }
+    }
+  }
+
+  /** @return the keys of the set, in table order. */
+  public int[] toArray() {
+    int[] array = new int[size()];
+    int n = containsKey(0) ? 1 : 0;
+    for (int key : keys) {
+      if (key != 0) {
+        array[n++] = key;
+      }
+    }
+    return array;
+  }
+
+  @Override
+  public IntHashSet copy() {
+    return new IntHashSet(this);
+  }
+}
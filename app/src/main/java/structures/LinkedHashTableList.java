@@ -0,0 +1,170 @@
+package structures;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash table with a predictable iteration order, based on {@link HashTableList}.
+ *
+ * <p>A doubly linked list runs through the nodes, in the order the keys were inserted or, for an
+ * access ordered table, in the order the entries were last read or written, the eldest first. The
+ * iteration follows the list, so it costs the number of entries and not the capacity of the table,
+ * and it does not change when the table grows or switches its hash.
+ *
+ * <p>After each new entry the table calls {@link #onInsert(Dictionary.Entry)} with the eldest
+ * entry, a subclass returning {@code true} evicts it. E.g. a least recently used cache of at most
+ * {@code max} entries is an access ordered table with
+ *
+ * <pre>{@code
+ * protected boolean onInsert(Dictionary.Entry<K, V> eldest) {
+ *   return size() > max;
+ * }
+ * }</pre>
+ *
+ * @see HashTableList
+ * @see java.util.LinkedHashMap
+ * @author André Gabriel
+ */
+public class LinkedHashTableList<K, V> extends HashTableList<K, V> {
+
+  /**
+   * A node of a chain which is also a node of the order list.
+   *
+   * @param <K> the key class type.
+   * @param <V> the value class type.
+   */
+  static final class LinkedNode<K, V> extends HashTableList.Node<K, V> {
+    LinkedNode<K, V> before;
+    LinkedNode<K, V> after;
+
+    LinkedNode(int p_hash, K p_key, V p_value) {
+      super(p_hash, p_key, p_value, null);
+    }
+  }
+
+  /** The eldest node. */
+  private LinkedNode<K, V> head;
+
+  /** The youngest node. */
+  private LinkedNode<K, V> tail;
+
+  /** {@code true} for the access order, {@code false} for the insertion order. */
+  private final boolean access_order;
+
+  public LinkedHashTableList(
+      int initial_capacity, float p_load_factor, HashStrategy p_strategy, boolean p_access_order) {
+    super(initial_capacity, p_load_factor, p_strategy);
+    this.access_order = p_access_order;
+  }
+
+  public LinkedHashTableList(int initial_capacity, float p_load_factor, boolean p_access_order) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT, p_access_order);
+  }
+
+  public LinkedHashTableList(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR, false);
+  }
+
+  public LinkedHashTableList() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, false);
+  }
+
+  /** @return {@code true} for the access order, {@code false} for the insertion order. */
+  public boolean accessOrder() {
+    return access_order;
+  }
+
+  /** @return the eldest entry or {@code null} if the map is empty. */
+  public Dictionary.Entry<K, V> eldest() {
+    return head;
+  }
+
+  /** @return the youngest entry or {@code null} if the map is empty. */
+  public Dictionary.Entry<K, V> youngest() {
+    return tail;
+  }
+
+  /**
+   * Tells whether the eldest entry must be removed, called after each new entry is added. The
+   * default implementation keeps every entry.
+   *
+   * <p>The method must not modify the map, the table removes the eldest entry itself when {@code
+   * true} is returned.
+   *
+   * @param eldest the eldest entry, which may be the entry just added.
+   * @return {@code true} if the eldest entry must be removed.
+   */
+  protected boolean onInsert(Dictionary.Entry<K, V> eldest) {
+    return false;
+  }
+
+  /** Performs an action for each entry of the map, the eldest first. */
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    for (LinkedNode<K, V> current = head; current != null; current = current.after) {
+      action.accept(current.key, current.value);
+    }
+  }
+
+  @Override
+  Node<K, V> newNode(int hash, K key, V value) {
+    LinkedNode<K, V> node = new LinkedNode<>(hash, key, value);
+    LinkedNode<K, V> last = tail;
+    tail = node;
+    if (last == null) {
+      head = node;
+    } else {
+      node.before = last;
+      last.after = node;
+    }
+    return node;
+  }
+
+  @Override
+  void afterNodeAccess(Node<K, V> e) {
+    LinkedNode<K, V> node = (LinkedNode<K, V>) e;
+    if (!access_order || node == tail) {
+      return;
+    }
+    // Unlink the node, it is not the tail so it has a next node.
+    LinkedNode<K, V> before = node.before, after = node.after;
+    if (before == null) {
+      head = after;
+    } else {
+      before.after = after;
+    }
+    after.before = before;
+
+    // Link it as the tail.
+    node.before = tail;
+    node.after = null;
+    tail.after = node;
+    tail = node;
+  }
+
+  @Override
+  void afterNodeInsertion() {
+    LinkedNode<K, V> eldest = head;
+    if (eldest != null && onInsert(eldest)) {
+      remove(eldest.key);
+    }
+  }
+
+  @Override
+  void afterNodeRemoval(Node<K, V> e) {
+    LinkedNode<K, V> node = (LinkedNode<K, V>) e;
+    LinkedNode<K, V> before = node.before, after = node.after;
+    if (before == null) {
+      head = after;
+    } else {
+      before.after = after;
+    }
+    if (after == null) {
+      tail = before;
+    } else {
+      after.before = before;
+    }
+    node.before = node.after = null;
+  }
+}
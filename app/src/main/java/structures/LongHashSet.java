@@ -0,0 +1,143 @@
+package structures;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive {@code long} keys.
+ *
+ * <p>The keys are stored in a single {@code long} array, power of two table and linear probing as
+ * {@link HashSetLinear}, without boxing. The probing, the removal and the set algebra are shared
+ * with {@link IntHashSet} in {@link PrimitiveHashSet}.
+ *
+ * <p>The keys are spread with the Murmur3 {@code fmix64} finalizer, so sequential keys do not build
+ * clusters.
+ *
+ * @see HashSetLinear
+ * @see IntHashSet
+ * @author André Gabriel
+ */
+public class LongHashSet extends PrimitiveHashSet<LongHashSet> {
+
+  /** The keys, {@code 0} for an empty slot, replaced on each rehash. */
+  private long[] keys;
+
+  public LongHashSet(int initial_capacity, float p_load_factor) {
+    super(initial_capacity, p_load_factor);
+    this.keys = new long[capacity()];
+  }
+
+  public LongHashSet(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public LongHashSet() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /** Copy constructor, the array is cloned without hashing the keys again. */
+  private LongHashSet(LongHashSet other) {
+    super(other);
+    this.keys = other.keys.clone();
+  }
+
+  @Override
+  Object newKeys(int cap) {
+    long[] old_keys = keys;
+    keys = new long[cap];
+    return old_keys;
+  }
+
+  @Override
+  long keyAt(Object old_keys, int slot) {
+    return ((long[]) old_keys)[slot];
+  }
+
+  @Override
+  long keyAt(int slot) {
+    return keys[slot];
+  }
+
+  @Override
+  void setKey(int slot, long key) {
+    keys[slot] = key;
+  }
+
+  /** The Murmur3 {@code fmix64} finalizer, folded to 32 bits. */
+  @Override
+  int hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return (int) (key ^ (key >>> 32));
+  }
+
+  @Override
+  LongHashSet newSet(int initial_capacity, float p_load_factor) {
+    return new LongHashSet(initial_capacity, p_load_factor);
+  }
+
+  /**
+   * Returns {@code true} if the set contains a specified key.
+   *
+   * @param key the key to check is on the set.
+   * @return {@code true} if this set contains the specified key or {@code false} otherwise.
+   */
+  public boolean contains(long key) {
+    return containsKey(key);
+  }
+
+  /**
+   * Adds a key to the set.
+   *
+   * @param key the key.
+   * @return {@code true} if the key was not in the set.
+   */
+  public boolean add(long key) {
+    return addKey(key);
+  }
+
+  /**
+   * Removes a key from the set.
+   *
+   * @param key the key.
+   * @return {@code true} if the key was in the set.
+   */
+  public boolean remove(long key) {
+    return removeKey(key);
+  }
+
+  /**
+   * Performs an action for each key of the set.
+   *
+   * @param action the action to be performed.
+   */
+  public void forEach(LongConsumer action) {
+    if (containsKey(0)) {
+      action.accept(0);
+    }
+    for (long key : keys) {
+      if (key != 0) {
+        action.accept(key);
+      }
+    }
+  }
+
+  /** @return the keys of the set, in table order. */
+  public long[] toArray() {
+    long[] array = new long[size()];
+    int n = containsKey(0) ? 1 : 0;
+    for (long key : keys) {
+      if (key != 0) {
+        array[n++] = key;
+      }
+    }
+    return array;
+  }
+
+  @Override
+  public LongHashSet copy() {
+    return new LongHashSet(this);
+  }
+}
@@ -0,0 +1,71 @@
+package structures;
+
+/**
+ * A probabilistic set of keys, answering whether a key may have been added.
+ *
+ * <p>{@link #mightContain(Object)} never answers {@code false} for an added key, but may answer
+ * {@code true} for a key never added, a false positive. The rate of false positives grows with the
+ * number of keys past {@link #capacity()}.
+ *
+ * @param <K> the key class type.
+ * @see FilteredDictionary
+ * @author André Gabriel
+ */
+public interface MembershipFilter<K> {
+
+  /**
+   * Adds a key.
+   *
+   * @param key the key.
+   * @throws NullPointerException if the key is null.
+   */
+  void add(K key);
+
+  /**
+   * Returns {@code false} if the key was never added, {@code true} if it may have been.
+   *
+   * @param key the key.
+   * @return {@code false} if the key is definitely not in the filter.
+   * @throws NullPointerException if the key is null.
+   */
+  boolean mightContain(Object key);
+
+  /**
+   * Removes a key, which MUST have been added and not removed since.
+   *
+   * @param key the key.
+   * @throws UnsupportedOperationException if the filter does not support removes.
+   */
+  default void remove(Object key) {
+    throw new UnsupportedOperationException("Filter does not support remove");
+  }
+
+  /** @return {@code true} if {@link #remove(Object)} is supported. */
+  default boolean supportsRemove() {
+    return false;
+  }
+
+  /** Removes every key. */
+  void clear();
+
+  /** @return the number of keys the filter is sized for. */
+  long capacity();
+
+  /** @return the false positive rate at {@link #capacity()} keys the filter is sized for. */
+  double targetFalsePositiveRate();
+
+  /**
+   * Estimates the current false positive rate, from the fraction of bits set.
+   *
+   * @return the estimated probability that a key never added is reported.
+   */
+  double estimatedFalsePositiveRate();
+
+  /**
+   * Returns an empty filter of the same kind and false positive rate, sized for more keys.
+   *
+   * @param capacity the number of keys.
+   * @return the new filter.
+   */
+  MembershipFilter<K> withCapacity(long capacity);
+}
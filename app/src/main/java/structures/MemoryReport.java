@@ -0,0 +1,264 @@
+package structures;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.VMOption;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * The heap taken by a container, as reported by {@code memoryUsage()} or predicted by {@code
+ * estimate(...)}.
+ *
+ * <p>The bytes are split in the table, the object of the container and its arrays, the entries,
+ * the nodes holding the mappings, the waste, removed entries and recycled nodes, and the keys.
+ * The keys are counted by their shallow size, the arrays they hold such as the bytes of a {@code
+ * String} are not counted, nor the values nor the hash strategy.
+ *
+ * <p>The sizes follow the object layout of the running JVM, read from its options: the size of a
+ * reference, of an object header and the object alignment.
+ *
+ * @see HashTableList#memoryUsage()
+ * @see HashTableLinear#memoryUsage()
+ * @see RedBlackTree#memoryUsage()
+ * @author André Gabriel
+ */
+public final class MemoryReport {
+
+  /** The size of a reference. */
+  static final int REFERENCE_BYTES;
+
+  /** The size of an object header. */
+  static final int HEADER_BYTES;
+
+  /** The size of an array header, the length included. */
+  static final int ARRAY_HEADER_BYTES;
+
+  /** The alignment of the objects - MUST be a power of two. */
+  static final int ALIGNMENT;
+
+  static {
+    // The defaults of a 64 bit HotSpot with a heap below 32 GB.
+    boolean compressed_oops = option("UseCompressedOops", "true").equals("true");
+    boolean compressed_classes = option("UseCompressedClassPointers", "true").equals("true");
+    boolean compact_headers = option("UseCompactObjectHeaders", "false").equals("true");
+    REFERENCE_BYTES = compressed_oops ? 4 : 8;
+    HEADER_BYTES = compact_headers ? 8 : compressed_classes ? 12 : 16;
+    ARRAY_HEADER_BYTES = HEADER_BYTES + 4;
+    ALIGNMENT = Integer.parseInt(option("ObjectAlignmentInBytes", "8"));
+  }
+
+  /** The shallow size of the instances of a class. */
+  private static final ClassValue<Long> SHALLOW_SIZES =
+      new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+          long bytes = HEADER_BYTES;
+          for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+              if (!Modifier.isStatic(field.getModifiers())) {
+                bytes += fieldBytes(field.getType());
+              }
+            }
+          }
+          return align(bytes);
+        }
+      };
+
+  private final int size;
+  private final int capacity;
+  private final long table_bytes;
+  private final long entry_bytes;
+  private final long waste_bytes;
+  private final long key_bytes;
+
+  MemoryReport(
+      int p_size,
+      int p_capacity,
+      long p_table_bytes,
+      long p_entry_bytes,
+      long p_waste_bytes,
+      long p_key_bytes) {
+    this.size = p_size;
+    this.capacity = p_capacity;
+    this.table_bytes = p_table_bytes;
+    this.entry_bytes = p_entry_bytes;
+    this.waste_bytes = p_waste_bytes;
+    this.key_bytes = p_key_bytes;
+  }
+
+  /** @return the number of entries. */
+  public int size() {
+    return size;
+  }
+
+  /** @return the number of slots of the table, the number of entries for a tree. */
+  public int capacity() {
+    return capacity;
+  }
+
+  /** @return the number of entries per slot. */
+  public double load() {
+    return capacity == 0 ? 0 : (double) size / capacity;
+  }
+
+  /** @return the bytes of the container object and of its arrays. */
+  public long tableBytes() {
+    return table_bytes;
+  }
+
+  /** @return the bytes of the nodes holding the mappings. */
+  public long entryBytes() {
+    return entry_bytes;
+  }
+
+  /** @return the bytes of the removed entries still in the table and of the recycled nodes. */
+  public long wasteBytes() {
+    return waste_bytes;
+  }
+
+  /** @return the shallow bytes of the keys. */
+  public long keyBytes() {
+    return key_bytes;
+  }
+
+  /** @return the bytes of the table, the entries, the waste and the keys. */
+  public long totalBytes() {
+    return table_bytes + entry_bytes + waste_bytes + key_bytes;
+  }
+
+  /** @return the total bytes per entry, {@code 0} if there is no entry. */
+  public double bytesPerEntry() {
+    return size == 0 ? 0 : (double) totalBytes() / size;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "size=%d capacity=%d load=%.2f table=%d entries=%d waste=%d keys=%d total=%d (%.1f/entry)",
+        size,
+        capacity,
+        load(),
+        table_bytes,
+        entry_bytes,
+        waste_bytes,
+        key_bytes,
+        totalBytes(),
+        bytesPerEntry());
+  }
+
+  // The object layout.
+
+  private static String option(String name, String default_value) {
+    try {
+      HotSpotDiagnosticMXBean bean =
+          ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+      VMOption option = bean == null ? null : bean.getVMOption(name);
+      return option == null ? default_value : option.getValue();
+    } catch (RuntimeException | LinkageError e) { // not a HotSpot JVM or an unknown option
+      return default_value;
+    }
+  }
+
+  private static int fieldBytes(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return REFERENCE_BYTES;
+    } else if (type == long.class || type == double.class) {
+      return 8;
+    } else if (type == int.class || type == float.class) {
+      return 4;
+    } else if (type == short.class || type == char.class) {
+      return 2;
+    }
+    return 1;
+  }
+
+  /** @return the bytes rounded up to the object alignment. */
+  static long align(long bytes) {
+    return (bytes + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+
+  /**
+   * Returns the shallow size of the instances of a class: the header and the fields, aligned.
+   *
+   * @param type a class, not an interface, an array or a primitive class.
+   * @return the size of an instance.
+   */
+  static long shallowSize(Class<?> type) {
+    return SHALLOW_SIZES.get(type);
+  }
+
+  /**
+   * Returns the size of an array.
+   *
+   * @param length the length of the array.
+   * @param element_bytes the size of an element.
+   * @return the size of the array.
+   */
+  static long arrayBytes(int length, int element_bytes) {
+    // The elements start at a multiple of their size.
+    long base = (ARRAY_HEADER_BYTES + element_bytes - 1) / element_bytes * element_bytes;
+    return align(base + (long) length * element_bytes);
+  }
+
+  /** @return the size of an array of references. */
+  static long referenceArrayBytes(int length) {
+    return arrayBytes(length, REFERENCE_BYTES);
+  }
+
+  /**
+   * Checks the class of the keys given to an estimate.
+   *
+   * @param key_type the class of the keys.
+   * @return the shallow size of a key.
+   * @throws IllegalArgumentException if the class is an interface, an array or a primitive class.
+   */
+  static long keySize(Class<?> key_type) {
+    if (key_type == null) {
+      throw new NullPointerException("Illegal key type");
+    }
+    if (key_type.isInterface() || key_type.isArray() || key_type.isPrimitive()) {
+      throw new IllegalArgumentException("Illegal key type: " + key_type.getName());
+    }
+    return shallowSize(key_type);
+  }
+
+  /**
+   * Checks the arguments of an estimate.
+   *
+   * @param expected_size the expected number of entries.
+   * @param load_factor the load factor.
+   * @throws IllegalArgumentException if the size is negative or the load factor not positive.
+   */
+  static void checkEstimate(int expected_size, float load_factor) {
+    if (expected_size < 0) {
+      throw new IllegalArgumentException("Illegal expected size: " + expected_size);
+    }
+    if (load_factor <= 0 || Float.isNaN(load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + load_factor);
+    }
+  }
+
+  /**
+   * Returns the capacity of a table created with the default initial capacity and a load factor,
+   * after the insertion of a number of keys. The table doubles when its size goes above the
+   * threshold, {@code capacity * load_factor}.
+   *
+   * @param expected_size the number of keys.
+   * @param load_factor the load factor.
+   * @return the capacity, {@code 0} if there is no key.
+   */
+  static int grownCapacity(int expected_size, float load_factor) {
+    if (expected_size == 0) {
+      return 0;
+    }
+    int capacity = HashTableList.DEFAULT_INITIAL_CAPACITY;
+    float ft = capacity * load_factor;
+    int threshold = ft < (float) HashTableList.MAXIMUM_CAPACITY ? (int) ft : Integer.MAX_VALUE;
+    while (expected_size > threshold && capacity < HashTableList.MAXIMUM_CAPACITY) {
+      capacity <<= 1;
+      threshold = capacity < HashTableList.MAXIMUM_CAPACITY ? threshold << 1 : Integer.MAX_VALUE;
+    }
+    return capacity;
+  }
+}
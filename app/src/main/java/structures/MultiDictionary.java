@@ -0,0 +1,105 @@
+package structures;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The MultiDictionary interface, a map from each key to a list of values.
+ *
+ * <p>The values of a key keep the order of their {@link #put}, and may repeat.
+ *
+ * @param <K> the key class type.
+ * @param <V> the value class type.
+ * @author André Gabriel
+ */
+public interface MultiDictionary<K, V> {
+
+  /**
+   * Returns the number of keys in this map.
+   *
+   * @return the number of keys with at least one value.
+   */
+  int size();
+
+  /**
+   * Returns the number of values in this map, over all the keys.
+   *
+   * @return the number of key-value pairs.
+   */
+  long valueCount();
+
+  /**
+   * Returns {@code true} if the map contains a specified key.
+   *
+   * @param key the key to check is on the map.
+   * @return {@code true} if the key has at least one value.
+   * @throws NullPointerException if the specified key is null.
+   */
+  boolean containsKey(Object key);
+
+  /**
+   * Returns the number of values of a key.
+   *
+   * @param key the key.
+   * @return the number of values of the key, {@code 0} if it is not in the map.
+   * @throws NullPointerException if the specified key is null.
+   */
+  int count(Object key);
+
+  /**
+   * Appends a value to the values of a key.
+   *
+   * @param key the key.
+   * @param value the value.
+   * @throws NullPointerException if the specified key is null.
+   */
+  void put(K key, V value);
+
+  /**
+   * Returns the values of a key, as a read only view. The view follows the later {@code put} and
+   * {@code remove} of the key, also once the key is removed and put back.
+   *
+   * @param key the key.
+   * @return the values of the key, an empty list if it is not in the map.
+   * @throws NullPointerException if the specified key is null.
+   */
+  List<V> getAll(K key);
+
+  /**
+   * Removes the first occurrence of a value from the values of a key. The key is removed with its
+   * last value.
+   *
+   * @param key the key.
+   * @param value the value.
+   * @return {@code true} if the value was found.
+   * @throws NullPointerException if the specified key is null.
+   */
+  boolean remove(Object key, Object value);
+
+  /**
+   * Removes a key and all its values.
+   *
+   * @param key the key.
+   * @return the number of values removed.
+   * @throws NullPointerException if the specified key is null.
+   */
+  int removeAll(Object key);
+
+  /**
+   * Performs an action for each value of a key, in order.
+   *
+   * @param key the key.
+   * @param action the action to be performed.
+   * @throws NullPointerException if the specified key or action is null.
+   */
+  void forEachValue(K key, Consumer<? super V> action);
+
+  /**
+   * Performs an action for each key-value pair of the map, the values of a key in order.
+   *
+   * @param action the action to be performed.
+   * @throws NullPointerException if the specified action is null.
+   */
+  void forEach(BiConsumer<? super K, ? super V> action);
+}
@@ -0,0 +1,327 @@
+package structures;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Hash table based implementation of the {@code MultiDictionary} interface.
+ *
+ * <p>The keys are stored in a {@link HashTableList} whose nodes hold all the values of their key:
+ * the first {@link #INLINE_VALUES} values in fields of the node, then all of them in a packed array
+ * growing by half. So a key with few values costs a single node instead of a node, a list and its
+ * array, and a {@code put} hashes the key once.
+ *
+ * <p>{@link #getAll(Object)} returns a view over the node of the key, and {@link
+ * #forEach(BiConsumer)} walks the nodes, no list is built.
+ *
+ * @see MultiDictionary
+ * @see HashTableList
+ * @author André Gabriel
+ */
+public class MultiHashTableList<K, V> implements MultiDictionary<K, V> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = HashTableList.DEFAULT_INITIAL_CAPACITY;
+
+  /** The load factor. */
+  static final float DEFAULT_LOAD_FACTOR = HashTableList.DEFAULT_LOAD_FACTOR;
+
+  /** The number of values kept in the fields of a node. */
+  static final int INLINE_VALUES = 4;
+
+  /** The number of values contained in this map. */
+  private long value_count;
+
+  /**
+   * A node of the table holding the values of its key, its {@code value} field is not used. Never
+   * empty while the key is in the table.
+   *
+   * @param <K> the key class type.
+   */
+  static final class MultiNode<K> extends HashTableList.Node<K, Object> {
+
+    /** The number of values. */
+    int count;
+
+    /** The values while {@code count <= INLINE_VALUES}. */
+    Object v0, v1, v2, v3;
+
+    /** All the values once they outgrew the fields, else {@code null}. */
+    Object[] packed;
+
+    MultiNode(int p_hash, K p_key) {
+      super(p_hash, p_key, null, null);
+    }
+
+    Object value(int i) {
+      if (packed != null) {
+        return packed[i];
+      }
+      switch (i) {
+        case 0:
+          return v0;
+        case 1:
+          return v1;
+        case 2:
+          return v2;
+        default:
+          return v3;
+      }
+    }
+
+    private void setInline(int i, Object value) {
+      switch (i) {
+        case 0:
+          v0 = value;
+          break;
+        case 1:
+          v1 = value;
+          break;
+        case 2:
+          v2 = value;
+          break;
+        default:
+          v3 = value;
+      }
+    }
+
+    void add(Object value) {
+      if (packed != null) {
+        if (count == packed.length) {
+          packed = Arrays.copyOf(packed, count + (count >> 1));
+        }
+        packed[count++] = value;
+      } else if (count < INLINE_VALUES) {
+        setInline(count++, value);
+      } else {
+        packed = new Object[INLINE_VALUES * 2];
+        packed[0] = v0;
+        packed[1] = v1;
+        packed[2] = v2;
+        packed[3] = v3;
+        packed[count++] = value;
+        v0 = v1 = v2 = v3 = null;
+      }
+    }
+
+    /** Removes the value at an index, shifting the next ones. */
+    void removeAt(int i) {
+      if (packed != null) {
+        System.arraycopy(packed, i + 1, packed, i, count - i - 1);
+        packed[--count] = null;
+        if (count <= INLINE_VALUES) {
+          // Back to the fields, the array is dropped.
+          Object[] values = packed;
+          packed = null;
+          for (int j = 0; j < count; ++j) {
+            setInline(j, values[j]);
+          }
+        }
+        return;
+      }
+      for (int j = i; j < count - 1; ++j) {
+        setInline(j, value(j + 1));
+      }
+      setInline(--count, null);
+    }
+
+    void clear() {
+      count = 0;
+      packed = null;
+      v0 = v1 = v2 = v3 = null;
+    }
+
+    /** @return the values, as {@code [a, b]}. */
+    String values() {
+      StringBuilder builder = new StringBuilder("[");
+      for (int i = 0; i < count; ++i) {
+        builder.append(i == 0 ? "" : ", ").append(value(i));
+      }
+      return builder.append(']').toString();
+    }
+  }
+
+  /** The table of the keys, its nodes are {@link MultiNode}s. */
+  private static final class Table<K> extends HashTableList<K, Object> {
+
+    Table(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+      super(initial_capacity, p_load_factor, p_strategy);
+    }
+
+    @Override
+    Node<K, Object> newNode(int hash, K key, Object value) {
+      return new MultiNode<>(hash, key);
+    }
+  }
+
+  /**
+   * A read only view of the values of a key. The node is looked up again once emptied, so the view
+   * follows the key when it is removed and put back.
+   */
+  private final class Values extends AbstractList<V> implements RandomAccess {
+    private final K key;
+
+    /** The node of the key, {@code null} or empty when the key is not in the table. */
+    private MultiNode<K> node;
+
+    Values(K p_key, MultiNode<K> p_node) {
+      this.key = p_key;
+      this.node = p_node;
+    }
+
+    /** @return the number of values of the key, the node being looked up again if emptied. */
+    private int count() {
+      if (node == null || node.count == 0) {
+        node = getNode(key);
+      }
+      return node == null ? 0 : node.count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(int index) {
+      Objects.checkIndex(index, count());
+      return (V) node.value(index);
+    }
+
+    @Override
+    public int size() {
+      return count();
+    }
+  }
+
+  /** The keys, each node holding the values of its key. */
+  private final Table<K> table;
+
+  public MultiHashTableList(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    this.table = new Table<>(initial_capacity, p_load_factor, p_strategy);
+  }
+
+  public MultiHashTableList(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public MultiHashTableList(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public MultiHashTableList() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /** @return the strategy used to hash and compare the keys. */
+  public HashStrategy hashStrategy() {
+    return table.hashStrategy();
+  }
+
+  @Override
+  public int size() {
+    return table.size();
+  }
+
+  @Override
+  public long valueCount() {
+    return value_count;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return table.containsKey(key);
+  }
+
+  @Override
+  public int count(Object key) {
+    MultiNode<K> node = getNode(key);
+    return node == null ? 0 : node.count;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    ((MultiNode<K>) table.nodeOf(key)).add(value);
+    ++value_count;
+  }
+
+  @Override
+  public List<V> getAll(K key) {
+    return new Values(key, getNode(key));
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    MultiNode<K> node = getNode(key);
+    if (node == null) {
+      return false;
+    }
+    for (int i = 0; i < node.count; ++i) {
+      if (Objects.equals(value, node.value(i))) {
+        node.removeAt(i);
+        --value_count;
+        if (node.count == 0) {
+          table.removeNode(node.hash, key);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int removeAll(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    MultiNode<K> node = (MultiNode<K>) table.removeNode(table.hash(key), key);
+    if (node == null) {
+      return 0;
+    }
+    int count = node.count;
+    node.clear();
+    value_count -= count;
+    return count;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEachValue(K key, Consumer<? super V> action) {
+    Objects.requireNonNull(action);
+    MultiNode<K> node = getNode(key);
+    if (node != null) {
+      for (int i = 0; i < node.count; ++i) {
+        action.accept((V) node.value(i));
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    table.forEachNode(
+        current -> {
+          MultiNode<K> node = (MultiNode<K>) current;
+          for (int i = 0; i < node.count; ++i) {
+            action.accept(node.key, (V) node.value(i));
+          }
+        });
+  }
+
+  /** @return the actual capacity of table. */
+  public int capacity() {
+    return table.capacity();
+  }
+
+  private MultiNode<K> getNode(Object key) {
+    return (MultiNode<K>) table.getNode(key);
+  }
+
+  /** Prints the map. */
+  public void print() {
+    table.forEachNode(
+        current -> System.out.printf("%s -> %s\n", current.key, ((MultiNode<K>) current).values()));
+  }
+}
@@ -0,0 +1,233 @@
+package structures;
+
+import java.util.function.Consumer;
+
+/**
+ * The engine shared by the sets of object keys.
+ *
+ * <p>The keys and their hashes are stored in two parallel arrays, there is no entry object and no
+ * value. This class keeps the arrays, the size and the strategy, and does the lookups, the growth
+ * and the switch to a seeded hash. The subclasses only lay the keys out in the arrays: {@link
+ * HashSetLinear} probes them linearly, {@link HashSetList} chains them through an array of links.
+ *
+ * @see HashSetLinear
+ * @see HashSetList
+ * @author André Gabriel
+ */
+abstract class ObjectHashSet<K> implements DictionarySet<K> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  /** The maximum capacity - MUST be a power of two. */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** The load factor. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
+
+  /** The marker of a removed key, for the layouts keeping the removed slots. */
+  static final Object REMOVED = new Object();
+
+  /** The number of keys contained in this set. */
+  int size;
+
+  /** The number of removed keys still in the arrays. */
+  int tombstones;
+
+  /** The keys, {@code null} for an empty slot. */
+  Object[] keys;
+
+  /** The key hashes. */
+  int[] hashes;
+
+  /** The next size value at which to resize (capacity * load factor). */
+  int threshold;
+  /** The load factor for the hash table. */
+  final float load_factor;
+  /** The strategy used to hash and compare the keys. */
+  HashStrategy strategy;
+
+  /** Checks the arguments, the subclass constructor then calls {@link #allocate}. */
+  ObjectHashSet(float p_load_factor, HashStrategy p_strategy) {
+    if (p_load_factor <= 0 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
+  }
+
+  /** Copy constructor, the arrays are cloned without hashing the keys again. */
+  ObjectHashSet(ObjectHashSet<K> other) {
+    this.load_factor = other.load_factor;
+    this.strategy = other.strategy;
+    this.size = other.size;
+    this.tombstones = other.tombstones;
+    this.keys = other.keys.clone();
+    this.hashes = other.hashes.clone();
+    this.threshold = other.threshold;
+  }
+
+  /** @return the power of two capacity for an initial capacity. */
+  static int tableSizeFor(int initial_capacity) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (initial_capacity > MAXIMUM_CAPACITY) {
+      initial_capacity = MAXIMUM_CAPACITY;
+    }
+    return Math.max(2, Integer.highestOneBit(Math.max(1, initial_capacity - 1)) << 1);
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * @param hash the key hash.
+   * @param key the key to be searched, never {@code null}.
+   * @return the slot of the key, or a negative value telling {@link #insert} where the key goes.
+   */
+  abstract int findSlot(int hash, Object key);
+
+  /**
+   * Adds a key which is not in the set.
+   *
+   * @param hash the key hash.
+   * @param key the key.
+   * @param miss the negative value returned by {@link #findSlot}.
+   * @return {@code true} if the probe sequence or the chain of the key is too long.
+   */
+  abstract boolean insert(int hash, Object key, int miss);
+
+  /** Removes the key of a slot returned by {@link #findSlot}. */
+  abstract void delete(int slot);
+
+  /**
+   * Replaces the arrays by new ones, every slot empty. {@link #threshold} is already set.
+   *
+   * @param cap the capacity - MUST be a power of two.
+   */
+  abstract void allocateSlots(int cap);
+
+  /** Puts a key in the new arrays during a rebuild, without growing. */
+  abstract void place(int hash, Object key);
+
+  /** Called when the table cannot grow anymore and has no removed key. */
+  abstract void atMaximumCapacity();
+
+  /** @return the strategy used to hash and compare the keys. */
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** @return the actual capacity of table. */
+  public abstract int capacity();
+
+  private int hash(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    return strategy.hash(key);
+  }
+
+  @Override
+  public boolean contains(Object key) {
+    return findSlot(hash(key), key) >= 0;
+  }
+
+  @Override
+  public boolean add(K key) {
+    int hash = hash(key);
+    int slot = findSlot(hash, key);
+    if (slot >= 0) {
+      return false;
+    }
+    boolean long_probe = insert(hash, key, slot);
+    ++size;
+    if (long_probe) {
+      harden();
+    }
+    if (size + tombstones > threshold) {
+      rebuild(size > threshold >> 1 ? capacity() << 1 : capacity(), false);
+    }
+    return true;
+  }
+
+  @Override
+  public boolean remove(Object key) {
+    int slot = findSlot(hash(key), key);
+    if (slot < 0) {
+      return false;
+    }
+    delete(slot);
+    --size;
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(Consumer<? super K> action) {
+    Object[] ks = keys;
+    for (Object key : ks) {
+      if (key != null && key != REMOVED) {
+        action.accept((K) key);
+      }
+    }
+  }
+
+  /**
+   * Creates the arrays of a capacity.
+   *
+   * @param cap the capacity - MUST be a power of two.
+   */
+  final void allocate(int cap) {
+    threshold = (int) Math.min(Integer.MAX_VALUE, (double) cap * load_factor);
+    tombstones = 0;
+    allocateSlots(cap);
+  }
+
+  /**
+   * Switches the table to a seeded hash when a probe sequence or a chain gets too long.
+   *
+   * <p>Only tables using a built-in strategy switch, custom strategies may define an equality the
+   * seeded hash does not know. The switch happens once, every key is rehashed.
+   */
+  private void harden() {
+    if (!(strategy instanceof HashStrategies)) {
+      return;
+    }
+    strategy = SipHashStrategy.hardening();
+    rebuild(capacity(), true);
+  }
+
+  /**
+   * Moves every key to new arrays, dropping the removed keys.
+   *
+   * @param new_cap the new capacity - MUST be a power of two.
+   * @param rehash {@code true} to hash the keys again, after the strategy changed.
+   */
+  private void rebuild(int new_cap, boolean rehash) {
+    if (new_cap > MAXIMUM_CAPACITY) {
+      if (tombstones == 0) {
+        atMaximumCapacity();
+        return;
+      }
+      new_cap = MAXIMUM_CAPACITY;
+    }
+    Object[] old_keys = keys;
+    int[] old_hashes = hashes;
+    allocate(new_cap);
+    for (int i = 0; i < old_keys.length; ++i) {
+      Object key = old_keys[i];
+      if (key != null && key != REMOVED) {
+        place(rehash ? strategy.hash(key) : old_hashes[i], key);
+      }
+    }
+  }
+}
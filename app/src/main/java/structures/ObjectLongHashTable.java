@@ -0,0 +1,156 @@
+package structures;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Hash table mapping object keys to primitive {@code long} values.
+ *
+ * <p>It follows the layout of {@link HashTableLinear}, power of two table, linear probing and
+ * removed slots kept as markers, but without entry objects: keys, hashes and values are stored in
+ * parallel arrays. Updating a counter with {@link #addTo} or {@link #incrementAndGet} never
+ * allocates, there is no boxing of the values.
+ *
+ * @see HashTableLinear
+ * @see ObjectIntHashTable
+ * @author André Gabriel
+ */
+public class ObjectLongHashTable<K> extends ObjectPrimitiveHashTable<K> {
+
+  /** The values, replaced on each rehash. */
+  private long[] values;
+
+  public ObjectLongHashTable(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    super(initial_capacity, p_load_factor, p_strategy);
+    this.values = new long[capacity()];
+  }
+
+  public ObjectLongHashTable(int initial_capacity, float p_load_factor) {
+    this(initial_capacity, p_load_factor, HashStrategies.XOR_SHIFT);
+  }
+
+  public ObjectLongHashTable(int initial_capacity) {
+    this(initial_capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  public ObjectLongHashTable() {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Return the value mapped to the given key or a default value if not in the map.
+   *
+   * @param key the key associated with the value.
+   * @param default_value the value to return if the key is not in the map.
+   * @return the value associated with the {@code key} or {@code default_value}, otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public long getOrDefault(Object key, long default_value) {
+    int slot = findSlot(strategy.hash(key), key);
+    return slot >= 0 ? values[slot] : default_value;
+  }
+
+  /**
+   * Add a key-value entry on the map. If the map previously contained a mapping for the key, the
+   * old value is replaced by the specified value.
+   *
+   * @param key the key associated with the value.
+   * @param value the value associated with the key.
+   * @return the previous value associated with {@code key} or {@code 0}, otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public long insert(K key, long value) {
+    int hash = strategy.hash(key);
+    int slot = findSlot(hash, key);
+    if (slot >= 0) {
+      long old_value = values[slot];
+      values[slot] = value;
+      return old_value;
+    }
+    addAt(-(slot + 1), hash, key, value);
+    return 0;
+  }
+
+  /**
+   * Adds a delta to the value of a key, an absent key is added with the value {@code delta}.
+   *
+   * @param key the key associated with the value.
+   * @param delta the value to add.
+   * @return the new value associated with {@code key}.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public long addTo(K key, long delta) {
+    int hash = strategy.hash(key);
+    int slot = findSlot(hash, key);
+    if (slot >= 0) {
+      return values[slot] += delta;
+    }
+    addAt(-(slot + 1), hash, key, delta);
+    return delta;
+  }
+
+  /**
+   * Increments the value of a key, an absent key is added with the value {@code 1}.
+   *
+   * @param key the key associated with the value.
+   * @return the new value associated with {@code key}.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public long incrementAndGet(K key) {
+    return addTo(key, 1);
+  }
+
+  /**
+   * Remove a key-value entry on the map.
+   *
+   * @param key the key associated with the value.
+   * @return the previous value associated with {@code key} or {@code 0}, otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public long remove(Object key) {
+    int slot = findSlot(strategy.hash(key), key);
+    if (slot < 0) {
+      return 0;
+    }
+    long old_value = values[slot];
+    removeAt(slot);
+    return old_value;
+  }
+
+  /**
+   * Performs an action for each entry of the map, in table order.
+   *
+   * @param action the action to be performed.
+   */
+  public void forEach(ObjLongConsumer<? super K> action) {
+    long[] vs = values;
+    for (int i = 0; i < vs.length; ++i) {
+      K key = keyAt(i);
+      if (key != null) {
+        action.accept(key, vs[i]);
+      }
+    }
+  }
+
+  private void addAt(int slot, int hash, K key, long value) {
+    addKey(slot, hash, key);
+    values[slot] = value;
+    afterAdd();
+  }
+
+  @Override
+  Object newValues(int cap) {
+    long[] old_values = values;
+    values = new long[cap];
+    return old_values;
+  }
+
+  @Override
+  void moveValue(Object old_values, int from, int to) {
+    values[to] = ((long[]) old_values)[from];
+  }
+
+  @Override
+  void clearValue(int slot) {
+    values[slot] = 0;
+  }
+}
@@ -0,0 +1,224 @@
+package structures;
+
+/**
+ * The engine shared by the hash tables mapping object keys to primitive values.
+ *
+ * <p>It follows the layout of {@link HashTableLinear}, power of two table, linear probing and
+ * removed slots kept as markers, but without entry objects: keys and hashes are stored in parallel
+ * arrays. The subclasses keep the values in a primitive array of the same capacity, this class
+ * only moves them through {@link #newValues}, {@link #moveValue} and {@link #clearValue}.
+ *
+ * @see ObjectIntHashTable
+ * @see ObjectLongHashTable
+ * @author André Gabriel
+ */
+abstract class ObjectPrimitiveHashTable<K> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  /** The maximum capacity - MUST be a power of two. */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** The load factor. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
+
+  /** The marker of a removed key. */
+  private static final Object REMOVED = new Object();
+
+  /** The number of entries contained in this map. */
+  private int size;
+
+  /** The number of removed keys still in the table. */
+  private int tombstones;
+
+  /** The keys, {@code null} for an empty slot. */
+  private Object[] keys;
+
+  /** The key hashes. */
+  private int[] hashes;
+
+  /** The next size value at which to resize (capacity * load factor). */
+  private int threshold;
+  /** The load factor for the hash table. */
+  private final float load_factor;
+  /** The strategy used to hash and compare the keys. */
+  final HashStrategy strategy;
+
+  /**
+   * Creates the keys of the table. The subclass constructor then allocates the values with {@link
+   * #capacity()} slots, {@link #newValues} is only called by the later rehashes.
+   */
+  ObjectPrimitiveHashTable(int initial_capacity, float p_load_factor, HashStrategy p_strategy) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (initial_capacity > MAXIMUM_CAPACITY) {
+      initial_capacity = MAXIMUM_CAPACITY;
+    }
+    if (p_load_factor <= 0 || p_load_factor >= 1 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.load_factor = p_load_factor;
+    this.strategy = p_strategy;
+    allocateKeys(Math.max(2, Integer.highestOneBit(Math.max(1, initial_capacity - 1)) << 1));
+  }
+
+  /**
+   * Replaces the values by a new array.
+   *
+   * @param cap the capacity of the new array.
+   * @return the old array.
+   */
+  abstract Object newValues(int cap);
+
+  /**
+   * Copies a value of the old array to the new array during a rehash.
+   *
+   * @param old_values the array returned by {@link #newValues}.
+   * @param from the slot in the old array.
+   * @param to the slot in the new array.
+   */
+  abstract void moveValue(Object old_values, int from, int to);
+
+  /** Clears the value of a removed slot. */
+  abstract void clearValue(int slot);
+
+  /** @return the number of key-value mappings in this map. */
+  public int size() {
+    return size;
+  }
+
+  /** @return the actual capacity of table. */
+  public int capacity() {
+    return keys.length;
+  }
+
+  /**
+   * Returns {@code true} if the map contains a specified key.
+   *
+   * @param key the key to check is on the map.
+   * @return {@code true} if this map contains the specified Key or {@code false } otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public boolean containsKey(Object key) {
+    return findSlot(strategy.hash(key), key) >= 0;
+  }
+
+  /** @return the key of a slot, {@code null} if the slot is empty or removed. */
+  @SuppressWarnings("unchecked")
+  final K keyAt(int slot) {
+    Object key = keys[slot];
+    return key == REMOVED ? null : (K) key;
+  }
+
+  /**
+   * Find the slot of a key.
+   *
+   * @param hash the key hash.
+   * @param key the key to be searched.
+   * @return the slot of the key, or {@code -(slot + 1)} where {@code slot} is the first removed
+   *     slot or the empty slot of the key probe sequence.
+   * @throws NullPointerException if the specified key is null.
+   */
+  final int findSlot(int hash, Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Object[] ks = keys;
+    int[] hs = hashes;
+    int mask = ks.length - 1;
+    int index = hash & mask;
+    int free = -1;
+    Object current;
+
+    // The load factor is below 1, so there is always an empty slot.
+    while ((current = ks[index]) != null) {
+      if (current == REMOVED) {
+        if (free < 0) {
+          free = index;
+        }
+      } else if (hs[index] == hash && strategy.equivalent(key, current)) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -((free >= 0 ? free : index) + 1);
+  }
+
+  /**
+   * Add a new key in a slot found by {@link #findSlot}. The subclass then sets the value and calls
+   * {@link #afterAdd}.
+   *
+   * @param slot the empty or removed slot.
+   * @param hash the key hash.
+   * @param key the key.
+   */
+  final void addKey(int slot, int hash, K key) {
+    if (keys[slot] == REMOVED) {
+      --tombstones;
+    }
+    keys[slot] = key;
+    hashes[slot] = hash;
+  }
+
+  /** Counts the key added by {@link #addKey}, then grows the table if needed. */
+  final void afterAdd() {
+    if (++size + tombstones > threshold) {
+      rehash(size > threshold >> 1 ? keys.length << 1 : keys.length);
+    }
+  }
+
+  /** Marks a slot found by {@link #findSlot} as removed. */
+  final void removeAt(int slot) {
+    keys[slot] = REMOVED;
+    clearValue(slot);
+    --size;
+    ++tombstones;
+  }
+
+  private void allocateKeys(int cap) {
+    keys = new Object[cap];
+    hashes = new int[cap];
+    tombstones = 0;
+    threshold = cap >= MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY - 1 : (int) (cap * load_factor);
+  }
+
+  /**
+   * Moves every key to a new table, dropping the removed keys.
+   *
+   * <p>The capacity is only doubled when the live keys need it, otherwise the table is rebuilt with
+   * the same capacity to clean the removed keys.
+   *
+   * @param new_cap the new capacity - MUST be a power of two.
+   */
+  private void rehash(int new_cap) {
+    Object[] old_keys = keys;
+    int[] old_hashes = hashes;
+    if (new_cap > MAXIMUM_CAPACITY) {
+      if (tombstones == 0) {
+        throw new IllegalStateException("HashTable is full");
+      }
+      new_cap = MAXIMUM_CAPACITY;
+    }
+    allocateKeys(new_cap);
+    Object old_values = newValues(new_cap);
+
+    int mask = new_cap - 1;
+    for (int i = 0; i < old_keys.length; ++i) {
+      Object key = old_keys[i];
+      if (key != null && key != REMOVED) {
+        int index = old_hashes[i] & mask;
+        while (keys[index] != null) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        hashes[index] = old_hashes[i];
+        moveValue(old_values, i, index);
+      }
+    }
+  }
+}
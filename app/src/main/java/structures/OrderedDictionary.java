@@ -0,0 +1,59 @@
+package structures;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A {@code Dictionary} whose keys are kept in their natural order.
+ *
+ * <p>{@link #forEach(BiConsumer)} visits the entries in the order of the keys. The order statistics
+ * count the keys, the ranks start at {@code 0}.
+ *
+ * @param <K> the key class type.
+ * @param <V> the value class type.
+ * @see RedBlackTree
+ * @see BPlusTree
+ * @author André Gabriel
+ */
+public interface OrderedDictionary<K extends Comparable<K>, V> extends Dictionary<K, V> {
+
+  /**
+   * Returns the number of keys smaller than a given key, which needs not be in the map. The rank
+   * of a key in the map is its position in the order of the keys.
+   *
+   * @param key the key.
+   * @return the number of keys smaller than {@code key}.
+   * @throws NullPointerException if the specified key is null.
+   */
+  int rank(K key);
+
+  /**
+   * Returns the entry of a given rank, the {@code i + 1}-th smallest key.
+   *
+   * @param i the rank of the entry.
+   * @return the entry, its value may be set until the map is modified.
+   * @throws IndexOutOfBoundsException if {@code i} is not in {@code [0, size())}.
+   */
+  Dictionary.Entry<K, V> select(int i);
+
+  /**
+   * Returns the number of keys between two given keys, both included. The keys need not be in the
+   * map.
+   *
+   * @param lo the lowest key of the range.
+   * @param hi the highest key of the range.
+   * @return the number of keys {@code k} with {@code lo <= k <= hi}, {@code 0} if {@code lo > hi}.
+   * @throws NullPointerException if a specified key is null.
+   */
+  int countInRange(K lo, K hi);
+
+  /**
+   * Performs an action for each entry whose key is between two given keys, both included, in the
+   * order of the keys. The action must not modify the map.
+   *
+   * @param lo the lowest key of the range.
+   * @param hi the highest key of the range.
+   * @param action the action to be performed.
+   * @throws NullPointerException if a specified key or the action is null.
+   */
+  void forEachInRange(K lo, K hi, BiConsumer<? super K, ? super V> action);
+}
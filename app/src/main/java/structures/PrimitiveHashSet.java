@@ -0,0 +1,316 @@
+package structures;
+
+import java.util.function.LongConsumer;
+
+/**
+ * The engine shared by the sets of primitive keys.
+ *
+ * <p>The keys are stored in a single primitive array, power of two table and linear probing as
+ * {@link HashSetLinear}, without boxing. The value {@code 0} marks an empty slot, the key {@code 0}
+ * itself is kept in a flag. A remove shifts the following keys of the cluster back instead of
+ * leaving a removed marker, so the table never fills with markers.
+ *
+ * <p>The keys go through this class widened to {@code long}, which is exact for the {@code int}
+ * keys. The subclasses keep the array and spread the keys, this class only reads and writes it
+ * through {@link #newKeys}, {@link #keyAt} and {@link #setKey}. The set algebra iterates the
+ * smaller set, as {@link DictionarySet}.
+ *
+ * @see IntHashSet
+ * @see LongHashSet
+ * @author André Gabriel
+ */
+abstract class PrimitiveHashSet<S extends PrimitiveHashSet<S>> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  /** The maximum capacity - MUST be a power of two. */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** The load factor. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
+
+  /** The number of keys contained in this set, the key {@code 0} included. */
+  private int size;
+
+  /** {@code true} if the key {@code 0} is in the set. */
+  private boolean has_zero;
+
+  /** The capacity of the keys array. */
+  private int capacity;
+
+  /** The next size value at which to resize (capacity * load factor). */
+  private int threshold;
+  /** The load factor for the hash table. */
+  private final float load_factor;
+
+  /** Sizes the table, the subclass constructor allocates its keys with {@link #capacity()}. */
+  PrimitiveHashSet(int initial_capacity, float p_load_factor) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (initial_capacity > MAXIMUM_CAPACITY) {
+      initial_capacity = MAXIMUM_CAPACITY;
+    }
+    if (p_load_factor <= 0 || p_load_factor >= 1 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    this.load_factor = p_load_factor;
+    setCapacity(Math.max(2, Integer.highestOneBit(Math.max(1, initial_capacity - 1)) << 1));
+  }
+
+  /** Copy constructor, the subclass clones its keys without hashing them again. */
+  PrimitiveHashSet(PrimitiveHashSet<S> other) {
+    this.load_factor = other.load_factor;
+    this.size = other.size;
+    this.has_zero = other.has_zero;
+    this.capacity = other.capacity;
+    this.threshold = other.threshold;
+  }
+
+  /**
+   * Replaces the keys by a new array, every slot empty.
+   *
+   * @param cap the capacity of the new array.
+   * @return the old array.
+   */
+  abstract Object newKeys(int cap);
+
+  /**
+   * Reads a key of an array returned by {@link #newKeys}.
+   *
+   * @param keys the keys array.
+   * @param slot the slot.
+   * @return the key widened to {@code long}, {@code 0} for an empty slot.
+   */
+  abstract long keyAt(Object keys, int slot);
+
+  /** @return the key of a slot of the current array, {@code 0} for an empty slot. */
+  abstract long keyAt(int slot);
+
+  /** Writes a key, narrowed to the subclass type, on a slot of the current array. */
+  abstract void setKey(int slot, long key);
+
+  /** @return the hash of a key, spread over every bit. */
+  abstract int hash(long key);
+
+  /** @return an empty set of the same type. */
+  abstract S newSet(int initial_capacity, float p_load_factor);
+
+  /** @return a copy of this set. */
+  public abstract S copy();
+
+  /** @return the number of keys in this set. */
+  public int size() {
+    return size;
+  }
+
+  /** @return {@code true} if this set has no key. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** @return the actual capacity of table. */
+  public int capacity() {
+    return capacity;
+  }
+
+  final boolean containsKey(long key) {
+    if (key == 0) {
+      return has_zero;
+    }
+    int mask = capacity - 1;
+    // The load factor is below 1, so there is always an empty slot.
+    for (int index = hash(key) & mask; ; index = (index + 1) & mask) {
+      long current = keyAt(index);
+      if (current == key) {
+        return true;
+      }
+      if (current == 0) {
+        return false;
+      }
+    }
+  }
+
+  final boolean addKey(long key) {
+    if (key == 0) {
+      if (has_zero) {
+        return false;
+      }
+      has_zero = true;
+      ++size;
+      return true;
+    }
+    int mask = capacity - 1;
+    int index = hash(key) & mask;
+    for (long current; (current = keyAt(index)) != 0; index = (index + 1) & mask) {
+      if (current == key) {
+        return false;
+      }
+    }
+    setKey(index, key);
+    if (++size > threshold) {
+      rehash(capacity << 1);
+    }
+    return true;
+  }
+
+  final boolean removeKey(long key) {
+    if (key == 0) {
+      if (!has_zero) {
+        return false;
+      }
+      has_zero = false;
+      --size;
+      return true;
+    }
+    int mask = capacity - 1;
+    int slot = hash(key) & mask;
+    for (long current; (current = keyAt(slot)) != key; slot = (slot + 1) & mask) {
+      if (current == 0) {
+        return false;
+      }
+    }
+
+    // Shift back the keys of the cluster which may move closer to home.
+    int hole = slot;
+    for (int next = (slot + 1) & mask; keyAt(next) != 0; next = (next + 1) & mask) {
+      long moved = keyAt(next);
+      int home = hash(moved) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        setKey(hole, moved);
+        hole = next;
+      }
+    }
+    setKey(hole, 0);
+    --size;
+    return true;
+  }
+
+  /** Performs an action for each key of the set, widened to {@code long}. */
+  final void forEachKey(LongConsumer action) {
+    if (has_zero) {
+      action.accept(0);
+    }
+    for (int i = 0; i < capacity; ++i) {
+      long key = keyAt(i);
+      if (key != 0) {
+        action.accept(key);
+      }
+    }
+  }
+
+  /** Removes every key, keeping the capacity. */
+  public void clear() {
+    newKeys(capacity);
+    has_zero = false;
+    size = 0;
+  }
+
+  private S emptyCopy(int expected) {
+    int cap = (int) Math.min(MAXIMUM_CAPACITY, expected / load_factor + 1);
+    return newSet(cap, load_factor);
+  }
+
+  /**
+   * Returns the keys of this set or of another set. The larger set is copied and the smaller one
+   * is added to the copy.
+   *
+   * @param other the other set.
+   * @return a new set.
+   */
+  public S union(S other) {
+    PrimitiveHashSet<S> small = size <= other.size() ? this : other;
+    S result = (small == this ? other : this).copy();
+    small.forEachKey(result::addKey);
+    return result;
+  }
+
+  /**
+   * Returns the keys of this set which are also in another set. The smaller set is iterated.
+   *
+   * @param other the other set.
+   * @return a new set.
+   */
+  public S intersect(S other) {
+    PrimitiveHashSet<S> small = size <= other.size() ? this : other;
+    PrimitiveHashSet<S> large = small == this ? other : this;
+    S result = emptyCopy(small.size);
+    small.forEachKey(
+        key -> {
+          if (large.containsKey(key)) {
+            result.addKey(key);
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Returns the keys of this set which are not in another set. When this set is the smaller one its
+   * keys are looked up in the other, else the keys of the other are removed from a copy.
+   *
+   * @param other the other set.
+   * @return a new set.
+   */
+  public S difference(S other) {
+    S result;
+    if (size <= other.size()) {
+      result = emptyCopy(size);
+      forEachKey(
+          key -> {
+            if (!other.containsKey(key)) {
+              result.addKey(key);
+            }
+          });
+    } else {
+      result = copy();
+      other.forEachKey(result::removeKey);
+    }
+    return result;
+  }
+
+  private void setCapacity(int cap) {
+    capacity = cap;
+    threshold = cap >= MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY - 1 : (int) (cap * load_factor);
+  }
+
+  /**
+   * Moves every key to a new table.
+   *
+   * @param new_cap the new capacity - MUST be a power of two.
+   */
+  private void rehash(int new_cap) {
+    if (new_cap > MAXIMUM_CAPACITY) {
+      threshold = MAXIMUM_CAPACITY - 1;
+      if (size - (has_zero ? 1 : 0) > threshold) {
+        throw new IllegalStateException("HashTable is full");
+      }
+      return;
+    }
+    int old_cap = capacity;
+    setCapacity(new_cap);
+    Object old_keys = newKeys(new_cap);
+    int mask = new_cap - 1;
+    for (int i = 0; i < old_cap; ++i) {
+      long key = keyAt(old_keys, i);
+      if (key != 0) {
+        int index = hash(key) & mask;
+        while (keyAt(index) != 0) {
+          index = (index + 1) & mask;
+        }
+        setKey(index, key);
+      }
+    }
+  }
+
+  /** Prints the set. */
+  public void print() {
+    if (has_zero) {
+      System.out.println("zero -> 0");
+    }
+    for (int i = 0; i < capacity; i++) {
+      long key = keyAt(i);
+      System.out.printf("%d -> %s\n", i, key == 0 ? "null" : Long.toString(key));
+    }
+  }
+}
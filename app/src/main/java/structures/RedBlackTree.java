@@ -1,26 +1,48 @@
 package structures;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
 
 /**
  * The red-black tree implementation.
  *
+ * <p>Every node also keeps the number of nodes of its subtree, updated by the insertion, the
+ * deletion and the rotations. It gives the order statistics, {@link #rank(Comparable)}, {@link
+ * #select(int)} and {@link #countInRange(Comparable, Comparable)}, in {@code O(log n)} like a
+ * lookup.
+ *
+ * <p>A tree may also be built at once from sorted keys, in {@code O(n)} without rotations, see
+ * {@link #fromSorted(Comparable[], Object[])}, or in parallel from several sorted runs, see {@link
+ * #fromSortedRuns(List, List)}.
+ *
  * @author André Gabriel
  * @see Dictionary.Entry
- * @see HashTableRB
+ * @see OrderedDictionary
  */
-public class RedBlackTree<K extends Comparable<K>, V> {
+public class RedBlackTree<K extends Comparable<K>, V> implements OrderedDictionary<K, V> {
 
   /*
    * The root of the tree;
    */
   private TreeNode<K, V> root;
 
+  /** The size of the ranges a parallel build or merge does not split. */
+  static final int BUILD_THRESHOLD = 1 << 13;
+
   /** The constructor method. */
   public RedBlackTree() {
     root = null;
   }
 
+  private RedBlackTree(TreeNode<K, V> p_root) {
+    root = p_root;
+  }
+
   /**
    * The red-black tree Node.
    *
@@ -30,7 +52,7 @@ public class RedBlackTree<K extends Comparable<K>, V> {
    * @param <V> the value class type.
    * @see Dictionary
    */
-  private class TreeNode<K, V> implements Dictionary.Entry<K, V> {
+  static final class TreeNode<K, V> implements Dictionary.Entry<K, V> {
 
     final int hash;
     final K key;
@@ -39,6 +61,8 @@ public class RedBlackTree<K extends Comparable<K>, V> {
     TreeNode<K, V> right;
     TreeNode<K, V> parent;
     boolean red;
+    /** The number of nodes in the subtree rooted at this node. */
+    int size;
 
     public TreeNode(int p_hash, K p_key, V p_value) {
       this.hash = p_hash;
@@ -48,6 +72,7 @@ public class RedBlackTree<K extends Comparable<K>, V> {
       this.right = null;
       this.parent = null;
       this.red = true;
+      this.size = 1;
     }
 
     @Override
@@ -80,12 +105,67 @@ public class RedBlackTree<K extends Comparable<K>, V> {
       return false;
     }
 
+    @Override
+    public final int hashCode() {
+      return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+    }
+
     @Override
     public final String toString() {
       return "TreeNode<" + this.red + ", " + this.key + ":" + this.value + ">";
     }
   }
 
+  /** @return the number of nodes of a subtree, {@code 0} for an empty one. */
+  private static int sizeOf(TreeNode<?, ?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static boolean isRed(TreeNode<?, ?> node) {
+    return node != null && node.red;
+  }
+
+  @Override
+  public int size() {
+    return sizeOf(root);
+  }
+
+  /**
+   * Return the node of a given key or {@code null} if the key is not in the tree.
+   *
+   * @param key the key to be searched.
+   * @return the node of the key or {@code null}.
+   * @throws ClassCastException if the key is not comparable to the keys of the tree.
+   * @throws NullPointerException if the key is null.
+   */
+  private TreeNode<K, V> getNode(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    @SuppressWarnings("unchecked")
+    Comparable<? super K> k = (Comparable<? super K>) key;
+    TreeNode<K, V> cursor = root;
+    while (cursor != null) {
+      int cmp = k.compareTo(cursor.key);
+      if (cmp == 0) {
+        return cursor;
+      }
+      cursor = cmp < 0 ? cursor.left : cursor.right;
+    }
+    return null;
+  }
+
+  @Override
+  public V get(K key) {
+    TreeNode<K, V> node = getNode(key);
+    return node == null ? null : node.value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return getNode(key) != null;
+  }
+
   /**
    * Put a new node in the tree, or update a node value.
    *
@@ -95,22 +175,18 @@ public class RedBlackTree<K extends Comparable<K>, V> {
    * @return an old entry value if it exists or {@code null} instead.
    */
   private V putTreeVal(int hash, K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
     int dir = 0;
     TreeNode<K, V> cursor = this.root, prev = null;
     while (cursor != null) {
-      K ck;
-      TreeNode<K, V> cl = cursor.left, cr = cursor.right;
       prev = cursor;
-      if ((ck = cursor.key) == key || (key != null && Objects.equals(key, ck))) {
-        return cursor.setValue(value);
-      } else if (key != null && ck.compareTo(key) > 0) {
-        dir = -1;
-      } else if (key != null && ck.compareTo(key) < 0) {
-        dir = 1;
-      } else {
+      dir = key.compareTo(cursor.key);
+      if (dir == 0) {
         return cursor.setValue(value);
       }
-      cursor = dir < 0 ? cl : cr;
+      cursor = dir < 0 ? cursor.left : cursor.right;
     }
     TreeNode<K, V> n = new TreeNode<>(hash, key, value);
     n.parent = prev;
@@ -121,6 +197,10 @@ public class RedBlackTree<K extends Comparable<K>, V> {
     } else {
       prev.right = n;
     }
+    // The new node is in the subtree of every node of its path.
+    for (TreeNode<K, V> p = prev; p != null; p = p.parent) {
+      ++p.size;
+    }
     fixInsert(n);
     return null;
   }
@@ -184,6 +264,8 @@ public class RedBlackTree<K extends Comparable<K>, V> {
   /**
    * Cormem left rotate algorithm.
    *
+   * <p>The right child takes the place, and so the subtree size, of the rotated node.
+   *
    * @param x the rode to be rotated.
    */
   private void leftRotate(TreeNode<K, V> x) {
@@ -195,11 +277,15 @@ public class RedBlackTree<K extends Comparable<K>, V> {
       else pp.right = r;
       r.left = x;
       x.parent = r;
+      r.size = x.size;
+      x.size = sizeOf(x.left) + sizeOf(x.right) + 1;
     }
   }
   /**
    * Cormem right rotate algorithm.
    *
+   * <p>The left child takes the place, and so the subtree size, of the rotated node.
+   *
    * @param x the rode to be rotated.
    */
   private void rightRotate(TreeNode<K, V> p) {
@@ -211,6 +297,8 @@ public class RedBlackTree<K extends Comparable<K>, V> {
       else pp.left = l;
       l.right = p;
       p.parent = l;
+      l.size = p.size;
+      p.size = sizeOf(p.left) + sizeOf(p.right) + 1;
     }
   }
 
@@ -223,47 +311,66 @@ public class RedBlackTree<K extends Comparable<K>, V> {
    * @param key the key value of the entry.
    * @param value the value of the entry.
    * @return an old entry value if exists or {@code null} instead.
+   * @throws NullPointerException if the specified key is null.
    */
   public V insert(int hash, K key, V value) {
     return putTreeVal(hash, key, value);
   }
 
+  @Override
+  public V insert(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    return putTreeVal(key.hashCode(), key, value);
+  }
+
   /**
    * Deletes a node from tree.
    *
-   * <p>This method call a fixup delete to re-balance the tree.
+   * <p>The node spliced out is {@code z} itself when it has at most one child, else its successor,
+   * which takes the place of {@code z}. The sizes on the path of the spliced node are decremented
+   * first, then a fixup delete re-balances the tree if a black node was spliced.
    *
    * @param z the node to be removed.
    */
   private void deleteTreeNode(TreeNode<K, V> z) {
-    if (z != null) {
-      TreeNode<K, V> y = z, x, zl = z.left, zr = z.right;
-      boolean oc = z.red;
-      y = z;
-      if (zl == null) {
-        x = zr;
-        rbTransplant(z, zr);
-      } else if (zr == null) {
-        rbTransplant(z, zl);
+    TreeNode<K, V> zl = z.left, zr = z.right;
+    TreeNode<K, V> y = (zl != null && zr != null) ? treeMin(zr) : z;
+    for (TreeNode<K, V> p = y.parent; p != null; p = p.parent) {
+      --p.size;
+    }
+
+    // x takes the place of the spliced node, it may be null so its parent is kept apart.
+    TreeNode<K, V> x, xp;
+    boolean spliced_red = y.red;
+    if (zl == null) {
+      x = zr;
+      xp = z.parent;
+      rbTransplant(z, zr);
+    } else if (zr == null) {
+      x = zl;
+      xp = z.parent;
+      rbTransplant(z, zl);
+    } else {
+      x = y.right;
+      if (y.parent == z) {
+        xp = y;
       } else {
-        y = treeMin(zr);
-        oc = y.red;
-        x = y.right;
-        if (y.parent == z) {
-          x.parent = y;
-        } else {
-          rbTransplant(y, y.right);
-          y.right = zr;
-          y.right.parent = y;
-        }
-        rbTransplant(z, y);
-        y.left = z.left;
-        y.left.parent = y;
-        y.red = z.red;
-        if (!oc) {
-          fixDelete(x);
-        }
+        xp = y.parent;
+        rbTransplant(y, y.right);
+        y.right = zr;
+        zr.parent = y;
       }
+      rbTransplant(z, y);
+      y.left = zl;
+      zl.parent = y;
+      y.red = z.red;
+      y.size = z.size;
+    }
+    z.left = z.right = z.parent = null;
+    if (!spliced_red) {
+      fixDelete(x, xp);
     }
   }
 
@@ -273,18 +380,20 @@ public class RedBlackTree<K extends Comparable<K>, V> {
    * <p>following the Cormen book.
    *
    * @param u the root of the first subtree
-   * @param v the root of the second subtree
+   * @param v the root of the second subtree, may be {@code null}
    */
   private void rbTransplant(TreeNode<K, V> u, TreeNode<K, V> v) {
     TreeNode<K, V> up;
     if ((up = u.parent) == null) {
       this.root = v;
-    } else if (u != null && u == (up.left)) {
+    } else if (u == up.left) {
       up.left = v;
     } else {
       up.right = v;
     }
-    v.parent = u.parent;
+    if (v != null) {
+      v.parent = up;
+    }
   }
 
   /**
@@ -302,75 +411,567 @@ public class RedBlackTree<K extends Comparable<K>, V> {
   }
 
   /**
-   * This method restores properties after deletion.
+   * This method restores properties after deletion, following the Cormen book.
+   *
+   * <p>The node carrying the extra black may be an empty subtree, so its parent is given apart. The
+   * sibling is never empty, the subtree of the sibling holds one more black node.
    *
-   * @param x the node to be fixed.
+   * @param x the node to be fixed, or {@code null}.
+   * @param xp the parent of {@code x}.
    */
-  private void fixDelete(TreeNode<K, V> x) {
-    for (TreeNode<K, V> xp, xpl, xpr; ; ) {
-      if (x == null || x == this.root) {
-        return;
-      } else if ((xp = x.parent) == null) {
-        x.red = false;
-      } else if (x.red) {
-        x.red = false;
-      } else if ((xpl = xp.left) == x) {
-        if ((xpr = xp.right) != null && xpr.red) { // Case 1
-          xpr.red = false;
+  private void fixDelete(TreeNode<K, V> x, TreeNode<K, V> xp) {
+    while (x != root && !isRed(x)) {
+      if (x == xp.left) {
+        TreeNode<K, V> w = xp.right;
+        if (w.red) { // Case 1
+          w.red = false;
           xp.red = true;
           leftRotate(xp);
-          xpr = (xp = x.parent) == null ? null : xp.right;
+          w = xp.right;
         }
-        if (xpr == null) x = xp;
-        else {
-          TreeNode<K, V> sl = xpr.left, sr = xpr.right;
-          if ((sr == null || !sr.red) && (sl == null || !sl.red)) { // Case 2
-            xpr.red = true;
-            x = xp;
-          } else {
-            if (sr == null || !sr.red) { // case 3
-              if (sl != null) sl.red = false;
-              xpr.red = true;
-              rightRotate(xpr);
-              xpr = (xp = x.parent) == null ? null : xp.right;
-            }
+        if (!isRed(w.left) && !isRed(w.right)) { // Case 2
+          w.red = true;
+          x = xp;
+          xp = x.parent;
+        } else {
+          if (!isRed(w.right)) { // Case 3
+            w.left.red = false;
+            w.red = true;
+            rightRotate(w);
+            w = xp.right;
           }
+          // Case 4
+          w.red = xp.red;
+          xp.red = false;
+          w.right.red = false;
+          leftRotate(xp);
+          x = root;
         }
       } else { // symmetric
-        if (xpl != null && xpl.red) {
-          xpl.red = false;
+        TreeNode<K, V> w = xp.left;
+        if (w.red) {
+          w.red = false;
           xp.red = true;
           rightRotate(xp);
-          xpl = (xp = x.parent) == null ? null : xp.left;
+          w = xp.left;
         }
-        if (xpl == null) x = xp;
-        else {
-          TreeNode<K, V> sl = xpl.left, sr = xpl.right;
-          if ((sl == null || !sl.red) && (sr == null || !sr.red)) {
-            xpl.red = true;
-            x = xp;
-          } else {
-            if (sl == null || !sl.red) {
-              if (sr != null) sr.red = false;
-              xpl.red = true;
-              leftRotate(xpl);
-              xpl = (xp = x.parent) == null ? null : xp.left;
-            }
+        if (!isRed(w.right) && !isRed(w.left)) {
+          w.red = true;
+          x = xp;
+          xp = x.parent;
+        } else {
+          if (!isRed(w.left)) {
+            w.right.red = false;
+            w.red = true;
+            leftRotate(w);
+            w = xp.left;
           }
+          w.red = xp.red;
+          xp.red = false;
+          w.left.red = false;
+          rightRotate(xp);
+          x = root;
         }
       }
     }
+    if (x != null) {
+      x.red = false;
+    }
   }
 
   /**
    * The remove node method.
    *
-   * <p>Removes the values in a red-black tree node.
+   * <p>Removes the node of a key from the red-black tree.
    *
-   * @param node the node to be removed.
+   * @param key the key to be removed.
+   * @return the value of the key if it was in the tree or {@code null} otherwise.
+   * @throws NullPointerException if the specified key is null.
    */
-  public void remove(TreeNode<K, V> node) {
+  @Override
+  public V remove(Object key) {
+    TreeNode<K, V> node = getNode(key);
+    if (node == null) {
+      return null;
+    }
     deleteTreeNode(node);
+    return node.value;
+  }
+
+  /**
+   * Returns the number of keys smaller than a given key, which needs not be in the tree. The rank
+   * of a key in the tree is its position in the order of the keys, starting at {@code 0}.
+   *
+   * @param key the key.
+   * @return the number of keys smaller than {@code key}.
+   * @throws NullPointerException if the specified key is null.
+   */
+  @Override
+  public int rank(K key) {
+    return countBelow(key, false);
+  }
+
+  /**
+   * Returns the entry of a given rank, the {@code i + 1}-th smallest key.
+   *
+   * @param i the rank of the entry.
+   * @return the entry, its value may be set.
+   * @throws IndexOutOfBoundsException if {@code i} is not in {@code [0, size())}.
+   */
+  @Override
+  public Dictionary.Entry<K, V> select(int i) {
+    if (i < 0 || i >= size()) {
+      throw new IndexOutOfBoundsException("Illegal rank: " + i);
+    }
+    TreeNode<K, V> cursor = root;
+    for (; ; ) {
+      int left_size = sizeOf(cursor.left);
+      if (i == left_size) {
+        return cursor;
+      } else if (i < left_size) {
+        cursor = cursor.left;
+      } else {
+        i -= left_size + 1;
+        cursor = cursor.right;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of keys between two given keys, both included. The keys need not be in the
+   * tree.
+   *
+   * @param lo the lowest key of the range.
+   * @param hi the highest key of the range.
+   * @return the number of keys {@code k} with {@code lo <= k <= hi}, {@code 0} if {@code lo > hi}.
+   * @throws NullPointerException if a specified key is null.
+   */
+  @Override
+  public int countInRange(K lo, K hi) {
+    if (lo == null || hi == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (lo.compareTo(hi) > 0) {
+      return 0;
+    }
+    return countBelow(hi, true) - countBelow(lo, false);
+  }
+
+  /**
+   * Counts the keys smaller than a given key in one descent, the sizes of the left subtrees left
+   * behind are summed.
+   *
+   * @param key the key.
+   * @param inclusive {@code true} to count the key itself.
+   * @return the number of keys smaller than, or equal to if {@code inclusive}, {@code key}.
+   */
+  private int countBelow(K key, boolean inclusive) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    int count = 0;
+    TreeNode<K, V> cursor = root;
+    while (cursor != null) {
+      int cmp = key.compareTo(cursor.key);
+      if (cmp < 0 || (cmp == 0 && !inclusive)) {
+        cursor = cursor.left;
+      } else {
+        count += sizeOf(cursor.left) + 1;
+        cursor = cursor.right;
+      }
+    }
+    return count;
+  }
+
+  /** Performs an action for each entry of the tree, in the order of the keys. */
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    for (TreeNode<K, V> cursor = root == null ? null : treeMin(root);
+        cursor != null;
+        cursor = successor(cursor)) {
+      action.accept(cursor.key, cursor.value);
+    }
+  }
+
+  @Override
+  public void forEachInRange(K lo, K hi, BiConsumer<? super K, ? super V> action) {
+    if (lo == null || hi == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    Objects.requireNonNull(action);
+    // Find the smallest key not below lo, then walk the successors.
+    TreeNode<K, V> first = null;
+    for (TreeNode<K, V> cursor = root; cursor != null; ) {
+      if (lo.compareTo(cursor.key) <= 0) {
+        first = cursor;
+        cursor = cursor.left;
+      } else {
+        cursor = cursor.right;
+      }
+    }
+    for (TreeNode<K, V> cursor = first;
+        cursor != null && hi.compareTo(cursor.key) >= 0;
+        cursor = successor(cursor)) {
+      action.accept(cursor.key, cursor.value);
+    }
+  }
+
+  /**
+   * Returns the node of the next key, the smallest of the right subtree or else the first ancestor
+   * reached from its left subtree.
+   *
+   * @param node the node.
+   * @return the node of the next key or {@code null} if it is the last one.
+   */
+  private TreeNode<K, V> successor(TreeNode<K, V> node) {
+    if (node.right != null) {
+      return treeMin(node.right);
+    }
+    TreeNode<K, V> parent = node.parent;
+    while (parent != null && node == parent.right) {
+      node = parent;
+      parent = parent.parent;
+    }
+    return parent;
+  }
+
+  /**
+   * Builds a tree from sorted keys in {@code O(n)}.
+   *
+   * <p>The middle key of each range is the root of the subtree of the range, so the tree is as
+   * balanced as it can be. Only the last level may be incomplete, its nodes are red and all the
+   * others black, which keeps the same number of black nodes on every path without a fixup.
+   *
+   * @param keys the keys, in strictly increasing order.
+   * @param values the values of the keys, or {@code null} for {@code null} values.
+   * @param <K> the key class type.
+   * @param <V> the value class type.
+   * @return the tree.
+   * @throws IllegalArgumentException if the keys are not sorted and distinct, or the arrays have
+   *     different lengths.
+   * @throws NullPointerException if a key is null.
+   */
+  public static <K extends Comparable<K>, V> RedBlackTree<K, V> fromSorted(K[] keys, V[] values) {
+    if (values != null && values.length != keys.length) {
+      throw new IllegalArgumentException("Illegal values length: " + values.length);
+    }
+    checkSorted(keys, keys.length);
+    int n = keys.length;
+    return new RedBlackTree<>(RedBlackTree.<K, V>build(keys, values, 0, n - 1, 0, redLevel(n)));
+  }
+
+  /**
+   * Builds a tree from sorted entries in {@code O(n)}, see {@link #fromSorted(Comparable[],
+   * Object[])}. The entries are read once, in order, the keys are not kept in an array.
+   *
+   * @param size the number of entries to read.
+   * @param entries the entries, in strictly increasing order of the keys.
+   * @param <K> the key class type.
+   * @param <V> the value class type.
+   * @return the tree.
+   * @throws IllegalArgumentException if the keys are not sorted and distinct.
+   * @throws java.util.NoSuchElementException if there are less than {@code size} entries.
+   * @throws NullPointerException if a key is null.
+   */
+  public static <K extends Comparable<K>, V> RedBlackTree<K, V> fromSorted(
+      int size, Iterator<? extends Dictionary.Entry<? extends K, ? extends V>> entries) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Illegal size: " + size);
+    }
+    Objects.requireNonNull(entries);
+    SortedBuilder<K, V> builder = new SortedBuilder<>(entries);
+    return new RedBlackTree<>(builder.build(0, size - 1, 0, redLevel(size)));
+  }
+
+  /**
+   * Builds a tree from several runs of sorted keys, in parallel on the common {@link ForkJoinPool}.
+   *
+   * <p>The runs are merged two by two, the halves of the list of runs in parallel, then the
+   * subtrees of the merged keys are built in parallel, as in {@link #fromSorted(Comparable[],
+   * Object[])}. A key in several runs takes its value from the last one.
+   *
+   * @param keys the runs of keys, each in strictly increasing order.
+   * @param values the values of each run, or {@code null} for {@code null} values.
+   * @param <K> the key class type.
+   * @param <V> the value class type.
+   * @return the tree.
+   * @throws IllegalArgumentException if a run is not sorted and distinct, or the lists or arrays
+   *     have different lengths.
+   * @throws NullPointerException if a key is null.
+   */
+  public static <K extends Comparable<K>, V> RedBlackTree<K, V> fromSortedRuns(
+      List<K[]> keys, List<V[]> values) {
+    if (values != null && values.size() != keys.size()) {
+      throw new IllegalArgumentException("Illegal values size: " + values.size());
+    }
+    if (keys.isEmpty()) {
+      return new RedBlackTree<>();
+    }
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    Object[][] merged = pool.invoke(new MergeTask(keys, values, 0, keys.size()));
+    int n = merged[0].length;
+    return new RedBlackTree<>(
+        pool.invoke(new BuildTask<K, V>(merged[0], merged[1], 0, n - 1, 0, redLevel(n))));
+  }
+
+  /**
+   * Returns the level of the red nodes of a tree built from sorted keys, the last level if it is
+   * incomplete, as {@code java.util.TreeMap}.
+   */
+  private static int redLevel(int size) {
+    int level = 0;
+    for (int m = size - 1; m >= 0; m = m / 2 - 1) {
+      level++;
+    }
+    return level;
+  }
+
+  private static void checkSorted(Object[] keys, int n) {
+    for (int i = 0; i < n; ++i) {
+      if (keys[i] == null) {
+        throw new NullPointerException("Illegal key value");
+      }
+      if (i > 0 && compare(keys[i - 1], keys[i]) >= 0) {
+        throw new IllegalArgumentException("Keys must be sorted and distinct at " + i);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(Object a, Object b) {
+    return ((Comparable<Object>) a).compareTo(b);
+  }
+
+  /** Links a node to its subtrees, and sets its color and size. */
+  private static <K, V> TreeNode<K, V> link(
+      TreeNode<K, V> node, TreeNode<K, V> left, TreeNode<K, V> right, boolean red) {
+    node.left = left;
+    node.right = right;
+    if (left != null) {
+      left.parent = node;
+    }
+    if (right != null) {
+      right.parent = node;
+    }
+    node.red = red;
+    node.size = sizeOf(left) + sizeOf(right) + 1;
+    return node;
+  }
+
+  /**
+   * Builds the subtree of a range of sorted keys.
+   *
+   * @param lo the first index of the range.
+   * @param hi the last index of the range.
+   * @param level the depth of the root of the subtree.
+   * @param red_level the depth of the red nodes.
+   * @return the root of the subtree, {@code null} for an empty range.
+   */
+  @SuppressWarnings("unchecked")
+  private static <K, V> TreeNode<K, V> build(
+      Object[] keys, Object[] values, int lo, int hi, int level, int red_level) {
+    if (lo > hi) {
+      return null;
+    }
+    int mid = (lo + hi) >>> 1;
+    TreeNode<K, V> left = build(keys, values, lo, mid - 1, level + 1, red_level);
+    TreeNode<K, V> right = build(keys, values, mid + 1, hi, level + 1, red_level);
+    K key = (K) keys[mid];
+    TreeNode<K, V> node =
+        new TreeNode<>(key.hashCode(), key, values == null ? null : (V) values[mid]);
+    return link(node, left, right, level == red_level);
+  }
+
+  /** Builds the subtree of a range of sorted entries, read from an iterator in order. */
+  private static final class SortedBuilder<K extends Comparable<K>, V> {
+    private final Iterator<? extends Dictionary.Entry<? extends K, ? extends V>> entries;
+    private K previous;
+
+    SortedBuilder(Iterator<? extends Dictionary.Entry<? extends K, ? extends V>> p_entries) {
+      this.entries = p_entries;
+    }
+
+    TreeNode<K, V> build(int lo, int hi, int level, int red_level) {
+      if (lo > hi) {
+        return null;
+      }
+      int mid = (lo + hi) >>> 1;
+      // The left subtree holds the smaller keys, it is read first.
+      TreeNode<K, V> left = build(lo, mid - 1, level + 1, red_level);
+      Dictionary.Entry<? extends K, ? extends V> entry = entries.next();
+      K key = entry.getKey();
+      if (key == null) {
+        throw new NullPointerException("Illegal key value");
+      }
+      if (previous != null && previous.compareTo(key) >= 0) {
+        throw new IllegalArgumentException("Keys must be sorted and distinct at " + mid);
+      }
+      previous = key;
+      TreeNode<K, V> node = new TreeNode<>(key.hashCode(), key, entry.getValue());
+      TreeNode<K, V> right = build(mid + 1, hi, level + 1, red_level);
+      return link(node, left, right, level == red_level);
+    }
+  }
+
+  /** Builds the subtree of a range of sorted keys, the two halves of a large range in parallel. */
+  private static final class BuildTask<K, V> extends RecursiveTask<TreeNode<K, V>> {
+    private static final long serialVersionUID = 1L;
+
+    private final Object[] keys, values;
+    private final int lo, hi, level, red_level;
+
+    BuildTask(Object[] p_keys, Object[] p_values, int p_lo, int p_hi, int p_level, int p_red) {
+      this.keys = p_keys;
+      this.values = p_values;
+      this.lo = p_lo;
+      this.hi = p_hi;
+      this.level = p_level;
+      this.red_level = p_red;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected TreeNode<K, V> compute() {
+      if (hi - lo < BUILD_THRESHOLD) {
+        return build(keys, values, lo, hi, level, red_level);
+      }
+      int mid = (lo + hi) >>> 1;
+      BuildTask<K, V> left = new BuildTask<>(keys, values, lo, mid - 1, level + 1, red_level);
+      left.fork();
+      TreeNode<K, V> right =
+          new BuildTask<K, V>(keys, values, mid + 1, hi, level + 1, red_level).compute();
+      K key = (K) keys[mid];
+      TreeNode<K, V> node =
+          new TreeNode<>(key.hashCode(), key, values == null ? null : (V) values[mid]);
+      return link(node, left.join(), right, level == red_level);
+    }
+  }
+
+  /**
+   * Merges a range of runs into one sorted run of keys and one of values, the two halves of the
+   * range in parallel.
+   */
+  private static final class MergeTask extends RecursiveTask<Object[][]> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<? extends Object[]> keys, values;
+    private final int from, to;
+
+    MergeTask(
+        List<? extends Object[]> p_keys, List<? extends Object[]> p_values, int p_from, int p_to) {
+      this.keys = p_keys;
+      this.values = p_values;
+      this.from = p_from;
+      this.to = p_to;
+    }
+
+    @Override
+    protected Object[][] compute() {
+      if (to - from == 1) {
+        Object[] run = keys.get(from);
+        Object[] run_values = values == null ? null : values.get(from);
+        if (run_values != null && run_values.length != run.length) {
+          throw new IllegalArgumentException("Illegal values length: " + run_values.length);
+        }
+        checkSorted(run, run.length);
+        return new Object[][] {run, run_values == null ? new Object[run.length] : run_values};
+      }
+      int mid = (from + to) >>> 1;
+      MergeTask left = new MergeTask(keys, values, from, mid);
+      left.fork();
+      Object[][] right = new MergeTask(keys, values, mid, to).compute();
+      return merge(left.join(), right);
+    }
+
+    /** Merges two sorted runs, a key in both takes the value of the second one. */
+    private static Object[][] merge(Object[][] a, Object[][] b) {
+      Object[] ak = a[0], av = a[1], bk = b[0], bv = b[1];
+      Object[] keys = new Object[ak.length + bk.length];
+      Object[] values = new Object[keys.length];
+      int i = 0, j = 0, n = 0;
+      while (i < ak.length && j < bk.length) {
+        int cmp = compare(ak[i], bk[j]);
+        if (cmp < 0) {
+          keys[n] = ak[i];
+          values[n++] = av[i++];
+        } else {
+          if (cmp == 0) {
+            ++i;
+          }
+          keys[n] = bk[j];
+          values[n++] = bv[j++];
+        }
+      }
+      for (; i < ak.length; ++i, ++n) {
+        keys[n] = ak[i];
+        values[n] = av[i];
+      }
+      for (; j < bk.length; ++j, ++n) {
+        keys[n] = bk[j];
+        values[n] = bv[j];
+      }
+      if (n < keys.length) {
+        keys = Arrays.copyOf(keys, n);
+        values = Arrays.copyOf(values, n);
+      }
+      return new Object[][] {keys, values};
+    }
+  }
+
+  /**
+   * Returns the heap taken by the tree: the tree object, the nodes and the keys. The keys are
+   * walked, so it takes a time linear in the size.
+   *
+   * @return the memory report, its capacity is the size.
+   * @see MemoryReport
+   */
+  public MemoryReport memoryUsage() {
+    int size = size();
+    return new MemoryReport(
+        size,
+        size,
+        MemoryReport.shallowSize(getClass()),
+        size * MemoryReport.shallowSize(TreeNode.class),
+        0,
+        keyBytes(root));
+  }
+
+  /** @return the shallow bytes of the keys of the subtree rooted at a given node. */
+  private static long keyBytes(TreeNode<?, ?> node) {
+    long bytes = 0;
+    for (; node != null; node = node.right) {
+      bytes += MemoryReport.shallowSize(node.key.getClass()) + keyBytes(node.left);
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the heap a tree would take once a number of keys were inserted.
+   *
+   * @param expected_size the number of keys.
+   * @param key_type the class of the keys, its shallow size is the size of a key.
+   * @return the memory report.
+   * @throws IllegalArgumentException if the size is negative or the key type an interface, an
+   *     array or a primitive class.
+   * @see MemoryReport
+   */
+  public static MemoryReport estimate(int expected_size, Class<?> key_type) {
+    if (expected_size < 0) {
+      throw new IllegalArgumentException("Illegal expected size: " + expected_size);
+    }
+    return new MemoryReport(
+        expected_size,
+        expected_size,
+        MemoryReport.shallowSize(RedBlackTree.class),
+        expected_size * MemoryReport.shallowSize(TreeNode.class),
+        0,
+        expected_size * MemoryReport.keySize(key_type));
+  }
+
+  /** Prints the tree. */
+  public void print() {
+    preorder(root);
   }
 
   /**
@@ -378,7 +979,7 @@ public class RedBlackTree<K extends Comparable<K>, V> {
    *
    * @param n the node.
    */
-  public void preorder(TreeNode<K, V> n) {
+  private void preorder(TreeNode<K, V> n) {
     if (n != null) {
       System.out.println(n);
       preorder(n.left);
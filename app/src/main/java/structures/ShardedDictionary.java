@@ -0,0 +1,423 @@
+package structures;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hash partitioned implementation of the {@code Dictionary} interface for many cores.
+ *
+ * <p>The keys are split over a power of two number of shards by the top bits of their hash, mixed
+ * by a Fibonacci multiplication, while the tables use the low bits, so both stay independent. Every
+ * shard is a plain table, by default a {@link HashTableLinear}, owned by a single thread: the
+ * operations are queued to the shard and run by its thread, so the tables need no lock. The thread
+ * drains its queue in batches of up to {@link #BATCH_SIZE} operations and sleeps when the queue is
+ * empty.
+ *
+ * <p>{@link #getAsync}, {@link #insertAsync} and {@link #removeAsync} return a future completed by
+ * the shard thread, the other methods wait for it. Dependent stages of the futures run on the shard
+ * thread unless an async stage is used, so they must be short.
+ *
+ * <p>An operation submitted from the thread of its own shard, by a {@link #forEach} action, a
+ * mapping function or a dependent stage, runs at once on that thread, as a call on the table would,
+ * instead of waiting behind the running one. An operation on another shard is queued as usual, so
+ * such callbacks must not wait for it: two shards waiting for each other never wake up. They should
+ * use the async methods and return without joining.
+ *
+ * <p>{@link #shardSizes()}, {@link #shardOperations()} and {@link #skew()} report how even the
+ * partition is. The threads are stopped by {@link #close()}.
+ *
+ * @see Dictionary
+ * @author André Gabriel
+ */
+public class ShardedDictionary<K, V> implements Dictionary<K, V>, AutoCloseable {
+
+  /** The maximum number of operations run by a shard thread between two updates of its counter. */
+  static final int BATCH_SIZE = 64;
+
+  /** The maximum number of shards - MUST be a power of two. */
+  static final int MAXIMUM_SHARDS = 1 << 16;
+
+  private final Shard<K, V>[] shards;
+
+  /** The number of hash bits choosing a shard. */
+  private final int shard_bits;
+
+  /** The strategy used to choose the shard of a key. */
+  private final HashStrategy strategy;
+
+  @SuppressWarnings("unchecked")
+  public ShardedDictionary(
+      int shard_count, Supplier<? extends Dictionary<K, V>> p_factory, HashStrategy p_strategy) {
+    if (shard_count <= 0 || shard_count > MAXIMUM_SHARDS) {
+      throw new IllegalArgumentException("Illegal shard count: " + shard_count);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    int n = shard_count == 1 ? 1 : Integer.highestOneBit(shard_count - 1) << 1;
+    this.shard_bits = Integer.numberOfTrailingZeros(n);
+    this.strategy = p_strategy;
+    this.shards = (Shard<K, V>[]) new Shard[n];
+    for (int i = 0; i < n; ++i) {
+      shards[i] = new Shard<>(p_factory.get(), "shard-" + i);
+    }
+    for (Shard<K, V> shard : shards) {
+      shard.thread.start();
+    }
+  }
+
+  public ShardedDictionary(int shard_count) {
+    this(shard_count, HashTableLinear::new, HashStrategies.XOR_SHIFT);
+  }
+
+  public ShardedDictionary() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /** An operation queued to a shard. */
+  private static final class Task<K, V, R> extends CompletableFuture<R> {
+    final Function<Dictionary<K, V>, R> action;
+
+    Task(Function<Dictionary<K, V>, R> p_action) {
+      this.action = p_action;
+    }
+
+    /** Runs the operation, the size of the shard is published before the future completes. */
+    void run(Shard<K, V> shard) {
+      R result;
+      try {
+        result = action.apply(shard.table);
+      } catch (Throwable e) {
+        shard.size = shard.table.size();
+        completeExceptionally(e);
+        return;
+      }
+      shard.size = shard.table.size();
+      complete(result);
+    }
+  }
+
+  /** A table, its queue and the thread owning both. */
+  private static final class Shard<K, V> implements Runnable {
+    final Dictionary<K, V> table;
+    final ConcurrentLinkedQueue<Task<K, V, ?>> queue = new ConcurrentLinkedQueue<>();
+    final Thread thread;
+
+    /** Set by the thread before it sleeps. */
+    volatile boolean waiting;
+
+    /** Set by {@link ShardedDictionary#close()}. */
+    volatile boolean closed;
+
+    /** The table size, published by the thread after each operation. */
+    volatile int size;
+
+    /** The number of operations run, published by the thread after each batch. */
+    volatile long operations;
+
+    Shard(Dictionary<K, V> p_table, String name) {
+      this.table = p_table;
+      this.thread = new Thread(this, name);
+      this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      long count = 0;
+      for (; ; ) {
+        int batch = 0;
+        Task<K, V, ?> task;
+        while (batch < BATCH_SIZE && (task = queue.poll()) != null) {
+          task.run(this);
+          ++batch;
+        }
+        if (batch > 0) {
+          count += batch;
+          operations = count;
+          continue;
+        }
+        if (closed) {
+          break;
+        }
+        waiting = true;
+        if (queue.isEmpty() && !closed) {
+          LockSupport.park(this);
+        }
+        waiting = false;
+      }
+      // Fail the operations queued while closing.
+      Task<K, V, ?> task;
+      while ((task = queue.poll()) != null) {
+        task.completeExceptionally(new IllegalStateException("ShardedDictionary is closed"));
+      }
+    }
+
+    /**
+     * Queues an operation, or runs it at once when called from the thread of this shard, which
+     * would otherwise wait for itself.
+     */
+    <R> CompletableFuture<R> submit(Function<Dictionary<K, V>, R> action) {
+      Task<K, V, R> task = new Task<>(action);
+      if (Thread.currentThread() == thread) {
+        task.run(this);
+        return task;
+      }
+      if (closed) {
+        task.completeExceptionally(new IllegalStateException("ShardedDictionary is closed"));
+        return task;
+      }
+      queue.offer(task);
+      if (waiting) {
+        LockSupport.unpark(thread);
+      }
+      if (closed && queue.remove(task)) {
+        task.completeExceptionally(new IllegalStateException("ShardedDictionary is closed"));
+      }
+      return task;
+    }
+  }
+
+  /**
+   * Returns the shard of a key, from the top bits of its hash.
+   *
+   * @param key the key.
+   * @return the shard of the key.
+   * @throws NullPointerException if the key is null.
+   */
+  private Shard<K, V> shardFor(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    if (shard_bits == 0) {
+      return shards[0];
+    }
+    // Fibonacci hashing, the top bits of the product depend on every bit of the hash.
+    return shards[(strategy.hash(key) * 0x9e3779b9) >>> (32 - shard_bits)];
+  }
+
+  /** Waits for a future, rethrowing the exception of the operation. */
+  private static <R> R await(CompletableFuture<R> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Return the value mapped to the given key, asynchronously.
+   *
+   * @param key the key associated with the value.
+   * @return a future of the value associated with the {@code key} or {@code null}, otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public CompletableFuture<V> getAsync(K key) {
+    return shardFor(key).submit(table -> table.get(key));
+  }
+
+  /**
+   * Add a key-value entry on the map, asynchronously.
+   *
+   * @param key the key associated with the value.
+   * @param value the value associated with the key.
+   * @return a future of the previous value associated with {@code key} or {@code null}, otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public CompletableFuture<V> insertAsync(K key, V value) {
+    return shardFor(key).submit(table -> table.insert(key, value));
+  }
+
+  /**
+   * Remove a key-value entry on the map, asynchronously.
+   *
+   * @param key the key associated with the value.
+   * @return a future of the previous value associated with {@code key} or {@code null}, otherwise.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public CompletableFuture<V> removeAsync(Object key) {
+    return shardFor(key).submit(table -> table.remove(key));
+  }
+
+  @Override
+  public int size() {
+    long total = 0;
+    for (Shard<K, V> shard : shards) {
+      total += shard.size;
+    }
+    return (int) Math.min(total, Integer.MAX_VALUE);
+  }
+
+  /** @return the strategy used to choose the shard of a key. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return await(shardFor(key).submit(table -> table.containsKey(key)));
+  }
+
+  @Override
+  public V get(K key) {
+    return await(getAsync(key));
+  }
+
+  @Override
+  public V insert(K key, V value) {
+    return await(insertAsync(key, value));
+  }
+
+  @Override
+  public V remove(Object key) {
+    return await(removeAsync(key));
+  }
+
+  /**
+   * Runs a function with the table of a key on the thread of its shard, so compound operations are
+   * atomic.
+   *
+   * @param key the key choosing the shard.
+   * @param action the function.
+   * @return a future of the result of the function.
+   * @throws NullPointerException if the specified key is null.
+   */
+  public <R> CompletableFuture<R> withShardOf(K key, Function<Dictionary<K, V>, R> action) {
+    return shardFor(key).submit(action);
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    return await(withShardOf(key, table -> table.putIfAbsent(key, value)));
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    return await(withShardOf(key, table -> table.replace(key, value)));
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+    return await(withShardOf(key, table -> table.computeIfAbsent(key, mapping)));
+  }
+
+  @Override
+  public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    return await(withShardOf(key, table -> table.computeIfPresent(key, remapping)));
+  }
+
+  @Override
+  public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+    return await(withShardOf(key, table -> table.compute(key, remapping)));
+  }
+
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+    return await(withShardOf(key, table -> table.merge(key, value, remapping)));
+  }
+
+  /**
+   * Performs an action for each entry of the map, shard after shard. The action runs on the shard
+   * threads, it may call this map for the keys of the shard it visits but must not wait for
+   * another shard.
+   *
+   * @param action the action to be performed.
+   */
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    for (Shard<K, V> shard : shards) {
+      await(
+          shard.submit(
+              table -> {
+                table.forEach(action);
+                return null;
+              }));
+    }
+  }
+
+  /** @return the number of shards. */
+  public int shardCount() {
+    return shards.length;
+  }
+
+  /** @return the number of entries of each shard. */
+  public int[] shardSizes() {
+    int[] sizes = new int[shards.length];
+    for (int i = 0; i < shards.length; ++i) {
+      sizes[i] = shards[i].size;
+    }
+    return sizes;
+  }
+
+  /** @return the number of operations run by each shard, as of the last batch of each shard. */
+  public long[] shardOperations() {
+    long[] operations = new long[shards.length];
+    for (int i = 0; i < shards.length; ++i) {
+      operations[i] = shards[i].operations;
+    }
+    return operations;
+  }
+
+  /**
+   * Returns the skew of the partition, the size of the largest shard over the mean size. An even
+   * partition has a skew close to 1.
+   *
+   * @return the skew, or {@code 1} for an empty map.
+   */
+  public double skew() {
+    long total = 0;
+    int max = 0;
+    for (Shard<K, V> shard : shards) {
+      int size = shard.size;
+      total += size;
+      max = Math.max(max, size);
+    }
+    return total == 0 ? 1 : max / ((double) total / shards.length);
+  }
+
+  /**
+   * Stops the shard threads, after they run the operations already queued. Later operations fail
+   * with {@code IllegalStateException}.
+   */
+  @Override
+  public void close() {
+    for (Shard<K, V> shard : shards) {
+      shard.closed = true;
+      LockSupport.unpark(shard.thread);
+    }
+    boolean interrupted = false;
+    for (Shard<K, V> shard : shards) {
+      while (shard.thread.isAlive()) {
+        try {
+          shard.thread.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Prints the skew report. */
+  public void print() {
+    int[] sizes = shardSizes();
+    long[] operations = shardOperations();
+    for (int i = 0; i < sizes.length; i++) {
+      System.out.printf("shard %d -> %d entries, %d operations\n", i, sizes[i], operations[i]);
+    }
+    System.out.printf("skew %.3f\n", skew());
+  }
+}
@@ -0,0 +1,297 @@
+package structures;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A keyed hash strategy based on SipHash-1-3.
+ *
+ * <p>Every instance draws a random 128 bit seed, so the hashes of an instance cannot be predicted
+ * and an attacker cannot craft keys colliding on purpose. {@code String} and {@code byte[]} keys
+ * are hashed from their content, any other key is hashed from its {@code hashCode()}, which only
+ * protects from collisions in the lower bits. The 64 bit hash of a {@code Long} sips its whole
+ * value.
+ *
+ * <p>Also {@code byte[]} keys are compared by content instead of identity, and hash the same as a
+ * {@link ByteKey} with the same bytes. The strategy a table switches to when it hardens, see {@link
+ * #hardening()}, keeps comparing them by identity, so a live table keeps its keys apart.
+ *
+ * @see HashStrategy
+ * @author André Gabriel
+ */
+public final class SipHashStrategy implements HashStrategy {
+
+  private static final SecureRandom SEEDS = new SecureRandom();
+
+  /** The seed of the instance. */
+  private final long k0;
+
+  private final long k1;
+
+  /** {@code true} if {@code byte[]} keys are hashed and compared by content. */
+  private final boolean array_content;
+
+  /** Creates a strategy with a random seed. */
+  public SipHashStrategy() {
+    this(SEEDS.nextLong(), SEEDS.nextLong());
+  }
+
+  /**
+   * Creates a strategy with a given seed.
+   *
+   * @param p_k0 the lower 64 bits of the seed.
+   * @param p_k1 the higher 64 bits of the seed.
+   */
+  public SipHashStrategy(long p_k0, long p_k1) {
+    this(p_k0, p_k1, true);
+  }
+
+  private SipHashStrategy(long p_k0, long p_k1, boolean p_array_content) {
+    this.k0 = p_k0;
+    this.k1 = p_k1;
+    this.array_content = p_array_content;
+  }
+
+  /**
+   * Returns the strategy replacing a built-in strategy when a table hardens. It has a random seed
+   * and keeps the equality of the built-in strategies: {@code byte[]} keys are hashed and compared
+   * by identity, so two arrays with the same bytes stay two keys.
+   *
+   * @return a new strategy.
+   */
+  static SipHashStrategy hardening() {
+    return new SipHashStrategy(SEEDS.nextLong(), SEEDS.nextLong(), false);
+  }
+
+  @Override
+  public int spread(int h) {
+    State state = new State(k0, k1);
+    state.compress((4L << 56) | (h & 0xffffffffL));
+    return fold(state.finish());
+  }
+
+  @Override
+  public int hash(Object key) {
+    if (key instanceof String) {
+      return fold(sipChars((String) key));
+    } else if (key instanceof byte[] && array_content) {
+      byte[] bytes = (byte[]) key;
+      return fold(sipBytes(bytes, 0, bytes.length));
+    } else if (key instanceof ByteKey) {
+      byte[] bytes = ((ByteKey) key).bytes;
+      return fold(sipBytes(bytes, 0, bytes.length));
+    }
+    return spread(key.hashCode());
+  }
+
+  @Override
+  public long hash64(Object key) {
+    if (key instanceof String) {
+      return sipChars((String) key);
+    } else if (key instanceof byte[] && array_content) {
+      byte[] bytes = (byte[]) key;
+      return sipBytes(bytes, 0, bytes.length);
+    } else if (key instanceof ByteKey) {
+      byte[] bytes = ((ByteKey) key).bytes;
+      return sipBytes(bytes, 0, bytes.length);
+    }
+    State state = new State(k0, k1);
+    if (key instanceof Long) {
+      state.compress((Long) key);
+      state.compress(8L << 56);
+    } else {
+      state.compress((4L << 56) | (key.hashCode() & 0xffffffffL));
+    }
+    return state.finish();
+  }
+
+  @Override
+  public int hashChars(CharSequence chars) {
+    return fold(sipChars(chars));
+  }
+
+  @Override
+  public int hashBytes(byte[] b, int off, int len) {
+    return fold(sipBytes(b, off, len));
+  }
+
+  @Override
+  public int hashBytes(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return hashBytes(
+          buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    return fold(sipBytes(buffer, buffer.position(), buffer.remaining()));
+  }
+
+  @Override
+  public boolean equivalent(Object key, Object stored) {
+    if (array_content && key instanceof byte[] && stored instanceof byte[]) {
+      return Arrays.equals((byte[]) key, (byte[]) stored);
+    }
+    return key == stored || key.equals(stored);
+  }
+
+  @Override
+  public boolean equivalentChars(CharSequence chars, Object stored) {
+    return stored instanceof String && ((String) stored).contentEquals(chars);
+  }
+
+  @Override
+  public boolean equivalentBytes(byte[] b, int off, int len, Object stored) {
+    if (!array_content) {
+      return stored instanceof ByteKey && ((ByteKey) stored).contentEquals(b, off, len);
+    }
+    return ByteKey.matches(stored, b, off, len);
+  }
+
+  @Override
+  public boolean equivalentBytes(ByteBuffer buffer, Object stored) {
+    if (!array_content) {
+      return stored instanceof ByteKey && ((ByteKey) stored).contentEquals(buffer);
+    }
+    return ByteKey.matches(stored, buffer);
+  }
+
+  /**
+   * Returns the SipHash-1-3 of the UTF-16LE bytes of a char sequence.
+   *
+   * @param s the chars to be hashed.
+   * @return the 64 bit hash.
+   */
+  long sipChars(CharSequence s) {
+    State state = new State(k0, k1);
+    int len = s.length();
+    int end = len & ~3;
+    int i = 0;
+    for (; i < end; i += 4) {
+      state.compress(
+          s.charAt(i)
+              | ((long) s.charAt(i + 1) << 16)
+              | ((long) s.charAt(i + 2) << 32)
+              | ((long) s.charAt(i + 3) << 48));
+    }
+    long m = ((long) (len << 1)) << 56;
+    for (int shift = 0; i < len; ++i, shift += 16) {
+      m |= (long) s.charAt(i) << shift;
+    }
+    state.compress(m);
+    return state.finish();
+  }
+
+  /**
+   * Returns the SipHash-1-3 of a range of bytes.
+   *
+   * @param b the bytes to be hashed.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @return the 64 bit hash.
+   */
+  long sipBytes(byte[] b, int off, int len) {
+    State state = new State(k0, k1);
+    int end = off + (len & ~7);
+    int i = off;
+    for (; i < end; i += 8) {
+      state.compress(
+          (b[i] & 0xffL)
+              | ((b[i + 1] & 0xffL) << 8)
+              | ((b[i + 2] & 0xffL) << 16)
+              | ((b[i + 3] & 0xffL) << 24)
+              | ((b[i + 4] & 0xffL) << 32)
+              | ((b[i + 5] & 0xffL) << 40)
+              | ((b[i + 6] & 0xffL) << 48)
+              | ((b[i + 7] & 0xffL) << 56));
+    }
+    long m = ((long) len) << 56;
+    for (int shift = 0; i < off + len; ++i, shift += 8) {
+      m |= (b[i] & 0xffL) << shift;
+    }
+    state.compress(m);
+    return state.finish();
+  }
+
+  /**
+   * Returns the SipHash-1-3 of a range of a buffer, using absolute reads.
+   *
+   * @param b the buffer to be hashed.
+   * @param off the first byte.
+   * @param len the number of bytes.
+   * @return the 64 bit hash.
+   */
+  long sipBytes(ByteBuffer b, int off, int len) {
+    State state = new State(k0, k1);
+    int end = off + (len & ~7);
+    int i = off;
+    for (; i < end; i += 8) {
+      long m = 0;
+      for (int j = 7; j >= 0; --j) {
+        m = (m << 8) | (b.get(i + j) & 0xffL);
+      }
+      state.compress(m);
+    }
+    long m = ((long) len) << 56;
+    for (int shift = 0; i < off + len; ++i, shift += 8) {
+      m |= (b.get(i) & 0xffL) << shift;
+    }
+    state.compress(m);
+    return state.finish();
+  }
+
+  /** The four words of a SipHash-1-3 computation, it does not escape the hash methods. */
+  private static final class State {
+    private long v0;
+    private long v1;
+    private long v2;
+    private long v3;
+
+    State(long k0, long k1) {
+      v0 = k0 ^ 0x736f6d6570736575L;
+      v1 = k1 ^ 0x646f72616e646f6dL;
+      v2 = k0 ^ 0x6c7967656e657261L;
+      v3 = k1 ^ 0x7465646279746573L;
+    }
+
+    /** Absorbs a word of the message with one compression round. */
+    void compress(long m) {
+      v3 ^= m;
+      sipRound();
+      v0 ^= m;
+    }
+
+    /**
+     * The three SipHash finalization rounds.
+     *
+     * @return the 64 bit hash.
+     */
+    long finish() {
+      v2 ^= 0xff;
+      sipRound();
+      sipRound();
+      sipRound();
+      return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    private void sipRound() {
+      v0 += v1;
+      v1 = Long.rotateLeft(v1, 13) ^ v0;
+      v0 = Long.rotateLeft(v0, 32);
+      v2 += v3;
+      v3 = Long.rotateLeft(v3, 16) ^ v2;
+      v0 += v3;
+      v3 = Long.rotateLeft(v3, 21) ^ v0;
+      v2 += v1;
+      v1 = Long.rotateLeft(v1, 17) ^ v2;
+      v2 = Long.rotateLeft(v2, 32);
+    }
+  }
+
+  private static int fold(long h) {
+    return (int) (h ^ (h >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    return "SIPHASH_1_3";
+  }
+}
@@ -0,0 +1,446 @@
+package structures;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash table with weakly referenced keys, based on {@link HashTableList}.
+ *
+ * <p>The nodes hold their key in a {@link WeakReference}, an entry does not keep its key alive.
+ * When the garbage collector clears a key its node is put in a {@link ReferenceQueue}, which is
+ * drained at the start of every operation, so the dead nodes are unlinked a few at a time without
+ * a sweep of the table. The cost of a drain is the number of nodes collected since the last one.
+ *
+ * <p>The values may also be held in a {@link SoftReference}, which the collector clears only under
+ * memory pressure. A node whose value was cleared is unlinked as a node whose key was cleared.
+ * Otherwise the values are strongly referenced, a value must not refer to its own key or the entry
+ * is never collected.
+ *
+ * <p>The keys are hashed and compared with the table {@link HashStrategy}, an entry whose key was
+ * collected cannot be found again, so the keys should have a value equality only when an equal key
+ * cannot be built after the original one is gone.
+ *
+ * @see HashTableList
+ * @see java.util.WeakHashMap
+ * @author André Gabriel
+ */
+public class WeakHashTableList<K, V> implements Dictionary<K, V> {
+
+  /** The default initial capacity - MUST be a power of two. */
+  static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  /** The maximum capacity - MUST be a power of two. */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** The load factor. */
+  static final float DEFAULT_LOAD_FACTOR = 0.75f; // 75%
+
+  /**
+   * The chain length, plus one per bit of capacity, at which a table using a built-in strategy
+   * switches to a seeded hash.
+   */
+  static final int CHAIN_LIMIT = 8;
+
+  /** The number of entries contained in this map, the collected ones not yet drained included. */
+  private int size;
+
+  /**
+   * A node of a chain, the weak reference to its key.
+   *
+   * @param <V> the value class type.
+   */
+  static final class Node<V> extends WeakReference<Object> {
+    int hash;
+
+    /** The value, a {@link SoftValue} when the table holds soft values. */
+    Object value;
+
+    Node<V> next;
+
+    Node(Object p_key, int p_hash, ReferenceQueue<Object> p_queue, Node<V> p_next) {
+      super(p_key, p_queue);
+      this.hash = p_hash;
+      this.next = p_next;
+    }
+  }
+
+  /**
+   * A value softly referenced, which knows its node to unlink it once collected.
+   *
+   * @param <V> the value class type.
+   */
+  static final class SoftValue<V> extends SoftReference<Object> {
+    final Node<V> node;
+
+    SoftValue(Object p_value, Node<V> p_node, ReferenceQueue<Object> p_queue) {
+      super(p_value, p_queue);
+      this.node = p_node;
+    }
+  }
+
+  /** The queue of the collected keys and values. */
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+  /** The internal table. */
+  private Node<V>[] table;
+
+  /** The next size value at which to resize (capacity * load factor). */
+  private int threshold;
+  /** The load factor for the hash table. */
+  private final float load_factor;
+  /** {@code true} if the values are softly referenced. */
+  private final boolean soft_values;
+  /** The strategy used to hash and compare the keys. */
+  private HashStrategy strategy;
+
+  /** The number of entries unlinked because a key or value was collected. */
+  private long expunged;
+
+  public WeakHashTableList(
+      int initial_capacity, float p_load_factor, boolean p_soft_values, HashStrategy p_strategy) {
+    if (initial_capacity < 0) {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initial_capacity);
+    }
+    if (initial_capacity > MAXIMUM_CAPACITY) {
+      initial_capacity = MAXIMUM_CAPACITY;
+    }
+    if (p_load_factor <= 0 || Float.isNaN(p_load_factor)) {
+      throw new IllegalArgumentException("Illegal load factor: " + p_load_factor);
+    }
+    if (p_strategy == null) {
+      throw new NullPointerException("Illegal hash strategy");
+    }
+    this.load_factor = p_load_factor;
+    this.soft_values = p_soft_values;
+    this.strategy = p_strategy;
+    allocate(Math.max(1, Integer.highestOneBit(Math.max(1, initial_capacity - 1)) << 1));
+  }
+
+  public WeakHashTableList(int initial_capacity, float p_load_factor, boolean p_soft_values) {
+    this(initial_capacity, p_load_factor, p_soft_values, HashStrategies.XOR_SHIFT);
+  }
+
+  public WeakHashTableList(boolean p_soft_values) {
+    this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, p_soft_values);
+  }
+
+  public WeakHashTableList() {
+    this(false);
+  }
+
+  /** @return the strategy used to hash and compare the keys. */
+  @Override
+  public HashStrategy hashStrategy() {
+    return strategy;
+  }
+
+  /** @return {@code true} if the values are softly referenced. */
+  public boolean softValues() {
+    return soft_values;
+  }
+
+  /** @return the number of entries unlinked because a key or value was collected. */
+  public long expungedCount() {
+    return expunged;
+  }
+
+  /** @return the actual capacity of table. */
+  public int capacity() {
+    return table.length;
+  }
+
+  /**
+   * Returns the number of entries, after the collected ones are unlinked. An entry may still be
+   * collected right after the call.
+   */
+  @Override
+  public int size() {
+    expungeStaleEntries();
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return getNode(key) != null;
+  }
+
+  @Override
+  public V get(K key) {
+    Node<V> node = getNode(key);
+    return node == null ? null : valueOf(node);
+  }
+
+  @Override
+  public V insert(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    expungeStaleEntries();
+    Node<V>[] tab = table;
+    int hash = strategy.hash(key);
+    int index = (tab.length - 1) & hash;
+    Node<V> last = null;
+    int bin_count = 0;
+    for (Node<V> current = tab[index]; current != null; current = current.next) {
+      if (current.hash == hash && matches(key, current)) {
+        V old_value = valueOf(current);
+        setValue(current, value);
+        return old_value;
+      }
+      last = current;
+      ++bin_count;
+    }
+    Node<V> node = new Node<>(key, hash, queue, null);
+    setValue(node, value);
+    if (last == null) {
+      tab[index] = node;
+    } else {
+      last.next = node;
+    }
+    if (bin_count >= CHAIN_LIMIT + Integer.numberOfTrailingZeros(tab.length)) {
+      harden();
+    }
+    if (++size > threshold) {
+      resize();
+    }
+    return null;
+  }
+
+  @Override
+  public V remove(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    expungeStaleEntries();
+    Node<V>[] tab = table;
+    int hash = strategy.hash(key);
+    int index = (tab.length - 1) & hash;
+    Node<V> previous = null;
+    for (Node<V> current = tab[index]; current != null; current = current.next) {
+      if (current.hash == hash && matches(key, current)) {
+        if (previous == null) {
+          tab[index] = current.next;
+        } else {
+          previous.next = current.next;
+        }
+        --size;
+        V old_value = valueOf(current);
+        // An unlinked node needs not be queued when its key dies.
+        current.clear();
+        current.value = null;
+        return old_value;
+      }
+      previous = current;
+    }
+    return null;
+  }
+
+  /** Removes every entry, keeping the capacity. */
+  public void clear() {
+    // The references queued so far belong to nodes which are no longer in the table.
+    while (queue.poll() != null) {}
+    Node<V>[] tab = table;
+    for (int i = 0; i < tab.length; ++i) {
+      tab[i] = null;
+    }
+    size = 0;
+  }
+
+  /**
+   * Performs an action for each entry whose key and value are alive. The entries collected during
+   * the iteration may be skipped or not.
+   */
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    Objects.requireNonNull(action);
+    expungeStaleEntries();
+    for (Node<V> bin : table) {
+      for (Node<V> current = bin; current != null; current = current.next) {
+        // The strong references keep the entry alive during the action.
+        @SuppressWarnings("unchecked")
+        K key = (K) current.get();
+        Object value = current.value;
+        V strong = unwrap(value);
+        if (key != null && (strong != null || !(value instanceof SoftValue))) {
+          action.accept(key, strong);
+        }
+      }
+    }
+  }
+
+  /**
+   * Unlinks every node whose key or value was collected. Each queued reference is found in the
+   * bin of its hash, so the cost does not depend on the capacity.
+   */
+  private void expungeStaleEntries() {
+    for (Reference<?> reference; (reference = queue.poll()) != null; ) {
+      @SuppressWarnings("unchecked")
+      Node<V> node =
+          reference instanceof SoftValue ? ((SoftValue<V>) reference).node : (Node<V>) reference;
+      if (reference != node && node.value != reference) {
+        // The value was replaced after it was collected, the node is alive.
+        continue;
+      }
+      Node<V>[] tab = table;
+      int index = (tab.length - 1) & node.hash;
+      Node<V> previous = null;
+      for (Node<V> current = tab[index]; current != null; current = current.next) {
+        if (current == node) {
+          if (previous == null) {
+            tab[index] = current.next;
+          } else {
+            previous.next = current.next;
+          }
+          current.clear();
+          current.value = null;
+          --size;
+          ++expunged;
+          break;
+        }
+        previous = current;
+      }
+    }
+  }
+
+  private Node<V> getNode(Object key) {
+    if (key == null) {
+      throw new NullPointerException("Illegal key value");
+    }
+    expungeStaleEntries();
+    Node<V>[] tab = table;
+    int hash = strategy.hash(key);
+    for (Node<V> current = tab[(tab.length - 1) & hash]; current != null; current = current.next) {
+      if (current.hash == hash && matches(key, current)) {
+        // A node whose soft value was collected is as good as removed.
+        return current.value instanceof SoftValue && valueOf(current) == null ? null : current;
+      }
+    }
+    return null;
+  }
+
+  private boolean matches(Object key, Node<V> node) {
+    Object current = node.get();
+    return current != null && strategy.equivalent(key, current);
+  }
+
+  private void setValue(Node<V> node, V value) {
+    if (node.value instanceof SoftValue) {
+      ((SoftValue<?>) node.value).clear();
+    }
+    node.value = soft_values && value != null ? new SoftValue<>(value, node, queue) : value;
+  }
+
+  private V valueOf(Node<V> node) {
+    return unwrap(node.value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> V unwrap(Object value) {
+    return (V) (value instanceof SoftValue ? ((SoftValue<?>) value).get() : value);
+  }
+
+  /**
+   * Allocates an empty table.
+   *
+   * @param cap the capacity - MUST be a power of two.
+   */
+  @SuppressWarnings("unchecked")
+  private Node<V>[] allocate(int cap) {
+    table = (Node<V>[]) new Node[cap];
+    threshold = cap >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (cap * load_factor);
+    return table;
+  }
+
+  private void resize() {
+    Node<V>[] old_table = table;
+    int old_cap = old_table.length;
+    if (old_cap >= MAXIMUM_CAPACITY) {
+      threshold = Integer.MAX_VALUE;
+      return;
+    }
+    Node<V>[] tab = allocate(old_cap << 1);
+    for (int i = 0; i < old_cap; ++i) {
+      // Split the bin in the nodes staying at i and the ones moving to i + old_cap.
+      Node<V> low_head = null, low_tail = null;
+      Node<V> hi_head = null, hi_tail = null;
+      for (Node<V> current = old_table[i], next; current != null; current = next) {
+        next = current.next;
+        current.next = null;
+        if ((current.hash & old_cap) == 0) {
+          if (low_tail == null) {
+            low_head = current;
+          } else {
+            low_tail.next = current;
+          }
+          low_tail = current;
+        } else {
+          if (hi_tail == null) {
+            hi_head = current;
+          } else {
+            hi_tail.next = current;
+          }
+          hi_tail = current;
+        }
+      }
+      tab[i] = low_head;
+      tab[i + old_cap] = hi_head;
+    }
+  }
+
+  /**
+   * Switches the table to a seeded hash when a chain gets too long.
+   *
+   * <p>Only tables using a built-in strategy switch. The switch happens once, every node is
+   * rehashed in place and the nodes whose key was collected are dropped, they cannot be hashed
+   * again.
+   */
+  private void harden() {
+    if (!(strategy instanceof HashStrategies)) {
+      return;
+    }
+    strategy = SipHashStrategy.hardening();
+    Node<V>[] tab = table;
+    int n = tab.length;
+    Node<V> all = null;
+    for (int i = 0; i < n; ++i) {
+      Node<V> current = tab[i];
+      tab[i] = null;
+      while (current != null) {
+        Node<V> next = current.next;
+        current.next = all;
+        all = current;
+        current = next;
+      }
+    }
+    while (all != null) {
+      Node<V> next = all.next;
+      Object key = all.get();
+      if (key == null) {
+        all.value = null;
+        --size;
+        ++expunged;
+      } else {
+        all.hash = strategy.hash(key);
+        int index = (n - 1) & all.hash;
+        all.next = tab[index];
+        tab[index] = all;
+      }
+      all = next;
+    }
+  }
+
+  /** Prints the map. */
+  public void print() {
+    for (int i = 0; i < table.length; i++) {
+      System.out.printf("%d -> ", i);
+      for (Node<V> cursor = table[i]; cursor != null; cursor = cursor.next) {
+        System.out.printf("{ %s, %s } -> ", cursor.get(), valueOf(cursor));
+      }
+      System.out.print("null\n");
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class CacheServerTest {
+
+  private static byte[] command(String... parts) {
+    byte[][] args = new byte[parts.length - 1][];
+    for (int i = 1; i < parts.length; ++i) {
+      args[i - 1] = parts[i].getBytes(StandardCharsets.UTF_8);
+    }
+    return LoadGenerator.command(parts[0], args);
+  }
+
+  /** Reads until the expected number of bytes arrived. */
+  private static String read(InputStream in, int length) throws IOException {
+    byte[] b = in.readNBytes(length);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void commandsAreAnswered() throws IOException {
+    try (CacheServer server = new CacheServer(0);
+        Socket socket = new Socket("localhost", server.port())) {
+      OutputStream out = socket.getOutputStream();
+      InputStream in = socket.getInputStream();
+
+      out.write(command("PING"));
+      assertEquals("+PONG\r\n", read(in, 7), "CacheServer must answer PING");
+      out.write(command("GET", "a"));
+      assertEquals("$-1\r\n", read(in, 5), "CacheServer must answer nil for a missing key");
+      out.write(command("set", "a", "hello"));
+      assertEquals("+OK\r\n", read(in, 5), "CacheServer must accept SET in lower case");
+      out.write(command("GET", "a"));
+      assertEquals("$5\r\nhello\r\n", read(in, 11), "CacheServer must answer the value");
+      out.write(command("DEL", "a", "b"));
+      assertEquals(":1\r\n", read(in, 4), "CacheServer must count the removed keys");
+      out.write(command("FLUSHALL"));
+      assertTrue(read(in, 5).startsWith("-ERR"), "CacheServer must reject unknown commands");
+      assertEquals(0, server.size(), "CacheServer must be empty");
+    }
+  }
+
+  @Test
+  void pipelinedCommandsAreAnsweredInOrder() throws IOException {
+    try (CacheServer server = new CacheServer(0);
+        Socket socket = new Socket("localhost", server.port())) {
+      ByteArrayOutputStream batch = new ByteArrayOutputStream();
+      for (int i = 0; i < 1000; ++i) {
+        batch.write(command("SET", "k" + i, "v" + i));
+      }
+      batch.write(command("MGET", "k0", "missing", "k999"));
+      // Send the batch split in the middle of a command.
+      byte[] bytes = batch.toByteArray();
+      OutputStream out = socket.getOutputStream();
+      out.write(bytes, 0, 7);
+      out.flush();
+      out.write(bytes, 7, bytes.length - 7);
+
+      InputStream in = socket.getInputStream();
+      for (int i = 0; i < 1000; ++i) {
+        assertEquals("+OK\r\n", read(in, 5), "CacheServer must answer every SET");
+      }
+      String expected = "*3\r\n$2\r\nv0\r\n$-1\r\n$4\r\nv999\r\n";
+      assertEquals(expected, read(in, expected.length()), "CacheServer must answer MGET");
+      assertEquals(1000, server.size(), "CacheServer must keep every key");
+    }
+  }
+
+  @Test
+  void repliesLargerThanTheReplyBufferKeepTheirOrder() throws IOException {
+    try (CacheServer server = new CacheServer(0);
+        Socket socket = new Socket("localhost", server.port())) {
+      // A small, a wrapped and an uncached length.
+      String[] values = {
+        "v", "w".repeat(CacheServer.SMALL_VALUE + 1), "z".repeat(CacheServer.CACHED_LENGTHS)
+      };
+      ByteArrayOutputStream batch = new ByteArrayOutputStream();
+      StringBuilder expected = new StringBuilder();
+      for (int i = 0; i < values.length; ++i) {
+        batch.write(command("SET", "k" + i, values[i]));
+        expected.append("+OK\r\n");
+      }
+      for (int i = 0; i < 200; ++i) {
+        String value = values[i % values.length];
+        batch.write(command("GET", "k" + i % values.length));
+        expected.append('$').append(value.length()).append("\r\n").append(value).append("\r\n");
+      }
+      socket.getOutputStream().write(batch.toByteArray());
+      String reply = read(socket.getInputStream(), expected.length());
+      assertEquals(expected.toString(), reply, "CacheServer must answer every GET in order");
+    }
+  }
+
+  @Test
+  void largeValuesGrowTheBuffer() throws IOException {
+    try (CacheServer server = new CacheServer(0);
+        Socket socket = new Socket("localhost", server.port())) {
+      String value = "x".repeat(CacheServer.BUFFER_SIZE * 5);
+      OutputStream out = socket.getOutputStream();
+      InputStream in = socket.getInputStream();
+      out.write(command("SET", "big", value));
+      assertEquals("+OK\r\n", read(in, 5), "CacheServer must accept large values");
+      out.write(command("GET", "big"));
+      String expected = "$" + value.length() + "\r\n" + value + "\r\n";
+      assertEquals(expected, read(in, expected.length()), "CacheServer must answer large values");
+    }
+  }
+
+  @Test
+  void loadGeneratorRunsAgainstTheServer() throws IOException, InterruptedException {
+    try (CacheServer server = new CacheServer(0)) {
+      LoadGenerator generator =
+          new LoadGenerator(
+              new InetSocketAddress("localhost", server.port()), 4, 2000, 16, 500, 32, 0.5);
+      LoadGenerator.Report report = generator.run();
+      assertEquals(8000, report.requests, "LoadGenerator must send every request");
+      assertEquals(0, report.errors, "CacheServer must not answer errors");
+      assertTrue(server.size() > 0 && server.size() <= 500, "CacheServer must keep the keys");
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import structures.Dictionary;
+import structures.HashTableLinear;
+import structures.HashTableList;
+
+class ReplicatedDictionaryTest {
+
+  private static ReplicaDictionary<String, Integer> follow(
+      ReplicatedDictionary<String, Integer> primary) throws IOException {
+    return new ReplicaDictionary<>(
+        new InetSocketAddress("localhost", primary.port()),
+        HashTableLinear::new,
+        Codec.STRING,
+        Codec.INTEGER);
+  }
+
+  private static void assertSameEntries(
+      Dictionary<String, Integer> expected, Dictionary<String, Integer> actual) {
+    assertEquals(expected.size(), actual.size(), "ReplicaDictionary must have every key");
+    expected.forEach(
+        (key, value) ->
+            assertEquals(value, actual.get(key), "ReplicaDictionary must have the value"));
+  }
+
+  @Test
+  void followerBootstrapsFromSnapshotThenFollowsChanges()
+      throws IOException, InterruptedException {
+    try (ReplicatedDictionary<String, Integer> primary =
+        new ReplicatedDictionary<>(new HashTableList<>(), Codec.STRING, Codec.INTEGER, 0)) {
+      for (int i = 0; i < 10_000; ++i) {
+        primary.insert("k" + i, i);
+      }
+      try (ReplicaDictionary<String, Integer> replica = follow(primary)) {
+        assertTrue(
+            replica.awaitSequence(primary.sequence(), 10, TimeUnit.SECONDS),
+            "ReplicaDictionary must load the snapshot");
+        assertSameEntries(primary, replica);
+
+        for (int i = 0; i < 10_000; i += 2) {
+          primary.remove("k" + i);
+        }
+        primary.insert("null", null);
+        primary.merge("k1", 100, Integer::sum);
+        primary.computeIfAbsent("new", key -> -7);
+        primary.remove("missing");
+        assertTrue(
+            replica.awaitSequence(primary.sequence(), 10, TimeUnit.SECONDS),
+            "ReplicaDictionary must apply the changes");
+        assertSameEntries(primary, replica);
+        assertTrue(replica.containsKey("null"), "ReplicaDictionary must keep null values");
+        assertEquals(101, replica.get("k1"), "ReplicaDictionary must apply merges");
+        assertEquals(primary.sequence(), replica.sequence(), "Sequences must match");
+      }
+    }
+  }
+
+  @Test
+  void followersSeeConcurrentWrites() throws IOException, InterruptedException {
+    try (ReplicatedDictionary<String, Integer> primary =
+        new ReplicatedDictionary<>(new HashTableLinear<>(), Codec.STRING, Codec.INTEGER, 0)) {
+      Thread writer =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 50_000; ++i) {
+                  primary.insert("k" + (i % 5000), i);
+                  if (i % 7 == 0) {
+                    primary.remove("k" + (i % 3000));
+                  }
+                }
+              });
+      writer.start();
+      try (ReplicaDictionary<String, Integer> first = follow(primary);
+          ReplicaDictionary<String, Integer> second = follow(primary)) {
+        writer.join();
+        long sequence = primary.sequence();
+        assertTrue(
+            first.awaitSequence(sequence, 10, TimeUnit.SECONDS),
+            "ReplicaDictionary must catch up");
+        assertTrue(
+            second.awaitSequence(sequence, 10, TimeUnit.SECONDS),
+            "ReplicaDictionary must catch up");
+        assertSameEntries(primary, first);
+        assertSameEntries(primary, second);
+        assertEquals(2, primary.followerCount(), "ReplicatedDictionary must count the followers");
+      }
+    }
+  }
+
+  @Test
+  void followerIsReadOnly() throws IOException {
+    try (ReplicatedDictionary<String, Integer> primary =
+            new ReplicatedDictionary<>(new HashTableList<>(), Codec.STRING, Codec.INTEGER, 0);
+        ReplicaDictionary<String, Integer> replica = follow(primary)) {
+      assertThrows(UnsupportedOperationException.class, () -> replica.insert("a", 1));
+      assertThrows(UnsupportedOperationException.class, () -> replica.remove("a"));
+      assertThrows(UnsupportedOperationException.class, () -> replica.putIfAbsent("a", 1));
+    }
+  }
+
+  @Test
+  void followerStopsWhenPrimaryCloses() throws IOException, InterruptedException {
+    ReplicatedDictionary<String, Integer> primary =
+        new ReplicatedDictionary<>(new HashTableList<>(), Codec.STRING, Codec.INTEGER, 0);
+    primary.insert("a", 1);
+    try (ReplicaDictionary<String, Integer> replica = follow(primary)) {
+      assertTrue(replica.awaitSequence(1, 10, TimeUnit.SECONDS), "ReplicaDictionary must load");
+      primary.close();
+      assertFalse(
+          replica.awaitSequence(2, 10, TimeUnit.SECONDS), "ReplicaDictionary must not wait");
+      assertTrue(replica.isDisconnected(), "ReplicaDictionary must see the end of the stream");
+      assertEquals(1, replica.get("a"), "ReplicaDictionary must keep its entries");
+    }
+  }
+
+  @Test
+  void codecsRoundTrip() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    int[] ints = {0, 1, -1, 63, -64, 300, Integer.MAX_VALUE, Integer.MIN_VALUE};
+    for (int v : ints) {
+      Codec.INTEGER.write(v, out);
+    }
+    Codec.STRING.write("é\u0000ü", out);
+    long[] longs = {0, -1, 300, Long.MAX_VALUE, Long.MIN_VALUE};
+    for (long v : longs) {
+      Codec.LONG.write(v, out);
+    }
+    int small = out.size();
+    Codec.LONG.write(-64L, out);
+    assertEquals(1, out.size() - small, "Codec must write a small long in one byte");
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    for (int v : ints) {
+      assertEquals(v, Codec.INTEGER.read(in), "Codec must read the integer back");
+    }
+    assertEquals("é\u0000ü", Codec.STRING.read(in), "Codec must read the string back");
+    for (long v : longs) {
+      assertEquals(v, Codec.LONG.read(in), "Codec must read the long back");
+    }
+    assertEquals(-64L, Codec.LONG.read(in), "Codec must read the long back");
+    assertEquals(0, in.available(), "Codec must read every byte");
+  }
+}
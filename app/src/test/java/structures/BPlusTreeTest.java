@@ -0,0 +1,127 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class BPlusTreeTest {
+
+  private static final List<Supplier<OrderedDictionary<Integer, Integer>>> KINDS =
+      List.of(
+          () -> new BPlusTree<>(4), () -> new BPlusTree<>(5), BPlusTree::new, RedBlackTree::new);
+
+  private static List<Integer> keys(OrderedDictionary<Integer, Integer> map, int lo, int hi) {
+    List<Integer> keys = new ArrayList<>();
+    map.forEachInRange(lo, hi, (key, value) -> keys.add(key));
+    return keys;
+  }
+
+  @Test
+  void shouldFollowATreeMap() {
+    for (Supplier<OrderedDictionary<Integer, Integer>> kind : KINDS) {
+      OrderedDictionary<Integer, Integer> classUnderTest = kind.get();
+      TreeMap<Integer, Integer> expected = new TreeMap<>();
+      Random random = new Random(42);
+      for (int i = 0; i < 100_000; ++i) {
+        int key = random.nextInt(3000);
+        if (random.nextInt(5) < 2) {
+          assertEquals(expected.remove(key), classUnderTest.remove(key), "remove must agree");
+        } else {
+          assertEquals(expected.put(key, i), classUnderTest.insert(key, i), "insert must agree");
+        }
+        assertEquals(expected.size(), classUnderTest.size(), "Tree must count every key");
+      }
+      for (int key = -1; key <= 3000; ++key) {
+        assertEquals(expected.get(key), classUnderTest.get(key), "Tree must map " + key);
+        assertEquals(expected.containsKey(key), classUnderTest.containsKey(key));
+      }
+      Map<Integer, Integer> visited = new TreeMap<>();
+      List<Integer> order = new ArrayList<>();
+      classUnderTest.forEach(
+          (key, value) -> {
+            visited.put(key, value);
+            order.add(key);
+          });
+      assertEquals(expected, visited, "forEach must visit every entry");
+      assertEquals(new ArrayList<>(expected.keySet()), order, "forEach must follow the keys");
+    }
+  }
+
+  @Test
+  void shouldRemoveEveryKey() {
+    for (Supplier<OrderedDictionary<Integer, Integer>> kind : KINDS) {
+      OrderedDictionary<Integer, Integer> classUnderTest = kind.get();
+      for (int i = 0; i < 5000; ++i) {
+        classUnderTest.insert(i, null);
+      }
+      assertEquals(5000, classUnderTest.size(), "Tree must keep null values");
+      assertTrue(classUnderTest.containsKey(4999), "Tree must keep null values");
+      for (int i = 4999; i >= 0; i -= 2) {
+        classUnderTest.remove(i);
+      }
+      for (int i = 0; i < 5000; i += 2) {
+        classUnderTest.remove(i);
+      }
+      assertEquals(0, classUnderTest.size(), "Tree must be empty");
+      assertFalse(classUnderTest.containsKey(0), "Tree must be empty");
+      assertEquals(List.of(), keys(classUnderTest, 0, 5000), "Tree must be empty");
+      classUnderTest.insert(1, 1);
+      assertEquals(List.of(1), keys(classUnderTest, 0, 5000), "Tree must grow again");
+    }
+  }
+
+  @Test
+  void shouldAnswerOrderedQueries() {
+    for (Supplier<OrderedDictionary<Integer, Integer>> kind : KINDS) {
+      OrderedDictionary<Integer, Integer> classUnderTest = kind.get();
+      TreeMap<Integer, Integer> expected = new TreeMap<>();
+      Random random = new Random(7);
+      for (int i = 0; i < 20_000; ++i) {
+        int key = random.nextInt(10_000);
+        if (random.nextInt(4) == 0) {
+          classUnderTest.remove(key);
+          expected.remove(key);
+        } else {
+          classUnderTest.insert(key, -key);
+          expected.put(key, -key);
+        }
+      }
+      List<Integer> sorted = new ArrayList<>(expected.keySet());
+      for (int i = 0; i < sorted.size(); ++i) {
+        Dictionary.Entry<Integer, Integer> entry = classUnderTest.select(i);
+        assertEquals(sorted.get(i), entry.getKey(), "select must agree");
+        assertEquals(-sorted.get(i), entry.getValue(), "select must agree");
+        assertEquals(i, classUnderTest.rank(sorted.get(i)), "rank must agree");
+      }
+      for (int i = 0; i < 500; ++i) {
+        int lo = random.nextInt(11_000) - 500;
+        int hi = lo + random.nextInt(3000) - 500;
+        List<Integer> range =
+            lo > hi ? List.of() : new ArrayList<>(expected.subMap(lo, true, hi, true).keySet());
+        assertEquals(range.size(), classUnderTest.countInRange(lo, hi), "countInRange");
+        assertEquals(range, keys(classUnderTest, lo, hi), "forEachInRange must agree");
+        assertEquals(expected.headMap(lo).size(), classUnderTest.rank(lo), "rank must agree");
+      }
+      classUnderTest.select(0).setValue(1);
+      assertEquals(1, classUnderTest.get(sorted.get(0)), "select must set the value");
+      assertThrows(IndexOutOfBoundsException.class, () -> classUnderTest.select(sorted.size()));
+      assertThrows(NullPointerException.class, () -> classUnderTest.countInRange(null, 1));
+    }
+  }
+
+  @Test
+  void shouldStayShallow() {
+    BPlusTree<Integer, Integer> classUnderTest = new BPlusTree<>(64);
+    for (int i = 0; i < 1_000_000; ++i) {
+      classUnderTest.insert(i, i);
+    }
+    assertTrue(classUnderTest.height() <= 5, "Tree must be at most log(n) / log(32) high");
+    assertThrows(IllegalArgumentException.class, () -> new BPlusTree<Integer, Integer>(3));
+  }
+}
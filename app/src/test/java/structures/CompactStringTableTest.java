@@ -0,0 +1,117 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompactStringTableTest {
+
+  private static final String[] WORDS = {
+    "", "a", "?", "\uD800", "\uDC00", "é", "ação", "日本語", "😀", "\uDE00\uD83D",
+    "x\u0000y"
+  };
+
+  private static String randomKey(Random random) {
+    return WORDS[random.nextInt(WORDS.length)] + random.nextInt(3000);
+  }
+
+  @Test
+  void shouldFollowAHashMap() {
+    CompactStringTable classUnderTest = new CompactStringTable();
+    Map<String, String> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 200_000; ++i) {
+      String key = randomKey(random);
+      switch (random.nextInt(5)) {
+        case 0:
+          assertEquals(expected.remove(key), classUnderTest.remove(key), "remove must agree");
+          break;
+        case 1:
+          assertEquals(expected.put(key, null), classUnderTest.insert(key, null), "insert null");
+          break;
+        default:
+          String value = WORDS[random.nextInt(WORDS.length)].repeat(random.nextInt(4));
+          assertEquals(expected.put(key, value), classUnderTest.insert(key, value), "insert");
+      }
+      assertEquals(expected.size(), classUnderTest.size(), "HashTable must count every key");
+    }
+    for (String word : WORDS) {
+      for (int i = -1; i <= 3000; ++i) {
+        String key = word + i;
+        assertEquals(expected.get(key), classUnderTest.get(key), "HashTable must map " + key);
+        assertEquals(expected.containsKey(key), classUnderTest.containsKey(key));
+        assertEquals(expected.get(key), classUnderTest.getChars(new StringBuilder(key)));
+      }
+    }
+    Map<String, String> visited = new HashMap<>();
+    classUnderTest.forEach(visited::put);
+    assertEquals(expected, visited, "forEach must visit every entry");
+  }
+
+  @Test
+  void shouldKeepEveryString() {
+    CompactStringTable classUnderTest = new CompactStringTable();
+    for (String word : WORDS) {
+      classUnderTest.insert(word, word);
+    }
+    assertEquals(WORDS.length, classUnderTest.size(), "Unpaired surrogates must not be '?'");
+    for (String word : WORDS) {
+      assertEquals(word, classUnderTest.get(word), "HashTable must keep the chars of " + word);
+    }
+    assertNull(classUnderTest.get("\uD83D"), "HashTable must not match a prefix");
+    assertNull(classUnderTest.remove(new StringBuilder("a")), "Keys are strings");
+    assertThrows(NullPointerException.class, () -> classUnderTest.insert(null, "a"));
+    assertThrows(IllegalArgumentException.class, () -> new CompactStringTable(16, 1f));
+  }
+
+  @Test
+  void shouldCompactTheArena() {
+    CompactStringTable classUnderTest = new CompactStringTable();
+    for (int i = 0; i < 1000; ++i) {
+      classUnderTest.insert("key" + i, "value" + i);
+    }
+    int bytes = classUnderTest.arenaBytes();
+    for (int round = 0; round < 100; ++round) {
+      for (int i = 0; i < 1000; ++i) {
+        classUnderTest.insert("key" + i, "v".repeat(round % 7));
+      }
+      for (int i = 0; i < 1000; i += 2) {
+        classUnderTest.remove("key" + i);
+        classUnderTest.insert("key" + i, "value" + i);
+      }
+    }
+    assertEquals(1000, classUnderTest.size(), "HashTable must be size 1000");
+    assertEquals("value0", classUnderTest.get("key0"), "HashTable must map key0");
+    assertEquals("v", classUnderTest.get("key1"), "HashTable must map key1");
+    assertTrue(
+        classUnderTest.arenaBytes() - classUnderTest.garbageBytes() <= bytes,
+        "The live entries must not take more than the first ones");
+    assertTrue(classUnderTest.arenaBytes() <= 4 * bytes, "The garbage must be compacted");
+    assertTrue(classUnderTest.capacity() <= 2048, "Removed keys must not grow the table");
+    int live = classUnderTest.arenaBytes() - classUnderTest.garbageBytes();
+    classUnderTest.trimToSize();
+    assertEquals(live, classUnderTest.arenaBytes(), "trimToSize must keep the live entries");
+    assertEquals(0, classUnderTest.garbageBytes(), "trimToSize must drop the garbage");
+    assertEquals("value998", classUnderTest.get("key998"), "HashTable must map key998");
+    classUnderTest.insert("key1000", "value1000");
+    assertEquals("value1000", classUnderTest.get("key1000"), "The arena must grow again");
+  }
+
+  @Test
+  void shouldSwitchToSeededHashUnderCollisions() {
+    String[] keys = TestKeys.collidingKeys(10);
+    CompactStringTable classUnderTest = new CompactStringTable();
+    for (String key : keys) {
+      classUnderTest.insert(key, key);
+    }
+    assertTrue(
+        classUnderTest.hashStrategy() instanceof SipHashStrategy,
+        "HashTable must switch to a seeded hash");
+    for (String key : keys) {
+      assertEquals(key, classUnderTest.get(key), "HashTable must keep every key");
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class DictionarySetTest {
+
+  private static final List<Supplier<DictionarySet<Integer>>> KINDS =
+      List.of(HashSetLinear::new, HashSetList::new);
+
+  private static Set<Integer> toSet(DictionarySet<Integer> set) {
+    Set<Integer> keys = new HashSet<>();
+    set.forEach(keys::add);
+    return keys;
+  }
+
+  private static DictionarySet<Integer> setOf(Supplier<DictionarySet<Integer>> kind, int... keys) {
+    DictionarySet<Integer> set = kind.get();
+    for (int key : keys) {
+      set.add(key);
+    }
+    return set;
+  }
+
+  @Test
+  void setsFollowAHashSet() {
+    for (Supplier<DictionarySet<Integer>> kind : KINDS) {
+      DictionarySet<Integer> set = kind.get();
+      Set<Integer> expected = new HashSet<>();
+      Random random = new Random(42);
+      for (int i = 0; i < 50_000; ++i) {
+        int key = random.nextInt(5000);
+        if (random.nextInt(3) == 0) {
+          assertEquals(expected.remove(key), set.remove(key), "remove must agree with HashSet");
+        } else {
+          assertEquals(expected.add(key), set.add(key), "add must agree with HashSet");
+        }
+        assertEquals(expected.size(), set.size(), "size must agree with HashSet");
+      }
+      for (int key = 0; key < 5000; ++key) {
+        assertEquals(expected.contains(key), set.contains(key), "contains must agree");
+      }
+      assertEquals(expected, toSet(set), "forEach must visit every key");
+      assertEquals(expected, toSet(set.copy()), "copy must keep every key");
+      assertThrows(NullPointerException.class, () -> set.add(null));
+    }
+  }
+
+  @Test
+  void setAlgebra() {
+    for (Supplier<DictionarySet<Integer>> kind : KINDS) {
+      DictionarySet<Integer> small = setOf(kind, 1, 2, 3, 4);
+      DictionarySet<Integer> large = setOf(kind, 3, 4, 5, 6, 7, 8);
+      assertEquals(Set.of(1, 2, 3, 4, 5, 6, 7, 8), toSet(small.union(large)), "union");
+      assertEquals(Set.of(1, 2, 3, 4, 5, 6, 7, 8), toSet(large.union(small)), "union");
+      assertEquals(Set.of(3, 4), toSet(small.intersect(large)), "intersect");
+      assertEquals(Set.of(3, 4), toSet(large.intersect(small)), "intersect");
+      assertEquals(Set.of(1, 2), toSet(small.difference(large)), "difference");
+      assertEquals(Set.of(5, 6, 7, 8), toSet(large.difference(small)), "difference");
+      assertEquals(Set.of(1, 2, 3, 4), toSet(small), "Operands must not change");
+      assertEquals(kind.get().getClass(), small.union(large).getClass(), "Kind must be kept");
+    }
+    DictionarySet<Integer> linear = setOf(HashSetLinear::new, 1);
+    DictionarySet<Integer> mixed = linear.union(setOf(HashSetList::new, 2, 3));
+    assertEquals(Set.of(1, 2, 3), toSet(mixed), "union must mix kinds");
+    assertTrue(mixed instanceof HashSetLinear, "union must keep the kind of this set");
+  }
+
+  @Test
+  void shouldSwitchToSeededHashUnderCollisions() {
+    List<DictionarySet<String>> sets = List.of(new HashSetLinear<>(), new HashSetList<>());
+    String[] keys = TestKeys.collidingKeys(10);
+    for (DictionarySet<String> set : sets) {
+      for (String key : keys) {
+        set.add(key);
+      }
+      for (String key : keys) {
+        assertTrue(set.contains(key), "Set must keep every key");
+      }
+    }
+    assertTrue(
+        ((HashSetLinear<String>) sets.get(0)).hashStrategy() instanceof SipHashStrategy,
+        "Set must switch hash");
+    assertTrue(
+        ((HashSetList<String>) sets.get(1)).hashStrategy() instanceof SipHashStrategy,
+        "Set must switch hash");
+  }
+
+  @Test
+  void primitiveSetsFollowAHashSet() {
+    IntHashSet ints = new IntHashSet(1);
+    LongHashSet longs = new LongHashSet(1);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(7);
+    for (int i = 0; i < 100_000; ++i) {
+      int key = random.nextInt(4000) - 2000;
+      long wide = key * 0x100000001L;
+      if (random.nextInt(3) == 0) {
+        boolean removed = expected.remove(wide);
+        assertEquals(removed, ints.remove(key), "IntHashSet remove must agree with HashSet");
+        assertEquals(removed, longs.remove(wide), "LongHashSet remove must agree with HashSet");
+      } else {
+        boolean added = expected.add(wide);
+        assertEquals(added, ints.add(key), "IntHashSet add must agree with HashSet");
+        assertEquals(added, longs.add(wide), "LongHashSet add must agree with HashSet");
+      }
+    }
+    assertEquals(expected.size(), ints.size(), "IntHashSet size must agree with HashSet");
+    assertEquals(expected.size(), longs.size(), "LongHashSet size must agree with HashSet");
+    for (int key = -2000; key < 2000; ++key) {
+      long wide = key * 0x100000001L;
+      assertEquals(expected.contains(wide), ints.contains(key), "IntHashSet contains");
+      assertEquals(expected.contains(wide), longs.contains(wide), "LongHashSet contains");
+    }
+    Set<Long> visited = new HashSet<>();
+    longs.forEach(key -> visited.add(key));
+    assertEquals(expected, visited, "LongHashSet forEach must visit every key");
+    assertEquals(ints.size(), ints.toArray().length, "IntHashSet toArray must hold every key");
+  }
+
+  @Test
+  void primitiveSetAlgebra() {
+    IntHashSet a = new IntHashSet();
+    IntHashSet b = new IntHashSet();
+    for (int i = 0; i < 100; ++i) {
+      a.add(i);
+    }
+    for (int i = 90; i < 1000; ++i) {
+      b.add(i);
+    }
+    assertEquals(1000, a.union(b).size(), "union");
+    assertEquals(10, a.intersect(b).size(), "intersect");
+    assertFalse(a.intersect(b).contains(0), "intersect must drop zero");
+    assertTrue(b.intersect(a).contains(95), "intersect must keep 95");
+    assertEquals(90, a.difference(b).size(), "difference");
+    assertEquals(900, b.difference(a).size(), "difference");
+    assertTrue(a.difference(b).contains(0), "difference must keep zero");
+    LongHashSet c = new LongHashSet();
+    LongHashSet d = new LongHashSet();
+    c.add(Long.MIN_VALUE);
+    c.add(0);
+    d.add(0);
+    assertEquals(1, c.intersect(d).size(), "intersect");
+    assertTrue(c.difference(d).contains(Long.MIN_VALUE), "difference");
+    assertEquals(2, d.union(c).size(), "union");
+  }
+}
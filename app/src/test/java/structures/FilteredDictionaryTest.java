@@ -0,0 +1,94 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FilteredDictionaryTest {
+
+  @Test
+  void missesAreAnsweredByTheFilter() {
+    FilteredDictionary<Integer, Integer> map =
+        new FilteredDictionary<>(new HashTableLinear<>(), new BlockedBloomFilter<>(20_000, 0.01));
+    for (int i = 0; i < 10_000; ++i) {
+      map.insert(i, i);
+    }
+    for (int i = 0; i < 10_000; ++i) {
+      assertEquals(i, map.get(i), "FilteredDictionary must find every key");
+    }
+    map.resetStatistics();
+    for (int i = 10_000; i < 110_000; ++i) {
+      assertFalse(map.containsKey(i), "FilteredDictionary must not find missing keys");
+    }
+    assertEquals(100_000, map.lookups(), "FilteredDictionary must count the lookups");
+    assertEquals(
+        100_000, map.filteredLookups() + map.falsePositives(), "Every miss must be counted");
+    assertTrue(map.falsePositiveRate() < 0.02, "Rate must be low: " + map.falsePositiveRate());
+  }
+
+  @Test
+  void filterGrowsWithTheTable() {
+    FilteredDictionary<Integer, Integer> map =
+        new FilteredDictionary<>(new HashTableList<>(), new BlockedBloomFilter<>(64, 0.01));
+    for (int i = 0; i < 10_000; ++i) {
+      map.insert(i, i);
+    }
+    assertTrue(map.filter().capacity() >= 10_000, "Filter must grow with the table");
+    assertTrue(map.rebuildCount() > 0, "Filter must be rebuilt");
+    for (int i = 0; i < 10_000; ++i) {
+      assertTrue(map.containsKey(i), "FilteredDictionary must keep every key");
+    }
+  }
+
+  @Test
+  void removesAreFollowedByTheFilter() {
+    FilteredDictionary<Integer, Integer> counting =
+        new FilteredDictionary<>(new HashTableLinear<>(), new CountingBloomFilter<>(4096, 0.01));
+    FilteredDictionary<Integer, Integer> bloom =
+        new FilteredDictionary<>(new HashTableLinear<>(), new BlockedBloomFilter<>(4096, 0.01));
+    for (int round = 0; round < 10; ++round) {
+      for (int i = 0; i < 2000; ++i) {
+        counting.insert(round * 2000 + i, i);
+        bloom.insert(round * 2000 + i, i);
+      }
+      for (int i = 0; i < 2000; ++i) {
+        assertEquals(i, counting.remove(round * 2000 + i), "Remove must return the value");
+        assertEquals(i, bloom.remove(round * 2000 + i), "Remove must return the value");
+      }
+    }
+    assertEquals(0, counting.size(), "FilteredDictionary must be empty");
+    assertEquals(0, bloom.size(), "FilteredDictionary must be empty");
+    assertEquals(0, counting.rebuildCount(), "A counting filter must not need rebuilds");
+    assertTrue(bloom.rebuildCount() > 0, "Stale keys must rebuild a Bloom filter");
+    assertEquals(4096, bloom.filter().capacity(), "Stale keys must not grow the filter");
+    assertEquals(0.0, counting.filter().estimatedFalsePositiveRate(), "Filter must be empty");
+  }
+
+  @Test
+  void existingKeysAreAdded() {
+    HashTableList<String, Integer> table = new HashTableList<>();
+    table.insert("a", 1);
+    table.insert("b", null);
+    FilteredDictionary<String, Integer> map = new FilteredDictionary<>(table);
+    assertEquals(1, map.get("a"), "FilteredDictionary must find the existing keys");
+    assertTrue(map.containsKey("b"), "FilteredDictionary must find null values");
+    assertNull(map.get("b"), "FilteredDictionary must find null values");
+    assertEquals(0, map.falsePositives(), "A null value is not a false positive");
+    assertEquals(3, map.merge("a", 2, Integer::sum), "Compound operations must work");
+    assertThrows(NullPointerException.class, () -> map.get(null));
+  }
+
+  @Test
+  void defaultFilterHashesWithTheTableStrategy() {
+    HashStrategy strategy = new IgnoreCaseStrategy();
+    FilteredDictionary<String, Integer> map =
+        new FilteredDictionary<>(new HashTableLinear<>(16, 0.75f, strategy));
+    assertSame(strategy, map.hashStrategy(), "FilteredDictionary must report the table strategy");
+    for (int i = 0; i < 1000; ++i) {
+      map.insert("Key" + i, i);
+    }
+    for (int i = 0; i < 1000; ++i) {
+      assertEquals(i, map.get("KEY" + i), "The filter must agree with the table equality");
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FrozenDictionaryTest {
+
+  @Test
+  void shouldFreezeEveryKey() {
+    HashTableLinear<Integer, Integer> table = new HashTableLinear<>();
+    int n = 100_000;
+    for (int i = 0; i < n; i++) {
+      table.insert(i * 7919, i);
+    }
+    FrozenDictionary<Integer, Integer> classUnderTest = table.freeze();
+    assertEquals(n, classUnderTest.size(), "FrozenDictionary must be size " + n);
+    for (int i = 0; i < n; i++) {
+      assertEquals(i, classUnderTest.get(i * 7919), "FrozenDictionary must find key " + i * 7919);
+      assertFalse(classUnderTest.containsKey(i * 7919 + 1), "Wrong key " + (i * 7919 + 1));
+    }
+  }
+
+  @Test
+  void shouldBuildWithLastValue() {
+    FrozenDictionary<String, Integer> classUnderTest =
+        FrozenDictionary.<String, Integer>builder()
+            .put("void", 0)
+            .put("int", 2)
+            .put("float", 3)
+            .put("int", 5)
+            .build();
+    assertEquals(3, classUnderTest.size(), "FrozenDictionary must be size 3");
+    assertEquals(5, classUnderTest.get("int"), "FrozenDictionary must map int to 5");
+    assertNull(classUnderTest.get("bool"), "FrozenDictionary must not have key bool");
+    int[] sum = {0};
+    classUnderTest.forEach((key, value) -> sum[0] += value);
+    assertEquals(8, sum[0], "FrozenDictionary must visit every entry");
+  }
+
+  @Test
+  void shouldBeImmutable() {
+    FrozenDictionary<String, Integer> classUnderTest =
+        FrozenDictionary.<String, Integer>builder().put("int", 2).build();
+    assertThrows(UnsupportedOperationException.class, () -> classUnderTest.insert("bool", 1));
+    assertThrows(UnsupportedOperationException.class, () -> classUnderTest.remove("int"));
+    assertThrows(UnsupportedOperationException.class, () -> classUnderTest.putIfAbsent("int", 1));
+    assertThrows(
+        UnsupportedOperationException.class, () -> classUnderTest.merge("int", 1, Integer::sum));
+    assertSame(classUnderTest, classUnderTest.freeze(), "Freeze must return the same map");
+  }
+
+  @Test
+  void shouldFreezeEmptyMap() {
+    FrozenDictionary<String, Integer> classUnderTest =
+        new HashTableList<String, Integer>().freeze();
+    assertEquals(0, classUnderTest.size(), "FrozenDictionary must be empty");
+    assertFalse(classUnderTest.containsKey("int"), "FrozenDictionary must not have key int");
+  }
+
+  @Test
+  void shouldSwitchToSeededHashUnderCollisions() {
+    // A list only has a 32 bit hash code, so its 64 bit hash keeps the collisions.
+    String[] keys = TestKeys.collidingKeys(5);
+    HashTableCuckoo<List<String>, Integer> table = new HashTableCuckoo<>();
+    for (int i = 0; i < keys.length; i++) {
+      table.insert(List.of(keys[i]), i);
+    }
+    FrozenDictionary<List<String>, Integer> classUnderTest = FrozenDictionary.copyOf(table);
+    assertTrue(
+        classUnderTest.hashStrategy() instanceof SipHashStrategy,
+        "FrozenDictionary must switch to a seeded hash");
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(
+          i, classUnderTest.get(List.of(keys[i])), "FrozenDictionary must find key " + keys[i]);
+    }
+  }
+
+  @Test
+  void shouldChainKeysWithEqualHashes() {
+    // 0L and -1L have the same hashCode, as every (i << 32 | i), under every strategy.
+    HashTableList<Long, Integer> table = new HashTableList<>();
+    table.insert(0L, -1);
+    table.insert(-1L, -2);
+    for (int i = 1; i <= 100; i++) {
+      table.insert((long) i << 32 | i, i);
+      table.insert((long) i, -i - 2);
+    }
+    FrozenDictionary<Long, Integer> classUnderTest = table.freeze();
+    assertEquals(table.size(), classUnderTest.size(), "FrozenDictionary must keep every key");
+    assertEquals(-1, classUnderTest.get(0L), "FrozenDictionary must map 0L");
+    assertEquals(-2, classUnderTest.get(-1L), "FrozenDictionary must map -1L");
+    for (int i = 1; i <= 100; i++) {
+      assertEquals(i, classUnderTest.get((long) i << 32 | i), "FrozenDictionary must chain " + i);
+      assertEquals(-i - 2, classUnderTest.get((long) i), "FrozenDictionary must find " + i);
+    }
+    assertFalse(classUnderTest.containsKey(101L << 32 | 101), "FrozenDictionary must miss");
+    long[] sum = {0};
+    classUnderTest.forEach((key, value) -> sum[0] += value);
+    assertEquals(-3 - 5250 + 5050, sum[0], "forEach must visit the chained keys");
+  }
+}
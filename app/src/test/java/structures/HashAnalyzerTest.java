@@ -0,0 +1,66 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HashAnalyzerTest {
+
+  private static List<Long> sequentialKeys(int n, long step) {
+    List<Long> keys = new ArrayList<>();
+    for (long i = 0; i < n; i++) {
+      keys.add(i * step);
+    }
+    return keys;
+  }
+
+  @Test
+  void shouldCountEveryKey() {
+    List<Long> keys = sequentialKeys(1000, 1);
+    HashAnalyzer.Report report = HashAnalyzer.analyze(keys, HashStrategies.MURMUR3, 2048);
+    int total = 0;
+    int[] histogram = report.histogram();
+    for (int i = 0; i < histogram.length; i++) {
+      total += i * histogram[i];
+    }
+    assertEquals(1000, total, "Histogram must account for every key");
+    assertEquals(2048, report.capacity(), "Report must keep the capacity");
+    assertTrue(report.expectedProbeLength() >= 1.0, "Probe length must be at least 1");
+  }
+
+  @Test
+  void shouldDetectClustering() {
+    // Multiples of the capacity land in a handful of buckets with the XOR spreader.
+    List<Long> keys = sequentialKeys(500, 1 << 10);
+    HashAnalyzer.Report xor = HashAnalyzer.analyze(keys, HashStrategies.XOR_SHIFT, 1024);
+    HashAnalyzer.Report murmur = HashAnalyzer.analyze(keys, HashStrategies.MURMUR3, 1024);
+    assertTrue(xor.chiSquaredScore() > murmur.chiSquaredScore(), "XOR must cluster these keys");
+    assertTrue(
+        xor.expectedProbeLength() > murmur.expectedProbeLength(), "XOR must probe longer");
+  }
+
+  @Test
+  void shouldScoreUniformHashesNearOne() {
+    List<Long> keys = sequentialKeys(50000, 1);
+    for (HashStrategy strategy :
+        new HashStrategy[] {
+          HashStrategies.MURMUR3, HashStrategies.WYHASH, HashStrategies.FIBONACCI
+        }) {
+      double score = HashAnalyzer.analyze(keys, strategy, 1 << 16).chiSquaredScore();
+      assertTrue(score < 1.5, strategy + " must be near uniform, got " + score);
+    }
+  }
+
+  @Test
+  void shouldRejectIllegalCapacity() {
+    List<Long> keys = sequentialKeys(10, 1);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> HashAnalyzer.analyze(keys, HashStrategies.XOR_SHIFT, 12));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> HashAnalyzer.analyze(keys, HashStrategies.XOR_SHIFT, 8));
+  }
+}
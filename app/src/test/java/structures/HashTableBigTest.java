@@ -0,0 +1,106 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HashTableBigTest {
+
+  @Test
+  void shouldHaveCorrectSize() {
+    HashTableBig<String, Integer> classUnderTest = new HashTableBig<>();
+    assertEquals(0, classUnderTest.size(), "HashTable must be have correct size!");
+    assertEquals(0L, classUnderTest.longSize(), "HashTable must be have correct long size!");
+    assertEquals(0L, classUnderTest.capacity(), "HashTable must be have capacity equals to 0!");
+  }
+
+  @Test
+  void shouldInsertCorrectly() {
+    HashTableBig<String, Integer> classUnderTest = new HashTableBig<>();
+    classUnderTest.insert("void", 0);
+    classUnderTest.insert("int", 2);
+    classUnderTest.insert("float", 3);
+    classUnderTest.insert("bool", 40);
+    assertEquals(4, classUnderTest.size(), "HashTable must be size 4!");
+    assertEquals(2, classUnderTest.get("int"), "HashTable must map int to 2");
+    assertEquals(2, classUnderTest.insert("int", 5), "Insert must return the old value");
+    assertEquals(5, classUnderTest.get("int"), "HashTable must map int to 5");
+    assertEquals(16L, classUnderTest.capacity(), "HashTable must be capacity 16");
+  }
+
+  @Test
+  void shouldRemoveByShiftingTheCluster() {
+    HashTableBig<Integer, Integer> classUnderTest = new HashTableBig<>(64, 0.75f, h -> 0);
+    // Every key has the same home, so they form a single cluster.
+    for (int i = 0; i < 20; i++) {
+      classUnderTest.insert(i, i);
+    }
+    for (int i = 0; i < 20; i += 3) {
+      assertEquals(i, classUnderTest.remove(i), "Remove must return the old value");
+    }
+    assertNull(classUnderTest.remove(0), "Remove must return null for absent key");
+    for (int i = 0; i < 20; i++) {
+      assertEquals(i % 3 == 0 ? null : i, classUnderTest.get(i), "Wrong value " + i);
+    }
+    classUnderTest.insert(0, 100);
+    assertEquals(100, classUnderTest.get(0), "HashTable must reuse the shifted slots");
+    assertEquals(14, classUnderTest.size(), "HashTable must be size 14");
+  }
+
+  @Test
+  void shouldKeepEveryKeyAcrossSegments() {
+    HashTableBig<Integer, Integer> classUnderTest = new HashTableBig<>();
+    int n = 1_000_000;
+    for (int i = 0; i < n; i++) {
+      classUnderTest.insert(i * 7919, i);
+    }
+    assertEquals((long) n, classUnderTest.longSize(), "HashTable must be size " + n);
+    assertTrue(
+        classUnderTest.capacity() > HashTableBig.SEGMENT_SIZE,
+        "HashTable must use more than a segment");
+    for (int i = 0; i < n; i += 2) {
+      classUnderTest.remove(i * 7919);
+    }
+    for (int i = 0; i < n; i++) {
+      assertEquals(i % 2 == 0 ? null : i, classUnderTest.get(i * 7919), "Wrong value " + i);
+    }
+  }
+
+  @Test
+  void shouldSwitchToSeededHashUnderCollisions() {
+    Long[] keys = TestKeys.collidingLongs(512);
+    HashTableBig<Long, Integer> classUnderTest = new HashTableBig<>();
+    for (int i = 0; i < keys.length; i++) {
+      classUnderTest.insert(keys[i], i);
+    }
+    assertTrue(
+        classUnderTest.hashStrategy() instanceof SipHashStrategy,
+        "HashTable must switch to a seeded hash");
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(i, classUnderTest.get(keys[i]), "HashTable must find key " + keys[i]);
+    }
+  }
+
+  @Test
+  void shouldHashEveryBitOfLongKeys() {
+    // Every key has the hash code 0, the 64 bit hash must still tell them apart.
+    HashTableBig<Long, Integer> classUnderTest = new HashTableBig<>();
+    for (int i = 0; i < 1000; i++) {
+      classUnderTest.insert((long) i << 32 | i, i);
+    }
+    assertSame(
+        HashStrategies.XOR_SHIFT,
+        classUnderTest.hashStrategy(),
+        "HashTable must not switch hash on distinct long keys");
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, classUnderTest.get((long) i << 32 | i), "HashTable must find key " + i);
+    }
+  }
+
+  @Test
+  void shouldHaveLongSizeOnEveryDictionary() {
+    Dictionary<String, Integer> classUnderTest = new HashTableList<>();
+    classUnderTest.insert("int", 2);
+    assertEquals(1L, classUnderTest.longSize(), "Dictionary must default longSize to size");
+  }
+}
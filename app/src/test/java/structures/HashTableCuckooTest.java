@@ -0,0 +1,113 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HashTableCuckooTest {
+
+  @Test
+  void shouldHaveCorrectSize() {
+    HashTableCuckoo<String, Integer> classUnderTest = new HashTableCuckoo<>();
+    assertEquals(0, classUnderTest.size(), "HashTable must be have correct size!");
+    assertEquals(0, classUnderTest.capacity(), "HashTable must be have capacity equals to 0!");
+  }
+
+  @Test
+  void shouldInsertCorrectly() {
+    HashTableCuckoo<String, Integer> classUnderTest = new HashTableCuckoo<>();
+    classUnderTest.insert("void", 0);
+    classUnderTest.insert("int", 2);
+    classUnderTest.insert("float", 3);
+    classUnderTest.insert("bool", 40);
+    assertEquals(4, classUnderTest.size(), "HashTable must be size 4!");
+    assertEquals(2, classUnderTest.get("int"), "HashTable must map int to 2");
+    assertEquals(2, classUnderTest.insert("int", 5), "Insert must return the old value");
+    assertEquals(5, classUnderTest.get("int"), "HashTable must map int to 5");
+    assertEquals(16, classUnderTest.capacity(), "HashTable must be capacity 16");
+  }
+
+  @Test
+  void shouldRemoveCorrectly() {
+    HashTableCuckoo<Integer, String> classUnderTest = new HashTableCuckoo<>();
+    classUnderTest.insert(0, "Heapsort");
+    classUnderTest.insert(16, "TreeSort");
+    classUnderTest.insert(4, "Quicksort");
+    assertEquals("TreeSort", classUnderTest.remove(16), "Remove must return the old value");
+    assertNull(classUnderTest.remove(16), "Remove must return null for absent key");
+    assertEquals(2, classUnderTest.size(), "HashTable must be size 2");
+    assertFalse(classUnderTest.containsKey(16), "HashTable must not have key 16");
+    assertTrue(classUnderTest.containsKey(4), "HashTable must contains key 4");
+  }
+
+  @Test
+  void shouldKeepEveryKeyAtHighLoad() {
+    HashTableCuckoo<Integer, Integer> classUnderTest = new HashTableCuckoo<>(1 << 16);
+    int n = (int) ((1 << 16) * 0.9f);
+    for (int i = 0; i < n; i++) {
+      classUnderTest.insert(i * 7919, i);
+    }
+    assertEquals(1 << 16, classUnderTest.capacity(), "HashTable must not grow under 90%");
+    for (int i = 0; i < n; i++) {
+      assertEquals(i, classUnderTest.get(i * 7919), "HashTable must find key " + i * 7919);
+    }
+    for (int i = 0; i < n; i += 2) {
+      classUnderTest.remove(i * 7919);
+    }
+    for (int i = 0; i < n; i++) {
+      assertEquals(i % 2 == 0 ? null : i, classUnderTest.get(i * 7919), "Wrong value " + i);
+    }
+  }
+
+  @Test
+  void shouldSurviveEqualHashes() {
+    HashStrategy constant = h -> 42;
+    HashTableCuckoo<Integer, Integer> classUnderTest = new HashTableCuckoo<>(16, 0.9f, constant);
+    // Two buckets hold 8 keys with the same hash, the others go to the overflow list.
+    for (int i = 0; i < 200; i++) {
+      assertNull(classUnderTest.insert(i, i), "HashTable must not have key " + i);
+    }
+    assertEquals(200, classUnderTest.size(), "HashTable must keep every key");
+    for (int i = 0; i < 200; i += 2) {
+      assertEquals(i, classUnderTest.remove(i), "HashTable must remove key " + i);
+    }
+    for (int i = 0; i < 200; i++) {
+      assertEquals(i % 2 == 0 ? null : i, classUnderTest.get(i), "Wrong value " + i);
+    }
+    int[] visited = {0};
+    classUnderTest.forEach((key, value) -> visited[0]++);
+    assertEquals(100, visited[0], "forEach must visit the overflow list");
+    for (int i = 0; i < 200; i += 2) {
+      assertNull(classUnderTest.insert(i, -i), "HashTable must not have key " + i);
+    }
+    for (int i = 0; i < 200; i++) {
+      assertEquals(i % 2 == 0 ? -i : i, classUnderTest.get(i), "Wrong value " + i);
+    }
+
+    // 0L and -1L have the same hash under every built-in strategy and the seeded hash.
+    HashTableCuckoo<Long, Integer> longs = new HashTableCuckoo<>();
+    for (int i = 0; i < 50; i++) {
+      longs.insert((long) i << 32 | i, i);
+    }
+    longs.insert(-1L, -1);
+    for (int i = 0; i < 50; i++) {
+      assertEquals(i, longs.get((long) i << 32 | i), "HashTable must find key " + i);
+    }
+    assertEquals(-1, longs.get(-1L), "HashTable must find key -1L");
+  }
+
+  @Test
+  void shouldHardenBuiltInStrategy() {
+    String[] keys = TestKeys.collidingKeys(5);
+    HashTableCuckoo<String, Integer> classUnderTest = new HashTableCuckoo<>();
+    for (int i = 0; i < keys.length; i++) {
+      classUnderTest.insert(keys[i], i);
+    }
+    assertTrue(
+        classUnderTest.hashStrategy() instanceof SipHashStrategy,
+        "HashTable must switch to a seeded hash");
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(i, classUnderTest.get(keys[i]), "HashTable must find key " + keys[i]);
+    }
+  }
+}
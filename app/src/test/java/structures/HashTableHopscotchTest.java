@@ -0,0 +1,96 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HashTableHopscotchTest {
+
+  @Test
+  void shouldHaveCorrectSize() {
+    HashTableHopscotch<String, Integer> classUnderTest = new HashTableHopscotch<>();
+    assertEquals(0, classUnderTest.size(), "HashTable must be have correct size!");
+    assertEquals(0, classUnderTest.capacity(), "HashTable must be have capacity equals to 0!");
+  }
+
+  @Test
+  void shouldInsertCorrectly() {
+    HashTableHopscotch<String, Integer> classUnderTest = new HashTableHopscotch<>();
+    classUnderTest.insert("void", 0);
+    classUnderTest.insert("int", 2);
+    classUnderTest.insert("float", 3);
+    classUnderTest.insert("bool", 40);
+    assertEquals(4, classUnderTest.size(), "HashTable must be size 4!");
+    assertEquals(2, classUnderTest.get("int"), "HashTable must map int to 2");
+    assertEquals(2, classUnderTest.insert("int", 5), "Insert must return the old value");
+    assertEquals(5, classUnderTest.get("int"), "HashTable must map int to 5");
+    assertEquals(64, classUnderTest.capacity(), "HashTable must be capacity 64");
+  }
+
+  @Test
+  void shouldRemoveCorrectly() {
+    HashTableHopscotch<Integer, String> classUnderTest = new HashTableHopscotch<>();
+    classUnderTest.insert(0, "Heapsort");
+    classUnderTest.insert(64, "TreeSort");
+    classUnderTest.insert(4, "Quicksort");
+    assertEquals("TreeSort", classUnderTest.remove(64), "Remove must return the old value");
+    assertNull(classUnderTest.remove(64), "Remove must return null for absent key");
+    assertEquals(2, classUnderTest.size(), "HashTable must be size 2");
+    assertFalse(classUnderTest.containsKey(64), "HashTable must not have key 64");
+    assertTrue(classUnderTest.containsKey(4), "HashTable must contains key 4");
+  }
+
+  @Test
+  void shouldKeepEveryKeyAtHighLoad() {
+    HashTableHopscotch<Integer, Integer> classUnderTest =
+        new HashTableHopscotch<>(1 << 16, 0.95f);
+    int n = (int) ((1 << 16) * 0.9f);
+    for (int i = 0; i < n; i++) {
+      classUnderTest.insert(i * 7919, i);
+    }
+    assertEquals(1 << 16, classUnderTest.capacity(), "HashTable must not grow under 90%");
+    for (int i = 0; i < n; i++) {
+      assertEquals(i, classUnderTest.get(i * 7919), "HashTable must find key " + i * 7919);
+    }
+    for (int i = 0; i < n; i += 2) {
+      classUnderTest.remove(i * 7919);
+    }
+    for (int i = 0; i < n; i++) {
+      assertEquals(i % 2 == 0 ? null : i, classUnderTest.get(i * 7919), "Wrong value " + i);
+    }
+  }
+
+  @Test
+  void shouldSurviveEqualHashes() {
+    HashStrategy constant = h -> 42;
+    HashTableHopscotch<Integer, Integer> classUnderTest =
+        new HashTableHopscotch<>(64, 1f, constant);
+    // A neighbourhood holds 32 keys with the same hash, the others overflow.
+    for (int i = 0; i < 300; i++) {
+      assertNull(classUnderTest.insert(i, i), "HashTable must not have key " + i);
+    }
+    assertEquals(300, classUnderTest.size(), "HashTable must keep every key");
+    for (int i = 0; i < 300; i += 2) {
+      assertEquals(i, classUnderTest.remove(i), "HashTable must remove key " + i);
+    }
+    for (int i = 0; i < 300; i++) {
+      assertEquals(i % 2 == 0 ? null : i, classUnderTest.get(i), "Wrong value " + i);
+    }
+    int[] visited = {0};
+    classUnderTest.forEach((key, value) -> visited[0]++);
+    assertEquals(150, visited[0], "forEach must visit the overflow list");
+
+    // (i << 32 | i) have the same hash under every built-in strategy and the seeded hash.
+    HashTableHopscotch<Long, Integer> longs = new HashTableHopscotch<>();
+    for (int i = 0; i < 200; i++) {
+      longs.insert((long) i << 32 | i, i);
+      longs.insert((long) i + 1000, i);
+    }
+    assertTrue(longs.hashStrategy() instanceof SipHashStrategy, "HashTable must harden first");
+    for (int i = 0; i < 200; i++) {
+      assertEquals(i, longs.get((long) i << 32 | i), "HashTable must find key " + i);
+      assertEquals(i, longs.get((long) i + 1000), "HashTable must find key " + (i + 1000));
+    }
+    assertEquals(512, longs.capacity(), "Equal hashes must not grow the table");
+  }
+}
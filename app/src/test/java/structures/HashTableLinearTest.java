@@ -2,6 +2,11 @@ package structures;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class HashTableLinearTest {
@@ -177,4 +182,241 @@ class HashTableLinearTest {
     assertTrue(classUnderTest.containsKey(3), "HashTable must have key 3 ");
     assertTrue(classUnderTest.containsKey(35), "HashTable must have key 35");
   }
+
+  @Test
+  void shouldUseHashStrategy() {
+    HashStrategy ignoreCase =
+        new HashStrategy() {
+          @Override
+          public int spread(int h) {
+            return HashStrategies.MURMUR3.spread(h);
+          }
+
+          @Override
+          public int hash(Object key) {
+            return spread(((String) key).toLowerCase().hashCode());
+          }
+
+          @Override
+          public boolean equivalent(Object key, Object stored) {
+            return ((String) key).equalsIgnoreCase((String) stored);
+          }
+        };
+    HashTableLinear<String, Integer> classUnderTest = new HashTableLinear<>(16, 0.75f, ignoreCase);
+    classUnderTest.insert("Void", 0);
+    classUnderTest.insert("INT", 2);
+    assertEquals(0, classUnderTest.insert("void", 1), "HashTable must use strategy equality");
+    assertEquals(2, classUnderTest.size(), "HashTable must be size 2");
+    assertTrue(classUnderTest.containsKey("int"), "HashTable must contains key int");
+    assertEquals(1, classUnderTest.get("VOID"), "HashTable must map VOID to 1");
+  }
+
+  @Test
+  void shouldSwitchToSeededHashUnderCollisions() {
+    String[] keys = TestKeys.collidingKeys(10);
+    HashTableLinear<String, Integer> classUnderTest = new HashTableLinear<>();
+    for (int i = 0; i < keys.length; i++) {
+      classUnderTest.insert(keys[i], i);
+    }
+    assertTrue(
+        classUnderTest.hashStrategy() instanceof SipHashStrategy,
+        "HashTable must switch to a seeded hash");
+    assertEquals(keys.length, classUnderTest.size(), "HashTable must keep every key");
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(i, classUnderTest.get(keys[i]), "HashTable must find key " + keys[i]);
+    }
+    assertEquals(0, classUnderTest.remove(keys[0]), "HashTable must remove after the switch");
+    assertFalse(classUnderTest.containsKey(keys[0]), "HashTable must not have removed key");
+  }
+
+  @Test
+  void shouldKeepCustomStrategyUnderCollisions() {
+    HashStrategy custom = h -> h;
+    HashTableLinear<String, Integer> classUnderTest = new HashTableLinear<>(16, 0.75f, custom);
+    for (String key : TestKeys.collidingKeys(6)) {
+      classUnderTest.insert(key, 0);
+    }
+    assertSame(custom, classUnderTest.hashStrategy(), "HashTable must keep a custom strategy");
+  }
+
+  @Test
+  void shouldGrowFromSmallCapacity() {
+    HashTableLinear<Integer, Integer> classUnderTest = new HashTableLinear<>(1);
+    for (int i = 0; i < 100; i++) {
+      classUnderTest.insert(i, i);
+    }
+    assertEquals(100, classUnderTest.size(), "HashTable must be size 100");
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, classUnderTest.get(i), "HashTable must find key " + i);
+    }
+  }
+
+  @Test
+  void shouldNotDuplicateKeyAfterRemovedEntry() {
+    HashTableLinear<Integer, String> classUnderTest = new HashTableLinear<>();
+    classUnderTest.insert(0, "Heapsort");
+    classUnderTest.insert(16, "TreeSort");
+    classUnderTest.insert(32, "SimpleSort");
+    assertEquals("Heapsort", classUnderTest.remove(0), "Remove must return the old value");
+
+    assertEquals("SimpleSort", classUnderTest.insert(32, "Quicksort"), "Insert must replace");
+    assertEquals(2, classUnderTest.size(), "HashTable must be size 2");
+    assertEquals("Quicksort", classUnderTest.remove(32), "Remove must return the new value");
+    assertFalse(classUnderTest.containsKey(32), "HashTable must not have key 32");
+  }
+
+  @Test
+  void shouldGetByChars() {
+    HashTableLinear<String, Integer> classUnderTest = new HashTableLinear<>();
+    classUnderTest.insert("void", 0);
+    classUnderTest.insert("int", 2);
+    StringBuilder chars = new StringBuilder("in");
+    assertNull(classUnderTest.getChars(chars), "HashTable must not find in");
+    chars.append('t');
+    assertEquals(2, classUnderTest.getChars(chars), "HashTable must find int");
+    assertEquals(0, classUnderTest.getChars("void"), "HashTable must find void");
+  }
+
+  @Test
+  void shouldGetByBytes() {
+    for (HashStrategy strategy :
+        new HashStrategy[] {HashStrategies.XOR_SHIFT, new SipHashStrategy()}) {
+      HashTableLinear<ByteKey, Integer> classUnderTest = new HashTableLinear<>(16, 0.75f, strategy);
+      classUnderTest.insert(ByteKey.of("void"), 0);
+      classUnderTest.insert(ByteKey.of("float"), 3);
+      byte[] packet = "GET float HTTP".getBytes(StandardCharsets.UTF_8);
+
+      assertEquals(3, classUnderTest.getBytes(packet, 4, 5), "HashTable must find float");
+      assertNull(classUnderTest.getBytes(packet, 4, 4), "HashTable must not find floa");
+
+      ByteBuffer heap = ByteBuffer.wrap(packet, 4, 5);
+      assertEquals(3, classUnderTest.getBytes(heap), "HashTable must find float in a buffer");
+      assertEquals(4, heap.position(), "Buffer position must not change");
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(16);
+      direct.put(packet).flip().position(4).limit(9);
+      assertEquals(3, classUnderTest.getBytes(direct), "HashTable must find float in a buffer");
+      assertEquals(3, classUnderTest.get(ByteKey.copyOf(direct)), "Copied key must be equal");
+    }
+  }
+
+  @Test
+  void shouldGetByCharsAndBytesWithCustomStrategy() {
+    HashStrategy strategy = new IgnoreCaseStrategy();
+    HashTableLinear<String, Integer> words = new HashTableLinear<>(16, 0.75f, strategy);
+    words.insert("Void", 0);
+    words.insert("INT", 2);
+    assertEquals(2, words.getChars(new StringBuilder("int")), "HashTable must ignore the case");
+    assertEquals(0, words.getChars("vOID"), "HashTable must ignore the case");
+    assertNull(words.getChars("in"), "HashTable must not find in");
+
+    HashTableLinear<ByteKey, Integer> classUnderTest = new HashTableLinear<>(16, 0.75f, strategy);
+    classUnderTest.insert(ByteKey.of("Float"), 3);
+    byte[] packet = "GET FLOAT HTTP".getBytes(StandardCharsets.UTF_8);
+    assertEquals(3, classUnderTest.getBytes(packet, 4, 5), "HashTable must ignore the case");
+    assertEquals(3, classUnderTest.getBytes(ByteBuffer.wrap(packet, 4, 5)), "Must ignore the case");
+    assertNull(classUnderTest.getBytes(packet, 4, 4), "HashTable must not find FLOA");
+  }
+
+  @Test
+  void shouldGetByteArrayKeysWhenComparedByContent() {
+    byte[] key = "float".getBytes(StandardCharsets.UTF_8);
+    HashTableLinear<byte[], Integer> classUnderTest = new HashTableLinear<>();
+    classUnderTest.insert(key, 3);
+    assertNull(classUnderTest.getBytes(key.clone(), 0, 5), "byte[] keys are identity keys");
+    classUnderTest = new HashTableLinear<>(16, 0.75f, new SipHashStrategy());
+    classUnderTest.insert(key, 3);
+    assertEquals(3, classUnderTest.getBytes(key.clone(), 0, 5), "byte[] keys are content keys");
+    assertEquals(3, classUnderTest.getBytes(ByteBuffer.wrap(key.clone())), "Content keys");
+  }
+
+  @Test
+  void shouldCountWordsWithMerge() {
+    HashTableLinear<String, Integer> classUnderTest = new HashTableLinear<>();
+    String[] words = "the quick fox and the lazy dog and the cat".split(" ");
+    for (String word : words) {
+      classUnderTest.merge(word, 1, Integer::sum);
+    }
+    assertEquals(7, classUnderTest.size(), "HashTable must be size 7");
+    assertEquals(3, classUnderTest.get("the"), "HashTable must count the 3 times");
+    assertEquals(2, classUnderTest.get("and"), "HashTable must count and 2 times");
+    assertEquals(1, classUnderTest.get("fox"), "HashTable must count fox once");
+
+    assertNull(classUnderTest.merge("fox", 1, (a, b) -> null), "Merge to null must remove");
+    assertFalse(classUnderTest.containsKey("fox"), "HashTable must not have key fox");
+    assertEquals(6, classUnderTest.size(), "HashTable must be size 6");
+  }
+
+  @Test
+  void shouldComputeInPlace() {
+    HashTableLinear<Integer, String> classUnderTest = new HashTableLinear<>();
+    assertEquals("A", classUnderTest.computeIfAbsent(0, k -> "A"), "Must compute absent key");
+    assertEquals("A", classUnderTest.computeIfAbsent(0, k -> "B"), "Must keep present key");
+    assertNull(classUnderTest.computeIfAbsent(1, k -> null), "Must not add a null value");
+    assertFalse(classUnderTest.containsKey(1), "HashTable must not have key 1");
+
+    assertEquals("AC", classUnderTest.computeIfPresent(0, (k, v) -> v + "C"), "Must remap");
+    assertNull(classUnderTest.computeIfPresent(16, (k, v) -> "D"), "Must skip absent key");
+    assertFalse(classUnderTest.containsKey(16), "HashTable must not have key 16");
+
+    assertEquals("E", classUnderTest.compute(16, (k, v) -> v == null ? "E" : v), "Must add");
+    assertNull(classUnderTest.compute(0, (k, v) -> null), "Compute to null must remove");
+    assertFalse(classUnderTest.containsKey(0), "HashTable must not have key 0");
+
+    assertNull(classUnderTest.putIfAbsent(32, "F"), "Must add absent key");
+    assertEquals("F", classUnderTest.putIfAbsent(32, "G"), "Must keep present key");
+    assertEquals("F", classUnderTest.replace(32, "H"), "Must replace present key");
+    assertNull(classUnderTest.replace(48, "I"), "Must not replace absent key");
+    assertFalse(classUnderTest.containsKey(48), "HashTable must not have key 48");
+
+    assertEquals(2, classUnderTest.size(), "HashTable must be size 2");
+    assertEquals("E", classUnderTest.get(16), "HashTable must map 16 to E");
+    assertEquals("H", classUnderTest.get(32), "HashTable must map 32 to H");
+  }
+
+  @Test
+  void shouldRecycleRemovedNodes() {
+    HashTableLinear<Integer, Integer> classUnderTest =
+        new HashTableLinear<>(16, 0.75f, HashStrategies.XOR_SHIFT, 8192);
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; ++i) {
+      int key = random.nextInt(2000);
+      switch (random.nextInt(4)) {
+        case 0:
+          assertEquals(expected.remove(key), classUnderTest.remove(key), "remove must agree");
+          break;
+        case 1:
+          assertEquals(
+              expected.compute(key, (k, v) -> v == null || v % 2 == 0 ? null : v + 1),
+              classUnderTest.compute(key, (k, v) -> v == null || v % 2 == 0 ? null : v + 1),
+              "compute must agree");
+          break;
+        default:
+          assertEquals(expected.put(key, i), classUnderTest.insert(key, i), "insert must agree");
+      }
+    }
+    Map<Integer, Integer> visited = new HashMap<>();
+    classUnderTest.forEach(visited::put);
+    assertEquals(expected, visited, "HashTable must keep every entry");
+    assertTrue(classUnderTest.reuses() > 0, "HashTable must reuse the removed nodes");
+
+    // A window of live keys, every insertion follows a removal.
+    for (int i = 0; i < 20_000; ++i) {
+      classUnderTest.remove(i + 2000);
+      classUnderTest.insert(i + 3000, i);
+    }
+    int capacity = classUnderTest.capacity();
+    long allocations = classUnderTest.allocations();
+    for (int i = 20_000; i < 100_000; ++i) {
+      assertEquals(i - 1000, classUnderTest.remove(i + 2000), "HashTable must map the window");
+      classUnderTest.insert(i + 3000, i);
+    }
+    assertEquals(allocations, classUnderTest.allocations(), "HashTable must not allocate");
+    assertEquals(capacity, classUnderTest.capacity(), "HashTable must not grow");
+    assertTrue(classUnderTest.poolSize() <= 8192, "HashTable must bound its pool");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new HashTableLinear<Integer, Integer>(16, 0.75f, HashStrategies.XOR_SHIFT, -1));
+  }
 }
@@ -0,0 +1,125 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HashTableSegmentedTest {
+
+  @Test
+  void shouldHaveCorrectSize() {
+    HashTableSegmented<String, Integer> classUnderTest = new HashTableSegmented<>();
+    assertEquals(0, classUnderTest.size(), "HashTable must be have correct size!");
+    assertEquals(0, classUnderTest.capacity(), "HashTable must be have capacity equals to 0!");
+  }
+
+  @Test
+  void shouldInsertCorrectly() {
+    HashTableSegmented<String, Integer> classUnderTest = new HashTableSegmented<>();
+    classUnderTest.insert("void", 0);
+    classUnderTest.insert("int", 2);
+    classUnderTest.insert("float", 3);
+    classUnderTest.insert("bool", 40);
+    assertEquals(4, classUnderTest.size(), "HashTable must be size 4!");
+    assertEquals(4L, classUnderTest.longSize(), "HashTable must be long size 4!");
+    assertEquals(2, classUnderTest.get("int"), "HashTable must map int to 2");
+    assertEquals(2, classUnderTest.insert("int", 5), "Insert must return the old value");
+    assertEquals(5, classUnderTest.get("int"), "HashTable must map int to 5");
+    assertEquals(16, classUnderTest.capacity(), "HashTable must be capacity 16");
+  }
+
+  @Test
+  void shouldRemoveCorrectly() {
+    HashTableSegmented<Integer, String> classUnderTest = new HashTableSegmented<>();
+    classUnderTest.insert(0, "Heapsort");
+    classUnderTest.insert(16, "TreeSort");
+    classUnderTest.insert(4, "Quicksort");
+    assertEquals("TreeSort", classUnderTest.remove(16), "Remove must return the old value");
+    assertNull(classUnderTest.remove(16), "Remove must return null for absent key");
+    assertEquals(2, classUnderTest.size(), "HashTable must be size 2");
+    assertFalse(classUnderTest.containsKey(16), "HashTable must not have key 16");
+    assertTrue(classUnderTest.containsKey(4), "HashTable must contains key 4");
+  }
+
+  @Test
+  void shouldGrowOneBucketAtATime() {
+    HashTableSegmented<Integer, Integer> classUnderTest = new HashTableSegmented<>();
+    for (int i = 0; i < 12; i++) {
+      classUnderTest.insert(i, i);
+    }
+    assertEquals(16, classUnderTest.capacity(), "HashTable must not grow under the threshold");
+    // 13 keys need 18 buckets at 75%, the table adds buckets instead of doubling.
+    classUnderTest.insert(12, 12);
+    assertEquals(18, classUnderTest.capacity(), "HashTable must split single buckets");
+    for (int i = 0; i < 13; i++) {
+      assertEquals(i, classUnderTest.get(i), "HashTable must find key " + i);
+    }
+  }
+
+  @Test
+  void shouldKeepEveryKeyAcrossSegments() {
+    HashTableSegmented<Integer, Integer> classUnderTest = new HashTableSegmented<>();
+    int n = 100_000;
+    for (int i = 0; i < n; i++) {
+      classUnderTest.insert(i * 7919, i);
+    }
+    assertEquals(n, classUnderTest.size(), "HashTable must be size " + n);
+    assertTrue(
+        classUnderTest.capacity() > HashTableSegmented.SEGMENT_SIZE,
+        "HashTable must use more than a segment");
+    for (int i = 0; i < n; i += 2) {
+      classUnderTest.remove(i * 7919);
+    }
+    for (int i = 0; i < n; i++) {
+      assertEquals(i % 2 == 0 ? null : i, classUnderTest.get(i * 7919), "Wrong value " + i);
+    }
+  }
+
+  @Test
+  void shouldSwitchToSeededHashUnderCollisions() {
+    String[] keys = TestKeys.collidingKeys(5);
+    HashTableSegmented<String, Integer> classUnderTest = new HashTableSegmented<>();
+    for (int i = 0; i < keys.length; i++) {
+      classUnderTest.insert(keys[i], i);
+    }
+    assertTrue(
+        classUnderTest.hashStrategy() instanceof SipHashStrategy,
+        "HashTable must switch to a seeded hash");
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(i, classUnderTest.get(keys[i]), "HashTable must find key " + keys[i]);
+    }
+  }
+
+  @Test
+  void shouldKeepBuiltInStrategyForLargeHonestTables() {
+    // A high load factor gives the long honest chains of a much larger table.
+    HashTableSegmented<Long, Long> classUnderTest = new HashTableSegmented<>(16, 4f);
+    Random random = new Random(42);
+    for (int i = 0; i < 1 << 20; i++) {
+      classUnderTest.insert(random.nextLong(), 0L);
+    }
+    assertSame(
+        HashStrategies.XOR_SHIFT,
+        classUnderTest.hashStrategy(),
+        "HashTable must not switch hash on honest chains");
+  }
+
+  @Test
+  void shouldPresizeWithoutAllocatingEverySegment() {
+    HashTableSegmented<Integer, Integer> classUnderTest =
+        new HashTableSegmented<>(Integer.MAX_VALUE);
+    for (int i = 0; i < 10_000; i++) {
+      assertNull(classUnderTest.insert(i, i), "HashTable must not have key " + i);
+    }
+    assertEquals(1L << 31, classUnderTest.capacity(), "HashTable must keep its initial capacity");
+    for (int i = 0; i < 10_000; i++) {
+      assertEquals(i, classUnderTest.get(i), "HashTable must find key " + i);
+    }
+    assertNull(classUnderTest.get(-1), "HashTable must miss an empty segment");
+    assertNull(classUnderTest.remove(-1), "HashTable must miss an empty segment");
+    int[] visited = {0};
+    classUnderTest.forEach((key, value) -> visited[0]++);
+    assertEquals(10_000, visited[0], "forEach must skip the empty segments");
+  }
+}
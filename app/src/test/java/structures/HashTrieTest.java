@@ -0,0 +1,107 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import org.junit.jupiter.api.Test;
+
+class HashTrieTest {
+
+  @Test
+  void shouldInsertCorrectly() {
+    HashTrie<String, Integer> classUnderTest = new HashTrie<>();
+    classUnderTest.insert("void", 0);
+    classUnderTest.insert("int", 2);
+    classUnderTest.insert("float", 3);
+    classUnderTest.insert("bool", 40);
+    assertEquals(4, classUnderTest.size(), "HashTrie must be size 4!");
+    assertEquals(2, classUnderTest.get("int"), "HashTrie must map int to 2");
+    assertEquals(2, classUnderTest.insert("int", 5), "Insert must return the old value");
+    assertEquals(5, classUnderTest.get("int"), "HashTrie must map int to 5");
+    assertEquals(4, classUnderTest.size(), "HashTrie must be size 4!");
+  }
+
+  @Test
+  void shouldKeepEveryKey() {
+    HashTrie<Integer, Integer> classUnderTest = new HashTrie<>();
+    int n = 100_000;
+    for (int i = 0; i < n; i++) {
+      classUnderTest.insert(i * 7919, i);
+    }
+    assertEquals(n, classUnderTest.size(), "HashTrie must be size " + n);
+    for (int i = 0; i < n; i += 2) {
+      assertEquals(i, classUnderTest.remove(i * 7919), "Remove must return the old value");
+    }
+    assertNull(classUnderTest.remove(0), "Remove must return null for absent key");
+    assertEquals(n / 2, classUnderTest.size(), "HashTrie must be size " + n / 2);
+    for (int i = 0; i < n; i++) {
+      assertEquals(i % 2 == 0 ? null : i, classUnderTest.get(i * 7919), "Wrong value " + i);
+    }
+  }
+
+  @Test
+  void shouldNotChangeSnapshot() {
+    HashTrie<Integer, String> classUnderTest = new HashTrie<>();
+    for (int i = 0; i < 1000; i++) {
+      classUnderTest.insert(i, "v" + i);
+    }
+    HashTrie<Integer, String> snapshot = classUnderTest.snapshot();
+    for (int i = 0; i < 1000; i += 2) {
+      classUnderTest.remove(i);
+    }
+    classUnderTest.insert(1, "changed");
+    snapshot.insert(2000, "new");
+
+    assertEquals(1000 + 1, snapshot.size(), "Snapshot must keep its entries");
+    assertEquals("v1", snapshot.get(1), "Snapshot must keep the old value");
+    assertEquals("v0", snapshot.get(0), "Snapshot must keep removed keys");
+    assertEquals(500, classUnderTest.size(), "HashTrie must be size 500");
+    assertEquals("changed", classUnderTest.get(1), "HashTrie must map 1 to changed");
+    assertFalse(classUnderTest.containsKey(2000), "HashTrie must not see snapshot changes");
+  }
+
+  @Test
+  void shouldKeepKeysWithEqualHashes() {
+    HashTrie<Integer, Integer> classUnderTest = new HashTrie<>(h -> 42);
+    for (int i = 0; i < 10; i++) {
+      classUnderTest.insert(i, i);
+    }
+    HashTrie<Integer, Integer> snapshot = classUnderTest.snapshot();
+    for (int i = 0; i < 9; i++) {
+      assertEquals(i, classUnderTest.remove(i), "Remove must return the old value");
+    }
+    assertEquals(1, classUnderTest.size(), "HashTrie must be size 1");
+    assertEquals(9, classUnderTest.get(9), "HashTrie must map 9 to 9");
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i, snapshot.get(i), "Snapshot must keep key " + i);
+    }
+  }
+
+  @Test
+  void shouldPublishBatchOnCommit() {
+    HashTrie<Integer, Integer> classUnderTest = new HashTrie<>();
+    classUnderTest.insert(-1, -1);
+    HashTrie<Integer, Integer>.Batch batch = classUnderTest.beginBatch();
+    for (int i = 0; i < 10_000; i++) {
+      batch.insert(i, i);
+    }
+    batch.remove(-1);
+    batch.merge(0, 10, Integer::sum);
+    assertEquals(1, classUnderTest.size(), "HashTrie must not see the open batch");
+    batch.commit();
+    assertEquals(10_000, classUnderTest.size(), "HashTrie must see the committed batch");
+    assertEquals(10, classUnderTest.get(0), "HashTrie must map 0 to 10");
+    assertFalse(classUnderTest.containsKey(-1), "HashTrie must not have key -1");
+    assertThrows(IllegalStateException.class, () -> batch.insert(1, 1));
+  }
+
+  @Test
+  void shouldRejectBatchOverChangedTrie() {
+    HashTrie<Integer, Integer> classUnderTest = new HashTrie<>();
+    HashTrie<Integer, Integer>.Batch batch = classUnderTest.beginBatch();
+    batch.insert(1, 1);
+    classUnderTest.insert(2, 2);
+    assertThrows(ConcurrentModificationException.class, batch::commit);
+    assertFalse(classUnderTest.containsKey(1), "HashTrie must not see a rejected batch");
+  }
+}
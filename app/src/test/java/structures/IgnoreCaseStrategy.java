@@ -0,0 +1,34 @@
+package structures;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * A custom strategy comparing {@code String} and {@link ByteKey} keys ignoring the case, which
+ * only overrides {@link #hash(Object)} and {@link #equivalent(Object, Object)}.
+ */
+final class IgnoreCaseStrategy implements HashStrategy {
+
+  private static String fold(Object key) {
+    String s =
+        key instanceof ByteKey
+            ? new String(((ByteKey) key).bytes, StandardCharsets.UTF_8)
+            : (String) key;
+    return s.toLowerCase(Locale.ROOT);
+  }
+
+  @Override
+  public int spread(int h) {
+    return HashStrategies.MURMUR3.spread(h);
+  }
+
+  @Override
+  public int hash(Object key) {
+    return spread(fold(key).hashCode());
+  }
+
+  @Override
+  public boolean equivalent(Object key, Object stored) {
+    return key.getClass() == stored.getClass() && fold(key).equals(fold(stored));
+  }
+}
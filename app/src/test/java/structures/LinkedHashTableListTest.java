@@ -0,0 +1,107 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LinkedHashTableListTest {
+
+  private static <K, V> List<K> keys(Dictionary<K, V> map) {
+    List<K> keys = new ArrayList<>();
+    map.forEach((key, value) -> keys.add(key));
+    return keys;
+  }
+
+  /** A least recently used cache. */
+  private static final class Cache<K, V> extends LinkedHashTableList<K, V> {
+    private final int max;
+
+    Cache(int p_max) {
+      super(16, DEFAULT_LOAD_FACTOR, true);
+      this.max = p_max;
+    }
+
+    @Override
+    protected boolean onInsert(Dictionary.Entry<K, V> eldest) {
+      return size() > max;
+    }
+  }
+
+  @Test
+  void shouldIterateInInsertionOrder() {
+    LinkedHashTableList<Integer, Integer> classUnderTest = new LinkedHashTableList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; ++i) {
+      int key = (i * 7919) % 1000;
+      classUnderTest.insert(key, i);
+      expected.add(key);
+    }
+    for (int i = 0; i < 1000; i += 2) {
+      classUnderTest.remove(i);
+      expected.remove(Integer.valueOf(i));
+    }
+    classUnderTest.insert(1, -1);
+    classUnderTest.get(expected.get(0));
+    classUnderTest.insert(0, 0);
+    expected.add(0);
+    assertEquals(expected, keys(classUnderTest), "HashTable must keep the insertion order");
+    assertEquals(-1, classUnderTest.get(1), "HashTable must replace the value in place");
+    assertEquals(expected.get(0), classUnderTest.eldest().getKey(), "eldest must be first");
+    assertEquals(0, classUnderTest.youngest().getKey(), "youngest must be last");
+  }
+
+  @Test
+  void shouldIterateInAccessOrder() {
+    LinkedHashTableList<String, Integer> classUnderTest =
+        new LinkedHashTableList<>(16, 0.75f, true);
+    classUnderTest.insert("a", 1);
+    classUnderTest.insert("b", 2);
+    classUnderTest.insert("c", 3);
+    classUnderTest.insert("d", 4);
+    classUnderTest.get("a");
+    classUnderTest.insert("b", 20);
+    classUnderTest.merge("c", 1, Integer::sum);
+    classUnderTest.containsKey("d");
+    assertEquals(List.of("d", "a", "b", "c"), keys(classUnderTest), "Access must move a key");
+    classUnderTest.computeIfPresent("d", (key, value) -> null);
+    classUnderTest.computeIfAbsent("e", key -> 5);
+    assertEquals(List.of("a", "b", "c", "e"), keys(classUnderTest), "HashTable must unlink");
+  }
+
+  @Test
+  void shouldEvictTheEldestEntry() {
+    Cache<Integer, Integer> classUnderTest = new Cache<>(100);
+    for (int i = 0; i < 1000; ++i) {
+      classUnderTest.insert(i, i);
+      // Keep the key 0 recently used.
+      classUnderTest.get(0);
+    }
+    assertEquals(100, classUnderTest.size(), "Cache must evict the eldest entries");
+    assertEquals(0, classUnderTest.get(0), "Cache must keep a recently used key");
+    assertNull(classUnderTest.get(500), "Cache must evict an old key");
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 901; i < 1000; ++i) {
+      expected.add(i);
+    }
+    expected.add(0);
+    assertEquals(expected, keys(classUnderTest), "Cache must keep the recent keys in order");
+  }
+
+  @Test
+  void shouldKeepTheOrderAcrossResizeAndHarden() {
+    String[] keys = TestKeys.collidingKeys(7);
+    LinkedHashTableList<String, Integer> classUnderTest = new LinkedHashTableList<>();
+    for (int i = keys.length - 1; i >= 0; --i) {
+      classUnderTest.insert(keys[i], i);
+    }
+    assertTrue(
+        classUnderTest.hashStrategy() instanceof SipHashStrategy,
+        "HashTable must switch to a seeded hash");
+    List<String> expected = new ArrayList<>(List.of(keys));
+    Collections.reverse(expected);
+    assertEquals(expected, keys(classUnderTest), "HashTable must keep the insertion order");
+  }
+}
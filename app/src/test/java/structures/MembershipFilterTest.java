@@ -0,0 +1,75 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MembershipFilterTest {
+
+  private static double measuredRate(MembershipFilter<Integer> filter, int from, int count) {
+    int positives = 0;
+    for (int i = from; i < from + count; ++i) {
+      if (filter.mightContain(i)) {
+        ++positives;
+      }
+    }
+    return (double) positives / count;
+  }
+
+  @Test
+  void bloomFilterHasNoFalseNegatives() {
+    BlockedBloomFilter<Integer> filter = new BlockedBloomFilter<>(100_000, 0.01);
+    for (int i = 0; i < 100_000; ++i) {
+      filter.add(i);
+    }
+    for (int i = 0; i < 100_000; ++i) {
+      assertTrue(filter.mightContain(i), "BlockedBloomFilter must contain every key added");
+    }
+    double rate = measuredRate(filter, 1_000_000, 200_000);
+    assertTrue(rate < 0.02, "BlockedBloomFilter must stay close to the target rate: " + rate);
+    assertEquals(rate, filter.estimatedFalsePositiveRate(), 0.01, "Estimate must be close");
+  }
+
+  @Test
+  void countingFilterSupportsRemove() {
+    CountingBloomFilter<Integer> filter = new CountingBloomFilter<>(50_000, 0.01);
+    for (int i = 0; i < 50_000; ++i) {
+      filter.add(i);
+    }
+    for (int i = 0; i < 50_000; i += 2) {
+      filter.remove(i);
+    }
+    for (int i = 1; i < 50_000; i += 2) {
+      assertTrue(filter.mightContain(i), "CountingBloomFilter must keep the keys not removed");
+    }
+    double removed = measuredRate(filter, 0, 50_000) - 0.5;
+    assertTrue(removed < 0.02, "CountingBloomFilter must forget the removed keys: " + removed);
+    for (int i = 1; i < 50_000; i += 2) {
+      filter.remove(i);
+    }
+    assertEquals(0.0, filter.estimatedFalsePositiveRate(), "CountingBloomFilter must be empty");
+  }
+
+  @Test
+  void countingFilterRejectsRemoveOfMissingKey() {
+    CountingBloomFilter<String> filter = new CountingBloomFilter<>(16, 0.01);
+    assertThrows(IllegalStateException.class, () -> filter.remove("missing"));
+    assertThrows(NullPointerException.class, () -> filter.add(null));
+    assertFalse(new BlockedBloomFilter<String>(16, 0.01).supportsRemove());
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> new BlockedBloomFilter<String>(16, 0.01).remove("a"));
+  }
+
+  @Test
+  void sizingIsConfigurable() {
+    BlockedBloomFilter<Integer> loose = new BlockedBloomFilter<>(100_000, 0.1);
+    BlockedBloomFilter<Integer> tight = new BlockedBloomFilter<>(100_000, 0.001);
+    assertTrue(loose.byteSize() < tight.byteSize(), "A lower rate must take more memory");
+    assertTrue(loose.hashCount() < tight.hashCount(), "A lower rate must set more bits");
+    assertEquals(200_000, loose.withCapacity(200_000).capacity(), "Capacity must be kept");
+    assertEquals(0.1, loose.withCapacity(200_000).targetFalsePositiveRate(), "Rate must be kept");
+    assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter<>(0, 0.1));
+    assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter<>(10, 1.0));
+  }
+}
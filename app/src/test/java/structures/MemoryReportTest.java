@@ -0,0 +1,143 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+class MemoryReportTest {
+
+  private static final int KEYS = 10_000;
+
+  /** Distinct keys, out of the {@code Integer} cache. */
+  private static Integer[] keys() {
+    Integer[] keys = new Integer[KEYS];
+    for (int i = 0; i < KEYS; ++i) {
+      keys[i] = 1000 + i;
+    }
+    return keys;
+  }
+
+  /** The bytes JOL walks from a container, without its keys and its shared strategy. */
+  private static long measured(Object container, Integer[] keys) {
+    return GraphLayout.parseInstance(container)
+        .subtract(GraphLayout.parseInstance((Object[]) keys))
+        .subtract(GraphLayout.parseInstance(HashStrategies.XOR_SHIFT))
+        .totalSize();
+  }
+
+  private static void assertMeasured(Object container, MemoryReport report, Integer[] keys) {
+    assertEquals(
+        measured(container, keys),
+        report.totalBytes() - report.keyBytes(),
+        "The report must match JOL: " + report);
+  }
+
+  @Test
+  void shouldMatchJolForHashTables() {
+    Integer[] keys = keys();
+    long key_bytes = GraphLayout.parseInstance((Object[]) keys).totalSize();
+    List<Dictionary<Integer, Integer>> tables =
+        List.of(
+            new HashTableList<>(),
+            new HashTableLinear<>(),
+            new LinkedHashTableList<>(),
+            new HashTableList<>(16, 0.5f, HashStrategies.XOR_SHIFT, 1000),
+            new HashTableLinear<>(16, 0.5f, HashStrategies.XOR_SHIFT, 1000));
+    for (Dictionary<Integer, Integer> table : tables) {
+      for (Integer key : keys) {
+        table.insert(key, key);
+      }
+      MemoryReport report = memoryUsage(table);
+      assertMeasured(table, report, keys);
+      assertEquals(key_bytes, report.keyBytes(), "The report must count every key");
+      assertEquals(0, report.wasteBytes(), "HashTable must not waste before a removal");
+
+      for (int i = 0; i < KEYS; i += 2) {
+        table.remove(keys[i]);
+      }
+      report = memoryUsage(table);
+      assertMeasured(table, report, keys);
+      assertEquals(KEYS / 2, report.size(), "HashTable must be size " + KEYS / 2);
+      assertEquals((double) KEYS / 2 / report.capacity(), report.load(), 1e-9);
+    }
+  }
+
+  private static MemoryReport memoryUsage(Dictionary<Integer, Integer> table) {
+    if (table instanceof HashTableList) {
+      return ((HashTableList<Integer, Integer>) table).memoryUsage();
+    }
+    return ((HashTableLinear<Integer, Integer>) table).memoryUsage();
+  }
+
+  @Test
+  void shouldCountTheWaste() {
+    Integer[] keys = keys();
+    HashTableLinear<Integer, Integer> linear = new HashTableLinear<>();
+    HashTableList<Integer, Integer> list =
+        new HashTableList<>(16, 0.75f, HashStrategies.XOR_SHIFT, 100);
+    for (Integer key : keys) {
+      linear.insert(key, key);
+      list.insert(key, key);
+    }
+    for (int i = 0; i < 1000; ++i) {
+      linear.remove(keys[i]);
+      list.remove(keys[i]);
+    }
+    long entry_size = MemoryReport.shallowSize(HashTableLinear.Entry.class);
+    assertEquals(1000 * entry_size, linear.memoryUsage().wasteBytes(), "Removed entries waste");
+    long node_size = MemoryReport.shallowSize(HashTableList.Node.class);
+    assertEquals(100 * node_size, list.memoryUsage().wasteBytes(), "The pool must be bounded");
+  }
+
+  @Test
+  void shouldMatchJolForRedBlackTree() {
+    Integer[] keys = keys();
+    RedBlackTree<Integer, Integer> tree = new RedBlackTree<>();
+    for (Integer key : keys) {
+      tree.insert(key, key);
+    }
+    MemoryReport report = tree.memoryUsage();
+    assertMeasured(tree, report, keys);
+    assertEquals(
+        GraphLayout.parseInstance((Object[]) keys).totalSize(),
+        report.keyBytes(),
+        "The report must count every key");
+    assertEquals(
+        report.totalBytes(),
+        RedBlackTree.estimate(KEYS, Integer.class).totalBytes(),
+        "The estimate must match the tree");
+    assertEquals(0, new RedBlackTree<Integer, Integer>().memoryUsage().entryBytes());
+  }
+
+  @Test
+  void shouldEstimateTheMeasuredTables() {
+    Integer[] keys = keys();
+    for (float load_factor : new float[] {0.5f, 0.75f, 0.9f}) {
+      for (int size : new int[] {0, 1, 12, 13, 1000, KEYS}) {
+        HashTableList<Integer, Integer> list = new HashTableList<>(16, load_factor);
+        HashTableLinear<Integer, Integer> linear = new HashTableLinear<>(16, load_factor);
+        for (int i = 0; i < size; ++i) {
+          list.insert(keys[i], keys[i]);
+          linear.insert(keys[i], keys[i]);
+        }
+        MemoryReport estimate = HashTableList.estimate(size, load_factor, Integer.class);
+        MemoryReport report = list.memoryUsage();
+        assertEquals(report.capacity(), estimate.capacity(), "The estimate must grow as the table");
+        assertEquals(report.totalBytes(), estimate.totalBytes(), "The estimate must be exact");
+        estimate = HashTableLinear.estimate(size, load_factor, Integer.class);
+        report = linear.memoryUsage();
+        assertEquals(report.capacity(), estimate.capacity(), "The estimate must grow as the table");
+        assertEquals(report.totalBytes(), estimate.totalBytes(), "The estimate must be exact");
+      }
+    }
+    assertThrows(
+        IllegalArgumentException.class, () -> HashTableList.estimate(-1, 0.75f, Integer.class));
+    assertThrows(
+        IllegalArgumentException.class, () -> HashTableLinear.estimate(1, 0f, Integer.class));
+    assertThrows(IllegalArgumentException.class, () -> HashTableList.estimate(1, 0.75f, int.class));
+    assertThrows(IllegalArgumentException.class, () -> RedBlackTree.estimate(1, Comparable.class));
+    assertThrows(NullPointerException.class, () -> RedBlackTree.estimate(1, null));
+  }
+}
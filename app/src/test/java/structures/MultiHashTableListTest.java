@@ -0,0 +1,111 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MultiHashTableListTest {
+
+  @Test
+  void valuesKeepTheirOrderPastTheInlineFields() {
+    MultiHashTableList<String, Integer> map = new MultiHashTableList<>();
+    List<Integer> view = map.getAll("a");
+    assertTrue(view.isEmpty(), "MultiHashTable must return an empty list for a missing key");
+    for (int i = 0; i < 20; ++i) {
+      map.put("a", i);
+      List<Integer> values = map.getAll("a");
+      assertEquals(i + 1, values.size(), "MultiHashTable must keep every value");
+      for (int j = 0; j <= i; ++j) {
+        assertEquals(j, values.get(j), "MultiHashTable must keep the order of the values");
+      }
+    }
+    map.put("b", null);
+    assertEquals(2, map.size(), "MultiHashTable must count the keys");
+    assertEquals(21, map.valueCount(), "MultiHashTable must count the values");
+    assertEquals(1, map.count("b"), "MultiHashTable must keep null values");
+    assertNull(map.getAll("b").get(0), "MultiHashTable must keep null values");
+  }
+
+  @Test
+  void getAllIsALiveReadOnlyView() {
+    MultiHashTableList<String, Integer> map = new MultiHashTableList<>();
+    map.put("a", 1);
+    List<Integer> view = map.getAll("a");
+    map.put("a", 2);
+    assertEquals(List.of(1, 2), view, "The view must follow the puts");
+    assertThrows(UnsupportedOperationException.class, () -> view.add(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.get(2));
+    assertEquals(2, map.removeAll("a"), "removeAll must return the number of values");
+    assertTrue(view.isEmpty(), "The view of a removed key must be empty");
+    assertFalse(map.containsKey("a"), "MultiHashTable must remove the key");
+    assertEquals(0, map.removeAll("a"), "removeAll of a missing key must return 0");
+    map.put("a", 3);
+    assertEquals(List.of(3), view, "The view must follow the key put back");
+    map.remove("a", 3);
+    map.put("a", 4);
+    assertEquals(List.of(4), view, "The view must follow the key put back");
+    List<Integer> missing = map.getAll("b");
+    map.put("b", 5);
+    assertEquals(List.of(5), missing, "The view of a missing key must follow its first put");
+  }
+
+  @Test
+  void removeDropsOneOccurrence() {
+    MultiHashTableList<String, Integer> map = new MultiHashTableList<>();
+    for (int i = 0; i < 6; ++i) {
+      map.put("a", i % 3);
+    }
+    assertTrue(map.remove("a", 1), "remove must find the value");
+    assertEquals(List.of(0, 2, 0, 1, 2), map.getAll("a"), "remove must drop the first one");
+    assertTrue(map.remove("a", 0), "remove must find the value");
+    assertTrue(map.remove("a", 2), "remove must find the value");
+    assertEquals(List.of(0, 1, 2), map.getAll("a"), "Values must go back inline in order");
+    assertFalse(map.remove("a", 7), "remove must not find a missing value");
+    assertFalse(map.remove("b", 0), "remove must not find a missing key");
+    map.remove("a", 0);
+    map.remove("a", 1);
+    map.remove("a", 2);
+    assertFalse(map.containsKey("a"), "The last remove must remove the key");
+    assertEquals(0, map.size(), "MultiHashTable must be empty");
+    assertEquals(0, map.valueCount(), "MultiHashTable must be empty");
+  }
+
+  @Test
+  void forEachStreamsEveryPair() {
+    MultiHashTableList<Integer, Integer> map = new MultiHashTableList<>(1);
+    for (int key = 0; key < 1000; ++key) {
+      for (int v = 0; v < key % 10; ++v) {
+        map.put(key, key * 10 + v);
+      }
+    }
+    assertEquals(900, map.size(), "MultiHashTable must keep every key with values");
+    long[] sum = {0, 0};
+    map.forEach(
+        (key, value) -> {
+          assertEquals(key, value / 10, "forEach must pair the values with their key");
+          sum[0] += value;
+          sum[1]++;
+        });
+    assertEquals(map.valueCount(), sum[1], "forEach must visit every value");
+    List<Integer> values = new ArrayList<>();
+    map.forEachValue(7, values::add);
+    assertEquals(List.of(70, 71, 72, 73, 74, 75, 76), values, "forEachValue must keep order");
+  }
+
+  @Test
+  void shouldSwitchToSeededHashUnderCollisions() {
+    String[] keys = TestKeys.collidingKeys(7);
+    MultiHashTableList<String, Integer> map = new MultiHashTableList<>();
+    for (int i = 0; i < keys.length; i++) {
+      map.put(keys[i], i);
+      map.put(keys[i], -i);
+    }
+    assertTrue(map.hashStrategy() instanceof SipHashStrategy, "Table must switch hash");
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(List.of(i, -i), map.getAll(keys[i]), "MultiHashTable must find " + keys[i]);
+    }
+    assertThrows(NullPointerException.class, () -> map.put(null, 0));
+  }
+}
@@ -0,0 +1,51 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ObjectIntHashTableTest {
+
+  @Test
+  void shouldCountWords() {
+    ObjectIntHashTable<String> classUnderTest = new ObjectIntHashTable<>();
+    for (String word : "the quick fox and the lazy dog and the cat".split(" ")) {
+      classUnderTest.incrementAndGet(word);
+    }
+    assertEquals(7, classUnderTest.size(), "HashTable must be size 7");
+    assertEquals(3, classUnderTest.getOrDefault("the", 0), "HashTable must count the 3 times");
+    assertEquals(2, classUnderTest.getOrDefault("and", 0), "HashTable must count and 2 times");
+    assertEquals(0, classUnderTest.getOrDefault("bird", 0), "HashTable must default bird to 0");
+    assertEquals(13, classUnderTest.addTo("the", 10), "addTo must return the new value");
+  }
+
+  @Test
+  void shouldRemoveAndReuseSlots() {
+    ObjectIntHashTable<Integer> classUnderTest = new ObjectIntHashTable<>();
+    classUnderTest.insert(0, 10);
+    classUnderTest.insert(16, 20);
+    classUnderTest.insert(32, 30);
+    assertEquals(10, classUnderTest.remove(0), "Remove must return the old value");
+    assertFalse(classUnderTest.containsKey(0), "HashTable must not have key 0");
+    assertEquals(30, classUnderTest.insert(32, 31), "Insert must replace after removed key");
+    assertEquals(2, classUnderTest.size(), "HashTable must be size 2");
+    assertEquals(0, classUnderTest.insert(0, 11), "Insert must reuse the removed slot");
+    assertEquals(11, classUnderTest.getOrDefault(0, -1), "HashTable must map 0 to 11");
+  }
+
+  @Test
+  void shouldGrowAndKeepValues() {
+    ObjectIntHashTable<Integer> classUnderTest = new ObjectIntHashTable<>(1);
+    for (int i = 0; i < 10000; i++) {
+      classUnderTest.addTo(i, i);
+      if (i % 3 == 0) {
+        classUnderTest.remove(i);
+      }
+    }
+    int[] sum = {0};
+    classUnderTest.forEach((key, value) -> sum[0] += value == key ? 1 : 0);
+    assertEquals(classUnderTest.size(), sum[0], "Every key must keep its value");
+    assertEquals(6666, classUnderTest.size(), "HashTable must be size 6666");
+    assertTrue(classUnderTest.capacity() <= 16384, "Removed keys must not grow the table");
+  }
+}
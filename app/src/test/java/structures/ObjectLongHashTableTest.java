@@ -0,0 +1,61 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ObjectLongHashTableTest {
+
+  @Test
+  void shouldCountLongValues() {
+    ObjectLongHashTable<String> classUnderTest = new ObjectLongHashTable<>();
+    classUnderTest.addTo("bytes", Integer.MAX_VALUE);
+    classUnderTest.addTo("bytes", Integer.MAX_VALUE);
+    assertEquals(2L * Integer.MAX_VALUE, classUnderTest.getOrDefault("bytes", 0), "No overflow");
+    assertEquals(1, classUnderTest.incrementAndGet("requests"), "Must start at 1");
+    assertEquals(2 * (long) Integer.MAX_VALUE, classUnderTest.remove("bytes"), "Must remove");
+    assertEquals(1, classUnderTest.size(), "HashTable must be size 1");
+  }
+
+  @Test
+  void shouldKeepValuesBeyondTheIntRange() {
+    ObjectLongHashTable<String> classUnderTest = new ObjectLongHashTable<>();
+    assertEquals(0, classUnderTest.insert("max", Long.MAX_VALUE), "Insert must return 0 when new");
+    classUnderTest.insert("min", Long.MIN_VALUE);
+    classUnderTest.insert("high", 1L << 40);
+    assertEquals(Long.MAX_VALUE, classUnderTest.getOrDefault("max", 0), "HashTable must map max");
+    assertEquals(Long.MIN_VALUE, classUnderTest.getOrDefault("min", 0), "HashTable must map min");
+    assertEquals((1L << 40) + 5, classUnderTest.addTo("high", 5), "addTo must not truncate");
+    assertEquals(Long.MAX_VALUE, classUnderTest.insert("max", -1), "Insert must return old value");
+  }
+
+  @Test
+  void shouldTellMissingKeysWithTheDefault() {
+    ObjectLongHashTable<String> classUnderTest = new ObjectLongHashTable<>();
+    classUnderTest.insert("zero", 0);
+    assertEquals(0, classUnderTest.getOrDefault("zero", Long.MIN_VALUE), "Zero is a value");
+    assertEquals(
+        Long.MIN_VALUE, classUnderTest.getOrDefault("none", Long.MIN_VALUE), "Missing key");
+    assertTrue(classUnderTest.containsKey("zero"), "HashTable must have key zero");
+    assertFalse(classUnderTest.containsKey("none"), "HashTable must not have key none");
+    assertEquals(0, classUnderTest.remove("none"), "Remove of a missing key must return 0");
+    assertEquals(1, classUnderTest.size(), "A missing remove must not change the size");
+    assertThrows(NullPointerException.class, () -> classUnderTest.getOrDefault(null, 0));
+  }
+
+  @Test
+  void shouldGrowAndKeepValues() {
+    ObjectLongHashTable<Integer> classUnderTest = new ObjectLongHashTable<>(1);
+    for (int i = 0; i < 10000; i++) {
+      classUnderTest.addTo(i, (long) i << 32);
+      if (i % 3 == 0) {
+        classUnderTest.remove(i);
+      }
+    }
+    int[] count = {0};
+    classUnderTest.forEach((key, value) -> count[0] += value == (long) key << 32 ? 1 : 0);
+    assertEquals(classUnderTest.size(), count[0], "Every key must keep its value");
+    assertEquals(6666, classUnderTest.size(), "HashTable must be size 6666");
+    assertTrue(classUnderTest.capacity() <= 16384, "Removed keys must not grow the table");
+  }
+}
@@ -0,0 +1,158 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+class RedBlackTreeTest {
+
+  @Test
+  void shouldFollowATreeMap() {
+    RedBlackTree<Integer, Integer> classUnderTest = new RedBlackTree<>();
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; ++i) {
+      int key = random.nextInt(2000);
+      if (random.nextInt(5) < 2) {
+        assertEquals(expected.remove(key), classUnderTest.remove(key), "remove must agree");
+      } else {
+        assertEquals(expected.put(key, i), classUnderTest.insert(key, key, i), "insert must agree");
+      }
+      assertEquals(expected.size(), classUnderTest.size(), "Tree must count every key");
+    }
+    for (int key = -1; key <= 2000; ++key) {
+      assertEquals(expected.get(key), classUnderTest.get(key), "Tree must map " + key);
+      assertEquals(expected.containsKey(key), classUnderTest.containsKey(key));
+    }
+  }
+
+  @Test
+  void shouldRemoveEveryKey() {
+    RedBlackTree<Integer, Integer> classUnderTest = new RedBlackTree<>();
+    List<Integer> keys = new ArrayList<>();
+    for (int i = 0; i < 1000; ++i) {
+      classUnderTest.insert(i, i, i);
+      keys.add(i);
+    }
+    Collections.shuffle(keys, new Random(1));
+    for (int key : keys) {
+      assertEquals(key, classUnderTest.remove(key), "Tree must remove " + key);
+      assertNull(classUnderTest.get(key), "Tree must not find a removed key");
+    }
+    assertEquals(0, classUnderTest.size(), "Tree must be empty");
+    assertNull(classUnderTest.remove(0), "Tree must not remove twice");
+  }
+
+  @Test
+  void shouldAnswerOrderStatistics() {
+    RedBlackTree<Integer, String> classUnderTest = new RedBlackTree<>();
+    TreeMap<Integer, String> expected = new TreeMap<>();
+    Random random = new Random(7);
+    for (int i = 0; i < 20_000; ++i) {
+      int key = random.nextInt(10_000);
+      if (random.nextInt(4) == 0) {
+        classUnderTest.remove(key);
+        expected.remove(key);
+      } else {
+        classUnderTest.insert(key, key, "v" + key);
+        expected.put(key, "v" + key);
+      }
+    }
+    List<Integer> sorted = new ArrayList<>(expected.keySet());
+    for (int i = 0; i < sorted.size(); ++i) {
+      assertEquals(sorted.get(i), classUnderTest.select(i).getKey(), "select must agree");
+      assertEquals(i, classUnderTest.rank(sorted.get(i)), "rank must agree");
+    }
+    for (int i = 0; i < 1000; ++i) {
+      int lo = random.nextInt(11_000) - 500;
+      int hi = lo + random.nextInt(3000) - 500;
+      int count = lo > hi ? 0 : expected.subMap(lo, true, hi, true).size();
+      assertEquals(count, classUnderTest.countInRange(lo, hi), "countInRange must agree");
+      assertEquals(expected.headMap(lo).size(), classUnderTest.rank(lo), "rank must agree");
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> classUnderTest.select(sorted.size()));
+    assertThrows(IndexOutOfBoundsException.class, () -> classUnderTest.select(-1));
+    assertThrows(NullPointerException.class, () -> classUnderTest.rank(null));
+  }
+
+  @Test
+  void shouldBuildFromSortedKeys() {
+    for (int n : new int[] {0, 1, 2, 3, 7, 8, 100, 1000, 50_000}) {
+      Integer[] keys = new Integer[n];
+      String[] values = new String[n];
+      List<Dictionary.Entry<Integer, String>> entries = new ArrayList<>();
+      for (int i = 0; i < n; ++i) {
+        keys[i] = 3 * i;
+        values[i] = "v" + i;
+      }
+      RedBlackTree<Integer, String> fromArray = RedBlackTree.fromSorted(keys, values);
+      for (int i = 0; i < n; ++i) {
+        entries.add(fromArray.select(i));
+      }
+      RedBlackTree<Integer, String> fromIterator =
+          RedBlackTree.fromSorted(n, new ArrayList<>(entries).iterator());
+      for (RedBlackTree<Integer, String> classUnderTest : List.of(fromArray, fromIterator)) {
+        assertEquals(n, classUnderTest.size(), "Tree must hold every key");
+        for (int i = 0; i < n; ++i) {
+          assertEquals(values[i], classUnderTest.get(3 * i), "Tree must map every key");
+          assertEquals(i, classUnderTest.rank(3 * i), "rank must agree");
+        }
+        // The tree must stay valid under updates.
+        for (int i = 0; i < n; i += 2) {
+          classUnderTest.remove(3 * i);
+          classUnderTest.insert(3 * i + 1, "w");
+        }
+        assertEquals(n, classUnderTest.size(), "Tree must count the updates");
+        assertEquals(n == 0 ? 0 : 1, classUnderTest.countInRange(0, 1), "Tree must update");
+      }
+    }
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> RedBlackTree.fromSorted(new Integer[] {1, 3, 3}, null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> RedBlackTree.fromSorted(new Integer[] {1, 2}, new String[] {"a"}));
+  }
+
+  @Test
+  void shouldBuildFromSortedRuns() {
+    Random random = new Random(5);
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    List<Integer[]> keys = new ArrayList<>();
+    List<Integer[]> values = new ArrayList<>();
+    for (int r = 0; r < 9; ++r) {
+      Integer[] run =
+          random
+              .ints(random.nextInt(40_000), 0, 100_000)
+              .boxed()
+              .distinct()
+              .sorted()
+              .toArray(Integer[]::new);
+      Integer[] run_values = new Integer[run.length];
+      Arrays.fill(run_values, r);
+      keys.add(run);
+      values.add(run_values);
+      for (Integer key : run) {
+        expected.put(key, r);
+      }
+    }
+    RedBlackTree<Integer, Integer> classUnderTest = RedBlackTree.fromSortedRuns(keys, values);
+    assertEquals(expected.size(), classUnderTest.size(), "Tree must hold every distinct key");
+    List<Integer> visited = new ArrayList<>();
+    classUnderTest.forEach(
+        (key, value) -> {
+          assertEquals(expected.get(key), value, "The last run must win");
+          visited.add(key);
+        });
+    assertEquals(new ArrayList<>(expected.keySet()), visited, "Tree must keep the key order");
+    assertEquals(0, RedBlackTree.fromSortedRuns(List.<Integer[]>of(), null).size());
+    keys.add(new Integer[] {2, 1});
+    assertThrows(IllegalArgumentException.class, () -> RedBlackTree.fromSortedRuns(keys, null));
+  }
+}
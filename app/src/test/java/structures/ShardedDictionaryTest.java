@@ -0,0 +1,112 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ShardedDictionaryTest {
+
+  @Test
+  void shouldInsertCorrectly() {
+    try (ShardedDictionary<String, Integer> classUnderTest = new ShardedDictionary<>(4)) {
+      classUnderTest.insert("void", 0);
+      classUnderTest.insert("int", 2);
+      classUnderTest.insert("float", 3);
+      classUnderTest.insert("bool", 40);
+      assertEquals(2, classUnderTest.get("int"), "ShardedDictionary must map int to 2");
+      assertEquals(2, classUnderTest.insert("int", 5), "Insert must return the old value");
+      assertEquals(5, classUnderTest.remove("int"), "Remove must return the old value");
+      assertFalse(classUnderTest.containsKey("int"), "ShardedDictionary must not have key int");
+      assertEquals(3, classUnderTest.size(), "ShardedDictionary must be size 3");
+    }
+  }
+
+  @Test
+  void shouldCompleteAsyncOperations() {
+    try (ShardedDictionary<Integer, Integer> classUnderTest = new ShardedDictionary<>(8)) {
+      int n = 100_000;
+      List<CompletableFuture<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        futures.add(classUnderTest.insertAsync(i, i));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+      assertEquals(n, classUnderTest.size(), "ShardedDictionary must be size " + n);
+      for (int i = 0; i < n; i += 1000) {
+        assertEquals(i, classUnderTest.getAsync(i).join(), "Wrong value " + i);
+      }
+      assertEquals(7, classUnderTest.removeAsync(7).join(), "Remove must return the old value");
+      assertNull(classUnderTest.getAsync(7).join(), "ShardedDictionary must not have key 7");
+    }
+  }
+
+  @Test
+  void shouldMergeFromManyThreads() throws InterruptedException {
+    try (ShardedDictionary<Integer, Integer> classUnderTest = new ShardedDictionary<>(4)) {
+      Thread[] threads = new Thread[4];
+      for (int t = 0; t < threads.length; t++) {
+        threads[t] =
+            new Thread(
+                () -> {
+                  for (int i = 0; i < 10_000; i++) {
+                    classUnderTest.merge(i % 100, 1, Integer::sum);
+                  }
+                });
+        threads[t].start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      int[] total = {0};
+      classUnderTest.forEach((key, value) -> total[0] += value);
+      assertEquals(40_000, total[0], "Merge must be atomic");
+    }
+  }
+
+  @Test
+  void shouldReportSkew() {
+    try (ShardedDictionary<Integer, Integer> classUnderTest = new ShardedDictionary<>(3)) {
+      assertEquals(4, classUnderTest.shardCount(), "ShardedDictionary must round to 4 shards");
+      for (int i = 0; i < 40_000; i++) {
+        classUnderTest.insert(i, i);
+      }
+      int sum = 0;
+      for (int size : classUnderTest.shardSizes()) {
+        sum += size;
+      }
+      assertEquals(40_000, sum, "Shard sizes must add up to the size");
+      assertTrue(classUnderTest.skew() < 1.1, "Sequential keys must spread evenly");
+    }
+  }
+
+  @Test
+  void shouldRejectOperationsAfterClose() {
+    ShardedDictionary<Integer, Integer> classUnderTest = new ShardedDictionary<>(2);
+    classUnderTest.insert(1, 1);
+    classUnderTest.close();
+    assertThrows(IllegalStateException.class, () -> classUnderTest.insert(2, 2));
+  }
+
+  @Test
+  void shouldRunCallbacksOfTheSameShardInline() throws Exception {
+    try (ShardedDictionary<Integer, Integer> classUnderTest = new ShardedDictionary<>(4)) {
+      for (int i = 0; i < 100; i++) {
+        classUnderTest.insert(i, i);
+      }
+      CompletableFuture<Integer> sum =
+          CompletableFuture.supplyAsync(
+              () -> {
+                int[] total = {0};
+                classUnderTest.forEach((key, value) -> total[0] += classUnderTest.get(key));
+                classUnderTest.computeIfAbsent(
+                    100, key -> classUnderTest.containsKey(key) ? -1 : key);
+                return total[0];
+              });
+      assertEquals(4950, sum.get(10, TimeUnit.SECONDS), "forEach must read its own shard");
+      assertEquals(100, classUnderTest.get(100), "computeIfAbsent must read its own shard");
+    }
+  }
+}
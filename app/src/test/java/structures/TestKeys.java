@@ -0,0 +1,50 @@
+package structures;
+
+/** Keys shared by the table tests. */
+final class TestKeys {
+
+  private TestKeys() {}
+
+  /**
+   * Returns {@code 2^blocks} different strings, all with the same hash code. Every string is made
+   * of {@code blocks} blocks of {@code "Aa"} or {@code "BB"}, which have the same hash code.
+   */
+  static String[] collidingKeys(int blocks) {
+    String[] keys = {""};
+    for (int i = 0; i < blocks; i++) {
+      String[] next = new String[keys.length * 2];
+      for (int j = 0; j < keys.length; j++) {
+        next[2 * j] = keys[j] + "Aa";
+        next[2 * j + 1] = keys[j] + "BB";
+      }
+      keys = next;
+    }
+    return keys;
+  }
+
+  /**
+   * Returns {@code n} different {@code Long} keys whose 64 bit hashes under the built-in strategies
+   * have the same lower 32 bits, made by inverting the MurmurHash3 finalizer.
+   */
+  static Long[] collidingLongs(int n) {
+    Long[] keys = new Long[n];
+    for (int i = 0; i < n; i++) {
+      long h = (long) (i + 1) << 32;
+      h ^= h >>> 33;
+      h *= inverse(0xc4ceb9fe1a85ec53L);
+      h ^= h >>> 33;
+      h *= inverse(0xff51afd7ed558ccdL);
+      keys[i] = h ^ (h >>> 33);
+    }
+    return keys;
+  }
+
+  /** Returns the inverse of an odd number modulo {@code 2^64}, by Newton iteration. */
+  private static long inverse(long c) {
+    long x = c;
+    for (int i = 0; i < 5; i++) {
+      x *= 2 - c * x;
+    }
+    return x;
+  }
+}
@@ -0,0 +1,92 @@
+package structures;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class WeakHashTableListTest {
+
+  /** A key with identity equality, an equal key cannot be built once it is collected. */
+  private static final class Key {
+    final int id;
+
+    Key(int p_id) {
+      this.id = p_id;
+    }
+
+    @Override
+    public String toString() {
+      return "Key" + id;
+    }
+  }
+
+  @Test
+  void shouldBehaveAsAMapWhileKeysAreAlive() {
+    for (boolean soft : new boolean[] {false, true}) {
+      WeakHashTableList<Key, Integer> classUnderTest = new WeakHashTableList<>(soft);
+      List<Key> keys = new ArrayList<>();
+      Map<Key, Integer> expected = new HashMap<>();
+      for (int i = 0; i < 1000; ++i) {
+        Key key = new Key(i);
+        keys.add(key);
+        assertNull(classUnderTest.insert(key, i), "HashTable must insert a new key");
+        expected.put(key, i);
+      }
+      assertEquals(7, classUnderTest.insert(keys.get(7), -7), "HashTable must replace a value");
+      expected.put(keys.get(7), -7);
+      for (int i = 0; i < 1000; i += 3) {
+        assertEquals(expected.remove(keys.get(i)), classUnderTest.remove(keys.get(i)));
+      }
+      assertEquals(expected.size(), classUnderTest.size(), "HashTable must count every key");
+      for (Key key : keys) {
+        assertEquals(expected.get(key), classUnderTest.get(key), "HashTable must map " + key);
+      }
+      Map<Key, Integer> visited = new HashMap<>();
+      classUnderTest.forEach(visited::put);
+      assertEquals(expected, visited, "forEach must visit every entry");
+      assertEquals(-6, classUnderTest.merge(keys.get(7), 1, Integer::sum), "merge must sum");
+      assertThrows(NullPointerException.class, () -> classUnderTest.insert(null, 0));
+    }
+  }
+
+  @Test
+  void shouldDropEntriesOfCollectedKeys() throws InterruptedException {
+    WeakHashTableList<Key, byte[]> classUnderTest = new WeakHashTableList<>();
+    List<Key> alive = new ArrayList<>();
+    for (int i = 0; i < 10_000; ++i) {
+      Key key = new Key(i);
+      if (i % 10 == 0) {
+        alive.add(key);
+      }
+      classUnderTest.insert(key, new byte[16]);
+    }
+    for (int i = 0; i < 100 && classUnderTest.size() > alive.size(); ++i) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertEquals(alive.size(), classUnderTest.size(), "HashTable must drop collected keys");
+    assertEquals(9000, classUnderTest.expungedCount(), "HashTable must count dropped entries");
+    for (Key key : alive) {
+      assertNotNull(classUnderTest.get(key), "HashTable must keep live keys");
+    }
+  }
+
+  @Test
+  void shouldSwitchToSeededHashUnderCollisions() {
+    String[] keys = TestKeys.collidingKeys(7);
+    WeakHashTableList<String, Integer> classUnderTest = new WeakHashTableList<>();
+    for (int i = 0; i < keys.length; i++) {
+      classUnderTest.insert(keys[i], i);
+    }
+    assertTrue(
+        classUnderTest.hashStrategy() instanceof SipHashStrategy,
+        "HashTable must switch to a seeded hash");
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(i, classUnderTest.get(keys[i]), "HashTable must keep every key");
+    }
+  }
+}